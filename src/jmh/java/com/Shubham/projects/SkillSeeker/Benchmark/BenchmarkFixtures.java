@@ -0,0 +1,82 @@
+package com.Shubham.projects.SkillSeeker.Benchmark;
+
+import com.Shubham.projects.SkillSeeker.Document.CourseDocument;
+import com.Shubham.projects.SkillSeeker.Dto.CourseDto;
+import com.Shubham.projects.SkillSeeker.Service.CourseJsonReader;
+import com.Shubham.projects.SkillSeeker.Service.CourseMapper;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.geo.GeoPoint;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Shared test data for the benchmarks, derived from the bundled sample catalog.
+ */
+final class BenchmarkFixtures {
+
+    private static final List<CourseDocument> SAMPLE_COURSES = loadSampleCourses();
+
+    private BenchmarkFixtures() {
+    }
+
+    static List<CourseDocument> courses(int count) {
+        List<CourseDocument> courses = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            CourseDocument source = SAMPLE_COURSES.get(i % SAMPLE_COURSES.size());
+            CourseDocument course = new CourseDocument();
+            course.setId(String.valueOf(i));
+            course.setTitle(source.getTitle());
+            course.setDescription(source.getDescription());
+            course.setCategory(source.getCategory());
+            course.setType(source.getType());
+            course.setGradeRange(source.getGradeRange());
+            course.setMinAge(source.getMinAge());
+            course.setMaxAge(source.getMaxAge());
+            course.setPrice(source.getPrice());
+            course.setNextSessionDate(source.getNextSessionDate());
+            course.setSessions(source.getSessions());
+            // Copies of a sample course spread over about a degree around it
+            int copy = i / SAMPLE_COURSES.size();
+            course.setLocation(new GeoPoint(source.getLocation().getLat() + (copy % 97 - 48) * 0.01,
+                    source.getLocation().getLon() + (copy % 89 - 44) * 0.01));
+            course.setSuggestFromTitle();
+            courses.add(course);
+        }
+        return courses;
+    }
+
+    static List<SearchHit<CourseDocument>> hits(int count) {
+        List<SearchHit<CourseDocument>> hits = new ArrayList<>(count);
+        for (CourseDocument course : courses(count)) {
+            hits.add(new SearchHit<>("courses_v1", course.getId(), null, 1.0f,
+                    new Object[]{course.getNextSessionDate().toString()}, Map.of(), Map.of(),
+                    null, null, List.of(), course));
+        }
+        return hits;
+    }
+
+    static List<CourseDto> dtos(int count) {
+        CourseMapper mapper = new CourseMapper();
+        return courses(count).stream().map(mapper::toDto).toList();
+    }
+
+    private static List<CourseDocument> loadSampleCourses() {
+        List<CourseDocument> courses = new ArrayList<>();
+        try (InputStream in = new ClassPathResource("sample-courses.json").getInputStream();
+             CourseJsonReader reader = new CourseJsonReader(in)) {
+            CourseDocument course;
+            while ((course = reader.next()) != null) {
+                courses.add(course);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return courses;
+    }
+}
@@ -0,0 +1,73 @@
+package com.Shubham.projects.SkillSeeker.Benchmark;
+
+import com.Shubham.projects.SkillSeeker.Dto.SearchRequestDto;
+import com.Shubham.projects.SkillSeeker.Dto.SearchResponseDto;
+import com.Shubham.projects.SkillSeeker.Service.EmbeddedCourseIndex;
+import com.Shubham.projects.SkillSeeker.Service.QueryPlanner;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of searches answered by the {@link EmbeddedCourseIndex}, for catalogs of growing size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+public class EmbeddedSearchBenchmark {
+
+    @Param({"10000", "1000000"})
+    public int courseCount;
+
+    private final QueryPlanner queryPlanner = new QueryPlanner(1000, 4);
+    private EmbeddedCourseIndex index;
+
+    private final SearchRequestDto upcoming = new SearchRequestDto();
+    private final SearchRequestDto filtered = SearchRequestDto.builder()
+            .category("Science").minAge(10).maxPrice(300.0).sort("priceAsc").build();
+    private final SearchRequestDto fuzzyText = SearchRequestDto.builder().q("phisics").build();
+    private final SearchRequestDto facets = SearchRequestDto.builder().category("Math").facets(true).build();
+    private final SearchRequestDto nearby = SearchRequestDto.builder()
+            .lat(12.9716).lon(77.5946).radiusKm(10.0).sort("distance").build();
+    private final SearchRequestDto soonest = SearchRequestDto.builder()
+            .sessionFrom(LocalDate.of(2025, 8, 10)).sessionTo(LocalDate.of(2025, 8, 24)).sort("soonest").build();
+
+    @Setup
+    public void setUp() {
+        index = EmbeddedCourseIndex.of(BenchmarkFixtures.courses(courseCount));
+    }
+
+    @Benchmark
+    public SearchResponseDto upcoming() {
+        return index.search(upcoming, queryPlanner.plan(upcoming));
+    }
+
+    @Benchmark
+    public SearchResponseDto filtered() {
+        return index.search(filtered, queryPlanner.plan(filtered));
+    }
+
+    @Benchmark
+    public SearchResponseDto fuzzyText() {
+        return index.search(fuzzyText, queryPlanner.plan(fuzzyText));
+    }
+
+    @Benchmark
+    public SearchResponseDto facets() {
+        return index.search(facets, queryPlanner.plan(facets));
+    }
+
+    @Benchmark
+    public SearchResponseDto nearby() {
+        return index.search(nearby, queryPlanner.plan(nearby));
+    }
+
+    @Benchmark
+    public SearchResponseDto soonest() {
+        return index.search(soonest, queryPlanner.plan(soonest));
+    }
+}
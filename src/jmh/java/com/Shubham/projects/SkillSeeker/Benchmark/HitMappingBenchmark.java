@@ -0,0 +1,123 @@
+package com.Shubham.projects.SkillSeeker.Benchmark;
+
+import co.elastic.clients.elasticsearch.core.SearchResponse;
+import co.elastic.clients.elasticsearch.core.search.Hit;
+import co.elastic.clients.json.JsonpDeserializer;
+import co.elastic.clients.json.JsonpMapper;
+import co.elastic.clients.json.jackson.JacksonJsonpMapper;
+import com.Shubham.projects.SkillSeeker.Document.CourseDocument;
+import com.Shubham.projects.SkillSeeker.Dto.CourseDto;
+import com.Shubham.projects.SkillSeeker.Service.CourseMapper;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.json.stream.JsonParser;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.convert.MappingElasticsearchConverter;
+import org.springframework.data.elasticsearch.core.document.Document;
+import org.springframework.data.elasticsearch.core.mapping.SimpleElasticsearchMappingContext;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of mapping search hits to {@link CourseDto}s, as done for every search response.
+ * The {@code fromJson} benchmarks start from a raw _search body: once through a source map and a
+ * {@link CourseDocument} as Spring Data does, once read straight into the DTO, and once straight
+ * into the DTO from a body projected with {@code fields=title,category,price,nextSessionDate}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HitMappingBenchmark {
+
+    private static final List<String> LIST_VIEW_FIELDS = List.of("id", "title", "category", "price", "nextSessionDate");
+
+    @Param({"10", "100", "1000"})
+    public int hitCount;
+
+    private CourseMapper mapper;
+    private List<SearchHit<CourseDocument>> hits;
+
+    private JsonpMapper jsonpMapper;
+    private MappingElasticsearchConverter converter;
+    private byte[] fullBody;
+    private byte[] projectedBody;
+
+    @Setup
+    public void setUp() {
+        mapper = new CourseMapper();
+        hits = BenchmarkFixtures.hits(hitCount);
+
+        jsonpMapper = new JacksonJsonpMapper(new ObjectMapper()
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false));
+        SimpleElasticsearchMappingContext mappingContext = new SimpleElasticsearchMappingContext();
+        mappingContext.afterPropertiesSet();
+        converter = new MappingElasticsearchConverter(mappingContext);
+        converter.afterPropertiesSet();
+
+        List<CourseDocument> courses = BenchmarkFixtures.courses(hitCount);
+        fullBody = searchBody(courses, null);
+        projectedBody = searchBody(courses, LIST_VIEW_FIELDS);
+    }
+
+    @Benchmark
+    public List<CourseDto> mapHits() {
+        return mapper.toDtos(hits);
+    }
+
+    @Benchmark
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public List<CourseDto> entityFromJson() {
+        SearchResponse<Map> response = parse(fullBody, Map.class);
+        List<CourseDto> courses = new ArrayList<>(response.hits().hits().size());
+        for (Hit<Map> hit : response.hits().hits()) {
+            Document document = Document.from(hit.source());
+            document.setId(hit.id());
+            courses.add(mapper.toDto(converter.read(CourseDocument.class, document)));
+        }
+        return courses;
+    }
+
+    @Benchmark
+    public List<CourseDto> directFromJson() {
+        return mapper.fromHits(parse(fullBody, CourseDto.class).hits().hits());
+    }
+
+    @Benchmark
+    public List<CourseDto> directProjectedFromJson() {
+        return mapper.fromHits(parse(projectedBody, CourseDto.class).hits().hits());
+    }
+
+    private <T> SearchResponse<T> parse(byte[] body, Class<T> type) {
+        JsonParser parser = jsonpMapper.jsonProvider().createParser(new ByteArrayInputStream(body));
+        JsonpDeserializer<T> documents = JsonpDeserializer.of(type);
+        return SearchResponse.createSearchResponseDeserializer(documents).deserialize(parser, jsonpMapper);
+    }
+
+    private byte[] searchBody(List<CourseDocument> courses, List<String> fields) {
+        StringBuilder body = new StringBuilder("{\"took\":1,\"timed_out\":false,")
+                .append("\"_shards\":{\"total\":1,\"successful\":1,\"skipped\":0,\"failed\":0},")
+                .append("\"hits\":{\"total\":{\"value\":").append(courses.size()).append(",\"relation\":\"eq\"},")
+                .append("\"max_score\":null,\"hits\":[");
+        for (int i = 0; i < courses.size(); i++) {
+            CourseDocument course = courses.get(i);
+            Document source = converter.mapObject(course);
+            if (fields != null) {
+                source.keySet().retainAll(fields);
+            }
+            body.append(i == 0 ? "" : ",")
+                    .append("{\"_index\":\"courses_v1\",\"_id\":\"").append(course.getId())
+                    .append("\",\"_score\":null,\"_source\":").append(source.toJson())
+                    .append(",\"sort\":[\"").append(course.getNextSessionDate()).append("\"]}");
+        }
+        return body.append("]}}").toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
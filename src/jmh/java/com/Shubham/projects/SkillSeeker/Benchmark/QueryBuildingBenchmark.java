@@ -0,0 +1,50 @@
+package com.Shubham.projects.SkillSeeker.Benchmark;
+
+import com.Shubham.projects.SkillSeeker.Dto.SearchRequestDto;
+import com.Shubham.projects.SkillSeeker.Service.CourseQueryBuilder;
+import com.Shubham.projects.SkillSeeker.Service.QueryPlanner;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of turning a {@link SearchRequestDto} into the Elasticsearch query for representative request shapes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QueryBuildingBenchmark {
+
+    @Param({"browse", "text", "textAndFilters", "allFilters"})
+    public String shape;
+
+    private CourseQueryBuilder queryBuilder;
+    private SearchRequestDto request;
+
+    @Setup
+    public void setUp() {
+        queryBuilder = new CourseQueryBuilder(new QueryPlanner(1000, 4));
+        request = switch (shape) {
+            case "browse" -> SearchRequestDto.builder().build();
+            case "text" -> SearchRequestDto.builder().q("physics").build();
+            case "textAndFilters" -> SearchRequestDto.builder()
+                    .q("intro programming").category("Technology").type("COURSE").sort("priceAsc")
+                    .build();
+            default -> SearchRequestDto.builder()
+                    .q("advanced biology").minAge(10).maxAge(16).category("Science").type("COURSE")
+                    .minPrice(50.0).maxPrice(300.0).startDate(LocalDateTime.of(2025, 7, 1, 0, 0))
+                    .sort("priceDesc").page(2).size(20)
+                    .build();
+        };
+    }
+
+    @Benchmark
+    public NativeQuery buildQuery() {
+        return queryBuilder.build(request);
+    }
+}
@@ -0,0 +1,43 @@
+package com.Shubham.projects.SkillSeeker.Benchmark;
+
+import com.Shubham.projects.SkillSeeker.Dto.SearchResponseDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of writing a {@link SearchResponseDto} with the same Jackson setup Spring MVC uses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponseSerializationBenchmark {
+
+    @Param({"10", "100"})
+    public int courseCount;
+
+    private ObjectMapper objectMapper;
+    private SearchResponseDto response;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        response = SearchResponseDto.builder()
+                .total(1_000)
+                .courses(BenchmarkFixtures.dtos(courseCount))
+                .page(0)
+                .size(courseCount)
+                .build();
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(response);
+    }
+}
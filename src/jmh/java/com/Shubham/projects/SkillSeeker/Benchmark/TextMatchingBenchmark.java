@@ -0,0 +1,128 @@
+package com.Shubham.projects.SkillSeeker.Benchmark;
+
+import com.Shubham.projects.SkillSeeker.Document.CourseDocument;
+import com.Shubham.projects.SkillSeeker.Dto.CourseDto;
+import com.Shubham.projects.SkillSeeker.Dto.SearchRequestDto;
+import com.Shubham.projects.SkillSeeker.Service.EmbeddedCourseIndex;
+import com.Shubham.projects.SkillSeeker.Service.QueryPlanner;
+import com.Shubham.projects.SkillSeeker.Service.RelevanceModel;
+import com.Shubham.projects.SkillSeeker.Service.SynonymSet;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.core.io.ByteArrayResource;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Text matching with fuzzy queries, as searches ran before the custom analyzers, against matching
+ * with the index-time expansions (synonyms and title prefixes, no fuzziness) that replaced them.
+ * Both run on the {@link EmbeddedCourseIndex}, which mirrors the Elasticsearch analyzers; folding
+ * and stemming are part of the index and apply to both.
+ * <p>
+ * Each benchmark runs every judged query once. Recall and precision over the judged queries are
+ * printed at setup for the sample catalog: a course is relevant when its title or description
+ * contains one of the words the query stands for.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+public class TextMatchingBenchmark {
+
+    private record Judgement(String query, Set<String> relevantWords) {
+    }
+
+    // Plurals, accents, synonyms, partly typed words and typos
+    private static final List<Judgement> JUDGEMENTS = List.of(
+            new Judgement("experiment", Set.of("experiments")),
+            new Judgement("studies", Set.of("study", "studies")),
+            new Judgement("Géometry", Set.of("geometry")),
+            new Judgement("coding", Set.of("coding", "programming")),
+            new Judgement("maths", Set.of("math", "mathematics")),
+            new Judgement("theatre", Set.of("theater", "drama")),
+            new Judgement("ceramic", Set.of("ceramic", "ceramics", "pottery")),
+            new Judgement("photo", Set.of("photography")),
+            new Judgement("robot", Set.of("robotics")),
+            new Judgement("anim", Set.of("animation", "animated")),
+            new Judgement("genetic", Set.of("genetic", "genetics")),
+            new Judgement("physcis", Set.of("physics")),
+            new Judgement("calclus", Set.of("calculus")),
+            new Judgement("programing", Set.of("programming")));
+
+    @Param({"52", "100000"})
+    public int courseCount;
+
+    private final QueryPlanner fuzzyPlanner = new QueryPlanner(1000, 4, false);
+    private final QueryPlanner expandingPlanner = new QueryPlanner(1000, 0, true);
+    private EmbeddedCourseIndex withoutSynonyms;
+    private EmbeddedCourseIndex withSynonyms;
+    private List<SearchRequestDto> requests;
+
+    @Setup
+    public void setUp() {
+        List<CourseDocument> courses = BenchmarkFixtures.courses(courseCount);
+        withoutSynonyms = EmbeddedCourseIndex.of(courses, RelevanceModel.defaults(),
+                new SynonymSet(new ByteArrayResource(new byte[0])));
+        withSynonyms = EmbeddedCourseIndex.of(courses, RelevanceModel.defaults(), SynonymSet.defaults());
+        requests = JUDGEMENTS.stream()
+                .map(j -> SearchRequestDto.builder().q(j.query()).size(Math.min(courseCount, 100)).build())
+                .toList();
+
+        // Every match is on the first page, so recall is exact
+        if (courseCount <= 100) {
+            report("fuzzy", courses, withoutSynonyms, fuzzyPlanner);
+            report("expanded", courses, withSynonyms, expandingPlanner);
+        }
+    }
+
+    @Benchmark
+    public void fuzzy(Blackhole blackhole) {
+        for (SearchRequestDto request : requests) {
+            blackhole.consume(withoutSynonyms.search(request, fuzzyPlanner.plan(request)));
+        }
+    }
+
+    @Benchmark
+    public void expanded(Blackhole blackhole) {
+        for (SearchRequestDto request : requests) {
+            blackhole.consume(withSynonyms.search(request, expandingPlanner.plan(request)));
+        }
+    }
+
+    private void report(String name, List<CourseDocument> courses, EmbeddedCourseIndex index, QueryPlanner planner) {
+        double recall = 0;
+        double precision = 0;
+        for (int i = 0; i < JUDGEMENTS.size(); i++) {
+            Set<String> relevant = relevant(courses, JUDGEMENTS.get(i).relevantWords());
+            Set<String> found = new HashSet<>();
+            for (CourseDto course : index.search(requests.get(i), planner.plan(requests.get(i))).getCourses()) {
+                found.add(course.getId());
+            }
+            long hits = found.stream().filter(relevant::contains).count();
+            recall += relevant.isEmpty() ? 1 : (double) hits / relevant.size();
+            precision += found.isEmpty() ? 1 : (double) hits / found.size();
+        }
+        System.out.printf(Locale.ROOT, "%n%s: recall %.2f, precision %.2f over %d judged queries%n",
+                name, recall / JUDGEMENTS.size(), precision / JUDGEMENTS.size(), JUDGEMENTS.size());
+    }
+
+    private static Set<String> relevant(List<CourseDocument> courses, Set<String> words) {
+        Set<String> ids = new HashSet<>();
+        for (CourseDocument course : courses) {
+            String text = (course.getTitle() + " " + course.getDescription()).toLowerCase(Locale.ROOT);
+            for (String word : text.split("[^\\p{L}\\p{N}]+")) {
+                if (words.contains(word)) {
+                    ids.add(course.getId());
+                    break;
+                }
+            }
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,97 @@
+package com.Shubham.projects.SkillSeeker.LoadTest;
+
+import com.Shubham.projects.SkillSeeker.LoadTest.QueryMix.Endpoint;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies and outcomes of the measured requests, per endpoint. Latencies of successful responses go
+ * into HDR histograms with three significant digits, so p99.9 stays exact to 0.1% however long the
+ * run; failed requests are only counted, by the error type the API reports for their status.
+ */
+final class LoadReport {
+
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+    private final Map<Endpoint, Stats> stats = new EnumMap<>(Endpoint.class);
+    private final double seconds;
+
+    LoadReport(double seconds) {
+        this.seconds = seconds;
+        for (Endpoint endpoint : Endpoint.values()) {
+            stats.put(endpoint, new Stats());
+        }
+    }
+
+    void recordSuccess(Endpoint endpoint, long latencyNanos) {
+        stats.get(endpoint).latencies.recordValue(Math.min(MAX_LATENCY_MICROS, Math.max(1, latencyNanos / 1000)));
+    }
+
+    void recordError(Endpoint endpoint, String type) {
+        stats.get(endpoint).errors.computeIfAbsent(type, t -> new LongAdder()).increment();
+    }
+
+    /**
+     * Figures for one endpoint, or for all of them when {@code endpoint} is null.
+     */
+    Summary summary(Endpoint endpoint) {
+        Histogram latencies = new Histogram(MAX_LATENCY_MICROS, 3);
+        Map<String, Long> errors = new TreeMap<>();
+        for (Map.Entry<Endpoint, Stats> entry : stats.entrySet()) {
+            if (endpoint == null || entry.getKey() == endpoint) {
+                latencies.add(entry.getValue().latencies);
+                entry.getValue().errors.forEach((type, count) -> errors.merge(type, count.sum(), Long::sum));
+            }
+        }
+        long failed = errors.values().stream().mapToLong(Long::longValue).sum();
+        long requests = latencies.getTotalCount() + failed;
+        return new Summary(requests, requests / seconds, failed, requests == 0 ? 0 : (double) failed / requests,
+                millis(latencies, 50), millis(latencies, 99), millis(latencies, 99.9),
+                latencies.getMaxValue() / 1000.0, errors);
+    }
+
+    Map<String, Summary> summaries() {
+        Map<String, Summary> summaries = new LinkedHashMap<>();
+        for (Endpoint endpoint : Endpoint.values()) {
+            summaries.put(endpoint.name().toLowerCase(Locale.ROOT), summary(endpoint));
+        }
+        summaries.put("all", summary(null));
+        return summaries;
+    }
+
+    String format() {
+        StringBuilder out = new StringBuilder(String.format("%-8s %10s %10s %8s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "req/s", "errors", "p50 ms", "p99 ms", "p99.9 ms", "max ms"));
+        summaries().forEach((name, s) -> out.append(String.format("%-8s %10d %10.1f %7.2f%% %9.2f %9.2f %9.2f %9.2f%n",
+                name, s.requests(), s.throughput(), s.errorRate() * 100, s.p50Millis(), s.p99Millis(),
+                s.p999Millis(), s.maxMillis())));
+        Map<String, Long> errors = summary(null).errors();
+        if (!errors.isEmpty()) {
+            out.append("errors: ").append(errors).append(System.lineSeparator());
+        }
+        return out.toString();
+    }
+
+    private static double millis(Histogram latencies, double percentile) {
+        return latencies.getTotalCount() == 0 ? 0 : latencies.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    record Summary(long requests, double throughput, long errorCount, double errorRate,
+                   double p50Millis, double p99Millis, double p999Millis, double maxMillis,
+                   Map<String, Long> errors) {
+    }
+
+    private static final class Stats {
+        private final Histogram latencies = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+        private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+    }
+}
@@ -0,0 +1,147 @@
+package com.Shubham.projects.SkillSeeker.LoadTest;
+
+import com.Shubham.projects.SkillSeeker.LoadTest.QueryMix.Request;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Replays a {@link QueryMix} against a running instance from a fixed number of worker threads.
+ * <p>
+ * With a target rate, requests are scheduled at fixed intervals and each latency is measured from
+ * when the request was due rather than when a worker got to send it, so a stalled server shows up in
+ * the percentiles instead of silently lowering the load (coordinated omission). Without a rate, each
+ * worker sends its next request as soon as the previous one returns.
+ * <p>
+ * Requests due during the warmup are sent but not recorded.
+ */
+final class LoadRunner {
+
+    private final URI baseUrl;
+    private final QueryMix mix;
+    private final int concurrency;
+    private final double rate;
+    private final Duration timeout;
+    private final long seed;
+    private final String clientHeader;
+    private final int clients;
+    private final HttpClient http;
+
+    /**
+     * @param rate         requests per second over all workers, or 0 to send as fast as responses return
+     * @param clientHeader header that tells clients apart for the per-client rate limits, or null
+     * @param clients      distinct client ids sent in {@code clientHeader}
+     */
+    LoadRunner(URI baseUrl, QueryMix mix, int concurrency, double rate, Duration timeout, long seed,
+               String clientHeader, int clients) {
+        this.baseUrl = baseUrl;
+        this.mix = mix;
+        this.concurrency = concurrency;
+        this.rate = rate;
+        this.timeout = timeout;
+        this.seed = seed;
+        this.clientHeader = clientHeader;
+        this.clients = clients;
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(timeout)
+                .build();
+    }
+
+    /**
+     * Fails fast when nothing is listening, rather than reporting a run of connection errors. An instance
+     * that reports itself down still runs, as the embedded backend does without a cluster.
+     */
+    void checkReachable() throws IOException, InterruptedException {
+        HttpResponse<Void> response = http.send(HttpRequest.newBuilder(baseUrl.resolve("/actuator/health"))
+                .timeout(timeout).build(), HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 200) {
+            System.err.println("Warning: " + baseUrl + " reports itself unhealthy (HTTP " + response.statusCode() + ")");
+        }
+    }
+
+    LoadReport run(Duration warmup, Duration duration) throws InterruptedException {
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+        long interval = rate > 0 ? (long) (1_000_000_000L / rate) : 0;
+        AtomicLong tickets = new AtomicLong();
+        LoadReport report = new LoadReport(duration.toNanos() / 1e9);
+
+        List<Thread> workers = new ArrayList<>(concurrency);
+        for (int w = 0; w < concurrency; w++) {
+            SplittableRandom random = new SplittableRandom(seed + w);
+            Thread worker = new Thread(() -> {
+                while (true) {
+                    long due;
+                    if (interval > 0) {
+                        due = start + tickets.getAndIncrement() * interval;
+                        LockSupport.parkNanos(due - System.nanoTime());
+                    } else {
+                        due = System.nanoTime();
+                    }
+                    if (due >= end || Thread.currentThread().isInterrupted()) {
+                        return;
+                    }
+                    send(mix.next(random), random, due, due >= measureFrom ? report : null);
+                }
+            }, "load-" + w);
+            worker.start();
+            workers.add(worker);
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return report;
+    }
+
+    private void send(Request request, SplittableRandom random, long due, LoadReport report) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(baseUrl.resolve(request.uri())).timeout(timeout);
+        if (clientHeader != null) {
+            builder.header(clientHeader, "load-" + random.nextInt(clients));
+        }
+        String error;
+        try {
+            int status = http.send(builder.build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+            if (status / 100 == 2) {
+                if (report != null) {
+                    report.recordSuccess(request.endpoint(), System.nanoTime() - due);
+                }
+                return;
+            }
+            error = errorType(status);
+        } catch (HttpTimeoutException e) {
+            error = "client_timeout";
+        } catch (IOException e) {
+            error = "io";
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        if (report != null) {
+            report.recordError(request.endpoint(), error);
+        }
+    }
+
+    // The error types the API answers with, from their status codes
+    private static String errorType(int status) {
+        return switch (status) {
+            case 400 -> "bad_query";
+            case 429 -> "rejected";
+            case 503 -> "unavailable";
+            case 504 -> "timeout";
+            case 500 -> "internal";
+            default -> "http_" + status;
+        };
+    }
+}
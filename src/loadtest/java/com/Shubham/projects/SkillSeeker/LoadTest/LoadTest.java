@@ -0,0 +1,246 @@
+package com.Shubham.projects.SkillSeeker.LoadTest;
+
+import com.Shubham.projects.SkillSeeker.LoadTest.LoadReport.Summary;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.boot.convert.DurationStyle;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Command line of the load-testing harness, run under the {@code loadtest} profile:
+ * <pre>
+ * generate  write a synthetic catalog: --size=10k|1m|10m --out=... --seed --tenants --first-session
+ * run       replay a query mix against a running instance and report throughput, latency and errors
+ * ingest    time a full reindex of the configured catalog through the admin API
+ * </pre>
+ * {@code run} and {@code ingest} exit with status 1 when a {@code --max-*} or {@code --min-*} gate is
+ * missed, so a release pipeline can fail on a performance regression.
+ */
+public final class LoadTest {
+
+    private static final ObjectMapper JSON = new ObjectMapper()
+            .findAndRegisterModules()
+            .enable(SerializationFeature.INDENT_OUTPUT);
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            usage("Expected a command: generate, run or ingest");
+        }
+        Options options = Options.parse(Arrays.copyOfRange(args, 1, args.length));
+        int status = switch (args[0]) {
+            case "generate" -> generate(options);
+            case "run" -> run(options);
+            case "ingest" -> ingest(options);
+            default -> usage("Unknown command '" + args[0] + "'");
+        };
+        System.exit(status);
+    }
+
+    private static int generate(Options options) throws IOException {
+        long size = options.size("size", "10k");
+        Path out = Path.of(options.get("out", "target/loadtest/catalog-" + options.get("size", "10k") + ".ndjson"));
+        SyntheticCatalog catalog = new SyntheticCatalog(options.getLong("seed", 42),
+                LocalDate.parse(options.get("first-session", "2025-07-01")), options.list("tenants"));
+
+        long started = System.nanoTime();
+        if (out.getParent() != null) {
+            Files.createDirectories(out.getParent());
+        }
+        try (OutputStream stream = new BufferedOutputStream(Files.newOutputStream(out), 1 << 16)) {
+            catalog.write(size, stream);
+        }
+        System.out.printf("Wrote %,d courses (%,d MB) to %s in %.1f s%n", size, Files.size(out) >> 20, out,
+                (System.nanoTime() - started) / 1e9);
+        System.out.printf("Start the application on it with SKILLSEEKER_CATALOG_LOCATION=file:%s%n",
+                out.toAbsolutePath());
+        return 0;
+    }
+
+    private static int run(Options options) throws Exception {
+        URI url = URI.create(options.get("url", "http://localhost:8080"));
+        long seed = options.getLong("seed", 42);
+        QueryMix mix = new QueryMix(seed, options.getInt("distinct", 10_000), options.getDouble("zipf", 1.0),
+                options.getDouble("suggest-share", 0.2), options.list("tenants"));
+        LoadRunner runner = new LoadRunner(url, mix, options.getInt("concurrency", 32),
+                options.getDouble("rate", 0), options.duration("timeout", "5s"), seed,
+                options.get("client-header", null), options.getInt("clients", 1000));
+        Duration warmup = options.duration("warmup", "10s");
+        Duration duration = options.duration("duration", "60s");
+
+        runner.checkReachable();
+        System.out.printf("Replaying against %s for %s after a %s warmup%n", url, duration, warmup);
+        LoadReport report = runner.run(warmup, duration);
+        System.out.print(report.format());
+
+        Summary all = report.summary(null);
+        List<String> missed = new ArrayList<>();
+        gate(missed, "p99", options.getDouble("max-p99", Double.NaN), all.p99Millis(), true);
+        gate(missed, "p99.9", options.getDouble("max-p999", Double.NaN), all.p999Millis(), true);
+        gate(missed, "error rate", options.getDouble("max-error-rate", Double.NaN), all.errorRate(), true);
+        gate(missed, "throughput", options.getDouble("min-throughput", Double.NaN), all.throughput(), false);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("options", options.values);
+        result.put("endpoints", report.summaries());
+        result.put("gatesMissed", missed);
+        writeReport(options, result);
+        return finish(missed);
+    }
+
+    private static int ingest(Options options) throws Exception {
+        URI url = URI.create(options.get("url", "http://localhost:8080"));
+        Duration timeout = options.duration("timeout", "2h");
+        HttpClient http = HttpClient.newHttpClient();
+
+        long started = System.nanoTime();
+        HttpResponse<Void> accepted = http.send(HttpRequest.newBuilder(url.resolve("/api/admin/index/reindex"))
+                .POST(HttpRequest.BodyPublishers.noBody()).build(), HttpResponse.BodyHandlers.discarding());
+        if (accepted.statusCode() != 202) {
+            System.err.println("Reindex not started: HTTP " + accepted.statusCode());
+            return 1;
+        }
+        JsonNode status;
+        do {
+            Thread.sleep(1000);
+            status = JSON.readTree(http.send(HttpRequest.newBuilder(url.resolve("/api/admin/index")).build(),
+                    HttpResponse.BodyHandlers.ofString()).body());
+            if (System.nanoTime() - started > timeout.toNanos()) {
+                System.err.println("Reindex still running after " + timeout);
+                return 1;
+            }
+        } while (status.path("reindexing").asBoolean());
+        double seconds = (System.nanoTime() - started) / 1e9;
+
+        long indexed = 0;
+        long failed = 0;
+        for (JsonNode alias : status.path("lastReindex")) {
+            indexed += alias.path("indexed").asLong();
+            failed += alias.path("failed").asLong();
+            System.out.printf("%-24s %,12d indexed %,8d failed %,10.0f docs/s while ingesting%n",
+                    alias.path("index").asText(), alias.path("indexed").asLong(), alias.path("failed").asLong(),
+                    alias.path("docsPerSecond").asDouble());
+        }
+        // End to end, including synonyms, warming, the alias swap and reloading the local indices
+        double docsPerSecond = indexed / seconds;
+        System.out.printf("Reindexed %,d courses in %.1f s: %,.0f docs/s%n", indexed, seconds, docsPerSecond);
+
+        List<String> missed = new ArrayList<>();
+        if (failed > 0 || indexed == 0) {
+            missed.add("reindex indexed " + indexed + " and failed " + failed + " courses");
+        }
+        gate(missed, "docs/s", options.getDouble("min-docs-per-second", Double.NaN), docsPerSecond, false);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("options", options.values);
+        result.put("seconds", seconds);
+        result.put("docsPerSecond", docsPerSecond);
+        result.put("aliases", status.path("lastReindex"));
+        result.put("gatesMissed", missed);
+        writeReport(options, result);
+        return finish(missed);
+    }
+
+    private static void gate(List<String> missed, String name, double limit, double actual, boolean isMax) {
+        if (!Double.isNaN(limit) && (isMax ? actual > limit : actual < limit)) {
+            missed.add(String.format(Locale.ROOT, "%s %.3f is %s the limit of %.3f",
+                    name, actual, isMax ? "over" : "under", limit));
+        }
+    }
+
+    private static void writeReport(Options options, Map<String, Object> result) throws IOException {
+        String report = options.get("report", null);
+        if (report != null) {
+            Path path = Path.of(report);
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            JSON.writeValue(path.toFile(), result);
+            System.out.println("Report written to " + path);
+        }
+    }
+
+    private static int finish(List<String> missed) {
+        missed.forEach(gate -> System.err.println("Gate missed: " + gate));
+        return missed.isEmpty() ? 0 : 1;
+    }
+
+    private static int usage(String message) {
+        System.err.println(message);
+        System.err.println("Usage: LoadTest generate|run|ingest [--name=value ...]; see README.md, Load testing");
+        System.exit(2);
+        return 2;
+    }
+
+    /**
+     * {@code --name=value} arguments.
+     */
+    private record Options(Map<String, String> values) {
+
+        static Options parse(String[] args) {
+            Map<String, String> values = new HashMap<>();
+            for (String arg : args) {
+                int equals = arg.indexOf('=');
+                if (!arg.startsWith("--") || equals < 0) {
+                    usage("Expected --name=value but got '" + arg + "'");
+                }
+                values.put(arg.substring(2, equals), arg.substring(equals + 1));
+            }
+            return new Options(values);
+        }
+
+        String get(String name, String defaultValue) {
+            String value = values.get(name);
+            return value == null || value.isBlank() ? defaultValue : value;
+        }
+
+        int getInt(String name, int defaultValue) {
+            return Integer.parseInt(get(name, String.valueOf(defaultValue)));
+        }
+
+        long getLong(String name, long defaultValue) {
+            return Long.parseLong(get(name, String.valueOf(defaultValue)));
+        }
+
+        double getDouble(String name, double defaultValue) {
+            return Double.parseDouble(get(name, String.valueOf(defaultValue)));
+        }
+
+        Duration duration(String name, String defaultValue) {
+            return DurationStyle.detectAndParse(get(name, defaultValue));
+        }
+
+        List<String> list(String name) {
+            String value = get(name, "");
+            return value.isEmpty() ? List.of() : List.of(value.split("\\s*,\\s*"));
+        }
+
+        // 10k, 1m or a plain number of documents
+        long size(String name, String defaultValue) {
+            String value = get(name, defaultValue).toLowerCase(Locale.ROOT);
+            long unit = value.endsWith("k") ? 1_000 : value.endsWith("m") ? 1_000_000 : 1;
+            return Long.parseLong(unit == 1 ? value : value.substring(0, value.length() - 1)) * unit;
+        }
+    }
+}
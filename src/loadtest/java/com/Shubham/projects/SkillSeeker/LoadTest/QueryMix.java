@@ -0,0 +1,144 @@
+package com.Shubham.projects.SkillSeeker.LoadTest;
+
+import com.Shubham.projects.SkillSeeker.LoadTest.SyntheticCatalog.Category;
+import com.Shubham.projects.SkillSeeker.LoadTest.SyntheticCatalog.City;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * A reproducible stream of {@code /api/search} and {@code /api/search/suggest} requests. A fixed number
+ * of distinct requests of each kind is generated up front from the catalog's vocabulary, and each draw
+ * picks one by Zipfian popularity, so the head of the mix repeats (and hits the result cache) the way
+ * popular searches do, while the long tail misses it.
+ * <p>
+ * Searches combine free text, filters, sorts and deeper pages in roughly the proportions a search page
+ * sends them; suggestions are two- to six-letter prefixes of course titles.
+ */
+final class QueryMix {
+
+    enum Endpoint {
+        SEARCH, SUGGEST
+    }
+
+    record Request(Endpoint endpoint, String uri) {
+    }
+
+    private static final String[] SORTS = {"priceAsc", "priceDesc", "soonest", "relevance"};
+    private static final double[] SORT_WEIGHTS = {0.15, 0.10, 0.10, 0.15};
+
+    private final double suggestShare;
+    private final List<String> searches;
+    private final List<String> suggestions;
+    private final Zipf searchPopularity;
+    private final Zipf suggestPopularity;
+
+    /**
+     * @param distinct     distinct requests of each kind
+     * @param exponent     Zipf exponent of their popularity; 0 makes every request equally likely
+     * @param suggestShare fraction of the requests that are suggestions
+     * @param tenants      tenants to spread requests over, by Zipfian size; empty sends none
+     */
+    QueryMix(long seed, int distinct, double exponent, double suggestShare, List<String> tenants) {
+        this.suggestShare = suggestShare;
+        SplittableRandom random = new SplittableRandom(seed);
+        Zipf tenantPopularity = tenants.isEmpty() ? null : new Zipf(tenants.size(), 1.0);
+        searches = new ArrayList<>(distinct);
+        suggestions = new ArrayList<>(distinct);
+        for (int i = 0; i < distinct; i++) {
+            String tenant = tenantPopularity == null ? null : tenants.get(tenantPopularity.next(random));
+            searches.add(search(random, tenant));
+            suggestions.add(suggestion(random, tenant));
+        }
+        searchPopularity = new Zipf(distinct, exponent);
+        suggestPopularity = new Zipf(distinct, exponent);
+    }
+
+    Request next(SplittableRandom random) {
+        if (random.nextDouble() < suggestShare) {
+            return new Request(Endpoint.SUGGEST, suggestions.get(suggestPopularity.next(random)));
+        }
+        return new Request(Endpoint.SEARCH, searches.get(searchPopularity.next(random)));
+    }
+
+    private static String search(SplittableRandom random, String tenant) {
+        Query query = new Query("/api/search", tenant);
+        Category category = SyntheticCatalog.CATEGORIES.get(SyntheticCatalog.weighted(random, SyntheticCatalog.CATEGORY_WEIGHTS));
+        boolean text = random.nextDouble() < 0.6;
+        if (text) {
+            String subject = SyntheticCatalog.pick(random, category.subjects()).toLowerCase(Locale.ROOT);
+            // Some users type only the start of a word
+            query.add("q", random.nextDouble() < 0.15 ? subject.substring(0, Math.min(subject.length(), 4)) : subject);
+        }
+        if (random.nextDouble() < (text ? 0.15 : 0.5)) {
+            query.add("category", category.name());
+        }
+        if (random.nextDouble() < 0.3) {
+            int minAge = 6 + random.nextInt(9);
+            query.add("minAge", minAge);
+            query.add("maxAge", minAge + 2 + random.nextInt(4));
+        }
+        if (random.nextDouble() < 0.2) {
+            query.add("maxPrice", new int[]{50, 100, 200, 500}[random.nextInt(4)]);
+        }
+        if (random.nextDouble() < 0.1) {
+            query.add("type", random.nextBoolean() ? "WORKSHOP" : "LAB");
+        }
+        if (random.nextDouble() < 0.1) {
+            City city = SyntheticCatalog.CITIES.get(SyntheticCatalog.weighted(random, SyntheticCatalog.CITY_WEIGHTS));
+            query.add("lat", Math.round((city.lat() + 0.05 * random.nextGaussian()) * 1000) / 1000.0);
+            query.add("lon", Math.round((city.lon() + 0.05 * random.nextGaussian()) * 1000) / 1000.0);
+            query.add("radiusKm", 5 + 5 * random.nextInt(5));
+        }
+        // The rest keep the default upcoming sort
+        if (random.nextDouble() < 0.5) {
+            String sort = SORTS[SyntheticCatalog.weighted(random, SORT_WEIGHTS)];
+            if (!sort.equals("relevance") || text) {
+                query.add("sort", sort);
+            }
+        }
+        if (random.nextDouble() < 0.15) {
+            query.add("page", 1 + random.nextInt(4));
+        }
+        if (random.nextDouble() < 0.1) {
+            query.add("size", 20);
+        }
+        return query.toString();
+    }
+
+    private static String suggestion(SplittableRandom random, String tenant) {
+        Category category = SyntheticCatalog.CATEGORIES.get(SyntheticCatalog.weighted(random, SyntheticCatalog.CATEGORY_WEIGHTS));
+        String subject = SyntheticCatalog.pick(random, category.subjects()).toLowerCase(Locale.ROOT);
+        return new Query("/api/search/suggest", tenant)
+                .add("q", subject.substring(0, Math.min(subject.length(), 2 + random.nextInt(5))))
+                .toString();
+    }
+
+    private static final class Query {
+        private final StringBuilder uri;
+        private char separator = '?';
+
+        private Query(String path, String tenant) {
+            uri = new StringBuilder(path);
+            if (tenant != null) {
+                add("tenant", tenant);
+            }
+        }
+
+        private Query add(String name, Object value) {
+            uri.append(separator).append(name).append('=')
+                    .append(URLEncoder.encode(String.valueOf(value), StandardCharsets.UTF_8));
+            separator = '&';
+            return this;
+        }
+
+        @Override
+        public String toString() {
+            return uri.toString();
+        }
+    }
+}
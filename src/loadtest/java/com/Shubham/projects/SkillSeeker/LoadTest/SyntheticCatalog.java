@@ -0,0 +1,199 @@
+package com.Shubham.projects.SkillSeeker.LoadTest;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * Generates a course catalog of any size as NDJSON, in the format {@code skillseeker.catalog.location}
+ * and ingestion read. The distributions follow the sample catalog, widened to a country-wide
+ * provider: Science is the largest category, most courses are for ages 8 to 16, prices are log-normal
+ * around 120, and next sessions cluster within the coming weeks. Locations are spread around a few
+ * cities, and tenants, when given, own courses in Zipfian proportions.
+ * <p>
+ * Course {@code i} depends only on the seed and {@code i}, so the same arguments always produce the
+ * same catalog, and a larger catalog starts with the courses of a smaller one.
+ */
+final class SyntheticCatalog {
+
+    record Category(String name, double weight, List<String> subjects, List<String> topics) {
+    }
+
+    record City(String name, double weight, double lat, double lon) {
+    }
+
+    static final List<Category> CATEGORIES = List.of(
+            new Category("Science", 0.27,
+                    List.of("Physics", "Chemistry", "Biology", "Astronomy", "Ecology", "Genetics", "Earth Science",
+                            "Marine Biology"),
+                    List.of("experiments", "the scientific method", "lab safety", "field observation",
+                            "energy and motion", "living systems")),
+            new Category("Math", 0.19,
+                    List.of("Algebra", "Geometry", "Calculus", "Statistics", "Trigonometry", "Probability",
+                            "Number Theory", "Mental Math"),
+                    List.of("problem solving", "proofs", "competition practice", "real-world applications",
+                            "visual reasoning", "exam preparation")),
+            new Category("Art", 0.19,
+                    List.of("Painting", "Drawing", "Sculpture", "Pottery", "Photography", "Watercolor", "Animation",
+                            "Calligraphy"),
+                    List.of("color theory", "composition", "portfolio building", "mixed media",
+                            "art history", "studio techniques")),
+            new Category("Language", 0.17,
+                    List.of("Creative Writing", "Public Speaking", "Spanish", "French", "German", "Hindi",
+                            "English Grammar", "Poetry"),
+                    List.of("conversation", "reading comprehension", "vocabulary", "storytelling",
+                            "debate", "pronunciation")),
+            new Category("Technology", 0.18,
+                    List.of("Programming", "Robotics", "Web Design", "Game Development", "Python", "Electronics",
+                            "App Development", "Data Science"),
+                    List.of("hands-on projects", "algorithms", "debugging", "circuits",
+                            "teamwork", "building a portfolio")));
+
+    static final List<City> CITIES = List.of(
+            new City("Bengaluru", 0.30, 12.9716, 77.5946),
+            new City("Mumbai", 0.25, 19.0760, 72.8777),
+            new City("Delhi", 0.20, 28.6139, 77.2090),
+            new City("Pune", 0.15, 18.5204, 73.8567),
+            new City("Chennai", 0.10, 13.0827, 80.2707));
+
+    static final double[] CATEGORY_WEIGHTS = CATEGORIES.stream().mapToDouble(Category::weight).toArray();
+    static final double[] CITY_WEIGHTS = CITIES.stream().mapToDouble(City::weight).toArray();
+
+    private static final String[] TYPES = {"COURSE", "WORKSHOP", "LAB"};
+    private static final double[] TYPE_WEIGHTS = {0.60, 0.29, 0.11};
+    private static final String[] LEVELS = {"Introduction to", "Foundations of", "Exploring", "Hands-on",
+            "Advanced", "Mastering", "Fun with"};
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final long seed;
+    private final LocalDate firstSession;
+    private final List<String> tenants;
+    private final Zipf tenantPopularity;
+
+    SyntheticCatalog(long seed, LocalDate firstSession, List<String> tenants) {
+        this.seed = seed;
+        this.firstSession = firstSession;
+        this.tenants = tenants;
+        this.tenantPopularity = tenants.isEmpty() ? null : new Zipf(tenants.size(), 1.0);
+    }
+
+    /**
+     * Writes courses {@code 0..size-1}, one JSON object per line; {@code out} is left open.
+     */
+    void write(long size, OutputStream out) throws IOException {
+        try (JsonGenerator json = JSON_FACTORY.createGenerator(out)) {
+            json.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+            json.setRootValueSeparator(null);
+            for (long i = 0; i < size; i++) {
+                writeCourse(json, i);
+                json.writeRaw('\n');
+            }
+        }
+    }
+
+    private void writeCourse(JsonGenerator json, long i) throws IOException {
+        SplittableRandom random = new SplittableRandom(seed * 0x9E3779B97F4A7C15L + i);
+        Category category = CATEGORIES.get(weighted(random, CATEGORY_WEIGHTS));
+        String subject = pick(random, category.subjects());
+        int typeIndex = weighted(random, TYPE_WEIGHTS);
+        String type = TYPES[typeIndex];
+
+        // Most courses are for ages 8 to 16, spanning a few years
+        int minAge = 5 + (int) ((random.nextDouble() + random.nextDouble()) * 5.5);
+        int maxAge = Math.min(18, minAge + 2 + random.nextInt(5));
+
+        // Log-normal around 120; workshops are cheaper and labs dearer
+        double price = Math.exp(Math.log(120) + 0.6 * random.nextGaussian())
+                * (typeIndex == 1 ? 0.6 : typeIndex == 2 ? 1.3 : 1.0);
+        price = Math.floor(Math.min(2000, Math.max(15, price))) + 0.99;
+
+        // Next sessions cluster in the coming weeks, with a tail up to a year out
+        LocalDate next = firstSession.plusDays(Math.min(365, (long) (-45 * Math.log(1 - random.nextDouble()))));
+        int hour = 9 + random.nextInt(10);
+
+        City city = CITIES.get(weighted(random, CITY_WEIGHTS));
+        double lat = round4(city.lat() + 0.08 * random.nextGaussian());
+        double lon = round4(city.lon() + 0.08 * random.nextGaussian());
+
+        String level = LEVELS[random.nextInt(LEVELS.length)];
+        String title = level + " " + subject + (typeIndex == 0 ? "" : " " + (typeIndex == 1 ? "Workshop" : "Lab"));
+        String description = (typeIndex == 1 ? "A short workshop" : typeIndex == 2 ? "A lab series" : "A course")
+                + " on " + subject.toLowerCase(Locale.ROOT) + " for ages " + minAge + " to " + maxAge + ", covering "
+                + topics(random, category.topics()) + ".";
+
+        json.writeStartObject();
+        json.writeStringField("id", "c" + i);
+        if (tenantPopularity != null) {
+            json.writeStringField("tenant", tenants.get(tenantPopularity.next(random)));
+        }
+        json.writeStringField("title", title);
+        json.writeStringField("description", description);
+        json.writeStringField("category", category.name());
+        json.writeStringField("type", type);
+        json.writeStringField("gradeRange", grade(minAge) + "-" + grade(maxAge));
+        json.writeNumberField("minAge", minAge);
+        json.writeNumberField("maxAge", maxAge);
+        json.writeNumberField("price", price);
+        json.writeStringField("nextSessionDate", next.atTime(hour, 0) + ":00Z");
+        json.writeArrayFieldStart("sessions");
+        int sessions = typeIndex == 0 ? 4 + random.nextInt(9) : typeIndex == 1 ? 1 + random.nextInt(3) : 2 + random.nextInt(5);
+        for (int s = 0; s < sessions; s++) {
+            // Workshops run on consecutive days, everything else weekly
+            json.writeString(next.plusDays(typeIndex == 1 ? s : 7L * s).toString());
+        }
+        json.writeEndArray();
+        json.writeObjectFieldStart("location");
+        json.writeNumberField("lat", lat);
+        json.writeNumberField("lon", lon);
+        json.writeEndObject();
+        json.writeEndObject();
+    }
+
+    // Two different topics
+    private static String topics(SplittableRandom random, List<String> topics) {
+        int first = random.nextInt(topics.size());
+        int second = (first + 1 + random.nextInt(topics.size() - 1)) % topics.size();
+        return topics.get(first) + " and " + topics.get(second);
+    }
+
+    // School grade of a child of the given age, as in the sample catalog's gradeRange
+    private static String grade(int age) {
+        int grade = age - 5;
+        if (grade < 1) {
+            return "K";
+        }
+        grade = Math.min(grade, 12);
+        String suffix = grade == 1 ? "st" : grade == 2 ? "nd" : grade == 3 ? "rd" : "th";
+        return grade + suffix;
+    }
+
+    static int weighted(SplittableRandom random, double[] weights) {
+        double total = 0;
+        for (double weight : weights) {
+            total += weight;
+        }
+        double target = random.nextDouble() * total;
+        for (int i = 0; i < weights.length - 1; i++) {
+            target -= weights[i];
+            if (target < 0) {
+                return i;
+            }
+        }
+        return weights.length - 1;
+    }
+
+    static <T> T pick(SplittableRandom random, List<T> values) {
+        return values.get(random.nextInt(values.size()));
+    }
+
+    private static double round4(double value) {
+        return Math.round(value * 10_000) / 10_000.0;
+    }
+}
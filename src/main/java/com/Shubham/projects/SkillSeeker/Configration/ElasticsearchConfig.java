@@ -1,24 +1,149 @@
 package com.Shubham.projects.SkillSeeker.Configration;
 
+import co.elastic.clients.elasticsearch.ElasticsearchAsyncClient;
+import co.elastic.clients.json.JsonpMapper;
+import co.elastic.clients.transport.ElasticsearchTransport;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.elasticsearch.client.NodeSelector;
+import org.elasticsearch.client.RestClient;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.data.elasticsearch.client.ClientConfiguration;
+import org.springframework.data.elasticsearch.client.elc.ElasticsearchClients;
 import org.springframework.data.elasticsearch.client.elc.ElasticsearchConfiguration;
 import org.springframework.data.elasticsearch.repository.config.EnableElasticsearchRepositories;
 
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Client setup for the cluster. Requests are spread round-robin over every node in
+ * {@code spring.elasticsearch.uris}, over pooled keep-alive connections with gzip compression,
+ * and 429/503 rejections are retried with backoff.
+ * Autocomplete gets its own connection pool and shorter timeouts, so a slow suggest call can
+ * never hold a connection a search is waiting for.
+ */
 @Configuration
-@EnableElasticsearchRepositories(basePackages = "com.shubham.skillseeker.repository")
+@EnableElasticsearchRepositories(basePackages = "com.Shubham.projects.SkillSeeker.Repository")
 public class ElasticsearchConfig extends ElasticsearchConfiguration {
 
-    @Value("${spring.elasticsearch.turis:http://localhost:9200}")
-    private String elasticsearchUrl;
+    @Value("${spring.elasticsearch.uris:http://localhost:9200}")
+    private String[] elasticsearchUris;
+
+    @Value("${spring.elasticsearch.connection-timeout:5s}")
+    private Duration connectTimeout;
+
+    @Value("${spring.elasticsearch.socket-timeout:30s}")
+    private Duration socketTimeout;
+
+    @Value("${skillseeker.elasticsearch.max-connections:200}")
+    private int maxConnections;
+
+    @Value("${skillseeker.elasticsearch.max-connections-per-route:50}")
+    private int maxConnectionsPerRoute;
+
+    @Value("${skillseeker.elasticsearch.keep-alive:60s}")
+    private Duration keepAlive;
+
+    @Value("${skillseeker.elasticsearch.compression:true}")
+    private boolean compression;
+
+    @Value("${skillseeker.elasticsearch.retry.max-attempts:3}")
+    private int retryMaxAttempts;
+
+    @Value("${skillseeker.elasticsearch.retry.initial-backoff:100ms}")
+    private Duration retryInitialBackoff;
+
+    @Value("${skillseeker.elasticsearch.retry.max-backoff:2s}")
+    private Duration retryMaxBackoff;
+
+    @Value("${skillseeker.elasticsearch.suggest.connect-timeout:1s}")
+    private Duration suggestConnectTimeout;
+
+    @Value("${skillseeker.elasticsearch.suggest.socket-timeout:2s}")
+    private Duration suggestSocketTimeout;
+
+    @Value("${skillseeker.elasticsearch.suggest.max-connections:20}")
+    private int suggestMaxConnections;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ObservationRegistry observationRegistry;
 
     @Override
     public ClientConfiguration clientConfiguration() {
-        return ClientConfiguration.builder()
-                .connectedTo(elasticsearchUrl.replace("http://", ""))
-                .withConnectTimeout(5000)
-                .withSocketTimeout(30000)
+        return clientConfiguration(connectTimeout, socketTimeout, maxConnections, maxConnectionsPerRoute);
+    }
+
+    // Both the repositories and the search service use this transport, so their calls are metered alike
+    @Override
+    @Bean
+    @Primary
+    public ElasticsearchTransport elasticsearchTransport(RestClient restClient, JsonpMapper jsonpMapper) {
+        return new RetryingTransport(
+                new InstrumentedTransport(super.elasticsearchTransport(restClient, jsonpMapper),
+                        meterRegistry, observationRegistry),
+                retryMaxAttempts, retryInitialBackoff, retryMaxBackoff);
+    }
+
+    // Page searches in async mode, so no thread waits on the cluster
+    @Bean
+    public ElasticsearchAsyncClient elasticsearchAsyncClient(ElasticsearchTransport transport) {
+        return new ElasticsearchAsyncClient(transport);
+    }
+
+    /**
+     * Separate pool for autocomplete. Suggestions are cheap and latency-bound: a call that
+     * misses its short timeout is better dropped than retried.
+     */
+    @Bean
+    public ElasticsearchTransport suggestTransport(JsonpMapper jsonpMapper) {
+        ClientConfiguration configuration = clientConfiguration(suggestConnectTimeout, suggestSocketTimeout,
+                suggestMaxConnections, suggestMaxConnections);
+        RestClient restClient = ElasticsearchClients.getRestClient(configuration);
+        return new InstrumentedTransport(
+                ElasticsearchClients.getElasticsearchTransport(restClient, ElasticsearchClients.IMPERATIVE_CLIENT,
+                        transportOptions(), jsonpMapper),
+                meterRegistry, observationRegistry);
+    }
+
+    @Bean
+    public ElasticsearchAsyncClient suggestAsyncClient(@Qualifier("suggestTransport") ElasticsearchTransport transport) {
+        return new ElasticsearchAsyncClient(transport);
+    }
+
+    private ClientConfiguration clientConfiguration(Duration connectTimeout, Duration socketTimeout,
+                                                    int maxConnections, int maxConnectionsPerRoute) {
+        String[] hosts = Arrays.stream(elasticsearchUris)
+                .map(String::trim)
+                .filter(uri -> !uri.isEmpty())
+                .map(uri -> uri.replaceFirst("^https?://", ""))
+                .toArray(String[]::new);
+        boolean ssl = Arrays.stream(elasticsearchUris).anyMatch(uri -> uri.trim().startsWith("https://"));
+
+        ClientConfiguration.MaybeSecureClientConfigurationBuilder builder = ClientConfiguration.builder()
+                .connectedTo(hosts);
+        ClientConfiguration.TerminalClientConfigurationBuilder terminal = ssl ? builder.usingSsl() : builder;
+        return terminal
+                .withConnectTimeout(connectTimeout)
+                .withSocketTimeout(socketTimeout)
+                .withClientConfigurer(ElasticsearchClients.ElasticsearchHttpClientConfigurationCallback.from(http -> http
+                        .setMaxConnTotal(maxConnections)
+                        .setMaxConnPerRoute(maxConnectionsPerRoute)
+                        // Reuse idle connections for keep-alive, then let them go before a proxy drops them
+                        .setKeepAliveStrategy((response, context) -> keepAlive.toMillis())
+                        .setDefaultIOReactorConfig(IOReactorConfig.custom().setSoKeepAlive(true).build())))
+                .withClientConfigurer(ElasticsearchClients.ElasticsearchRestClientConfigurationCallback.from(rest -> rest
+                        .setCompressionEnabled(compression)
+                        .setNodeSelector(NodeSelector.SKIP_DEDICATED_MASTERS)))
                 .build();
     }
-}
\ No newline at end of file
+}
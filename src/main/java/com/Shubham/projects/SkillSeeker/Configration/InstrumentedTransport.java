@@ -0,0 +1,120 @@
+package com.Shubham.projects.SkillSeeker.Configration;
+
+import co.elastic.clients.elasticsearch.core.BulkResponse;
+import co.elastic.clients.elasticsearch.core.MsearchResponse;
+import co.elastic.clients.elasticsearch.core.SearchResponse;
+import co.elastic.clients.json.JsonpMapper;
+import co.elastic.clients.transport.ElasticsearchTransport;
+import co.elastic.clients.transport.Endpoint;
+import co.elastic.clients.transport.TransportOptions;
+import com.Shubham.projects.SkillSeeker.Exception.SearchFailure;
+import io.micrometer.common.KeyValues;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Wraps the Elasticsearch transport shared by the sync and async clients. Every request is observed
+ * as {@code skillseeker.es.request}, which is the client-side round trip. Responses that report
+ * {@code took} also record it as {@code skillseeker.es.took}. The gap between the two is network,
+ * queueing and (de)serialization.
+ */
+public class InstrumentedTransport implements ElasticsearchTransport {
+
+    private final ElasticsearchTransport delegate;
+    private final MeterRegistry meterRegistry;
+    private final ObservationRegistry observationRegistry;
+
+    public InstrumentedTransport(ElasticsearchTransport delegate, MeterRegistry meterRegistry,
+                                 ObservationRegistry observationRegistry) {
+        this.delegate = delegate;
+        this.meterRegistry = meterRegistry;
+        this.observationRegistry = observationRegistry;
+    }
+
+    @Override
+    public <RequestT, ResponseT, ErrorT> ResponseT performRequest(RequestT request,
+                                                                  Endpoint<RequestT, ResponseT, ErrorT> endpoint,
+                                                                  TransportOptions options) throws IOException {
+        Observation observation = start(endpoint);
+        try (Observation.Scope ignored = observation.openScope()) {
+            ResponseT response = delegate.performRequest(request, endpoint, options);
+            complete(observation, endpoint, response, null);
+            return response;
+        } catch (IOException | RuntimeException e) {
+            complete(observation, endpoint, null, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public <RequestT, ResponseT, ErrorT> CompletableFuture<ResponseT> performRequestAsync(RequestT request,
+                                                                                         Endpoint<RequestT, ResponseT, ErrorT> endpoint,
+                                                                                         TransportOptions options) {
+        Observation observation = start(endpoint);
+        CompletableFuture<ResponseT> future;
+        try (Observation.Scope ignored = observation.openScope()) {
+            future = delegate.performRequestAsync(request, endpoint, options);
+        }
+        return future.whenComplete((response, error) -> complete(observation, endpoint, response,
+                error instanceof CompletionException && error.getCause() != null ? error.getCause() : error));
+    }
+
+    private Observation start(Endpoint<?, ?, ?> endpoint) {
+        return Observation.createNotStarted("skillseeker.es.request", observationRegistry)
+                .lowCardinalityKeyValues(KeyValues.of("endpoint", endpoint.id()))
+                .start();
+    }
+
+    private void complete(Observation observation, Endpoint<?, ?, ?> endpoint, Object response, Throwable error) {
+        if (error != null) {
+            observation.lowCardinalityKeyValue("outcome", SearchFailure.of(error).tag());
+            observation.error(error);
+        } else {
+            observation.lowCardinalityKeyValue("outcome", "success");
+            Long took = took(response);
+            if (took != null) {
+                Timer.builder("skillseeker.es.took")
+                        .description("Server-side time reported by Elasticsearch")
+                        .tag("endpoint", endpoint.id())
+                        .register(meterRegistry)
+                        .record(Duration.ofMillis(took));
+            }
+        }
+        observation.stop();
+    }
+
+    private static Long took(Object response) {
+        if (response instanceof SearchResponse<?> search) {
+            return search.took();
+        }
+        if (response instanceof MsearchResponse<?> msearch) {
+            return msearch.took();
+        }
+        if (response instanceof BulkResponse bulk) {
+            return bulk.took();
+        }
+        return null;
+    }
+
+    @Override
+    public JsonpMapper jsonpMapper() {
+        return delegate.jsonpMapper();
+    }
+
+    @Override
+    public TransportOptions options() {
+        return delegate.options();
+    }
+
+    @Override
+    public void close() throws IOException {
+        delegate.close();
+    }
+}
@@ -0,0 +1,25 @@
+package com.Shubham.projects.SkillSeeker.Configration;
+
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+/**
+ * What a native image needs beyond what Spring AOT finds by itself: the classpath resources read at
+ * runtime, which are only referenced by name in configuration.
+ */
+@Configuration
+@ImportRuntimeHints(NativeImageConfig.ResourceHints.class)
+public class NativeImageConfig {
+
+    static class ResourceHints implements RuntimeHintsRegistrar {
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            hints.resources()
+                    .registerPattern("sample-courses.json")
+                    .registerPattern("elasticsearch/*");
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.Shubham.projects.SkillSeeker.Configration;
+
+import co.elastic.clients.elasticsearch._types.ElasticsearchException;
+import co.elastic.clients.json.JsonpMapper;
+import co.elastic.clients.transport.ElasticsearchTransport;
+import co.elastic.clients.transport.Endpoint;
+import co.elastic.clients.transport.TransportException;
+import co.elastic.clients.transport.TransportOptions;
+import lombok.extern.slf4j.Slf4j;
+import org.elasticsearch.client.ResponseException;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Retries requests the cluster turned away with 429 (rejected execution) or 503 (unavailable).
+ * Neither status means the request was applied, so the retry is safe. Attempts are bounded and
+ * spaced by exponential backoff with jitter, so a busy cluster is not hit in lockstep.
+ * Other failures are passed through untouched.
+ */
+@Slf4j
+public class RetryingTransport implements ElasticsearchTransport {
+
+    private final ElasticsearchTransport delegate;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+
+    public RetryingTransport(ElasticsearchTransport delegate, int maxAttempts, Duration initialBackoff,
+                             Duration maxBackoff) {
+        this.delegate = delegate;
+        this.maxAttempts = Math.max(maxAttempts, 1);
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+    }
+
+    @Override
+    public <RequestT, ResponseT, ErrorT> ResponseT performRequest(RequestT request,
+                                                                  Endpoint<RequestT, ResponseT, ErrorT> endpoint,
+                                                                  TransportOptions options) throws IOException {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return delegate.performRequest(request, endpoint, options);
+            } catch (IOException | RuntimeException e) {
+                if (attempt >= maxAttempts || !isRetryable(e)) {
+                    throw e;
+                }
+                long delay = backoffMillis(attempt);
+                log.warn("{} rejected ({}), retrying in {} ms (attempt {}/{})",
+                        endpoint.id(), e.getMessage(), delay, attempt + 1, maxAttempts);
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while backing off");
+                }
+            }
+        }
+    }
+
+    @Override
+    public <RequestT, ResponseT, ErrorT> CompletableFuture<ResponseT> performRequestAsync(RequestT request,
+                                                                                         Endpoint<RequestT, ResponseT, ErrorT> endpoint,
+                                                                                         TransportOptions options) {
+        return attemptAsync(request, endpoint, options, 1);
+    }
+
+    private <RequestT, ResponseT, ErrorT> CompletableFuture<ResponseT> attemptAsync(RequestT request,
+                                                                                   Endpoint<RequestT, ResponseT, ErrorT> endpoint,
+                                                                                   TransportOptions options, int attempt) {
+        return delegate.performRequestAsync(request, endpoint, options)
+                .handle((response, error) -> {
+                    if (error == null) {
+                        return CompletableFuture.completedFuture(response);
+                    }
+                    Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                    if (attempt >= maxAttempts || !isRetryable(cause)) {
+                        return CompletableFuture.<ResponseT>failedFuture(cause);
+                    }
+                    long delay = backoffMillis(attempt);
+                    log.warn("{} rejected ({}), retrying in {} ms (attempt {}/{})",
+                            endpoint.id(), cause.getMessage(), delay, attempt + 1, maxAttempts);
+                    // Wait without holding a thread
+                    return CompletableFuture.runAsync(() -> { },
+                                    CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS))
+                            .thenCompose(ignored -> attemptAsync(request, endpoint, options, attempt + 1));
+                })
+                .thenCompose(future -> future);
+    }
+
+    long backoffMillis(int attempt) {
+        long exponential = initialBackoff.toMillis() << Math.min(attempt - 1, 20);
+        long capped = Math.min(exponential, maxBackoff.toMillis());
+        // Equal jitter: at least half of the backoff, at most all of it
+        return capped / 2 + ThreadLocalRandom.current().nextLong(capped / 2 + 1);
+    }
+
+    static boolean isRetryable(Throwable error) {
+        int status = -1;
+        if (error instanceof ElasticsearchException e) {
+            status = e.status();
+        } else if (error instanceof TransportException e) {
+            status = e.statusCode();
+        } else if (error instanceof ResponseException e) {
+            status = e.getResponse().getStatusLine().getStatusCode();
+        }
+        return status == 429 || status == 503;
+    }
+
+    @Override
+    public JsonpMapper jsonpMapper() {
+        return delegate.jsonpMapper();
+    }
+
+    @Override
+    public TransportOptions options() {
+        return delegate.options();
+    }
+
+    @Override
+    public void close() throws IOException {
+        delegate.close();
+    }
+}
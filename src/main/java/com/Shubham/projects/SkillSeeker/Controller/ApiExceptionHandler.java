@@ -0,0 +1,65 @@
+package com.Shubham.projects.SkillSeeker.Controller;
+
+import com.Shubham.projects.SkillSeeker.Exception.SearchFailedException;
+import com.Shubham.projects.SkillSeeker.Exception.SearchFailure;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Maps search failures to a status that says whose fault they were, instead of a blanket 400.
+ * Rejections and overload carry a {@code Retry-After} header, so well-behaved clients back off
+ * instead of retrying straight into the overload.
+ */
+@RestControllerAdvice
+public class ApiExceptionHandler {
+
+    private static final Duration DEFAULT_RETRY_AFTER = Duration.ofSeconds(1);
+
+    @ExceptionHandler(SearchFailedException.class)
+    public ResponseEntity<Map<String, Object>> handleSearchFailed(SearchFailedException e) {
+        ResponseEntity<Map<String, Object>> response = error(e.getFailure(), e.getMessage());
+        Duration retryAfter = e.getRetryAfter();
+        if (retryAfter == null && (e.getFailure() == SearchFailure.REJECTED || e.getFailure() == SearchFailure.OVERLOADED)) {
+            retryAfter = DEFAULT_RETRY_AFTER;
+        }
+        if (retryAfter == null) {
+            return response;
+        }
+        // Whole seconds, rounded up so a client never comes back too early
+        long seconds = Math.max(1, (retryAfter.toMillis() + 999) / 1000);
+        return ResponseEntity.status(response.getStatusCode())
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(seconds))
+                .body(response.getBody());
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, Object>> handleBadRequest(IllegalArgumentException e) {
+        return error(SearchFailure.BAD_QUERY, e.getMessage());
+    }
+
+    private ResponseEntity<Map<String, Object>> error(SearchFailure failure, String message) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("error", failure.tag());
+        body.put("message", message);
+        return ResponseEntity.status(status(failure)).body(body);
+    }
+
+    private static HttpStatus status(SearchFailure failure) {
+        return switch (failure) {
+            case BAD_QUERY -> HttpStatus.BAD_REQUEST;
+            case REJECTED -> HttpStatus.TOO_MANY_REQUESTS;
+            case TIMEOUT -> HttpStatus.GATEWAY_TIMEOUT;
+            case UNAVAILABLE, OVERLOADED -> HttpStatus.SERVICE_UNAVAILABLE;
+            case NOT_FOUND -> HttpStatus.NOT_FOUND;
+            case CONFLICT -> HttpStatus.CONFLICT;
+            case INTERNAL -> HttpStatus.INTERNAL_SERVER_ERROR;
+        };
+    }
+}
@@ -0,0 +1,47 @@
+package com.Shubham.projects.SkillSeeker.Controller;
+
+import com.Shubham.projects.SkillSeeker.Dto.CacheStatsDto;
+import com.Shubham.projects.SkillSeeker.Service.SearchResultCache;
+import com.Shubham.projects.SkillSeeker.Service.TenantRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/cache")
+public class CacheAdminController {
+
+    @Autowired
+    private SearchResultCache searchResultCache;
+
+    @Autowired
+    private TenantRegistry tenantRegistry;
+
+    @GetMapping
+    public ResponseEntity<CacheStatsDto> getCacheStats() {
+        return ResponseEntity.ok(searchResultCache.getStats());
+    }
+
+    @GetMapping("/tenants")
+    public ResponseEntity<Map<String, CacheStatsDto>> getTenantCacheStats() {
+        return ResponseEntity.ok(searchResultCache.getTenantStats());
+    }
+
+    // Without a tenant every partition is cleared
+    @DeleteMapping
+    public ResponseEntity<Void> clearCache(@RequestParam(required = false) String tenant) {
+        if (tenant == null) {
+            searchResultCache.invalidateAll();
+        } else {
+            searchResultCache.invalidate(List.of(tenantRegistry.resolve(tenant)));
+        }
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -1,18 +1,27 @@
 package com.Shubham.projects.SkillSeeker.Controller;
 
+import com.Shubham.projects.SkillSeeker.Dto.AutocompleteResponseDto;
+import com.Shubham.projects.SkillSeeker.Dto.EngagementEventDto;
 import com.Shubham.projects.SkillSeeker.Dto.SearchRequestDto;
 import com.Shubham.projects.SkillSeeker.Dto.SearchResponseDto;
 import com.Shubham.projects.SkillSeeker.Service.CourseService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api")
@@ -22,7 +31,8 @@ public class CourseController {
     private CourseService courseService;
 
     @GetMapping("/search")
-    public ResponseEntity<SearchResponseDto> searchCourses(
+    public CompletableFuture<ResponseEntity<SearchResponseDto>> searchCourses(
+            @RequestParam(required = false) String tenant,
             @RequestParam(required = false) String q,
             @RequestParam(required = false) Integer minAge,
             @RequestParam(required = false) Integer maxAge,
@@ -31,27 +41,70 @@ public class CourseController {
             @RequestParam(required = false) Double minPrice,
             @RequestParam(required = false) Double maxPrice,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) Double lat,
+            @RequestParam(required = false) Double lon,
+            @RequestParam(required = false) Double radiusKm,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate sessionFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate sessionTo,
             @RequestParam(defaultValue = "upcoming") String sort,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
-
-        try {
-            SearchRequestDto request = new SearchRequestDto(q, minAge, maxAge, category, type,
-                    minPrice, maxPrice, startDate, sort, page, size);
-            SearchResponseDto response = courseService.searchCourses(request);
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            return ResponseEntity.badRequest().build();
-        }
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean facets,
+            @RequestParam(required = false) String fields,
+            @RequestParam(defaultValue = "false") boolean profile) {
+
+        SearchRequestDto request = SearchRequestDto.builder()
+                .tenant(tenant).q(q).minAge(minAge).maxAge(maxAge).category(category).type(type)
+                .minPrice(minPrice).maxPrice(maxPrice).startDate(startDate)
+                .lat(lat).lon(lon).radiusKm(radiusKm).sessionFrom(sessionFrom).sessionTo(sessionTo)
+                .sort(sort).page(page).size(size).cursor(cursor).facets(facets).fields(fields).profile(profile)
+                .build();
+        return courseService.searchCoursesAsync(request)
+                .thenApply(ResponseEntity::ok);
+    }
+
+    @GetMapping(value = "/search/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportCourses(
+            @RequestParam(required = false) String tenant,
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) Integer minAge,
+            @RequestParam(required = false) Integer maxAge,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) Double minPrice,
+            @RequestParam(required = false) Double maxPrice,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) Double lat,
+            @RequestParam(required = false) Double lon,
+            @RequestParam(required = false) Double radiusKm,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate sessionFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate sessionTo,
+            @RequestParam(required = false) String fields) {
+
+        SearchRequestDto request = SearchRequestDto.builder()
+                .tenant(tenant).q(q).minAge(minAge).maxAge(maxAge).category(category).type(type)
+                .minPrice(minPrice).maxPrice(maxPrice).startDate(startDate)
+                .lat(lat).lon(lon).radiusKm(radiusKm).sessionFrom(sessionFrom).sessionTo(sessionTo).fields(fields)
+                .build();
+        StreamingResponseBody body = out -> courseService.exportCourses(request, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
 
     @GetMapping("/search/suggest")
-    public ResponseEntity<List<String>> getSuggestions(@RequestParam String q) {
-        try {
-            List<String> suggestions = courseService.getSuggestions(q);
-            return ResponseEntity.ok(suggestions);
-        } catch (Exception e) {
-            return ResponseEntity.badRequest().build();
-        }
+    public CompletableFuture<ResponseEntity<AutocompleteResponseDto>> getSuggestions(
+            @RequestParam(required = false) String tenant, @RequestParam String q) {
+        return courseService.getSuggestionsAsync(tenant, q)
+                .thenApply(ResponseEntity::ok);
+    }
+
+    // Clicks and enrollments for the relevance sort; counted in memory and written in batches
+    @PostMapping("/events")
+    public ResponseEntity<Map<String, Integer>> recordEvents(@RequestParam(required = false) String tenant,
+                                                            @RequestBody List<EngagementEventDto> events) {
+        return ResponseEntity.accepted()
+                .body(Map.of("accepted", courseService.recordEngagement(tenant, events)));
     }
 }
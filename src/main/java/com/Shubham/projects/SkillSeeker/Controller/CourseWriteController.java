@@ -0,0 +1,78 @@
+package com.Shubham.projects.SkillSeeker.Controller;
+
+import com.Shubham.projects.SkillSeeker.Dto.CourseDto;
+import com.Shubham.projects.SkillSeeker.Service.CourseWriteService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Writes single courses. A write is answered with 202 once queued, or with 200, 201 or 204 once
+ * searchable when {@code refresh=wait_for} is given.
+ */
+@RestController
+@RequestMapping("/api/courses")
+public class CourseWriteController {
+
+    @Autowired
+    private CourseWriteService courseWriteService;
+
+    @GetMapping("/{id}")
+    public CourseDto getCourse(@RequestParam(required = false) String tenant, @PathVariable String id) {
+        return courseWriteService.get(tenant, id);
+    }
+
+    @PostMapping
+    public CompletableFuture<ResponseEntity<CourseDto>> createCourse(@RequestParam(required = false) String tenant,
+                                                                     @RequestParam(required = false) String refresh,
+                                                                     @RequestBody byte[] body) {
+        boolean waitForRefresh = CourseWriteService.waitForRefresh(refresh);
+        return courseWriteService.create(tenant, body, waitForRefresh)
+                .thenApply(course -> ResponseEntity.status(waitForRefresh ? HttpStatus.CREATED : HttpStatus.ACCEPTED)
+                        .location(UriComponentsBuilder.fromPath("/api/courses/{id}").buildAndExpand(course.getId()).toUri())
+                        .body(course));
+    }
+
+    @PutMapping("/{id}")
+    public CompletableFuture<ResponseEntity<CourseDto>> replaceCourse(@RequestParam(required = false) String tenant,
+                                                                      @RequestParam(required = false) String refresh,
+                                                                      @PathVariable String id,
+                                                                      @RequestBody byte[] body) {
+        boolean waitForRefresh = CourseWriteService.waitForRefresh(refresh);
+        return courseWriteService.replace(tenant, id, body, waitForRefresh)
+                .thenApply(course -> ResponseEntity.status(waitForRefresh ? HttpStatus.OK : HttpStatus.ACCEPTED).body(course));
+    }
+
+    @PatchMapping("/{id}")
+    public CompletableFuture<ResponseEntity<CourseDto>> patchCourse(@RequestParam(required = false) String tenant,
+                                                                    @RequestParam(required = false) String refresh,
+                                                                    @PathVariable String id,
+                                                                    @RequestBody Map<String, Object> fields) {
+        boolean waitForRefresh = CourseWriteService.waitForRefresh(refresh);
+        return courseWriteService.patch(tenant, id, fields, waitForRefresh)
+                .thenApply(course -> ResponseEntity.status(waitForRefresh ? HttpStatus.OK : HttpStatus.ACCEPTED).body(course));
+    }
+
+    @DeleteMapping("/{id}")
+    public CompletableFuture<ResponseEntity<Void>> deleteCourse(@RequestParam(required = false) String tenant,
+                                                                @RequestParam(required = false) String refresh,
+                                                                @PathVariable String id) {
+        boolean waitForRefresh = CourseWriteService.waitForRefresh(refresh);
+        return courseWriteService.delete(tenant, id, waitForRefresh)
+                .thenApply(ignored -> ResponseEntity.status(waitForRefresh ? HttpStatus.NO_CONTENT : HttpStatus.ACCEPTED).build());
+    }
+}
@@ -0,0 +1,60 @@
+package com.Shubham.projects.SkillSeeker.Controller;
+
+import com.Shubham.projects.SkillSeeker.Service.CatalogSyncService;
+import com.Shubham.projects.SkillSeeker.Service.CourseIndexService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/index")
+public class IndexAdminController {
+
+    @Autowired
+    private CourseIndexService courseIndexService;
+
+    @Autowired
+    private CatalogSyncService catalogSyncService;
+
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> getIndexStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        Map<String, Object> aliases = new LinkedHashMap<>();
+        courseIndexService.getAliases().forEach((alias, tenants) -> aliases.put(alias,
+                Map.of("tenants", tenants, "indices", courseIndexService.getCurrentIndices(alias))));
+        status.put("aliases", aliases);
+        status.put("reindexing", courseIndexService.isReindexing());
+        status.put("lastReindex", courseIndexService.getLastReports());
+        status.put("syncing", catalogSyncService.isSyncing());
+        status.put("lastSync", catalogSyncService.getLastReport());
+        return ResponseEntity.ok(status);
+    }
+
+    @PostMapping("/reindex")
+    public ResponseEntity<Void> reindex() {
+        if (!courseIndexService.reindexAsync()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+        return ResponseEntity.accepted().build();
+    }
+
+    @PostMapping("/synonyms")
+    public ResponseEntity<Map<String, Integer>> reloadSynonyms() {
+        return ResponseEntity.ok(Map.of("rules", courseIndexService.reloadSynonyms()));
+    }
+
+    @PostMapping("/sync")
+    public ResponseEntity<Void> sync() {
+        if (courseIndexService.isReindexing() || !catalogSyncService.syncAsync()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+        return ResponseEntity.accepted().build();
+    }
+}
@@ -0,0 +1,63 @@
+package com.Shubham.projects.SkillSeeker.Controller;
+
+import com.Shubham.projects.SkillSeeker.Exception.SearchFailedException;
+import com.Shubham.projects.SkillSeeker.Exception.SearchFailure;
+import com.Shubham.projects.SkillSeeker.Service.AdmissionLane;
+import com.Shubham.projects.SkillSeeker.Service.ClientRateLimiter;
+import com.Shubham.projects.SkillSeeker.Service.SearchMetrics;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.time.Duration;
+
+/**
+ * Applies the per-client rate limits to the search endpoints before any work is done for a request,
+ * so a client over its limit costs one bucket lookup and gets a 429 with {@code Retry-After}.
+ * <p>
+ * Clients are told apart by {@code skillseeker.admission.client-header} when it is set, otherwise by
+ * remote address. Only name a header that a trusted proxy in front of the service sets, since
+ * clients could otherwise pick a fresh id for every request.
+ */
+@Component
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    @Autowired
+    private ClientRateLimiter clientRateLimiter;
+
+    @Autowired
+    private SearchMetrics searchMetrics;
+
+    @Value("${skillseeker.admission.client-header:}")
+    private String clientHeader;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // Async searches come back through here to write their result; they were counted already
+        if (!clientRateLimiter.isEnabled() || request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+        AdmissionLane lane = request.getRequestURI().endsWith("/suggest") ? AdmissionLane.SUGGEST : AdmissionLane.SEARCH;
+        Duration retryAfter = clientRateLimiter.tryAcquire(clientId(request), lane);
+        if (retryAfter == null) {
+            return true;
+        }
+        searchMetrics.recordAdmissionRejected(lane, "rate_limited");
+        throw new SearchFailedException("Rate limit exceeded for " + lane.tag() + " requests",
+                SearchFailure.REJECTED, retryAfter);
+    }
+
+    private String clientId(HttpServletRequest request) {
+        if (!clientHeader.isBlank()) {
+            String id = request.getHeader(clientHeader);
+            if (id != null && !id.isBlank()) {
+                return id;
+            }
+        }
+        return request.getRemoteAddr();
+    }
+}
@@ -4,22 +4,37 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.elasticsearch.annotations.*;
+import org.springframework.data.elasticsearch.core.geo.GeoPoint;
 import org.springframework.data.elasticsearch.core.suggest.Completion;
 
 import java.time.LocalDate;
+import java.util.List;
 
 @Data
 @NoArgsConstructor
-@Document(indexName = "courses")
+@Document(indexName = "courses", createIndex = false)
+@Setting(settingPath = "elasticsearch/course-settings.json")
 public class CourseDocument {
 
+    // Keyword so it can break ties in search_after sorts
     @Id
+    @Field(type = FieldType.Keyword)
     private String id;
 
-    @Field(type = FieldType.Text, analyzer = "standard")
+    // Owner of the course; also its _routing in the shared index (see TenantRegistry)
+    @Field(type = FieldType.Keyword)
+    private String tenant;
+
+    // Folded, stemmed and (when searching) synonym-expanded; see elasticsearch/course-settings.json.
+    // title.prefix holds the edge n-grams of each title word for search-as-you-type. Only whether a
+    // course matches matters there, so it keeps neither frequencies nor norms
+    @MultiField(
+            mainField = @Field(type = FieldType.Text, analyzer = "course_text", searchAnalyzer = "course_text_search"),
+            otherFields = @InnerField(suffix = "prefix", type = FieldType.Text, analyzer = "course_prefix",
+                    searchAnalyzer = "course_prefix_search", indexOptions = IndexOptions.docs, norms = false))
     private String title;
 
-    @Field(type = FieldType.Text, analyzer = "standard")
+    @Field(type = FieldType.Text, analyzer = "course_text", searchAnalyzer = "course_text_search")
     private String description;
 
     @Field(type = FieldType.Keyword)
@@ -44,10 +59,68 @@ public class CourseDocument {
     @Field(type = FieldType.Date, format = DateFormat.date)
     private LocalDate nextSessionDate;
 
-    // Make suggest field optional - it will be null if not present
-    @CompletionField
+    // Every scheduled session. Nested so a sort can pick the earliest session inside a date window;
+    // include_in_parent also indexes sessions.startDate on the course itself, so window filters are
+    // plain (cacheable) range filters that never join nested documents
+    @Field(type = FieldType.Nested, includeInParent = true)
+    private List<CourseSession> sessions;
+
+    @GeoPointField
+    private GeoPoint location;
+
+    // Engagement, kept up to date in place by EngagementCollector and carried over when the catalog
+    // rewrites a course. Raw counts are only read back by the update script, so they are not indexed
+    @Field(type = FieldType.Long, index = false, docValues = false)
+    private Long impressions;
+
+    @Field(type = FieldType.Long, index = false, docValues = false)
+    private Long clicks;
+
+    // Ranking signals for the relevance sort. rank_feature values must be positive, so they stay
+    // absent until there is something to record
+    @Field(type = FieldType.Rank_Feature)
+    private Double clickThroughRate;
+
+    @Field(type = FieldType.Rank_Feature)
+    private Long enrollments;
+
+    // Hash of the catalog fields above; the sync compares it to skip unchanged courses
+    @Field(type = FieldType.Keyword, index = false)
+    private String contentHash;
+
+    // "api" when the course was last written through the course API; syncs and reindexes then leave
+    // it as it is. Null for courses that come from the catalog
+    @Field(type = FieldType.Keyword)
+    private String origin;
+
+    // True on the tombstone a delete through the course API leaves in place of the course, so that syncs
+    // and reindexes, which leave the API's courses alone, do not bring it back from the catalog.
+    // Searches, suggestions and reads skip tombstones
+    @Field(type = FieldType.Boolean)
+    private Boolean deleted;
+
+    // Make suggest field optional - it will be null if not present.
+    // The tenant context keeps one tenant's titles out of another's suggestions in the shared index
+    @CompletionField(contexts = @CompletionContext(name = "tenant", type = CompletionContext.ContextMappingType.CATEGORY,
+            path = "tenant"))
     private Completion suggest;
 
+    /**
+     * The tombstone of a course deleted through the course API; it keeps only the id and the tenant.
+     */
+    public static CourseDocument tombstone(String id, String tenant, String origin) {
+        CourseDocument tombstone = new CourseDocument();
+        tombstone.setId(id);
+        tombstone.setTenant(tenant);
+        tombstone.setOrigin(origin);
+        tombstone.setDeleted(true);
+        return tombstone;
+    }
+
+    public boolean isTombstone() {
+        return Boolean.TRUE.equals(deleted);
+    }
+
     public void setSuggestFromTitle() {
         if (this.title != null) {
             this.suggest = new Completion();
@@ -0,0 +1,22 @@
+package com.Shubham.projects.SkillSeeker.Document;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.elasticsearch.annotations.DateFormat;
+import org.springframework.data.elasticsearch.annotations.Field;
+import org.springframework.data.elasticsearch.annotations.FieldType;
+
+import java.time.LocalDate;
+
+/**
+ * One scheduled session of a course, indexed as a nested object of {@link CourseDocument}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CourseSession {
+
+    @Field(type = FieldType.Date, format = DateFormat.date)
+    private LocalDate startDate;
+}
@@ -1,12 +1,19 @@
 package com.Shubham.projects.SkillSeeker.Dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import lombok.*;
 
 import java.time.LocalDateTime;
+import java.util.List;
+
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-
+// Searches read hits straight into this class, and fields left out by a projection are not rendered
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonIgnoreProperties(ignoreUnknown = true)
 public class CourseDto {
     private String id;
     private String title;
@@ -17,6 +24,11 @@ public class CourseDto {
     private Integer minAge;
     private Integer maxAge;
     private Double price;
+    @JsonDeserialize(using = SessionDateDeserializer.class)
     private LocalDateTime nextSessionDate;
+    private List<CourseSessionDto> sessions;
+    private GeoPointDto location;
+    // Kilometres from the requested point; only set when sorting by distance
+    private Double distanceKm;
 
 }
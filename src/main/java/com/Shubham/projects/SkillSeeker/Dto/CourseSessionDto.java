@@ -0,0 +1,18 @@
+package com.Shubham.projects.SkillSeeker.Dto;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.datatype.jsr310.deser.LocalDateDeserializer;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CourseSessionDto {
+    // Named explicitly so hits read by the Java client's mapper do not need the JSR-310 module
+    @JsonDeserialize(using = LocalDateDeserializer.class)
+    private LocalDate startDate;
+}
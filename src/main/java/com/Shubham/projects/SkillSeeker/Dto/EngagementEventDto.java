@@ -0,0 +1,14 @@
+package com.Shubham.projects.SkillSeeker.Dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EngagementEventDto {
+    private String courseId;
+    // click | enrollment
+    private String type;
+}
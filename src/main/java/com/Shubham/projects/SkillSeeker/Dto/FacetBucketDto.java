@@ -0,0 +1,18 @@
+package com.Shubham.projects.SkillSeeker.Dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class FacetBucketDto {
+    private String key;
+    private long count;
+    // Bounds of range buckets; from is inclusive, to exclusive
+    private Double from;
+    private Double to;
+}
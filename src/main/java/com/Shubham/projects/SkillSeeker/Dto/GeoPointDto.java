@@ -0,0 +1,13 @@
+package com.Shubham.projects.SkillSeeker.Dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GeoPointDto {
+    private double lat;
+    private double lon;
+}
@@ -0,0 +1,22 @@
+package com.Shubham.projects.SkillSeeker.Dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IngestionReportDto {
+    private String index;
+    private long documents;
+    private long indexed;
+    private long failed;
+    private int batches;
+    private int failedBatches;
+    private long elapsedMillis;
+    private double docsPerSecond;
+    private List<String> failures;
+}
@@ -0,0 +1,17 @@
+package com.Shubham.projects.SkillSeeker.Dto;
+
+import com.Shubham.projects.SkillSeeker.Service.QueryPlan;
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchProfileDto {
+    private QueryPlan plan;
+    private long tookMillis;
+    // Elasticsearch's per-shard profile breakdown, as returned by the cluster
+    private JsonNode profile;
+}
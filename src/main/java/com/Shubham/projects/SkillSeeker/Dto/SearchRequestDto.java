@@ -2,14 +2,17 @@ package com.Shubham.projects.SkillSeeker.Dto;
 
 import lombok.*;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.List;
 
 @Data
+@Builder(toBuilder = true)
 @AllArgsConstructor
 @NoArgsConstructor
 public class SearchRequestDto {
 
+    // Whose catalog to search; the default tenant when absent
+    private String tenant;
     private String q;
     private Integer minAge;
     private Integer maxAge;
@@ -18,8 +21,28 @@ public class SearchRequestDto {
     private Double minPrice;
     private Double maxPrice;
     private LocalDateTime startDate;
+    // Point the distance filter and sort are measured from
+    private Double lat;
+    private Double lon;
+    // Only courses within this many kilometres of lat/lon
+    private Double radiusKm;
+    // Only courses with a session in this window, both ends inclusive
+    private LocalDate sessionFrom;
+    private LocalDate sessionTo;
+    // upcoming, priceAsc, priceDesc, distance (needs lat/lon) or soonest (first session in the window)
+    @Builder.Default
     private String sort = "upcoming";
+    @Builder.Default
     private int page = 0;
+    @Builder.Default
     private int size = 10;
+    // Opaque search_after cursor; "*" or empty starts cursor paging
+    private String cursor;
+    // Adds category/type/gradeRange/price/age facet counts to the response
+    private boolean facets;
+    // Comma-separated course fields to return, e.g. "title,price"; id is always included
+    private String fields;
+    // Debug: runs uncached with the Elasticsearch profiler and returns the chosen query plan
+    private boolean profile;
 
 }
@@ -1,17 +1,36 @@
 package com.Shubham.projects.SkillSeeker.Dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
+import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.util.List;
+import java.util.Map;
 
 @Data
+@Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class SearchResponseDto {
     private long total;
+    // "gte" when the count stopped at the tracking threshold and total is a lower bound
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String totalRelation;
     private List<CourseDto> courses;
     private int page;
     private int size;
+    // Only present when cursor paging was requested and more results remain
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String nextCursor;
+    // Facet name -> buckets; only present when facets were requested
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Map<String, List<FacetBucketDto>> facets;
+    // "embedded" when the in-process engine answered instead of Elasticsearch
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String backend;
+    // Only present for profile=true debug requests
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private SearchProfileDto profile;
 }
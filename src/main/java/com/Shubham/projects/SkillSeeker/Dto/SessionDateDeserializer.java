@@ -0,0 +1,33 @@
+package com.Shubham.projects.SkillSeeker.Dto;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdScalarDeserializer;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Reads {@code nextSessionDate} as stored in the index ("2025-08-01") or as a date-time, and
+ * returns the start of that day. Does not depend on the reading mapper having the JSR-310 module.
+ */
+public class SessionDateDeserializer extends StdScalarDeserializer<LocalDateTime> {
+
+    public SessionDateDeserializer() {
+        super(LocalDateTime.class);
+    }
+
+    @Override
+    public LocalDateTime deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        String value = parser.getValueAsString();
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        if (value.length() == 10) {
+            return LocalDate.parse(value).atStartOfDay();
+        }
+        return LocalDateTime.parse(value, DateTimeFormatter.ISO_DATE_TIME).toLocalDate().atStartOfDay();
+    }
+}
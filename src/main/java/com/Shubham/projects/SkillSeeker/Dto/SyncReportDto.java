@@ -0,0 +1,25 @@
+package com.Shubham.projects.SkillSeeker.Dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SyncReportDto {
+    private String source;
+    private Instant finishedAt;
+    private long scanned;
+    private long unchanged;
+    private long upserted;
+    private long deleted;
+    // Writes skipped because the index already held a newer version of the course
+    private long conflicts;
+    private long failed;
+    private long elapsedMillis;
+    private List<String> failures;
+}
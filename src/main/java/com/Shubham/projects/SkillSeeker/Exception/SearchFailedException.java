@@ -0,0 +1,32 @@
+package com.Shubham.projects.SkillSeeker.Exception;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * A search, suggestion, export or course write that failed, with the {@link SearchFailure} it was classified as.
+ */
+@Getter
+public class SearchFailedException extends RuntimeException {
+
+    private final SearchFailure failure;
+    // When the client may try again; null if unknown
+    private final Duration retryAfter;
+
+    public SearchFailedException(String message, Throwable cause) {
+        super(message + ": " + cause.getMessage(), cause);
+        this.failure = SearchFailure.of(cause);
+        this.retryAfter = null;
+    }
+
+    public SearchFailedException(String message, SearchFailure failure) {
+        this(message, failure, null);
+    }
+
+    public SearchFailedException(String message, SearchFailure failure, Duration retryAfter) {
+        super(message);
+        this.failure = failure;
+        this.retryAfter = retryAfter;
+    }
+}
@@ -0,0 +1,79 @@
+package com.Shubham.projects.SkillSeeker.Exception;
+
+import co.elastic.clients.elasticsearch._types.ElasticsearchException;
+import co.elastic.clients.transport.TransportException;
+import org.elasticsearch.client.ResponseException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.elasticsearch.UncategorizedElasticsearchException;
+
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.util.Locale;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Why a call to Elasticsearch failed. Used as the error tag on metrics and to pick the HTTP status.
+ */
+public enum SearchFailure {
+    TIMEOUT,
+    REJECTED,
+    BAD_QUERY,
+    UNAVAILABLE,
+    // Shed by this service's own admission control, or a full write buffer, before reaching Elasticsearch
+    OVERLOADED,
+    // A course the course API was asked to read, change or delete does not exist
+    NOT_FOUND,
+    // A course the course API was asked to create already exists
+    CONFLICT,
+    INTERNAL;
+
+    public String tag() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Classifies a failure by walking its cause chain for the first recognisable cause.
+     */
+    public static SearchFailure of(Throwable error) {
+        for (Throwable t = error; t != null; t = t.getCause()) {
+            if (t instanceof SearchFailedException failed) {
+                return failed.getFailure();
+            }
+            if (t instanceof ElasticsearchException e) {
+                return fromStatus(e.status(), e.error().type());
+            }
+            if (t instanceof TransportException e && e.statusCode() > 0) {
+                return fromStatus(e.statusCode(), null);
+            }
+            if (t instanceof ResponseException e) {
+                return fromStatus(e.getResponse().getStatusLine().getStatusCode(), null);
+            }
+            if (t instanceof UncategorizedElasticsearchException e && e.getStatusCode() != null) {
+                return fromStatus(e.getStatusCode(), null);
+            }
+            if (t instanceof SocketTimeoutException || t instanceof TimeoutException || t instanceof QueryTimeoutException) {
+                return TIMEOUT;
+            }
+            if (t instanceof ConnectException || t instanceof DataAccessResourceFailureException) {
+                return UNAVAILABLE;
+            }
+            if (t instanceof IllegalArgumentException) {
+                return BAD_QUERY;
+            }
+        }
+        return INTERNAL;
+    }
+
+    private static SearchFailure fromStatus(int status, String errorType) {
+        if (status == 429 || "es_rejected_execution_exception".equals(errorType)) {
+            return REJECTED;
+        }
+        return switch (status) {
+            case 400 -> BAD_QUERY;
+            case 408, 504 -> TIMEOUT;
+            case 503 -> UNAVAILABLE;
+            default -> INTERNAL;
+        };
+    }
+}
@@ -0,0 +1,239 @@
+package com.Shubham.projects.SkillSeeker.Service;
+
+import com.Shubham.projects.SkillSeeker.Exception.SearchFailedException;
+import com.Shubham.projects.SkillSeeker.Exception.SearchFailure;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Caps the number of calls in flight to Elasticsearch at a limit that follows the cluster's latency,
+ * in the style of Netflix's gradient limiter. Latencies are averaged over windows of
+ * {@code window-size} calls. A slow-moving average of those windows stands for the latency of a
+ * healthy cluster; while the latest window stays within {@code tolerance} of it the limit grows by
+ * about its square root per window, and once it rises above that the limit shrinks in proportion.
+ * A call rejected or timed out by the cluster shrinks it at once by {@code backoff-ratio}.
+ * <p>
+ * Calls over the limit fail straight away as {@link SearchFailure#OVERLOADED} instead of queueing,
+ * so admitted calls keep their latency while the excess gets a fast 503. Suggestions may use at most
+ * {@code suggest-share} of the limit, which leaves the rest to searches.
+ */
+@Component
+@Slf4j
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double SMOOTHING = 0.2;
+    private static final double MIN_GRADIENT = 0.5;
+
+    private final boolean enabled;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double suggestShare;
+    private final double tolerance;
+    private final double backoffRatio;
+    private final int windowSize;
+    private final int longWindow;
+    private final Duration retryAfter;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger[] laneInFlight = {new AtomicInteger(), new AtomicInteger()};
+
+    // Read without the lock on every acquire; only written under it
+    private volatile double limit;
+
+    // Guarded by this
+    private double longRttNanos;
+    private long windowRttNanos;
+    private int windowSamples;
+    private int windowMaxInFlight;
+    private boolean windowDropped;
+    private long lastBackoffNanos = System.nanoTime();
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    public AdaptiveConcurrencyLimiter(@Value("${skillseeker.admission.concurrency.enabled:true}") boolean enabled,
+                                      @Value("${skillseeker.admission.concurrency.initial-limit:20}") int initialLimit,
+                                      @Value("${skillseeker.admission.concurrency.min-limit:4}") int minLimit,
+                                      @Value("${skillseeker.admission.concurrency.max-limit:200}") int maxLimit,
+                                      @Value("${skillseeker.admission.concurrency.suggest-share:0.25}") double suggestShare,
+                                      @Value("${skillseeker.admission.concurrency.tolerance:1.5}") double tolerance,
+                                      @Value("${skillseeker.admission.concurrency.backoff-ratio:0.9}") double backoffRatio,
+                                      @Value("${skillseeker.admission.concurrency.window-size:20}") int windowSize,
+                                      @Value("${skillseeker.admission.concurrency.long-window:50}") int longWindow,
+                                      @Value("${skillseeker.admission.concurrency.retry-after:1s}") Duration retryAfter) {
+        if (minLimit < 1 || maxLimit < minLimit || suggestShare <= 0 || suggestShare > 1
+                || tolerance < 1 || backoffRatio <= 0 || backoffRatio >= 1 || windowSize < 1 || longWindow < 1) {
+            throw new IllegalArgumentException("Invalid skillseeker.admission.concurrency settings");
+        }
+        this.enabled = enabled;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.suggestShare = suggestShare;
+        this.tolerance = tolerance;
+        this.backoffRatio = backoffRatio;
+        this.windowSize = windowSize;
+        this.longWindow = longWindow;
+        this.retryAfter = retryAfter;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    @PostConstruct
+    void registerGauges() {
+        if (meterRegistry == null) {
+            return;
+        }
+        Gauge.builder("skillseeker.admission.limit", this, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Current concurrency limit on calls to Elasticsearch")
+                .register(meterRegistry);
+        for (AdmissionLane lane : AdmissionLane.values()) {
+            Gauge.builder("skillseeker.admission.in-flight", laneInFlight[lane.ordinal()], AtomicInteger::get)
+                    .description("Calls to Elasticsearch in flight")
+                    .tag("lane", lane.tag())
+                    .register(meterRegistry);
+        }
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Takes a slot for a call to Elasticsearch.
+     *
+     * @return the permit to release when the call completes, or null if the call must be shed
+     */
+    public Permit tryAcquire(AdmissionLane lane) {
+        AtomicInteger laneCount = laneInFlight[lane.ordinal()];
+        if (!enabled) {
+            inFlight.incrementAndGet();
+            laneCount.incrementAndGet();
+            return new Permit(lane, System.nanoTime(), false);
+        }
+        int current = getLimit();
+        // The lane slot is taken first so that racing suggestions cannot overshoot their share
+        if (laneCount.incrementAndGet() > laneLimit(lane, current)) {
+            laneCount.decrementAndGet();
+            return null;
+        }
+        while (true) {
+            int taken = inFlight.get();
+            if (taken >= current) {
+                laneCount.decrementAndGet();
+                return null;
+            }
+            if (inFlight.compareAndSet(taken, taken + 1)) {
+                return new Permit(lane, System.nanoTime(), true);
+            }
+        }
+    }
+
+    private int laneLimit(AdmissionLane lane, int current) {
+        return lane == AdmissionLane.SUGGEST ? Math.max(1, (int) (current * suggestShare)) : current;
+    }
+
+    /**
+     * The failure to complete a shed call with.
+     */
+    public SearchFailedException overloaded(AdmissionLane lane) {
+        return new SearchFailedException("Too many " + lane.tag() + " requests in flight, try again shortly",
+                SearchFailure.OVERLOADED, retryAfter);
+    }
+
+    /**
+     * Feeds one completed call into the current window and adjusts the limit once the window is full.
+     * A drop closes the window early, unless the call started before the last backoff: the calls
+     * admitted under the old limit tend to fail together and should cost one backoff, not one each.
+     */
+    synchronized void onSample(long startNanos, long rttNanos, int inFlightAtStart, boolean dropped) {
+        windowRttNanos += rttNanos;
+        windowSamples++;
+        windowMaxInFlight = Math.max(windowMaxInFlight, inFlightAtStart);
+        boolean backOff = dropped && startNanos - lastBackoffNanos >= 0;
+        windowDropped |= backOff;
+        if (windowSamples < windowSize && !backOff) {
+            return;
+        }
+
+        double shortRtt = (double) windowRttNanos / windowSamples;
+        double current = limit;
+        double next;
+        if (windowDropped) {
+            next = current * backoffRatio;
+            lastBackoffNanos = System.nanoTime();
+        } else {
+            longRttNanos = longRttNanos == 0 ? shortRtt : longRttNanos + (shortRtt - longRttNanos) / longWindow;
+            // Once latency has fallen well below the long average, let the average catch up faster
+            if (longRttNanos > 2 * shortRtt) {
+                longRttNanos *= 0.95;
+            }
+            if (windowMaxInFlight < current / 2) {
+                // Demand, not the cluster, is what keeps in-flight calls low; the latency says nothing
+                next = current;
+            } else {
+                double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, tolerance * longRttNanos / shortRtt));
+                double target = current * gradient + Math.sqrt(current);
+                next = current * (1 - SMOOTHING) + target * SMOOTHING;
+            }
+        }
+        limit = Math.max(minLimit, Math.min(maxLimit, next));
+        if ((int) limit != (int) current) {
+            log.debug("Concurrency limit {} -> {} (window {} ms, long {} ms{})", (int) current, (int) limit,
+                    Math.round(shortRtt / 1e6), Math.round(longRttNanos / 1e6), windowDropped ? ", dropped" : "");
+        }
+        windowRttNanos = 0;
+        windowSamples = 0;
+        windowMaxInFlight = 0;
+        windowDropped = false;
+    }
+
+    /**
+     * A slot held by one call; release it exactly once.
+     */
+    public final class Permit {
+        private final AdmissionLane lane;
+        private final long startNanos;
+        private final int inFlightAtStart;
+        private final boolean sampled;
+
+        private Permit(AdmissionLane lane, long startNanos, boolean sampled) {
+            this.lane = lane;
+            this.startNanos = startNanos;
+            this.inFlightAtStart = inFlight.get();
+            this.sampled = sampled;
+        }
+
+        /**
+         * Frees the slot and records how the call went. Rejections and timeouts from the cluster
+         * count as drops; other failures, such as a bad query or an unreachable cluster, say nothing
+         * about its load and are not sampled.
+         */
+        public void release(Throwable error) {
+            inFlight.decrementAndGet();
+            laneInFlight[lane.ordinal()].decrementAndGet();
+            if (!sampled) {
+                return;
+            }
+            long rttNanos = System.nanoTime() - startNanos;
+            if (error == null) {
+                onSample(startNanos, rttNanos, inFlightAtStart, false);
+                return;
+            }
+            SearchFailure failure = SearchFailure.of(error);
+            if (failure == SearchFailure.REJECTED || failure == SearchFailure.TIMEOUT) {
+                onSample(startNanos, rttNanos, inFlightAtStart, true);
+            }
+        }
+    }
+}
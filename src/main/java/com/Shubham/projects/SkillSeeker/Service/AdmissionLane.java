@@ -0,0 +1,16 @@
+package com.Shubham.projects.SkillSeeker.Service;
+
+import java.util.Locale;
+
+/**
+ * Which kind of traffic a request belongs to. Each lane has its own rate limit and its own share of
+ * the Elasticsearch concurrency limit, so a burst of autocomplete keystrokes cannot crowd out searches.
+ */
+public enum AdmissionLane {
+    SEARCH,
+    SUGGEST;
+
+    public String tag() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,492 @@
+package com.Shubham.projects.SkillSeeker.Service;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.VersionType;
+import co.elastic.clients.elasticsearch.core.BulkResponse;
+import co.elastic.clients.elasticsearch.core.bulk.BulkOperation;
+import co.elastic.clients.elasticsearch.core.bulk.BulkResponseItem;
+import com.Shubham.projects.SkillSeeker.Document.CourseDocument;
+import com.Shubham.projects.SkillSeeker.Dto.SyncReportDto;
+import com.Shubham.projects.SkillSeeker.Exception.SearchFailure;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.MultiGetItem;
+import org.springframework.data.elasticsearch.core.SearchHitsIterator;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.FetchSourceFilter;
+import org.springframework.data.elasticsearch.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Brings the live course indices in line with the catalog without rebuilding them.
+ * Each course goes to its tenant's alias with its tenant's routing (see {@link TenantRegistry}).
+ * A full sync compares the {@link CourseContentHash} of every catalog course with the hash stored
+ * in the index and sends only the changed courses and the removed ids through _bulk. Delta files
+ * skip the comparison and apply their upserts and deletes directly. Courses last written through the
+ * course API ({@link CourseWriteBuffer}) are left alone by a full sync, whether or not the catalog
+ * lists them, and so are the tombstones of courses it deleted, until the catalog drops the course.
+ * <p>
+ * Every write carries an external version from the {@link VersionClock}, so a write that loses a
+ * race with a newer one, from a sync or the course API, is rejected by Elasticsearch instead of
+ * overwriting it.
+ * Rewritten courses keep the engagement the index has collected for them, which the catalog knows
+ * nothing about.
+ */
+@Service
+@Slf4j
+public class CatalogSyncService {
+
+    private static final int MAX_REPORTED_FAILURES = 100;
+
+    @Autowired
+    private ElasticsearchOperations elasticsearchOperations;
+
+    @Autowired
+    private ElasticsearchClient elasticsearchClient;
+
+    @Autowired
+    private CourseIndexService courseIndexService;
+
+    @Autowired
+    private SearchResultCache searchResultCache;
+
+    @Autowired
+    private SuggestionIndex suggestionIndex;
+
+    @Autowired
+    private EmbeddedSearchEngine embeddedSearchEngine;
+
+    @Autowired
+    private SearchMetrics searchMetrics;
+
+    @Autowired
+    private TenantRegistry tenantRegistry;
+
+    @Autowired
+    private VersionClock versionClock;
+
+    @Autowired
+    private EngagementCollector engagementCollector;
+
+    @Value("${skillseeker.catalog.location:classpath:sample-courses.json}")
+    private Resource catalog;
+
+    @Value("${skillseeker.ingest.batch-size:1000}")
+    private int batchSize;
+
+    private final AtomicBoolean syncing = new AtomicBoolean(false);
+    private volatile SyncReportDto lastReport;
+
+    private final ExecutorService syncExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "catalog-sync");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public boolean isSyncing() {
+        return syncing.get();
+    }
+
+    public SyncReportDto getLastReport() {
+        return lastReport;
+    }
+
+    /**
+     * Starts a full sync from the configured catalog on a background thread.
+     *
+     * @return false if a sync is already running
+     */
+    public boolean syncAsync() {
+        if (syncing.get()) {
+            return false;
+        }
+        syncExecutor.execute(() -> {
+            try {
+                sync();
+            } catch (Exception e) {
+                log.error("Background catalog sync failed: {}", e.getMessage(), e);
+            }
+        });
+        return true;
+    }
+
+    /**
+     * Diffs the configured catalog against the live indices and writes only the differences.
+     */
+    public synchronized SyncReportDto sync() {
+        if (courseIndexService.isReindexing()) {
+            throw new IllegalStateException("A reindex is running; it already loads the whole catalog");
+        }
+        syncing.set(true);
+        try {
+            // Suggestions are kept current write by write below, which needs a complete starting point
+            if (!suggestionIndex.isReady()) {
+                suggestionIndex.rebuild();
+            }
+            Map<String, Map<String, Indexed>> indexed = new LinkedHashMap<>();
+            for (String alias : courseIndexService.getAliases().keySet()) {
+                putMapping(alias);
+                indexed.put(alias, indexedCourses(alias));
+            }
+
+            BulkWriter writer = new BulkWriter("catalog", false);
+            try (InputStream inputStream = catalog.getInputStream();
+                 CourseJsonReader reader = new CourseJsonReader(inputStream)) {
+                CourseDocument course;
+                while ((course = reader.next()) != null) {
+                    writer.scanned++;
+                    TenantRoute route = route(writer, course);
+                    if (route == null) {
+                        continue;
+                    }
+                    Indexed previous = indexed.get(route.alias()).remove(course.getId());
+                    // Edited through the course API since; the catalog no longer owns it
+                    if (previous != null && previous.isApiWritten()) {
+                        writer.unchanged++;
+                        continue;
+                    }
+                    if (previous != null && course.getContentHash().equals(previous.hash())) {
+                        writer.unchanged++;
+                        continue;
+                    }
+                    if (previous != null && !Objects.equals(previous.routing(), route.routing())) {
+                        // Moved between tenants of the shared index; the old copy is routed elsewhere
+                        writer.delete(route.alias(), previous.routing(), previous.tenant(), course.getId());
+                    }
+                    writer.upsert(route, course, previous == null ? route.routing() : previous.routing());
+                }
+            } catch (IOException e) {
+                // Nothing is deleted unless the whole catalog was read
+                throw new RuntimeException("Failed to read course catalog: " + e.getMessage(), e);
+            }
+
+            int remaining = indexed.values().stream().mapToInt(Map::size).sum();
+            if (writer.scanned == 0 && remaining > 0) {
+                log.warn("Catalog is empty; keeping the {} indexed courses instead of deleting them", remaining);
+            } else {
+                // Courses gone from the catalog, or now belonging to a tenant indexed elsewhere. Courses
+                // created through the course API were never in it. A tombstone is only needed while the
+                // catalog still lists the course it deleted
+                indexed.forEach((alias, courses) -> courses.forEach((id, course) -> {
+                    if (!course.isApiWritten() || course.deleted()) {
+                        writer.delete(alias, course.routing(), course.tenant(), id);
+                    }
+                }));
+            }
+            return finish(writer);
+        } finally {
+            syncing.set(false);
+        }
+    }
+
+    /**
+     * Applies one NDJSON delta file. Each line is either a complete course, which replaces the
+     * indexed one, or {@code {"id": "...", "deleted": true}}, with a {@code tenant} unless the course
+     * belongs to the default tenant. Moving a course to another tenant takes a full sync, which knows
+     * where the old copy is.
+     *
+     * @throws IllegalStateException if the file cannot be applied yet, because a reindex is running or
+     *                               Elasticsearch did not take a batch or some of its courses; the whole
+     *                               file is to be retried later
+     */
+    public synchronized SyncReportDto applyDeltas(Path file) throws IOException {
+        if (courseIndexService.isReindexing()) {
+            throw new IllegalStateException("A reindex is running; retry the delta file afterwards");
+        }
+        BulkWriter writer = new BulkWriter(file.getFileName().toString(), true);
+        try (InputStream inputStream = Files.newInputStream(file);
+             CourseJsonReader reader = new CourseJsonReader(inputStream)) {
+            CourseDocument course;
+            while ((course = reader.next()) != null) {
+                writer.scanned++;
+                if (course.getId() == null) {
+                    writer.fail("line " + writer.scanned + ": missing id");
+                    continue;
+                }
+                TenantRoute route = route(writer, course);
+                if (route == null) {
+                    continue;
+                }
+                if (reader.lastDeleted()) {
+                    writer.delete(route.alias(), route.routing(), route.tenant(), course.getId());
+                } else {
+                    writer.upsert(route, course, route.routing());
+                }
+            }
+        }
+        return finish(writer);
+    }
+
+    // Null, after counting it as failed, for a course of an undeclared tenant
+    private TenantRoute route(BulkWriter writer, CourseDocument course) {
+        try {
+            return tenantRegistry.assign(course);
+        } catch (IllegalArgumentException e) {
+            writer.fail("course " + course.getId() + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private SyncReportDto finish(BulkWriter writer) {
+        writer.flush();
+        // Only the tenants whose courses changed lose their cached pages
+        if (!writer.changedTenants.isEmpty()) {
+            searchResultCache.invalidate(writer.changedTenants);
+        }
+
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - writer.startNanos);
+        SyncReportDto report = new SyncReportDto(writer.source, Instant.now(), writer.scanned, writer.unchanged,
+                writer.upserted, writer.deleted, writer.conflicts, writer.failed, elapsedMillis, writer.failures);
+        lastReport = report;
+        log.info("Synced tenants {} from {} in {} ms: {} scanned, {} unchanged, {} upserted, {} deleted, {} conflicts, {} failed",
+                writer.changedTenants, writer.source, elapsedMillis, report.getScanned(), report.getUnchanged(),
+                report.getUpserted(), report.getDeleted(), report.getConflicts(), report.getFailed());
+        return report;
+    }
+
+    /**
+     * Id to content hash, tenant, routing, origin and tombstone flag of every course indexed under the alias. Courses
+     * indexed before hashes existed have a null hash and are therefore rewritten once.
+     */
+    private Map<String, Indexed> indexedCourses(String alias) {
+        NativeQuery query = NativeQuery.builder()
+                .withQuery(q -> q.matchAll(m -> m))
+                .withSourceFilter(new FetchSourceFilter(new String[]{"id", "tenant", "contentHash", "origin", "deleted"}, null))
+                .withPageable(PageRequest.of(0, 1000))
+                .withScrollTime(Duration.ofMinutes(1))
+                .build();
+
+        Map<String, Indexed> courses = new HashMap<>();
+        try (SearchHitsIterator<CourseDocument> hits =
+                     elasticsearchOperations.searchForStream(query, CourseDocument.class, IndexCoordinates.of(alias))) {
+            hits.forEachRemaining(hit -> courses.put(hit.getId(),
+                    new Indexed(hit.getContent().getContentHash(), hit.getContent().getTenant(), hit.getRouting(),
+                            hit.getContent().getOrigin(), hit.getContent().isTombstone())));
+        }
+        return courses;
+    }
+
+    private record Indexed(String hash, String tenant, String routing, String origin, boolean deleted) {
+
+        boolean isApiWritten() {
+            return CourseWriteBuffer.API_ORIGIN.equals(origin);
+        }
+    }
+
+    // Indices created before contentHash existed would otherwise map it dynamically as text
+    private void putMapping(String alias) {
+        try {
+            elasticsearchOperations.indexOps(IndexCoordinates.of(alias))
+                    .putMapping(elasticsearchOperations.indexOps(CourseDocument.class).createMapping());
+        } catch (RuntimeException e) {
+            log.warn("Could not update the mapping of '{}': {}", alias, e.getMessage());
+        }
+    }
+
+    /**
+     * One queued write: an upsert when {@code course} is set, a delete otherwise. {@code lookupRouting}
+     * is where the current copy of an upserted course is read from to carry its engagement over.
+     */
+    private record Write(String alias, String routing, String tenant, String id, CourseDocument course,
+                         String lookupRouting, long version) {
+    }
+
+    /**
+     * Accumulates upserts and deletes, each addressed to its tenant's alias and routing, into _bulk
+     * requests of {@code batchSize} operations and tallies the outcome of each. With
+     * {@code deferUnavailable}, a batch that Elasticsearch could not take, whole or for some of its
+     * courses (429 or 5xx), throws instead of counting the courses as failed, so the caller can retry.
+     */
+    private final class BulkWriter {
+        private final String source;
+        private final boolean deferUnavailable;
+        private final long startNanos = System.nanoTime();
+        private final List<Write> writes = new ArrayList<>();
+        private final List<String> failures = new ArrayList<>();
+        private final Set<String> changedTenants = new TreeSet<>();
+        private long scanned;
+        private long unchanged;
+        private long upserted;
+        private long deleted;
+        private long conflicts;
+        private long failed;
+        private long unavailable;
+
+        private BulkWriter(String source, boolean deferUnavailable) {
+            this.source = source;
+            this.deferUnavailable = deferUnavailable;
+        }
+
+        private void upsert(TenantRoute route, CourseDocument course, String lookupRouting) {
+            writes.add(new Write(route.alias(), route.routing(), route.tenant(), course.getId(), course,
+                    lookupRouting, versionClock.next()));
+            flushIfFull();
+        }
+
+        private void delete(String alias, String routing, String tenant, String id) {
+            writes.add(new Write(alias, routing, tenant, id, null, null, versionClock.next()));
+            flushIfFull();
+        }
+
+        private List<BulkOperation> operations() {
+            List<BulkOperation> operations = new ArrayList<>(writes.size());
+            for (Write write : writes) {
+                if (write.course() != null) {
+                    Map<String, Object> document = elasticsearchOperations.getElasticsearchConverter().mapObject(write.course());
+                    operations.add(BulkOperation.of(o -> o.index(idx -> idx
+                            .index(write.alias())
+                            .id(write.id())
+                            .routing(write.routing())
+                            .document(document)
+                            .version(write.version())
+                            .versionType(VersionType.External))));
+                } else {
+                    operations.add(BulkOperation.of(o -> o.delete(d -> d
+                            .index(write.alias())
+                            .id(write.id())
+                            .routing(write.routing())
+                            .version(write.version())
+                            .versionType(VersionType.External))));
+                }
+            }
+            return operations;
+        }
+
+        /**
+         * Reads the engagement fields of the courses about to be rewritten, so the rewrite keeps them.
+         * Engagement flushes of this instance are held until the batch is written, so none lands in
+         * between; one from another instance can still be overwritten, losing at most its flush interval.
+         */
+        private void carryOverEngagement() {
+            Map<String, Map<String, CourseDocument>> upsertsByAlias = new HashMap<>();
+            Map<String, List<Query.IdWithRouting>> lookupsByAlias = new HashMap<>();
+            for (Write write : writes) {
+                if (write.course() != null) {
+                    upsertsByAlias.computeIfAbsent(write.alias(), a -> new HashMap<>()).put(write.id(), write.course());
+                    lookupsByAlias.computeIfAbsent(write.alias(), a -> new ArrayList<>())
+                            .add(new Query.IdWithRouting(write.id(), write.lookupRouting()));
+                }
+            }
+            lookupsByAlias.forEach((alias, lookups) -> {
+                Map<String, CourseDocument> upserts = upsertsByAlias.get(alias);
+                NativeQuery query = NativeQuery.builder()
+                        .withIdsWithRouting(lookups)
+                        .withSourceFilter(new FetchSourceFilter(EngagementCollector.ENGAGEMENT_FIELDS, null))
+                        .build();
+                for (MultiGetItem<CourseDocument> item :
+                        elasticsearchOperations.multiGet(query, CourseDocument.class, IndexCoordinates.of(alias))) {
+                    if (item.hasItem()) {
+                        EngagementCollector.copyEngagement(item.getItem(), upserts.get(item.getItem().getId()));
+                    }
+                }
+            });
+        }
+
+        private void fail(String failure) {
+            failed++;
+            if (failures.size() < MAX_REPORTED_FAILURES) {
+                failures.add(failure);
+            }
+        }
+
+        private void flushIfFull() {
+            if (writes.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        private void flush() {
+            if (writes.isEmpty()) {
+                return;
+            }
+            long started = System.nanoTime();
+            String outcome = "failed";
+            IllegalStateException deferred = null;
+            engagementCollector.suspendFlushes();
+            try {
+                carryOverEngagement();
+                List<BulkOperation> operations = operations();
+                BulkResponse response = elasticsearchClient.bulk(b -> b.operations(operations));
+                List<BulkResponseItem> items = response.items();
+                for (int i = 0; i < items.size(); i++) {
+                    record(items.get(i), writes.get(i));
+                }
+                outcome = response.errors() ? "partial" : "success";
+                if (unavailable > 0) {
+                    deferred = new IllegalStateException(unavailable + " courses were not taken by Elasticsearch");
+                }
+            } catch (IOException | RuntimeException e) {
+                if (deferUnavailable && SearchFailure.of(e) != SearchFailure.BAD_QUERY) {
+                    deferred = new IllegalStateException("Elasticsearch is unavailable: " + e.getMessage(), e);
+                } else {
+                    for (Write write : writes) {
+                        fail("course " + write.id() + ": " + e.getMessage());
+                    }
+                }
+                log.error("Sync batch of {} operations failed: {}", writes.size(), e.getMessage(), e);
+            } finally {
+                engagementCollector.resumeFlushes();
+                searchMetrics.recordIngestBatch(Duration.ofNanos(System.nanoTime() - started), writes.size(), outcome);
+                writes.clear();
+            }
+            if (deferred != null) {
+                throw deferred;
+            }
+        }
+
+        private void record(BulkResponseItem item, Write write) {
+            if (item.error() == null) {
+                if (write.tenant() != null) {
+                    changedTenants.add(write.tenant());
+                }
+                if (write.course() != null) {
+                    upserted++;
+                    suggestionIndex.upsert(write.course());
+                    embeddedSearchEngine.upsert(write.course());
+                } else {
+                    // A delete of a course that is already gone also lands here, as not_found
+                    deleted++;
+                    suggestionIndex.remove(write.id());
+                    embeddedSearchEngine.remove(write.id());
+                }
+            } else if (item.status() == 409) {
+                // The index holds a newer version written by someone else; theirs wins
+                conflicts++;
+            } else if (deferUnavailable && (item.status() == 429 || item.status() >= 500)) {
+                unavailable++;
+            } else {
+                fail("course " + write.id() + ": " + item.error().reason());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        syncExecutor.shutdownNow();
+    }
+}
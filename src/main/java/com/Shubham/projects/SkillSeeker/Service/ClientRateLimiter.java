@@ -0,0 +1,92 @@
+package com.Shubham.projects.SkillSeeker.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-client token buckets, one per client and lane. A bucket holds up to {@code burst} tokens and
+ * refills at {@code rate} tokens per second; every request takes one. Buckets are refilled lazily
+ * when they are used, and clients that stay idle are forgotten.
+ */
+@Component
+public class ClientRateLimiter {
+
+    private final boolean enabled;
+    private final double[] ratePerNano = new double[AdmissionLane.values().length];
+    private final double[] burst = new double[AdmissionLane.values().length];
+    private final Cache<String, TokenBucket> buckets;
+
+    public ClientRateLimiter(@Value("${skillseeker.admission.rate-limit.enabled:true}") boolean enabled,
+                             @Value("${skillseeker.admission.rate-limit.search.rate:20}") double searchRate,
+                             @Value("${skillseeker.admission.rate-limit.search.burst:40}") double searchBurst,
+                             @Value("${skillseeker.admission.rate-limit.suggest.rate:50}") double suggestRate,
+                             @Value("${skillseeker.admission.rate-limit.suggest.burst:100}") double suggestBurst,
+                             @Value("${skillseeker.admission.rate-limit.max-clients:100000}") long maxClients,
+                             @Value("${skillseeker.admission.rate-limit.idle-timeout:10m}") Duration idleTimeout) {
+        if (searchRate <= 0 || suggestRate <= 0 || searchBurst < 1 || suggestBurst < 1) {
+            throw new IllegalArgumentException("Rate limits need a positive rate and a burst of at least 1");
+        }
+        this.enabled = enabled;
+        ratePerNano[AdmissionLane.SEARCH.ordinal()] = searchRate / TimeUnit.SECONDS.toNanos(1);
+        ratePerNano[AdmissionLane.SUGGEST.ordinal()] = suggestRate / TimeUnit.SECONDS.toNanos(1);
+        burst[AdmissionLane.SEARCH.ordinal()] = searchBurst;
+        burst[AdmissionLane.SUGGEST.ordinal()] = suggestBurst;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxClients)
+                .expireAfterAccess(idleTimeout)
+                .build();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Takes a token from the client's bucket for {@code lane}.
+     *
+     * @return null if the request is admitted, otherwise how long until the bucket has a token again
+     */
+    public Duration tryAcquire(String clientId, AdmissionLane lane) {
+        return tryAcquire(clientId, lane, System.nanoTime());
+    }
+
+    Duration tryAcquire(String clientId, AdmissionLane lane, long nowNanos) {
+        if (!enabled) {
+            return null;
+        }
+        int i = lane.ordinal();
+        TokenBucket bucket = buckets.get(lane.tag() + ':' + clientId, key -> new TokenBucket(burst[i], nowNanos));
+        long waitNanos = bucket.take(ratePerNano[i], burst[i], nowNanos);
+        return waitNanos == 0 ? null : Duration.ofNanos(waitNanos);
+    }
+
+    private static final class TokenBucket {
+        private double tokens;
+        private long refilledAt;
+
+        private TokenBucket(double tokens, long now) {
+            this.tokens = tokens;
+            this.refilledAt = now;
+        }
+
+        /**
+         * Takes one token, or returns the nanoseconds until one will be there.
+         */
+        private synchronized long take(double ratePerNano, double burst, long now) {
+            if (now > refilledAt) {
+                tokens = Math.min(burst, tokens + (now - refilledAt) * ratePerNano);
+                refilledAt = now;
+            }
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return Math.max(1, (long) Math.ceil((1 - tokens) / ratePerNano));
+        }
+    }
+}
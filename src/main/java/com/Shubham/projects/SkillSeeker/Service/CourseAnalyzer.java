@@ -0,0 +1,130 @@
+package com.Shubham.projects.SkillSeeker.Service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * In-process copy of the analyzers in {@code elasticsearch/course-settings.json}, used by the
+ * {@link EmbeddedCourseIndex} so it matches the same words as the live index.
+ * <ul>
+ *     <li>{@link #tokens}: standard-like tokenizer, lowercase and asciifolding, the input of both chains.</li>
+ *     <li>{@link #stem}: possessive_english then minimal_english, the rest of {@code course_text}.
+ *     {@code course_text_search} expands synonyms in between; see {@link SynonymSet}.</li>
+ *     <li>{@code course_prefix} indexes the edge n-grams of the folded title words, so a search word
+ *     of {@link #MIN_GRAM} to {@link #MAX_GRAM} characters matches every title word it starts.</li>
+ * </ul>
+ */
+final class CourseAnalyzer {
+
+    static final int MIN_GRAM = 2;
+    static final int MAX_GRAM = 15;
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    private CourseAnalyzer() {
+    }
+
+    /**
+     * Indexed terms of a {@code course_text} field.
+     */
+    static List<String> analyze(String text) {
+        List<String> terms = tokens(text);
+        terms.replaceAll(CourseAnalyzer::stem);
+        return terms;
+    }
+
+    /**
+     * Splits on anything that is not a letter or digit, keeping apostrophes inside a word as the
+     * standard tokenizer does, then lower-cases and folds.
+     */
+    static List<String> tokens(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && (Character.isLetterOrDigit(text.charAt(i))
+                    || start >= 0 && isApostrophe(text.charAt(i))
+                    && i + 1 < text.length() && Character.isLetterOrDigit(text.charAt(i + 1)));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(fold(text.substring(start, i)));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Lower-cases and strips accents, like the lowercase and asciifolding filters for Latin text.
+     */
+    static String fold(String word) {
+        String lower = word.toLowerCase(Locale.ROOT);
+        boolean ascii = true;
+        for (int i = 0; i < lower.length() && ascii; i++) {
+            ascii = lower.charAt(i) < 0x80;
+        }
+        if (ascii) {
+            return lower;
+        }
+        String stripped = COMBINING_MARKS.matcher(Normalizer.normalize(lower, Normalizer.Form.NFD)).replaceAll("");
+        StringBuilder folded = new StringBuilder(stripped.length());
+        for (int i = 0; i < stripped.length(); i++) {
+            char c = stripped.charAt(i);
+            switch (c) {
+                case 'ß' -> folded.append("ss");
+                case 'æ' -> folded.append("ae");
+                case 'œ' -> folded.append("oe");
+                case 'ø' -> folded.append('o');
+                case 'đ' -> folded.append('d');
+                case 'ł' -> folded.append('l');
+                case '’', '‘' -> folded.append('\'');
+                default -> folded.append(c);
+            }
+        }
+        return folded.toString();
+    }
+
+    /**
+     * Drops a trailing {@code 's}, then applies Lucene's EnglishMinimalStemmer (the "S-stemmer"),
+     * which only undoes plurals: {@code studies -> study}, {@code skills -> skill}.
+     */
+    static String stem(String token) {
+        String word = token.endsWith("'s") ? token.substring(0, token.length() - 2) : token;
+        int len = word.length();
+        if (len < 3 || word.charAt(len - 1) != 's') {
+            return word;
+        }
+        switch (word.charAt(len - 2)) {
+            case 'u', 's':
+                return word;
+            case 'e':
+                char third = word.charAt(len - 3);
+                if (len > 3 && third == 'i' && word.charAt(len - 4) != 'a' && word.charAt(len - 4) != 'e') {
+                    return word.substring(0, len - 3) + 'y';
+                }
+                if (third == 'i' || third == 'a' || third == 'o' || third == 'e') {
+                    return word;
+                }
+                return word.substring(0, len - 1);
+            default:
+                return word.substring(0, len - 1);
+        }
+    }
+
+    /**
+     * Whether a folded search word is within the n-gram lengths {@code course_prefix} indexes.
+     */
+    static boolean isPrefixable(String token) {
+        return token.length() >= MIN_GRAM && token.length() <= MAX_GRAM;
+    }
+
+    private static boolean isApostrophe(char c) {
+        return c == '\'' || c == '’';
+    }
+}
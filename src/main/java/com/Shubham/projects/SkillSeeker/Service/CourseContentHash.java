@@ -0,0 +1,64 @@
+package com.Shubham.projects.SkillSeeker.Service;
+
+import com.Shubham.projects.SkillSeeker.Document.CourseDocument;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Fingerprint of the catalog fields of a course. Two courses with the same hash index to the same
+ * document, so the sync only rewrites courses whose hash changed. Derived fields such as
+ * {@code suggest} are left out because they follow from the title.
+ */
+public final class CourseContentHash {
+
+    private static final char SEPARATOR = '\u001f';
+
+    private CourseContentHash() {
+    }
+
+    public static String of(CourseDocument course) {
+        StringBuilder content = new StringBuilder(256);
+        append(content, course.getId());
+        // Only when set, so catalogs without tenants keep the hashes they were indexed with
+        if (course.getTenant() != null) {
+            append(content, course.getTenant());
+        }
+        append(content, course.getTitle());
+        append(content, course.getDescription());
+        append(content, course.getCategory());
+        append(content, course.getType());
+        append(content, course.getGradeRange());
+        append(content, course.getMinAge());
+        append(content, course.getMaxAge());
+        append(content, course.getPrice());
+        append(content, course.getNextSessionDate());
+        append(content, course.getSessions() == null ? null : course.getSessions().stream()
+                .map(session -> String.valueOf(session.getStartDate())).toList());
+        append(content, course.getLocation() == null ? null
+                : course.getLocation().getLat() + "," + course.getLocation().getLon());
+        return digest(content.toString());
+    }
+
+    /**
+     * The first 128 bits of the SHA-256 of {@code content}, in hex.
+     */
+    static String digest(String content) {
+        return HexFormat.of().formatHex(sha256(content), 0, 16);
+    }
+
+    private static void append(StringBuilder content, Object value) {
+        // Null and empty must not collide, so nulls get a marker of their own
+        content.append(value == null ? "\u0000" : value.toString()).append(SEPARATOR);
+    }
+
+    private static byte[] sha256(String content) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(content.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,463 @@
+package com.Shubham.projects.SkillSeeker.Service;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.HealthStatus;
+import co.elastic.clients.elasticsearch._types.SortOrder;
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregation;
+import co.elastic.clients.elasticsearch._types.mapping.TypeMapping;
+import co.elastic.clients.elasticsearch.indices.get_mapping.IndexMappingRecord;
+import co.elastic.clients.elasticsearch.indices.update_aliases.Action;
+import co.elastic.clients.elasticsearch.synonyms.SynonymRule;
+import co.elastic.clients.json.JsonData;
+import com.Shubham.projects.SkillSeeker.Document.CourseDocument;
+import com.Shubham.projects.SkillSeeker.Dto.IngestionReportDto;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.IndexOperations;
+import org.springframework.data.elasticsearch.core.document.Document;
+import org.springframework.data.elasticsearch.core.index.Settings;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Owns the physical indices behind the tenant aliases: the shared {@code courses} alias and one
+ * {@code courses-<tenant>} alias per dedicated tenant (see {@link TenantRegistry}).
+ * A reindex builds a fresh {@code <alias>_vN} index off to the side, warms it, and then
+ * atomically repoints the alias so searches never see a partially loaded catalog. Each alias is
+ * rebuilt and swapped on its own, so a failure leaves the other tenants' indices as they were.
+ * Courses written through the course API, which the catalog does not list, are copied over from the
+ * old index before the swap.
+ * <p>
+ * Each index records a fingerprint of the analysis settings and mapping it was created with in its
+ * mapping's {@code _meta}. An alias over an index with a different fingerprint, or none, is rebuilt
+ * at startup, since analyzers cannot be changed on an existing index.
+ */
+@Service
+@Slf4j
+public class CourseIndexService {
+
+    static final String ANALYSIS_META = "analysis";
+
+    @Autowired
+    private ElasticsearchOperations elasticsearchOperations;
+
+    @Autowired
+    private ElasticsearchClient elasticsearchClient;
+
+    @Autowired
+    private CourseIngestionService courseIngestionService;
+
+    @Autowired
+    private SearchResultCache searchResultCache;
+
+    @Autowired
+    private SuggestionIndex suggestionIndex;
+
+    @Autowired
+    private EmbeddedSearchEngine embeddedSearchEngine;
+
+    @Autowired
+    private EngagementCollector engagementCollector;
+
+    @Autowired
+    private CourseWriteBuffer courseWriteBuffer;
+
+    @Autowired
+    private SynonymSet synonymSet;
+
+    @Autowired
+    private TenantRegistry tenantRegistry;
+
+    @Value("${skillseeker.catalog.location:classpath:sample-courses.json}")
+    private Resource catalog;
+
+    @Value("${skillseeker.index.replicas:1}")
+    private int replicas;
+
+    @Value("${skillseeker.index.shards:1}")
+    private int shards;
+
+    @Value("${skillseeker.index.force-merge:true}")
+    private boolean forceMerge;
+
+    private final AtomicBoolean reindexing = new AtomicBoolean(false);
+    private volatile List<IngestionReportDto> lastReports = List.of();
+
+    private final ExecutorService reindexExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "course-reindex");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Every tenant alias, with the tenants it holds.
+     */
+    public Map<String, Set<String>> getAliases() {
+        return tenantRegistry.aliases();
+    }
+
+    public boolean aliasExists(String alias) {
+        try {
+            return elasticsearchClient.indices().existsAlias(e -> e.name(alias)).value();
+        } catch (IOException e) {
+            throw new RuntimeException("Alias lookup failed: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Returns the versioned indices the alias currently points at.
+     */
+    public Set<String> getCurrentIndices(String alias) {
+        try {
+            if (!aliasExists(alias)) {
+                return Set.of();
+            }
+            return elasticsearchClient.indices().getAlias(g -> g.name(alias)).result().keySet();
+        } catch (IOException e) {
+            throw new RuntimeException("Alias lookup failed: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Aliases that have to be built from the catalog before they can be synced: those that do not
+     * exist yet, such as a newly declared dedicated tenant's, those over an index from before
+     * tenants, whose courses are not routed, and those over an index created with other analyzers.
+     */
+    public List<String> getStaleAliases() {
+        List<String> stale = new ArrayList<>();
+        for (String alias : getAliases().keySet()) {
+            if (!aliasExists(alias) || !hasCurrentMapping(alias)) {
+                stale.add(alias);
+            }
+        }
+        return stale;
+    }
+
+    private boolean hasCurrentMapping(String alias) {
+        String expected = analysisFingerprint();
+        try {
+            for (Map.Entry<String, IndexMappingRecord> index :
+                    elasticsearchClient.indices().getMapping(g -> g.index(alias)).result().entrySet()) {
+                TypeMapping mapping = index.getValue().mappings();
+                if (!mapping.properties().containsKey("tenant")) {
+                    return false;
+                }
+                JsonData analysis = mapping.meta().get(ANALYSIS_META);
+                if (analysis == null || !expected.equals(analysis.to(String.class))) {
+                    log.warn("Index '{}' was created with other analysis settings than the current ones "
+                            + "and will be rebuilt from the catalog", index.getKey());
+                    return false;
+                }
+            }
+            return true;
+        } catch (IOException e) {
+            throw new RuntimeException("Mapping lookup failed: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Fingerprint of the settings and mapping a new index is created with, which covers the analyzers
+     * and the fields that use them. Synonym rules are not part of it, since they are published to the
+     * live index without a reindex.
+     */
+    String analysisFingerprint() {
+        IndexOperations template = elasticsearchOperations.indexOps(CourseDocument.class);
+        String definition = template.createSettings().toJson() + template.createMapping().toJson();
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(definition.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public boolean isReindexing() {
+        return reindexing.get();
+    }
+
+    /**
+     * One report per alias the last reindex got to, including those of a reindex that failed part-way.
+     */
+    public List<IngestionReportDto> getLastReports() {
+        return lastReports;
+    }
+
+    /**
+     * Starts a reindex of every alias from the configured catalog on a background thread.
+     *
+     * @return false if a reindex is already running
+     */
+    public boolean reindexAsync() {
+        if (!reindexing.compareAndSet(false, true)) {
+            return false;
+        }
+        reindexExecutor.execute(() -> {
+            try {
+                doReindex(getAliases().keySet());
+            } catch (Exception e) {
+                log.error("Background reindex failed: {}", e.getMessage(), e);
+            } finally {
+                reindexing.set(false);
+            }
+        });
+        return true;
+    }
+
+    /**
+     * Builds a new index version of each alias from the configured catalog and swaps the alias onto it.
+     *
+     * @return one report per alias
+     */
+    public List<IngestionReportDto> reindex(Collection<String> aliases) {
+        if (!reindexing.compareAndSet(false, true)) {
+            throw new IllegalStateException("A reindex is already running");
+        }
+        try {
+            return doReindex(aliases);
+        } finally {
+            reindexing.set(false);
+        }
+    }
+
+    private List<IngestionReportDto> doReindex(Collection<String> aliases) {
+        // The search analyzer reads the set, so it has to exist before the indices do
+        publishSynonyms();
+        Map<String, Set<String>> tenants = getAliases();
+        List<IngestionReportDto> reports = new ArrayList<>();
+        try {
+            for (String alias : aliases) {
+                reports.add(doReindex(alias, tenants.getOrDefault(alias, Set.of())));
+            }
+        } finally {
+            lastReports = List.copyOf(reports);
+            if (!reports.isEmpty()) {
+                suggestionIndex.rebuild();
+                embeddedSearchEngine.reload();
+            }
+        }
+        return reports;
+    }
+
+    private IngestionReportDto doReindex(String alias, Set<String> tenants) {
+        List<String> existing = listVersionedIndices(alias);
+        String target = alias + "_v" + (latestVersion(alias, existing) + 1);
+        IndexCoordinates targetIndex = IndexCoordinates.of(target);
+
+        log.info("Reindexing '{}' into '{}' for tenants {}", alias, target, tenants);
+        createIndex(targetIndex, alias.equals(tenantRegistry.sharedAlias()));
+
+        IngestionReportDto report;
+        try (InputStream inputStream = catalog.getInputStream()) {
+            report = courseIngestionService.ingest(inputStream, targetIndex, tenants);
+        } catch (IOException | RuntimeException e) {
+            dropIndices(List.of(target));
+            throw new RuntimeException("Reindex into " + target + " failed: " + e.getMessage(), e);
+        }
+
+        // An empty catalog must not replace a live index; a tenant that has no courses yet may start empty
+        if (report.getFailed() > 0 || (report.getIndexed() == 0 && aliasExists(alias))) {
+            dropIndices(List.of(target));
+            throw new IllegalStateException("Reindex into " + target + " aborted: "
+                    + report.getIndexed() + " indexed, " + report.getFailed() + " failed");
+        }
+
+        // Engagement collected and courses written from now on wait until the alias points at the
+        // index they were copied to
+        engagementCollector.suspendFlushes();
+        courseWriteBuffer.suspendFlushes();
+        try {
+            // Also true for the alias; false only on the very first build
+            if (elasticsearchClient.indices().exists(e -> e.index(alias)).value()) {
+                courseWriteBuffer.copyApiCourses(alias, target);
+                engagementCollector.copyEngagement(alias, target);
+            }
+            warm(target);
+            swapAlias(alias, target);
+        } catch (IOException | RuntimeException e) {
+            dropIndices(List.of(target));
+            throw new RuntimeException("Reindex into " + target + " failed: " + e.getMessage(), e);
+        } finally {
+            courseWriteBuffer.resumeFlushes();
+            engagementCollector.resumeFlushes();
+        }
+        searchResultCache.invalidate(tenants);
+
+        List<String> stale = new ArrayList<>(existing);
+        stale.remove(target);
+        dropIndices(stale);
+
+        log.info("Alias '{}' now points at '{}' ({} courses)", alias, target, report.getIndexed());
+        return report;
+    }
+
+    /**
+     * Re-reads the synonym rules and publishes them. Elasticsearch reloads the search analyzers that
+     * read the set by itself, so new rules apply to the live index without a reindex.
+     *
+     * @return the number of rules published
+     */
+    public int reloadSynonyms() {
+        synonymSet.reload();
+        int published = publishSynonyms();
+        searchResultCache.invalidateAll();
+        return published;
+    }
+
+    /**
+     * Replaces the managed synonyms set with the current rules.
+     */
+    public int publishSynonyms() {
+        List<String> lines = synonymSet.rules();
+        List<SynonymRule> rules = new ArrayList<>(lines.size());
+        for (int i = 0; i < lines.size(); i++) {
+            String id = "rule-" + (i + 1);
+            String synonyms = lines.get(i);
+            rules.add(SynonymRule.of(r -> r.id(id).synonyms(synonyms)));
+        }
+        try {
+            elasticsearchClient.synonyms().putSynonym(p -> p.id(SynonymSet.SET_ID).synonymsSet(rules));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not publish the '" + SynonymSet.SET_ID + "' synonyms set", e);
+        }
+        log.info("Published {} synonym rules to '{}'", rules.size(), SynonymSet.SET_ID);
+        return rules.size();
+    }
+
+    private void createIndex(IndexCoordinates index, boolean shared) {
+        IndexOperations template = elasticsearchOperations.indexOps(CourseDocument.class);
+
+        // No replicas and no refresh while bulk loading; both are restored before the swap
+        Settings settings = template.createSettings().flatten();
+        settings.put("index.number_of_shards", String.valueOf(shards));
+        settings.put("index.number_of_replicas", "0");
+        settings.put("index.refresh_interval", "-1");
+
+        Document mapping = template.createMapping();
+        mapping.put("_meta", Map.of(ANALYSIS_META, analysisFingerprint()));
+        if (shared) {
+            // A write without the tenant's routing would land on the wrong shard; make it fail instead
+            mapping.put("_routing", Map.of("required", true));
+        }
+        elasticsearchOperations.indexOps(index).create(settings, mapping);
+    }
+
+    private void warm(String index) {
+        try {
+            elasticsearchClient.indices().putSettings(p -> p
+                    .index(index)
+                    .settings(s -> s.numberOfReplicas(String.valueOf(replicas)))
+            );
+            if (forceMerge) {
+                elasticsearchClient.indices().forcemerge(f -> f.index(index).maxNumSegments(1L));
+            }
+            elasticsearchClient.indices().refresh(r -> r.index(index));
+            elasticsearchClient.cluster().health(h -> h
+                    .index(index)
+                    .waitForStatus(replicas > 0 ? HealthStatus.Green : HealthStatus.Yellow)
+                    .timeout(t -> t.time("60s"))
+            );
+        } catch (IOException e) {
+            throw new RuntimeException("Could not prepare " + index + ": " + e.getMessage(), e);
+        }
+
+        // Load doc values and global ordinals for the sort and filter fields before traffic arrives
+        IndexCoordinates coordinates = IndexCoordinates.of(index);
+        for (String field : List.of("nextSessionDate", "price")) {
+            elasticsearchOperations.search(NativeQuery.builder()
+                    .withQuery(q -> q.matchAll(m -> m))
+                    .withSort(s -> s.field(f -> f.field(field).order(SortOrder.Asc)))
+                    .withMaxResults(10)
+                    .build(), CourseDocument.class, coordinates);
+        }
+        elasticsearchOperations.search(NativeQuery.builder()
+                .withQuery(q -> q.matchAll(m -> m))
+                .withAggregation("category", Aggregation.of(a -> a.terms(t -> t.field("category"))))
+                .withMaxResults(0)
+                .build(), CourseDocument.class, coordinates);
+    }
+
+    private void swapAlias(String alias, String target) {
+        try {
+            List<Action> actions = new ArrayList<>();
+            actions.add(Action.of(a -> a.add(add -> add.index(target).alias(alias))));
+
+            boolean legacyIndex = !aliasExists(alias)
+                    && elasticsearchClient.indices().exists(e -> e.index(alias)).value();
+            if (legacyIndex) {
+                // A concrete index still owns the alias name; drop it in the same atomic step
+                actions.add(Action.of(a -> a.removeIndex(r -> r.index(alias))));
+            } else {
+                for (String index : getCurrentIndices(alias)) {
+                    if (!index.equals(target)) {
+                        actions.add(Action.of(a -> a.remove(r -> r.index(index).alias(alias))));
+                    }
+                }
+            }
+
+            elasticsearchClient.indices().updateAliases(u -> u.actions(actions));
+        } catch (IOException e) {
+            throw new RuntimeException("Alias swap to " + target + " failed: " + e.getMessage(), e);
+        }
+    }
+
+    private List<String> listVersionedIndices(String alias) {
+        try {
+            return new ArrayList<>(elasticsearchClient.indices()
+                    .get(g -> g.index(alias + "_v*").allowNoIndices(true))
+                    .result()
+                    .keySet());
+        } catch (IOException e) {
+            throw new RuntimeException("Index listing failed: " + e.getMessage(), e);
+        }
+    }
+
+    private int latestVersion(String alias, List<String> indices) {
+        int latest = 0;
+        for (String index : indices) {
+            try {
+                latest = Math.max(latest, Integer.parseInt(index.substring(alias.length() + 2)));
+            } catch (NumberFormatException ignored) {
+                // Not one of ours
+            }
+        }
+        return latest;
+    }
+
+    private void dropIndices(List<String> indices) {
+        if (indices.isEmpty()) {
+            return;
+        }
+        try {
+            elasticsearchClient.indices().delete(d -> d.index(indices));
+            log.info("Dropped old course indices {}", indices);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not drop indices {}: {}", indices, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        reindexExecutor.shutdownNow();
+    }
+}
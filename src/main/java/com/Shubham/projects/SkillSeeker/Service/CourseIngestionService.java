@@ -0,0 +1,218 @@
+package com.Shubham.projects.SkillSeeker.Service;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import com.Shubham.projects.SkillSeeker.Document.CourseDocument;
+import com.Shubham.projects.SkillSeeker.Dto.IngestionReportDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.elasticsearch.BulkFailureException;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.BulkOptions;
+import org.springframework.data.elasticsearch.core.query.IndexQuery;
+import org.springframework.data.elasticsearch.core.query.IndexQueryBuilder;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Streams a course catalog into Elasticsearch through the _bulk API.
+ * Documents are grouped into batches bounded by count and by source bytes, and up to
+ * {@code concurrency} batches are in flight at once. Index refresh is switched off for
+ * the duration of the load and restored afterwards.
+ */
+@Service
+@Slf4j
+public class CourseIngestionService {
+
+    private static final int MAX_REPORTED_FAILURES = 100;
+
+    @Autowired
+    private ElasticsearchOperations elasticsearchOperations;
+
+    @Autowired
+    private ElasticsearchClient elasticsearchClient;
+
+    @Autowired
+    private SearchResultCache searchResultCache;
+
+    @Autowired
+    private SearchMetrics searchMetrics;
+
+    @Autowired
+    private TenantRegistry tenantRegistry;
+
+    @Value("${skillseeker.ingest.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${skillseeker.ingest.max-batch-bytes:5242880}")
+    private long maxBatchBytes;
+
+    @Value("${skillseeker.ingest.concurrency:4}")
+    private int concurrency;
+
+    @Value("${skillseeker.ingest.refresh-interval:1s}")
+    private String refreshInterval;
+
+    /**
+     * Loads the catalog courses of {@code tenants} into {@code index}, each routed as its tenant is.
+     * Courses of other declared tenants are skipped; a course of an undeclared tenant counts as failed.
+     */
+    public IngestionReportDto ingest(InputStream inputStream, IndexCoordinates index, Set<String> tenants) {
+        String indexName = index.getIndexName();
+        long startNanos = System.nanoTime();
+
+        AtomicLong indexed = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        AtomicInteger failedBatches = new AtomicInteger();
+        List<String> failures = Collections.synchronizedList(new ArrayList<>());
+
+        Semaphore inFlight = new Semaphore(concurrency);
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        long documents = 0;
+        int batches = 0;
+
+        setRefreshInterval(indexName, "-1");
+        try (CourseJsonReader reader = new CourseJsonReader(inputStream)) {
+            List<IndexQuery> batch = new ArrayList<>(batchSize);
+            long batchBytes = 0;
+            CourseDocument course;
+
+            while ((course = reader.next()) != null) {
+                TenantRoute route;
+                try {
+                    route = tenantRegistry.assign(course);
+                } catch (IllegalArgumentException e) {
+                    failed.incrementAndGet();
+                    recordFailure(failures, "course " + course.getId() + ": " + e.getMessage());
+                    continue;
+                }
+                if (!tenants.contains(route.tenant())) {
+                    continue;
+                }
+                batch.add(new IndexQueryBuilder()
+                        .withId(course.getId())
+                        .withObject(course)
+                        .withRouting(route.routing())
+                        .build());
+                batchBytes += reader.lastDocumentBytes();
+                documents++;
+
+                if (batch.size() >= batchSize || batchBytes >= maxBatchBytes) {
+                    submit(executor, inFlight, ++batches, batch, index, indexed, failed, failedBatches, failures);
+                    batch = new ArrayList<>(batchSize);
+                    batchBytes = 0;
+                }
+            }
+            if (!batch.isEmpty()) {
+                submit(executor, inFlight, ++batches, batch, index, indexed, failed, failedBatches, failures);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read course catalog: " + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Ingestion interrupted", e);
+        } finally {
+            // Also after a failed read: batches already submitted must land before refresh is restored
+            awaitBatches(executor);
+            setRefreshInterval(indexName, refreshInterval);
+            elasticsearchOperations.indexOps(index).refresh();
+            searchResultCache.invalidate(tenants);
+        }
+
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        double docsPerSecond = elapsedMillis == 0 ? indexed.get() : indexed.get() * 1000.0 / elapsedMillis;
+
+        log.info("Ingested {} of {} courses into '{}' in {} ms ({} docs/sec, {} batches, {} failed)",
+                indexed.get(), documents, indexName, elapsedMillis, String.format("%.1f", docsPerSecond),
+                batches, failed.get());
+
+        return new IngestionReportDto(indexName, documents, indexed.get(), failed.get(), batches,
+                failedBatches.get(), elapsedMillis, docsPerSecond, new ArrayList<>(failures));
+    }
+
+    private void submit(ExecutorService executor, Semaphore inFlight, int batchNumber, List<IndexQuery> batch,
+                        IndexCoordinates index, AtomicLong indexed, AtomicLong failed,
+                        AtomicInteger failedBatches, List<String> failures) throws InterruptedException {
+        // Blocks the reader while too many batches are outstanding
+        inFlight.acquire();
+        executor.execute(() -> {
+            long started = System.nanoTime();
+            String outcome = "failed";
+            try {
+                elasticsearchOperations.bulkIndex(batch, BulkOptions.defaultOptions(), index);
+                outcome = "success";
+                indexed.addAndGet(batch.size());
+                log.debug("Batch {} indexed {} courses", batchNumber, batch.size());
+            } catch (BulkFailureException e) {
+                outcome = "partial";
+                int failedDocs = e.getFailedDocuments().size();
+                indexed.addAndGet(batch.size() - failedDocs);
+                failed.addAndGet(failedDocs);
+                failedBatches.incrementAndGet();
+                e.getFailedDocuments().forEach((id, details) ->
+                        recordFailure(failures, "batch " + batchNumber + ", course " + id + ": " + details.errorMessage()));
+                log.warn("Batch {} had {} failed courses", batchNumber, failedDocs);
+            } catch (Exception e) {
+                failed.addAndGet(batch.size());
+                failedBatches.incrementAndGet();
+                recordFailure(failures, "batch " + batchNumber + ": " + e.getMessage());
+                log.error("Batch {} failed: {}", batchNumber, e.getMessage(), e);
+            } finally {
+                searchMetrics.recordIngestBatch(Duration.ofNanos(System.nanoTime() - started), batch.size(), outcome);
+                inFlight.release();
+            }
+        });
+    }
+
+    /**
+     * Waits for every submitted batch to finish, even when interrupted, and then restores the interrupt.
+     */
+    private static void awaitBatches(ExecutorService executor) {
+        executor.shutdown();
+        boolean interrupted = Thread.interrupted();
+        while (true) {
+            try {
+                if (executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                    break;
+                }
+                log.warn("Still waiting for ingestion batches to finish");
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void recordFailure(List<String> failures, String failure) {
+        if (failures.size() < MAX_REPORTED_FAILURES) {
+            failures.add(failure);
+        }
+    }
+
+    private void setRefreshInterval(String indexName, String interval) {
+        try {
+            elasticsearchClient.indices().putSettings(p -> p
+                    .index(indexName)
+                    .settings(s -> s.refreshInterval(t -> t.time(interval)))
+            );
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not set refresh_interval={} on '{}': {}", interval, indexName, e.getMessage());
+        }
+    }
+}
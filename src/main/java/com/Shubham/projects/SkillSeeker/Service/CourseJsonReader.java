@@ -0,0 +1,176 @@
+package com.Shubham.projects.SkillSeeker.Service;
+
+import com.Shubham.projects.SkillSeeker.Document.CourseDocument;
+import com.Shubham.projects.SkillSeeker.Document.CourseSession;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.springframework.data.elasticsearch.core.geo.GeoPoint;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Streams {@link CourseDocument}s out of a course catalog one object at a time.
+ * Accepts either a top-level JSON array (as in sample-courses.json) or
+ * newline-delimited JSON, so memory use does not depend on catalog size.
+ * A delta file marks a removed course with {@code "deleted": true}; see {@link #lastDeleted()}.
+ * <p>
+ * {@code sessions} lists session dates, either as strings or as {@code {"startDate": ...}} objects, and
+ * {@code location} is a {@code {"lat": ..., "lon": ...}} object. A course without sessions gets one on its
+ * {@code nextSessionDate}, and a course without a {@code nextSessionDate} takes its earliest session.
+ * {@code tenant} is left null when absent; {@link TenantRegistry#assign} gives such courses the default tenant.
+ */
+public class CourseJsonReader implements Closeable {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final JsonParser parser;
+    private long lastDocumentBytes;
+    private boolean lastDeleted;
+
+    public CourseJsonReader(InputStream inputStream) throws IOException {
+        this.parser = JSON_FACTORY.createParser(inputStream);
+    }
+
+    /**
+     * Returns the next course in the stream, or {@code null} once the input is exhausted.
+     */
+    public CourseDocument next() throws IOException {
+        JsonToken token = parser.nextToken();
+        while (token == JsonToken.START_ARRAY || token == JsonToken.END_ARRAY) {
+            token = parser.nextToken();
+        }
+        if (token == null) {
+            return null;
+        }
+        if (token != JsonToken.START_OBJECT) {
+            throw new JsonParseException(parser, "Expected a course object but found " + token);
+        }
+
+        long start = parser.currentLocation().getByteOffset();
+        CourseDocument course = new CourseDocument();
+        lastDeleted = false;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if (value == JsonToken.VALUE_NULL) {
+                continue;
+            }
+            switch (field) {
+                case "id" -> course.setId(parser.getValueAsString());
+                case "tenant" -> course.setTenant(parser.getValueAsString());
+                case "title" -> course.setTitle(parser.getValueAsString());
+                case "description" -> course.setDescription(parser.getValueAsString());
+                case "category" -> course.setCategory(parser.getValueAsString());
+                case "type" -> course.setType(parser.getValueAsString());
+                case "gradeRange" -> course.setGradeRange(parser.getValueAsString());
+                case "minAge" -> course.setMinAge(parser.getValueAsInt());
+                case "maxAge" -> course.setMaxAge(parser.getValueAsInt());
+                case "price" -> course.setPrice(parser.getValueAsDouble());
+                case "nextSessionDate" -> course.setNextSessionDate(parseDate(parser.getValueAsString()));
+                case "sessions" -> course.setSessions(readSessions());
+                case "location" -> course.setLocation(readLocation());
+                case "deleted" -> lastDeleted = parser.getValueAsBoolean();
+                default -> parser.skipChildren();
+            }
+        }
+
+        lastDocumentBytes = Math.max(parser.currentLocation().getByteOffset() - start, 1);
+        if (course.getSessions() == null && course.getNextSessionDate() != null) {
+            course.setSessions(List.of(new CourseSession(course.getNextSessionDate())));
+        } else if (course.getNextSessionDate() == null && course.getSessions() != null && !course.getSessions().isEmpty()) {
+            course.setNextSessionDate(course.getSessions().get(0).getStartDate());
+        }
+        course.setSuggestFromTitle();
+        course.setContentHash(CourseContentHash.of(course));
+        return course;
+    }
+
+    /**
+     * Size in bytes of the JSON object returned by the last call to {@link #next()}.
+     */
+    public long lastDocumentBytes() {
+        return lastDocumentBytes;
+    }
+
+    /**
+     * Whether the object returned by the last call to {@link #next()} is a delete marker.
+     */
+    public boolean lastDeleted() {
+        return lastDeleted;
+    }
+
+    // Sorted and without duplicates, so equal schedules hash equally
+    private List<CourseSession> readSessions() throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            throw new JsonParseException(parser, "Expected an array of sessions");
+        }
+        TreeSet<LocalDate> dates = new TreeSet<>();
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (token == JsonToken.VALUE_STRING) {
+                dates.add(parseDate(parser.getValueAsString()));
+            } else if (token == JsonToken.START_OBJECT) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.currentName();
+                    parser.nextToken();
+                    if (field.equals("startDate") && parser.currentToken() == JsonToken.VALUE_STRING) {
+                        dates.add(parseDate(parser.getValueAsString()));
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+        List<CourseSession> sessions = new ArrayList<>(dates.size());
+        for (LocalDate date : dates) {
+            sessions.add(new CourseSession(date));
+        }
+        return sessions;
+    }
+
+    private GeoPoint readLocation() throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            throw new JsonParseException(parser, "Expected a {\"lat\", \"lon\"} location");
+        }
+        Double lat = null;
+        Double lon = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "lat" -> lat = parser.getValueAsDouble();
+                case "lon" -> lon = parser.getValueAsDouble();
+                default -> parser.skipChildren();
+            }
+        }
+        if (lat == null || lon == null) {
+            throw new JsonParseException(parser, "Location needs both lat and lon");
+        }
+        return new GeoPoint(lat, lon);
+    }
+
+    static LocalDate parseDate(String value) {
+        if (value.length() == 10) {
+            return LocalDate.parse(value);
+        }
+        return LocalDateTime.parse(value, DateTimeFormatter.ISO_DATE_TIME).toLocalDate();
+    }
+
+    @Override
+    public void close() throws IOException {
+        parser.close();
+    }
+}
@@ -0,0 +1,136 @@
+package com.Shubham.projects.SkillSeeker.Service;
+
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregate;
+import co.elastic.clients.elasticsearch._types.aggregations.HistogramBucket;
+import co.elastic.clients.elasticsearch._types.aggregations.RangeBucket;
+import co.elastic.clients.elasticsearch._types.aggregations.StringTermsBucket;
+import co.elastic.clients.elasticsearch.core.search.Hit;
+import com.Shubham.projects.SkillSeeker.Document.CourseDocument;
+import com.Shubham.projects.SkillSeeker.Document.CourseSession;
+import com.Shubham.projects.SkillSeeker.Dto.CourseDto;
+import com.Shubham.projects.SkillSeeker.Dto.CourseSessionDto;
+import com.Shubham.projects.SkillSeeker.Dto.FacetBucketDto;
+import com.Shubham.projects.SkillSeeker.Dto.GeoPointDto;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maps indexed {@link CourseDocument}s to the {@link CourseDto}s returned by the API.
+ */
+@Component
+public class CourseMapper {
+
+    public List<CourseDto> toDtos(List<SearchHit<CourseDocument>> hits) {
+        return toDtos(hits, false);
+    }
+
+    /**
+     * @param distanceSorted whether the first sort value of each hit is its distance, which is then
+     *                       returned as {@code distanceKm}
+     */
+    public List<CourseDto> toDtos(List<SearchHit<CourseDocument>> hits, boolean distanceSorted) {
+        List<CourseDto> courses = new ArrayList<>(hits.size());
+        for (SearchHit<CourseDocument> hit : hits) {
+            CourseDto course = toDto(hit.getContent());
+            if (distanceSorted && !hit.getSortValues().isEmpty() && hit.getSortValues().get(0) instanceof Number distance) {
+                course.setDistanceKm(distanceKm(distance.doubleValue()));
+            }
+            courses.add(course);
+        }
+        return courses;
+    }
+
+    public List<CourseDto> fromHits(List<Hit<CourseDto>> hits) {
+        return fromHits(hits, false);
+    }
+
+    /**
+     * Courses read from the hit source by the Java client. The id is taken from the hit when the
+     * source does not carry it.
+     */
+    public List<CourseDto> fromHits(List<Hit<CourseDto>> hits, boolean distanceSorted) {
+        List<CourseDto> courses = new ArrayList<>(hits.size());
+        for (Hit<CourseDto> hit : hits) {
+            CourseDto course = hit.source() == null ? new CourseDto() : hit.source();
+            if (course.getId() == null) {
+                course.setId(hit.id());
+            }
+            if (distanceSorted && !hit.sort().isEmpty() && hit.sort().get(0).isDouble()) {
+                course.setDistanceKm(distanceKm(hit.sort().get(0).doubleValue()));
+            }
+            courses.add(course);
+        }
+        return courses;
+    }
+
+    // Courses without a location sort last with an infinite distance, which is not worth returning
+    private static Double distanceKm(double sortValue) {
+        return Double.isFinite(sortValue) ? sortValue : null;
+    }
+
+    /**
+     * Flattens the facet aggregations built by {@link CourseQueryBuilder} into facet name -> buckets.
+     * Returns null when the search did not ask for facets.
+     */
+    public Map<String, List<FacetBucketDto>> toFacets(Map<String, Aggregate> aggregates) {
+        if (aggregates == null || aggregates.isEmpty()) {
+            return null;
+        }
+        Map<String, List<FacetBucketDto>> facets = new LinkedHashMap<>();
+        aggregates.forEach((name, aggregate) ->
+                facets.put(name, toBuckets(aggregate.filter().aggregations().get(CourseQueryBuilder.FACET_VALUES))));
+        return facets;
+    }
+
+    private List<FacetBucketDto> toBuckets(Aggregate values) {
+        List<FacetBucketDto> buckets = new ArrayList<>();
+        if (values.isSterms()) {
+            for (StringTermsBucket bucket : values.sterms().buckets().array()) {
+                buckets.add(new FacetBucketDto(bucket.key().stringValue(), bucket.docCount(), null, null));
+            }
+        } else if (values.isRange()) {
+            for (RangeBucket bucket : values.range().buckets().array()) {
+                buckets.add(new FacetBucketDto(bucket.key(), bucket.docCount(), bucket.from(), bucket.to()));
+            }
+        } else if (values.isHistogram()) {
+            for (HistogramBucket bucket : values.histogram().buckets().array()) {
+                buckets.add(new FacetBucketDto(String.valueOf((long) bucket.key()), bucket.docCount(), null, null));
+            }
+        }
+        return buckets;
+    }
+
+    public CourseDto toDto(CourseDocument doc) {
+        return new CourseDto(
+                doc.getId(),
+                doc.getTitle(),
+                doc.getDescription(),
+                doc.getCategory(),
+                doc.getType(),
+                doc.getGradeRange(),
+                doc.getMinAge(),
+                doc.getMaxAge(),
+                doc.getPrice(),
+                doc.getNextSessionDate() == null ? null : doc.getNextSessionDate().atStartOfDay(),
+                toSessionDtos(doc.getSessions()),
+                doc.getLocation() == null ? null : new GeoPointDto(doc.getLocation().getLat(), doc.getLocation().getLon()),
+                null
+        );
+    }
+
+    private static List<CourseSessionDto> toSessionDtos(List<CourseSession> sessions) {
+        if (sessions == null) {
+            return null;
+        }
+        List<CourseSessionDto> dtos = new ArrayList<>(sessions.size());
+        for (CourseSession session : sessions) {
+            dtos.add(new CourseSessionDto(session.getStartDate()));
+        }
+        return dtos;
+    }
+}
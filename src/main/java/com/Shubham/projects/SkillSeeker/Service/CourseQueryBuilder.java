@@ -0,0 +1,416 @@
+package com.Shubham.projects.SkillSeeker.Service;
+
+import co.elastic.clients.elasticsearch._types.DistanceUnit;
+import co.elastic.clients.elasticsearch._types.GeoDistanceType;
+import co.elastic.clients.elasticsearch._types.SortMode;
+import co.elastic.clients.elasticsearch._types.SortOptions;
+import co.elastic.clients.elasticsearch._types.SortOrder;
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregation;
+import co.elastic.clients.elasticsearch._types.aggregations.AggregationRange;
+import co.elastic.clients.elasticsearch._types.query_dsl.BoolQuery;
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import co.elastic.clients.elasticsearch._types.query_dsl.RangeQuery;
+import co.elastic.clients.elasticsearch._types.query_dsl.TextQueryType;
+import co.elastic.clients.json.JsonData;
+import com.Shubham.projects.SkillSeeker.Dto.SearchRequestDto;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.client.elc.NativeQueryBuilder;
+import org.springframework.data.elasticsearch.core.query.FetchSourceFilter;
+import org.springframework.data.elasticsearch.core.query.Query.PointInTime;
+import org.springframework.data.elasticsearch.core.query.RescorerQuery;
+import org.springframework.data.elasticsearch.core.query.SourceFilter;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Translates a {@link SearchRequestDto} into the Elasticsearch query for /api/search.
+ * Kept free of I/O so it can be exercised directly by tests and benchmarks; which index and shard a
+ * query goes to is up to the caller's {@link TenantRoute}.
+ */
+@Component
+public class CourseQueryBuilder {
+
+    /** Sub-aggregation holding the buckets inside each facet's filter aggregation. */
+    static final String FACET_VALUES = "values";
+
+    private static final List<String> TEXT_FIELDS = List.of("title^2", "description");
+    // Partial words score below whole ones, which also match title or description
+    private static final List<String> PREFIX_TEXT_FIELDS = List.of("title^2", "description", "title.prefix");
+    // Indexed both in the nested session documents and, through include_in_parent, on the course
+    private static final String SESSION_DATE = "sessions.startDate";
+    // Indexed for autocomplete, sync and ranking only; never part of a response
+    private static final String[] INTERNAL_FIELDS = {"suggest", "contentHash", RelevanceModel.IMPRESSIONS,
+            RelevanceModel.CLICKS, RelevanceModel.CLICK_THROUGH_RATE, RelevanceModel.ENROLLMENTS};
+    private static final int EXPORT_BATCH_SIZE = 1000;
+    private static final int TERMS_FACET_SIZE = 50;
+    private static final double AGE_INTERVAL = 2;
+    private static final List<AggregationRange> PRICE_RANGES = List.of(
+            AggregationRange.of(r -> r.key("<150").to("150")),
+            AggregationRange.of(r -> r.key("150-250").from("150").to("250")),
+            AggregationRange.of(r -> r.key("250-400").from("250").to("400")),
+            AggregationRange.of(r -> r.key("400+").from("400")));
+
+    /**
+     * Matches the tombstones of courses deleted through the course API, which every search leaves out.
+     */
+    static final Query TOMBSTONE = Query.of(q -> q.term(t -> t.field("deleted").value(true)));
+
+    private final QueryPlanner queryPlanner;
+    private final RelevanceModel relevanceModel;
+
+    public CourseQueryBuilder(QueryPlanner queryPlanner) {
+        this(queryPlanner, RelevanceModel.defaults());
+    }
+
+    @Autowired
+    public CourseQueryBuilder(QueryPlanner queryPlanner, RelevanceModel relevanceModel) {
+        this.queryPlanner = queryPlanner;
+        this.relevanceModel = relevanceModel;
+    }
+
+    public NativeQuery build(SearchRequestDto request) {
+        QueryPlan plan = queryPlanner.plan(request);
+
+        // Sorting & Pagination
+        int page = Math.max(request.getPage(), 0);
+        int size = clampSize(request.getSize());
+        Pageable pageable = PageRequest.of(page, size);
+
+        // With text, the ranking signals only rescore the best text matches; without, they are the score
+        boolean relevance = isRelevance(request);
+        boolean rescore = relevance && plan.shape() == QueryPlan.Shape.MATCH && relevanceModel.rescoreWindow() > 0;
+        boolean ranked = relevance && !rescore;
+
+        NativeQueryBuilder builder = NativeQuery.builder()
+                .withPageable(pageable)
+                .withSourceFilter(sourceFilter(request))
+                .withTrackTotalHitsUpTo(plan.trackTotalHitsUpTo());
+        if (rescore) {
+            // Rescoring requires the default score order, so no sort is sent
+            builder.withRescorerQuery(rescorer());
+        } else {
+            builder.withSort(sortOptions(request));
+        }
+        if (request.isFacets()) {
+            addFacets(builder, request, plan, ranked);
+        } else {
+            builder.withQuery(buildQuery(request, plan, ranked));
+        }
+        return builder.build();
+    }
+
+    private RescorerQuery rescorer() {
+        NativeQuery signals = NativeQuery.builder()
+                .withQuery(q -> q.bool(b -> b.should(relevanceModel.signals())))
+                .build();
+        return new RescorerQuery(signals)
+                .withWindowSize(relevanceModel.rescoreWindow())
+                .withQueryWeight(1f)
+                .withRescoreQueryWeight((float) relevanceModel.rescoreWeight())
+                .withScoreMode(RescorerQuery.ScoreMode.Total);
+    }
+
+    static boolean isRelevance(SearchRequestDto request) {
+        return "relevance".equals(SearchCacheKey.canonicalSort(request.getSort()));
+    }
+
+    /**
+     * One page of a point-in-time search. Pages are chained with search_after on the request's
+     * sort keys plus {@code id} as a tiebreaker, so deep pages cost the same as the first one.
+     * Totals are only counted on the first page.
+     */
+    public NativeQuery buildCursorPage(SearchRequestDto request, String pitId, Duration keepAlive,
+                                       List<Object> searchAfter) {
+        QueryPlan plan = queryPlanner.plan(request);
+        List<SortOptions> sort = new ArrayList<>(sortOptions(request));
+        sort.add(fieldSort("id", SortOrder.Asc));
+
+        NativeQueryBuilder builder = NativeQuery.builder()
+                .withQuery(buildQuery(request, plan, isRelevance(request)))
+                .withPageable(PageRequest.of(0, clampSize(request.getSize())))
+                .withSort(sort)
+                .withSourceFilter(sourceFilter(request))
+                .withPointInTime(new PointInTime(pitId, keepAlive));
+        if (searchAfter == null) {
+            builder.withTrackTotalHitsUpTo(plan.trackTotalHitsUpTo());
+        } else {
+            builder.withTrackTotalHits(false).withSearchAfter(searchAfter);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Unsorted query for streaming every matching course, fetched in large batches.
+     */
+    public NativeQuery buildExport(SearchRequestDto request) {
+        return NativeQuery.builder()
+                .withQuery(buildQuery(request, queryPlanner.plan(request), false))
+                .withPageable(PageRequest.of(0, EXPORT_BATCH_SIZE))
+                .withSourceFilter(sourceFilter(request))
+                .build();
+    }
+
+    /**
+     * Fetches only the requested fields, or everything but the internal ones. Hits for a list view
+     * then skip the description, which is most of a course's bytes.
+     */
+    static SourceFilter sourceFilter(SearchRequestDto request) {
+        String fields = SearchCacheKey.canonicalFields(request.getFields());
+        if (fields == null) {
+            return new FetchSourceFilter(null, INTERNAL_FIELDS);
+        }
+        return new FetchSourceFilter(fields.split(","), null);
+    }
+
+    private int clampSize(int size) {
+        return Math.min(Math.max(size, 1), SearchCacheKey.MAX_PAGE_SIZE);
+    }
+
+    private Query buildQuery(SearchRequestDto request, QueryPlan plan, boolean ranked) {
+        BoolQuery.Builder boolQueryBuilder = new BoolQuery.Builder();
+        addQueryClauses(boolQueryBuilder, request, plan);
+        facetFilters(request).values().forEach(boolQueryBuilder::filter);
+        return wrap(boolQueryBuilder, plan, ranked);
+    }
+
+    // Without text or ranking there is nothing to score; constant_score keeps the whole query in filter context
+    private Query wrap(BoolQuery.Builder bool, QueryPlan plan, boolean ranked) {
+        if (ranked) {
+            // The signals only add to the score; a course with none of them still matches
+            bool.should(relevanceModel.signals()).minimumShouldMatch("0");
+        } else if (plan.shape() == QueryPlan.Shape.FILTER) {
+            BoolQuery filters = bool.build();
+            return Query.of(q -> q.constantScore(cs -> cs.filter(f -> f.bool(filters))));
+        }
+        BoolQuery query = bool.build();
+        return Query.of(q -> q.bool(query));
+    }
+
+    /**
+     * Facet filters go to post_filter rather than the query so the facet aggregations still see
+     * every value. Each facet is computed under all filters except its own, so selecting a
+     * category keeps the other categories' counts instead of collapsing them.
+     */
+    private void addFacets(NativeQueryBuilder builder, SearchRequestDto request, QueryPlan plan, boolean ranked) {
+        BoolQuery.Builder queryBuilder = new BoolQuery.Builder();
+        addQueryClauses(queryBuilder, request, plan);
+        builder.withQuery(wrap(queryBuilder, plan, ranked));
+
+        Map<String, List<Query>> filters = facetFilters(request);
+        if (!filters.isEmpty()) {
+            builder.withFilter(Query.of(q -> q.bool(b -> b.filter(flatten(filters, null)))));
+        }
+
+        builder.withAggregation("category", facet(filters, "category",
+                Aggregation.of(a -> a.terms(t -> t.field("category").size(TERMS_FACET_SIZE)))));
+        builder.withAggregation("type", facet(filters, "type",
+                Aggregation.of(a -> a.terms(t -> t.field("type").size(TERMS_FACET_SIZE)))));
+        builder.withAggregation("gradeRange", facet(filters, null,
+                Aggregation.of(a -> a.terms(t -> t.field("gradeRange").size(TERMS_FACET_SIZE)))));
+        builder.withAggregation("price", facet(filters, "price",
+                Aggregation.of(a -> a.range(r -> r.field("price").ranges(PRICE_RANGES)))));
+        builder.withAggregation("minAge", facet(filters, "age",
+                Aggregation.of(a -> a.histogram(h -> h.field("minAge").interval(AGE_INTERVAL)))));
+        builder.withAggregation("maxAge", facet(filters, "age",
+                Aggregation.of(a -> a.histogram(h -> h.field("maxAge").interval(AGE_INTERVAL)))));
+    }
+
+    private Aggregation facet(Map<String, List<Query>> filters, String ownFilter, Aggregation values) {
+        List<Query> others = flatten(filters, ownFilter);
+        return Aggregation.of(a -> a
+                .filter(f -> f.bool(b -> b.filter(others)))
+                .aggregations(FACET_VALUES, values));
+    }
+
+    private List<Query> flatten(Map<String, List<Query>> filters, String excluded) {
+        List<Query> clauses = new ArrayList<>();
+        filters.forEach((name, queries) -> {
+            if (!name.equals(excluded)) {
+                clauses.addAll(queries);
+            }
+        });
+        return clauses;
+    }
+
+    private void addQueryClauses(BoolQuery.Builder boolQueryBuilder, SearchRequestDto request, QueryPlan plan) {
+        // Tenant filter. Routing already limits a shared-index search to the tenant's shard, which
+        // other tenants may share; in a dedicated index it matches everything and is cached as such
+        if (request.getTenant() != null) {
+            boolQueryBuilder.filter(f -> f.term(t -> t.field("tenant").value(request.getTenant())));
+        }
+        boolQueryBuilder.mustNot(TOMBSTONE);
+
+        // Full-text search over title and description, title boosted
+        if (plan.shape() == QueryPlan.Shape.MATCH) {
+            boolQueryBuilder.must(m -> m
+                    .multiMatch(mm -> {
+                        mm.fields(plan.prefixMatch() ? PREFIX_TEXT_FIELDS : TEXT_FIELDS)
+                                .query(request.getQ().trim())
+                                .type("cross_fields".equals(plan.multiMatchType())
+                                        ? TextQueryType.CrossFields : TextQueryType.BestFields);
+                        if (plan.isFuzzy()) {
+                            mm.fuzziness(plan.fuzziness()).prefixLength(plan.prefixLength());
+                        }
+                        return mm;
+                    })
+            );
+        }
+
+        // Start date filter
+        if (request.getStartDate() != null) {
+            String formattedStartDate = request.getStartDate().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+            boolQueryBuilder.filter(f -> f
+                    .range(r -> r
+                            .field("nextSessionDate")
+                            .gte(JsonData.of(formattedStartDate))
+                    )
+            );
+        }
+
+        // Session window filter, on the sessions indexed in the course itself, so no nested join
+        if (request.getSessionFrom() != null || request.getSessionTo() != null) {
+            boolQueryBuilder.filter(sessionWindow(format(request.getSessionFrom()), format(request.getSessionTo())));
+        }
+
+        // Distance filter
+        if (request.getRadiusKm() != null) {
+            boolQueryBuilder.filter(f -> f
+                    .geoDistance(g -> g
+                            .field("location")
+                            .location(l -> l.latlon(ll -> ll.lat(request.getLat()).lon(request.getLon())))
+                            .distance(request.getRadiusKm() + "km")
+                    )
+            );
+        }
+    }
+
+    private static Query sessionWindow(String from, String to) {
+        return Query.of(f -> f
+                .range(r -> {
+                    r.field(SESSION_DATE);
+                    if (from != null) {
+                        r.gte(JsonData.of(from));
+                    }
+                    if (to != null) {
+                        r.lte(JsonData.of(to));
+                    }
+                    return r;
+                })
+        );
+    }
+
+    private static String format(LocalDate date) {
+        return date == null ? null : date.toString();
+    }
+
+    /**
+     * Filters that correspond to a facet, keyed by the facet they narrow.
+     */
+    private Map<String, List<Query>> facetFilters(SearchRequestDto request) {
+        Map<String, List<Query>> filters = new LinkedHashMap<>();
+
+        // Category filter
+        if (request.getCategory() != null && !request.getCategory().trim().isEmpty()) {
+            filters.put("category", List.of(Query.of(f -> f
+                    .term(t -> t
+                            .field("category")
+                            .value(request.getCategory())
+                    )
+            )));
+        }
+
+        // Type filter
+        if (request.getType() != null && !request.getType().trim().isEmpty()) {
+            filters.put("type", List.of(Query.of(f -> f
+                    .term(t -> t
+                            .field("type")
+                            .value(request.getType())
+                    )
+            )));
+        }
+
+        // Age filters
+        List<Query> ageFilters = new ArrayList<>(2);
+        if (request.getMinAge() != null) {
+            ageFilters.add(Query.of(f -> f
+                    .range(r -> r
+                            .field("maxAge")
+                            .gte(JsonData.of(request.getMinAge()))
+                    )
+            ));
+        }
+        if (request.getMaxAge() != null) {
+            ageFilters.add(Query.of(f -> f
+                    .range(r -> r
+                            .field("minAge")
+                            .lte(JsonData.of(request.getMaxAge()))
+                    )
+            ));
+        }
+        if (!ageFilters.isEmpty()) {
+            filters.put("age", ageFilters);
+        }
+
+        // Price filters
+        if (request.getMinPrice() != null || request.getMaxPrice() != null) {
+            RangeQuery.Builder rangeQueryBuilder = new RangeQuery.Builder().field("price");
+            if (request.getMinPrice() != null) {
+                rangeQueryBuilder.gte(JsonData.of(request.getMinPrice()));
+            }
+            if (request.getMaxPrice() != null) {
+                rangeQueryBuilder.lte(JsonData.of(request.getMaxPrice()));
+            }
+            filters.put("price", List.of(Query.of(f -> f.range(rangeQueryBuilder.build()))));
+        }
+
+        return filters;
+    }
+
+    /**
+     * Sort keys for the request. {@code relevance} orders by score, and {@code soonest} orders by each course's earliest session inside the
+     * session window, starting today when the window has no start; courses without one come last.
+     */
+    static List<SortOptions> sortOptions(SearchRequestDto request) {
+        return switch (SearchCacheKey.canonicalSort(request.getSort())) {
+            case "relevance" -> List.of(SortOptions.of(s -> s.score(sc -> sc.order(SortOrder.Desc))));
+            case "priceasc" -> List.of(fieldSort("price", SortOrder.Asc));
+            case "pricedesc" -> List.of(fieldSort("price", SortOrder.Desc));
+            case "distance" -> List.of(SortOptions.of(s -> s
+                    .geoDistance(g -> g
+                            .field("location")
+                            .location(l -> l.latlon(ll -> ll.lat(request.getLat()).lon(request.getLon())))
+                            .order(SortOrder.Asc)
+                            .unit(DistanceUnit.Kilometers)
+                            .distanceType(GeoDistanceType.Arc)
+                    )
+            ));
+            case "soonest" -> {
+                // Rounded to the day, so the nested filter stays cacheable
+                String from = request.getSessionFrom() == null ? "now/d" : format(request.getSessionFrom());
+                yield List.of(SortOptions.of(s -> s
+                        .field(f -> f
+                                .field(SESSION_DATE)
+                                .order(SortOrder.Asc)
+                                .mode(SortMode.Min)
+                                .nested(n -> n.path("sessions").filter(sessionWindow(from, format(request.getSessionTo()))))
+                        )
+                ));
+            }
+            default -> List.of(fieldSort("nextSessionDate", SortOrder.Asc));
+        };
+    }
+
+    private static SortOptions fieldSort(String field, SortOrder order) {
+        return SortOptions.of(s -> s.field(f -> f.field(field).order(order)));
+    }
+}
@@ -1,255 +1,516 @@
 package com.Shubham.projects.SkillSeeker.Service;
 
-import co.elastic.clients.elasticsearch._types.query_dsl.BoolQuery;
-import co.elastic.clients.elasticsearch._types.query_dsl.Query;
-import co.elastic.clients.elasticsearch._types.query_dsl.RangeQuery;
-import co.elastic.clients.elasticsearch.core.search.FieldSuggester;
-import co.elastic.clients.elasticsearch.core.search.Suggester;
-import co.elastic.clients.json.JsonData;
+import co.elastic.clients.elasticsearch.ElasticsearchAsyncClient;
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch.core.SearchResponse;
+import co.elastic.clients.elasticsearch.core.search.CompletionContext;
+import co.elastic.clients.elasticsearch.core.search.ResponseBody;
+import co.elastic.clients.elasticsearch.core.search.Suggestion;
+import co.elastic.clients.elasticsearch.core.search.TotalHits;
 import com.Shubham.projects.SkillSeeker.Document.CourseDocument;
+import com.Shubham.projects.SkillSeeker.Dto.AutocompleteResponseDto;
 import com.Shubham.projects.SkillSeeker.Dto.CourseDto;
+import com.Shubham.projects.SkillSeeker.Dto.EngagementEventDto;
+import com.Shubham.projects.SkillSeeker.Dto.SearchProfileDto;
 import com.Shubham.projects.SkillSeeker.Dto.SearchRequestDto;
 import com.Shubham.projects.SkillSeeker.Dto.SearchResponseDto;
-import com.Shubham.projects.SkillSeeker.Repository.CourseRepository;
+import com.Shubham.projects.SkillSeeker.Exception.SearchFailedException;
+import com.Shubham.projects.SkillSeeker.Exception.SearchFailure;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.data.elasticsearch.client.elc.NativeQuery;
 import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
 import org.springframework.data.elasticsearch.core.SearchHit;
 import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.data.elasticsearch.core.SearchHitsIterator;
 import org.springframework.stereotype.Service;
 
-import java.time.format.DateTimeFormatter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
 
 @Service
 @Slf4j
 public class CourseService {
 
-    @Autowired
-    private CourseRepository courseRepository;
+    private static final int SUGGESTION_LIMIT = 10;
 
     @Autowired
     private ElasticsearchOperations elasticsearchOperations;
 
+    @Autowired
+    private ElasticsearchClient elasticsearchClient;
+
+    @Autowired
+    private TenantRegistry tenantRegistry;
+
+    @Autowired
+    @Qualifier("suggestAsyncClient")
+    private ElasticsearchAsyncClient suggestAsyncClient;
+
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private AsyncTaskExecutor searchTaskExecutor;
+
+    @Value("${skillseeker.search.execution-mode:blocking}")
+    private String executionMode;
+
+    @Autowired
+    private CourseQueryBuilder courseQueryBuilder;
+
+    @Autowired
+    private CourseMapper courseMapper;
+
+    @Autowired
+    private SearchResultCache searchResultCache;
+
+    @Autowired
+    private SuggestionIndex suggestionIndex;
+
+    @Autowired
+    private QueryPlanner queryPlanner;
+
+    @Autowired
+    private SearchProfiler searchProfiler;
+
+    @Autowired
+    private DirectCourseSearch directCourseSearch;
+
+    @Autowired
+    private EmbeddedSearchEngine embeddedSearchEngine;
+
+    @Autowired
+    private SearchMetrics searchMetrics;
+
+    @Autowired
+    private SearchBatcher searchBatcher;
+
+    @Autowired
+    private AdaptiveConcurrencyLimiter concurrencyLimiter;
+
+    @Autowired
+    private EngagementCollector engagementCollector;
+
+    private SingleFlight<SearchCacheKey, SearchResponseDto> searchFlights;
+
+    @Value("${skillseeker.search.cursor.keep-alive:2m}")
+    private Duration cursorKeepAlive;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PostConstruct
+    void init() {
+        searchFlights = new SingleFlight<>(searchMetrics::recordCoalesced);
+    }
+
     public SearchResponseDto searchCourses(SearchRequestDto request) {
         try {
-            BoolQuery.Builder boolQueryBuilder = new BoolQuery.Builder();
-
-            // Full-text fuzzy search with field boosting
-            if (request.getQ() != null && !request.getQ().trim().isEmpty()) {
-                // Title search with boost
-                boolQueryBuilder.should(s -> s
-                        .multiMatch(mm -> mm
-                                .fields("title")
-                                .query(request.getQ())
-                                .fuzziness("AUTO")
-                                .boost(2.0f)
-                        )
-                );
-
-                // Description search
-                boolQueryBuilder.should(s -> s
-                        .multiMatch(mm -> mm
-                                .fields("description")
-                                .query(request.getQ())
-                                .fuzziness("AUTO")
-                        )
-                );
-
-                // Set minimum should match to ensure at least one clause matches
-                boolQueryBuilder.minimumShouldMatch("1");
-            }
+            return searchCoursesAsync(request).join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
 
-            // Category filter
-            if (request.getCategory() != null && !request.getCategory().trim().isEmpty()) {
-                boolQueryBuilder.filter(f -> f
-                        .term(t -> t
-                                .field("category")
-                                .value(request.getCategory())
-                        )
-                );
+    /**
+     * Searches without tying up the calling request thread when async execution is enabled.
+     * Cache hits are always answered inline.
+     */
+    public CompletableFuture<SearchResponseDto> searchCoursesAsync(SearchRequestDto unscoped) {
+        // Resolved first, so an unknown tenant is rejected before it reaches a cache partition or a meter
+        SearchRequestDto request = unscoped.toBuilder().tenant(tenantRegistry.resolve(unscoped.getTenant())).build();
+        if (request.getCursor() != null) {
+            return searchMetrics.observeSearch(request, "cursor",
+                    () -> admitted(AdmissionLane.SEARCH, () -> submit(() -> searchWithCursor(request))));
+        }
+        if (request.isProfile()) {
+            return searchMetrics.observeSearch(request, "profile",
+                    () -> admitted(AdmissionLane.SEARCH, () -> submit(() -> profileSearch(request))));
+        }
+        return searchMetrics.observeSearch(request, "page", () -> {
+            SearchCacheKey cacheKey = SearchCacheKey.from(request);
+            SearchResponseDto cached = searchResultCache.getIfPresent(cacheKey);
+            if (cached != null) {
+                return CompletableFuture.completedFuture(cached);
             }
-
-            // Type filter
-            if (request.getType() != null && !request.getType().trim().isEmpty()) {
-                boolQueryBuilder.filter(f -> f
-                        .term(t -> t
-                                .field("type")
-                                .value(request.getType())
-                        )
-                );
+            return loadSearch(cacheKey);
+        }).whenComplete((response, error) -> {
+            // Served pages, cached or not, are the impressions behind the click-through rate
+            if (response != null) {
+                engagementCollector.recordImpressions(request.getTenant(), response.getCourses());
             }
+        });
+    }
 
-            // Age filters
-            if (request.getMinAge() != null) {
-                boolQueryBuilder.filter(f -> f
-                        .range(r -> r
-                                .field("maxAge")
-                                .gte(JsonData.of(request.getMinAge()))
-                        )
-                );
-            }
-            if (request.getMaxAge() != null) {
-                boolQueryBuilder.filter(f -> f
-                        .range(r -> r
-                                .field("minAge")
-                                .lte(JsonData.of(request.getMaxAge()))
-                        )
-                );
-            }
+    /**
+     * Queues click and enrollment events on the tenant's courses for the relevance signals.
+     */
+    public int recordEngagement(String tenant, List<EngagementEventDto> events) {
+        return engagementCollector.record(tenantRegistry.resolve(tenant), events);
+    }
 
-            // Price filters
-            if (request.getMinPrice() != null || request.getMaxPrice() != null) {
-                RangeQuery.Builder rangeQueryBuilder = new RangeQuery.Builder().field("price");
-                if (request.getMinPrice() != null) {
-                    rangeQueryBuilder.gte(JsonData.of(request.getMinPrice()));
-                }
-                if (request.getMaxPrice() != null) {
-                    rangeQueryBuilder.lte(JsonData.of(request.getMaxPrice()));
-                }
-                boolQueryBuilder.filter(f -> f.range(rangeQueryBuilder.build()));
-            }
+    private boolean isAsync() {
+        return "async".equalsIgnoreCase(executionMode);
+    }
 
-            // Start date filter
-            if (request.getStartDate() != null) {
-                String formattedStartDate;
-
-                // Handle common Java time types
-                if (request.getStartDate() instanceof java.time.temporal.TemporalAccessor) {
-                    if (request.getStartDate() instanceof java.time.LocalDateTime) {
-                        formattedStartDate = ((java.time.LocalDateTime) request.getStartDate()).format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
-//                    } else if (request.getStartDate() instanceof java.time.LocalDate) {
-//                        formattedStartDate = ((java.time.LocalDate) request.getStartDate()).format(DateTimeFormatter.ISO_LOCAL_DATE);
-                    } else {
-                        formattedStartDate = request.getStartDate().toString();
-                    }
-                } else {
-                    formattedStartDate = request.getStartDate().toString();
-                    log.warn("Unhandled date type for startDate: {}. Using toString().", request.getStartDate().getClass().getName());
-                }
-
-                boolQueryBuilder.filter(f -> f
-                        .range(r -> r
-                                .field("nextSessionDate")
-                                .gte(JsonData.of(formattedStartDate))
-                        )
-                );
+    private <T> CompletableFuture<T> submit(Supplier<T> search) {
+        if (!isAsync()) {
+            try {
+                return CompletableFuture.completedFuture(search.get());
+            } catch (RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
             }
+        }
+        return CompletableFuture.supplyAsync(searchMetrics.inCurrentObservation(search), searchTaskExecutor);
+    }
+
+    /**
+     * Runs a call to Elasticsearch under the adaptive concurrency limit. Over the limit it fails at
+     * once as OVERLOADED instead of queueing in front of a cluster that is already saturated.
+     */
+    private <T> CompletableFuture<T> admitted(AdmissionLane lane, Supplier<CompletableFuture<T>> call) {
+        AdaptiveConcurrencyLimiter.Permit permit = concurrencyLimiter.tryAcquire(lane);
+        if (permit == null) {
+            searchMetrics.recordAdmissionRejected(lane, "overloaded");
+            return CompletableFuture.failedFuture(concurrencyLimiter.overloaded(lane));
+        }
+        CompletableFuture<T> future;
+        try {
+            future = call.get();
+        } catch (RuntimeException e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+        return future.whenComplete((result, error) -> permit.release(error));
+    }
 
-            Query finalQuery = Query.of(q -> q.bool(boolQueryBuilder.build()));
+    /**
+     * Cache misses for the same key share one in-flight search, so an expired popular entry costs
+     * one Elasticsearch query instead of one per waiting request.
+     */
+    private CompletableFuture<SearchResponseDto> loadSearch(SearchCacheKey cacheKey) {
+        return searchFlights.execute(cacheKey, () -> {
+            long generation = searchResultCache.generation(cacheKey);
+            return fetchSearch(cacheKey.toRequest())
+                    .thenApply(response -> {
+                        // Embedded answers are cheap to repeat and should not outlive an outage
+                        if (response.getBackend() == null) {
+                            searchResultCache.put(cacheKey, response, generation);
+                        }
+                        return response;
+                    });
+        });
+    }
 
-            // Sorting & Pagination
-            Sort sort = getSortOrder(request.getSort());
-            int page = Math.max(request.getPage(), 0);
-            int size = Math.min(Math.max(request.getSize(), 1), 100);
-            Pageable pageable = PageRequest.of(page, size, sort);
+    private CompletableFuture<SearchResponseDto> fetchSearch(SearchRequestDto request) {
+        if (embeddedSearchEngine.isPrimary()) {
+            return submit(() -> embeddedSearchEngine.search(request));
+        }
+        CompletableFuture<SearchResponseDto> search = fetchFromElasticsearch(request);
+        if (!embeddedSearchEngine.isEnabled()) {
+            return search;
+        }
+        return search.exceptionallyCompose(e -> fallBack(request, e));
+    }
 
-            // Search query using NativeQuery
-            NativeQuery searchQuery = NativeQuery.builder()
-                    .withQuery(finalQuery)
-                    .withPageable(pageable)
-                    .build();
+    /**
+     * Answers from the embedded engine when Elasticsearch could not be reached, timed out or was shed
+     * by admission control. Errors that the cluster would return again, such as a bad query, are
+     * passed on.
+     */
+    private CompletableFuture<SearchResponseDto> fallBack(SearchRequestDto request, Throwable error) {
+        SearchFailure failure = SearchFailure.of(error);
+        boolean recoverable = failure == SearchFailure.UNAVAILABLE || failure == SearchFailure.TIMEOUT
+                || failure == SearchFailure.OVERLOADED;
+        if (!recoverable || !embeddedSearchEngine.isReady()) {
+            return CompletableFuture.failedFuture(error);
+        }
+        log.warn("Elasticsearch {}, answering from the embedded index", failure.tag());
+        searchMetrics.recordFallback(failure);
+        return CompletableFuture.completedFuture(embeddedSearchEngine.search(request));
+    }
 
-            SearchHits<CourseDocument> searchHits = elasticsearchOperations.search(searchQuery, CourseDocument.class);
+    private CompletableFuture<SearchResponseDto> fetchFromElasticsearch(SearchRequestDto request) {
+        if (!searchBatcher.isEnabled()) {
+            return admitted(AdmissionLane.SEARCH, () -> isAsync() ? executeSearchAsync(request)
+                    : submit(() -> executeSearch(request)));
+        }
+        TenantRoute route = tenantRegistry.route(request.getTenant());
+        NativeQuery searchQuery = route.apply(courseQueryBuilder.build(request));
+        return admitted(AdmissionLane.SEARCH, () -> searchBatcher.submit(searchQuery, route.index()))
+                .handle((response, e) -> {
+                    if (e != null && e.getCause() instanceof SearchFailedException shed) {
+                        throw shed;
+                    }
+                    if (e != null) {
+                        log.error("Search failed: {}", e.getMessage(), e);
+                        throw new SearchFailedException("Search failed", e);
+                    }
+                    return toResponse(request, searchQuery, response).build();
+                });
+    }
+
+    private SearchResponseDto executeSearch(SearchRequestDto request) {
+        try {
+            TenantRoute route = tenantRegistry.route(request.getTenant());
+            NativeQuery searchQuery = route.apply(courseQueryBuilder.build(request));
 
-            List<CourseDto> courses = searchHits.getSearchHits().stream()
-                    .map(SearchHit::getContent)
-                    .map(this::convertToDto)
-                    .collect(Collectors.toList());
+            SearchResponse<CourseDto> response = directCourseSearch.search(searchQuery, route.index());
 
-            return new SearchResponseDto(searchHits.getTotalHits(), courses, page, size);
+            return toResponse(request, searchQuery, response).build();
 
         } catch (Exception e) {
             log.error("Search failed: {}", e.getMessage(), e);
-            throw new RuntimeException("Search failed: " + e.getMessage(), e);
+            throw new SearchFailedException("Search failed", e);
         }
     }
 
-    public List<String> getSuggestions(String query) {
-        try {
+    // The search goes out on the async client, so no executor thread waits for the cluster
+    private CompletableFuture<SearchResponseDto> executeSearchAsync(SearchRequestDto request) {
+        TenantRoute route = tenantRegistry.route(request.getTenant());
+        NativeQuery searchQuery = route.apply(courseQueryBuilder.build(request));
+        return directCourseSearch.searchAsync(searchQuery, route.index())
+                .handle((response, e) -> {
+                    if (e != null) {
+                        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                        log.error("Search failed: {}", cause.getMessage(), cause);
+                        throw new SearchFailedException("Search failed", cause);
+                    }
+                    return toResponse(request, searchQuery, response).build();
+                });
+    }
 
-            Suggester suggester = Suggester.of(s -> s
-                    .suggesters("course_suggest", FieldSuggester.of(fs -> fs
-                            .completion(c -> c
-                                    .field("suggest")
-//                                    .prefix(query)
-                                    .skipDuplicates(true)
-                                    .size(10)
-                            )
-                    ))
-            );
-
-            NativeQuery searchQuery = NativeQuery.builder()
-                    .withSuggester(suggester)
-                    .build();
+    private SearchResponseDto.SearchResponseDtoBuilder toResponse(SearchRequestDto request, NativeQuery searchQuery,
+                                                                 ResponseBody<CourseDto> response) {
+        TotalHits total = response.hits().total();
+
+        return SearchResponseDto.builder()
+                .total(total == null ? 0 : total.value())
+                .totalRelation(total != null && "gte".equals(total.relation().jsonValue()) ? "gte" : null)
+                .courses(courseMapper.fromHits(response.hits().hits(), isDistanceSort(request)))
+                .page(searchQuery.getPageable().getPageNumber())
+                .size(searchQuery.getPageable().getPageSize())
+                .facets(request.isFacets() ? courseMapper.toFacets(response.aggregations()) : null);
+    }
 
-            SearchHits<CourseDocument> searchHits = elasticsearchOperations.search(searchQuery, CourseDocument.class);
+    private static boolean isDistanceSort(SearchRequestDto request) {
+        return "distance".equals(SearchCacheKey.canonicalSort(request.getSort()));
+    }
 
-            List<String> suggestionsList = new ArrayList<>();
+    /**
+     * Runs the search with the Elasticsearch profiler and reports the plan the query was built from.
+     * Profiled requests are never cached, so the timings always come from the cluster.
+     */
+    private SearchResponseDto profileSearch(SearchRequestDto request) {
+        try {
+            SearchRequestDto normalized = SearchCacheKey.from(request).toRequest();
+            TenantRoute route = tenantRegistry.route(normalized.getTenant());
+            NativeQuery searchQuery = route.apply(courseQueryBuilder.build(normalized));
 
+            SearchResponse<CourseDto> response = searchProfiler.search(searchQuery, route.index());
 
-            if (searchHits.getSuggest() != null) {
-                org.springframework.data.elasticsearch.core.suggest.response.Suggest.Suggestion<? extends org.springframework.data.elasticsearch.core.suggest.response.Suggest.Suggestion.Entry<? extends org.springframework.data.elasticsearch.core.suggest.response.Suggest.Suggestion.Entry.Option>> suggestion =
-                        searchHits.getSuggest().getSuggestion("course_suggest");
+            return toResponse(normalized, searchQuery, response)
+                    .profile(new SearchProfileDto(queryPlanner.plan(normalized), response.took(),
+                            searchProfiler.toJson(response.profile())))
+                    .build();
 
-                if (suggestion != null) {
-                    for (org.springframework.data.elasticsearch.core.suggest.response.Suggest.Suggestion.Entry<? extends org.springframework.data.elasticsearch.core.suggest.response.Suggest.Suggestion.Entry.Option> entry : suggestion.getEntries()) {
-                        for (org.springframework.data.elasticsearch.core.suggest.response.Suggest.Suggestion.Entry.Option option : entry.getOptions()) {
-//                            suggestionsList.add(option.getText().string());
-                        }
-                    }
-                }
+        } catch (Exception e) {
+            log.error("Profiled search failed: {}", e.getMessage(), e);
+            throw new SearchFailedException("Search failed", e);
+        }
+    }
+
+    /**
+     * Cursor paging over a point-in-time. A start cursor ("*") opens the PIT; every later page
+     * resumes with search_after from the previous page's last hit, so page depth does not matter
+     * and results stay consistent while the index is rewritten. The PIT is closed once the last
+     * page has been served. Cursor pages are not cached.
+     */
+    private SearchResponseDto searchWithCursor(SearchRequestDto request) {
+        SearchCacheKey filters = SearchCacheKey.from(request);
+        SearchCursor cursor = null;
+        String pitId;
+        if (SearchCursor.isStart(request.getCursor())) {
+            pitId = openPointInTime(tenantRegistry.route(filters.tenant()));
+        } else {
+            cursor = SearchCursor.decode(request.getCursor());
+            if (!filters.fingerprint().equals(cursor.fingerprint())) {
+                throw new IllegalArgumentException("Cursor does not match the search filters");
+            }
+            pitId = cursor.pitId();
+        }
+
+        try {
+            NativeQuery searchQuery = courseQueryBuilder.buildCursorPage(filters.toRequest(), pitId, cursorKeepAlive,
+                    cursor == null ? null : cursor.searchAfter());
+            SearchHits<CourseDocument> searchHits = elasticsearchOperations.search(searchQuery, CourseDocument.class);
+            List<SearchHit<CourseDocument>> hits = searchHits.getSearchHits();
+
+            // The PIT id may change between pages; always carry the latest one forward
+            String nextPitId = searchHits.getPointInTimeId() != null ? searchHits.getPointInTimeId() : pitId;
+            long total = cursor == null ? searchHits.getTotalHits() : cursor.total();
+            String nextCursor = null;
+            if (hits.size() < filters.size()) {
+                closePointInTime(nextPitId);
+            } else {
+                nextCursor = new SearchCursor(nextPitId, hits.get(hits.size() - 1).getSortValues(),
+                        total, filters.fingerprint()).encode();
             }
 
-            return suggestionsList;
+            return SearchResponseDto.builder()
+                    .total(total)
+                    .courses(courseMapper.toDtos(hits, isDistanceSort(filters.toRequest())))
+                    .page(0)
+                    .size(filters.size())
+                    .nextCursor(nextCursor)
+                    .build();
 
         } catch (Exception e) {
-            log.error("Suggestion fetch failed: {}", e.getMessage(), e);
-            throw new RuntimeException("Suggestion fetch failed: " + e.getMessage(), e);
+            log.error("Cursor search failed: {}", e.getMessage(), e);
+            throw new SearchFailedException("Search failed", e);
         }
     }
 
-    public long getTotalCourses() {
-        return courseRepository.count();
+    // Only over the tenant's shard; later pages search the point-in-time without naming an index
+    private String openPointInTime(TenantRoute route) {
+        try {
+            return elasticsearchClient.openPointInTime(o -> o
+                    .index(route.alias())
+                    .routing(route.routing())
+                    .keepAlive(k -> k.time(cursorKeepAlive.toMillis() + "ms"))).id();
+        } catch (IOException e) {
+            throw new SearchFailedException("Search failed", e);
+        }
     }
 
-    public List<CourseDto> getAllCourses() {
-        List<CourseDocument> documents = new ArrayList<>();
-        courseRepository.findAll().forEach(documents::add);
-        return documents.stream().map(this::convertToDto).collect(Collectors.toList());
+    private void closePointInTime(String pitId) {
+        try {
+            elasticsearchOperations.closePointInTime(pitId);
+        } catch (RuntimeException e) {
+            // It expires on its own after the keep-alive
+            log.warn("Could not close point-in-time: {}", e.getMessage());
+        }
     }
 
-    private Sort getSortOrder(String sortParam) {
-        if (sortParam == null || sortParam.trim().isEmpty()) {
-            sortParam = "upcoming";
+    /**
+     * Writes every course matching the request's filters to {@code out} as NDJSON, one course per line.
+     * Hits are scrolled in batches and written as they arrive, so memory use does not grow with the catalog.
+     */
+    public long exportCourses(SearchRequestDto request, OutputStream out) throws IOException {
+        // Validated before anything is written, so a bad request still gets a 400
+        TenantRoute route = tenantRegistry.route(request.getTenant());
+        NativeQuery exportQuery = route.apply(courseQueryBuilder.buildExport(
+                SearchCacheKey.from(request.toBuilder().tenant(route.tenant()).build()).toRequest()));
+        long written = 0;
+        try (SearchHitsIterator<CourseDocument> hits =
+                     elasticsearchOperations.searchForStream(exportQuery, CourseDocument.class, route.index())) {
+            SequenceWriter writer = objectMapper.writer()
+                    .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                    .withRootValueSeparator("\n")
+                    .writeValues(out);
+            while (hits.hasNext()) {
+                writer.write(courseMapper.toDto(hits.next().getContent()));
+                written++;
+            }
+            writer.close();
+            if (written > 0) {
+                out.write('\n');
+            }
         }
+        log.info("Exported {} courses of tenant '{}'", written, route.tenant());
+        return written;
+    }
 
-        return switch (sortParam.toLowerCase()) {
-            case "priceasc" -> Sort.by(Sort.Direction.ASC, "price");
-            case "pricedesc" -> Sort.by(Sort.Direction.DESC, "price");
-            case "upcoming" -> Sort.by(Sort.Direction.ASC, "nextSessionDate");
-            default -> Sort.by(Sort.Direction.ASC, "nextSessionDate");
-        };
+    public AutocompleteResponseDto getSuggestions(String tenant, String query) {
+        try {
+            return getSuggestionsAsync(tenant, query).join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    /**
+     * Completes inline for prefixes the in-memory index can answer; misses go to the
+     * completion suggester through the non-blocking client, so no thread waits on the cluster.
+     */
+    public CompletableFuture<AutocompleteResponseDto> getSuggestionsAsync(String tenant, String query) {
+        TenantRoute route = tenantRegistry.route(tenant);
+        return searchMetrics.observeSuggest(route.tenant(), () -> suggest(route, query));
+    }
+
+    private CompletableFuture<AutocompleteResponseDto> suggest(TenantRoute route, String query) {
+        String prefix = query == null ? "" : query.trim();
+        if (prefix.isEmpty()) {
+            return CompletableFuture.completedFuture(new AutocompleteResponseDto(List.of()));
+        }
+
+        // Serve from the in-memory prefix index; only misses go to the cluster
+        if (suggestionIndex.isReady()) {
+            List<String> local = suggestionIndex.suggest(route.tenant(), prefix, SUGGESTION_LIMIT);
+            if (!local.isEmpty()) {
+                searchMetrics.recordSuggestSource(route.tenant(), "local");
+                return CompletableFuture.completedFuture(new AutocompleteResponseDto(local));
+            }
+        }
+        searchMetrics.recordSuggestSource(route.tenant(), "cluster");
+
+        return admitted(AdmissionLane.SUGGEST, () -> suggestAsyncClient.search(s -> s
+                                .index(route.alias())
+                                .routing(route.routing())
+                                .source(src -> src.fetch(false))
+                                .size(0)
+                                .suggest(sg -> sg
+                                        .suggesters("course_suggest", fs -> fs
+                                                .prefix(prefix)
+                                                .completion(c -> c
+                                                        .field("suggest")
+                                                        .contexts("tenant", List.of(CompletionContext.of(cc -> cc
+                                                                .context(ctx -> ctx.category(route.tenant())))))
+                                                        .skipDuplicates(true)
+                                                        .size(SUGGESTION_LIMIT)
+                                                )
+                                        )
+                                ),
+                        Void.class))
+                .thenApply(this::toAutocompleteResponse)
+                .exceptionally(e -> {
+                    Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                    if (cause instanceof SearchFailedException shed) {
+                        throw shed;
+                    }
+                    log.error("Suggestion fetch failed: {}", cause.getMessage(), cause);
+                    throw new SearchFailedException("Suggestion fetch failed", cause);
+                });
+    }
+
+    private AutocompleteResponseDto toAutocompleteResponse(SearchResponse<Void> response) {
+        List<String> suggestionsList = new ArrayList<>();
+        for (Suggestion<Void> suggestion : response.suggest().getOrDefault("course_suggest", List.of())) {
+            if (suggestion.isCompletion()) {
+                suggestion.completion().options().forEach(option -> suggestionsList.add(option.text()));
+            }
+        }
+        return new AutocompleteResponseDto(suggestionsList);
     }
 
-    private CourseDto convertToDto(CourseDocument doc) {
-        return new CourseDto(
-                doc.getId(),
-                doc.getTitle(),
-                doc.getDescription(),
-                doc.getCategory(),
-                doc.getType(),
-                doc.getGradeRange(),
-                doc.getMinAge(),
-                doc.getMaxAge(),
-                doc.getPrice(),
-                doc.getNextSessionDate().atStartOfDay()
-        );
+    public long getTotalCourses(String tenant) {
+        TenantRoute route = tenantRegistry.route(tenant);
+        NativeQuery query = route.apply(NativeQuery.builder()
+                .withQuery(q -> q.bool(b -> b
+                        .filter(f -> f.term(t -> t.field("tenant").value(route.tenant())))
+                        .mustNot(CourseQueryBuilder.TOMBSTONE)))
+                .build());
+        return elasticsearchOperations.count(query, CourseDocument.class, route.index());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,654 @@
+package com.Shubham.projects.SkillSeeker.Service;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.Refresh;
+import co.elastic.clients.elasticsearch._types.VersionType;
+import co.elastic.clients.elasticsearch.core.BulkResponse;
+import co.elastic.clients.elasticsearch.core.bulk.BulkOperation;
+import co.elastic.clients.elasticsearch.core.bulk.BulkResponseItem;
+import com.Shubham.projects.SkillSeeker.Document.CourseDocument;
+import com.Shubham.projects.SkillSeeker.Exception.SearchFailedException;
+import com.Shubham.projects.SkillSeeker.Exception.SearchFailure;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.MultiGetItem;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.SearchHitsIterator;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Queues the writes of the course API and sends them to the index as _bulk requests, once
+ * {@code batch-size} courses are queued or every {@code flush-interval}, whichever comes first.
+ * Writes to a course that meet in the queue are coalesced: only the last is sent, and it answers
+ * the callers of the earlier ones too. A caller that asked for {@code refresh=wait_for} is answered
+ * once its write is searchable, and triggers a flush right away; every other caller is answered as
+ * soon as the write is queued.
+ * <p>
+ * The queue holds at most {@code max-pending} courses. A writer that finds it full waits up to
+ * {@code max-wait} for a flush to make room ({@link #awaitRoom}) and is then turned away as
+ * overloaded, so a slow cluster pushes back on writers instead of filling the heap. A batch the
+ * cluster cannot take, whole or for some of its courses, is put back for the next flush; only a write
+ * it rejects as invalid (400) or without an index (404) fails its callers.
+ * <p>
+ * Every write carries an external version from the {@link VersionClock} and keeps the engagement the
+ * index has collected for the course. A delete replaces the course with a tombstone, so that syncs and
+ * reindexes, which leave the API's courses alone, do not bring it back from the catalog. A successful
+ * write updates the suggestion and embedded indices and drops only the cached searches the course
+ * could appear in, before or after the change. Flushes are held while a reindex copies the API's
+ * courses, tombstones included, to the new index; a caller that waits for its write to become
+ * searchable is turned away meanwhile rather than left waiting for the whole reindex.
+ */
+@Service
+@Slf4j
+public class CourseWriteBuffer {
+
+    /**
+     * The {@code origin} of courses written through the course API.
+     */
+    public static final String API_ORIGIN = "api";
+
+    /**
+     * What is queued for a course: its new content, or a delete when {@code course} is null.
+     */
+    public record Buffered(TenantRoute route, CourseDocument course) {
+    }
+
+    /**
+     * One queued write. {@code create} fails it if the course exists; {@code callers} are the requests
+     * waiting for it to become searchable, including those of the writes it replaced.
+     */
+    private record Write(TenantRoute route, String id, CourseDocument course, boolean create, long version,
+                         List<CompletableFuture<Void>> callers) {
+    }
+
+    @Autowired
+    private ElasticsearchClient elasticsearchClient;
+
+    @Autowired
+    private ElasticsearchOperations elasticsearchOperations;
+
+    @Autowired
+    private SuggestionIndex suggestionIndex;
+
+    @Autowired
+    private EmbeddedSearchEngine embeddedSearchEngine;
+
+    @Autowired
+    private SearchResultCache searchResultCache;
+
+    @Autowired
+    private SearchMetrics searchMetrics;
+
+    @Autowired
+    private VersionClock versionClock;
+
+    @Value("${skillseeker.writes.batch-size:500}")
+    private int batchSize;
+
+    @Value("${skillseeker.writes.flush-interval:1s}")
+    private Duration flushInterval;
+
+    @Value("${skillseeker.writes.max-pending:10000}")
+    private int maxPending;
+
+    @Value("${skillseeker.writes.max-wait:500ms}")
+    private Duration maxWait;
+
+    @Value("${skillseeker.writes.timeout:30s}")
+    private Duration timeout;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notFull = lock.newCondition();
+    // Guarded by lock, in the order the courses were first queued
+    private final Map<String, Write> pending = new LinkedHashMap<>();
+    // Taken out of pending and not yet answered by the cluster; reads still see them
+    private final Map<String, Write> inFlight = new ConcurrentHashMap<>();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    // Changed under this, so a hold waits for a running flush
+    private volatile int holds;
+
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "course-writes");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PostConstruct
+    void start() {
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushInterval.toMillis(), flushInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+        searchMetrics.registerWritesPending(this::pendingCourses);
+    }
+
+    public int pendingCourses() {
+        lock.lock();
+        try {
+            return pending.size() + inFlight.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The write queued or being sent for a course, or null when there is none, so the course API
+     * reads its own writes before they are searchable.
+     */
+    public Buffered buffered(String courseId) {
+        lock.lock();
+        try {
+            Write write = pending.get(courseId);
+            if (write == null) {
+                write = inFlight.get(courseId);
+            }
+            return write == null ? null : new Buffered(write.route(), write.course());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits up to {@code max-wait} until the queue has room for a write to the course. Called before
+     * {@link #submit}, outside any lock of the caller's, so that other writers are not held up meanwhile.
+     *
+     * @throws SearchFailedException OVERLOADED when the queue stays full
+     */
+    public void awaitRoom(String courseId, String operation) {
+        lock.lock();
+        try {
+            long remaining = maxWait.toNanos();
+            while (isFull(courseId)) {
+                if (remaining <= 0) {
+                    throw overloaded(operation, "Too many course writes are queued; retry later");
+                }
+                requestFlush();
+                remaining = notFull.awaitNanos(remaining);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw overloaded(operation, "Interrupted while waiting for room in the write queue");
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Queues a write of {@code course} under the given route, or a delete of {@code courseId} when
+     * {@code course} is null.
+     *
+     * @param create         fail with a conflict if the course already exists
+     * @param waitForRefresh complete the result only once the write is searchable
+     * @return completes when the write is searchable, or at once when not waiting for it
+     * @throws SearchFailedException OVERLOADED when the queue is full, which {@link #awaitRoom} waits
+     *                               out, and for a caller waiting for its write during a reindex;
+     *                               CONFLICT for a create of a course that is queued and for a course of
+     *                               another tenant that is queued
+     */
+    public CompletableFuture<Void> submit(TenantRoute route, String courseId, CourseDocument course, boolean create,
+                                          boolean waitForRefresh) {
+        String operation = course == null ? "delete" : create ? "create" : "update";
+        if (waitForRefresh && holds > 0) {
+            // Nothing is sent until the reindex has swapped the alias, which can take minutes
+            throw overloaded(operation, "A reindex is running; retry refresh=wait_for later, or write without it");
+        }
+        CompletableFuture<Void> written = waitForRefresh ? new CompletableFuture<>() : null;
+        boolean flushNow;
+        lock.lock();
+        try {
+            if (isFull(courseId)) {
+                throw overloaded(operation, "Too many course writes are queued; retry later");
+            }
+            Write previous = pending.get(courseId);
+            Write sending = inFlight.get(courseId);
+            // Ids are unique across tenants; coalescing would hand one tenant's write to another's callers
+            if (ofOtherTenant(previous, route) || ofOtherTenant(sending, route)) {
+                searchMetrics.recordWrite(operation, SearchFailure.CONFLICT.tag());
+                throw new SearchFailedException("Course id '" + courseId + "' belongs to another tenant",
+                        SearchFailure.CONFLICT);
+            }
+            if (create && (previous != null ? previous.course() != null : sending != null && sending.course() != null)) {
+                throw new SearchFailedException("Course '" + courseId + "' already exists", SearchFailure.CONFLICT);
+            }
+            List<CompletableFuture<Void>> callers = new ArrayList<>();
+            if (previous != null) {
+                callers.addAll(previous.callers());
+            }
+            if (written != null) {
+                callers.add(written);
+            }
+            // A create stays one when updated before it is sent; after a queued delete it replaces the course
+            boolean createOp = course != null && (previous == null ? create : previous.create());
+            pending.put(courseId, new Write(route, courseId, course, createOp, versionClock.next(), callers));
+            searchMetrics.recordWrite(operation, previous == null ? "queued" : "coalesced");
+            flushNow = waitForRefresh || pending.size() >= batchSize;
+        } finally {
+            lock.unlock();
+        }
+        if (flushNow) {
+            requestFlush();
+        }
+        return written == null ? CompletableFuture.completedFuture(null) : written
+                .orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS)
+                .exceptionallyCompose(e -> CompletableFuture.failedFuture(e instanceof TimeoutException
+                        ? new SearchFailedException("Course '" + courseId + "' was not searchable within " + timeout,
+                        SearchFailure.TIMEOUT)
+                        : e));
+    }
+
+    private static boolean ofOtherTenant(Write write, TenantRoute route) {
+        return write != null && !write.route().tenant().equals(route.tenant());
+    }
+
+    // Called with the lock held. A write to a course already queued takes no room
+    private boolean isFull(String courseId) {
+        return pending.size() >= maxPending && !pending.containsKey(courseId);
+    }
+
+    private SearchFailedException overloaded(String operation, String message) {
+        searchMetrics.recordWrite(operation, "rejected");
+        return new SearchFailedException(message, SearchFailure.OVERLOADED, flushInterval);
+    }
+
+    private void requestFlush() {
+        if (flushRequested.compareAndSet(false, true)) {
+            try {
+                flusher.execute(this::flushQuietly);
+            } catch (RejectedExecutionException e) {
+                // Shutting down; the final flush sends what is queued
+                flushRequested.set(false);
+            }
+        }
+    }
+
+    /**
+     * Keeps writes queued until {@link #resumeFlushes()}, after waiting for a running flush; used while
+     * a reindex copies the API's courses from the old index to the new one.
+     */
+    public synchronized void suspendFlushes() {
+        holds++;
+    }
+
+    public synchronized void resumeFlushes() {
+        holds--;
+        if (holds == 0) {
+            requestFlush();
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("Course write flush failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Sends everything queued so far, in batches of {@code batch-size}. Writes put back by a failed
+     * batch wait for the next flush rather than being retried straight away.
+     */
+    public synchronized void flush() {
+        flushRequested.set(false);
+        if (holds > 0) {
+            return;
+        }
+        int remaining;
+        lock.lock();
+        try {
+            remaining = pending.size();
+        } finally {
+            lock.unlock();
+        }
+        while (remaining > 0) {
+            List<Write> batch = drain(Math.min(batchSize, remaining));
+            if (batch.isEmpty()) {
+                return;
+            }
+            remaining -= batch.size();
+            send(batch);
+        }
+    }
+
+    private List<Write> drain(int max) {
+        List<Write> batch = new ArrayList<>(max);
+        lock.lock();
+        try {
+            Iterator<Write> writes = pending.values().iterator();
+            while (writes.hasNext() && batch.size() < max) {
+                Write write = writes.next();
+                writes.remove();
+                inFlight.put(write.id(), write);
+                batch.add(write);
+            }
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        return batch;
+    }
+
+    private void send(List<Write> batch) {
+        long started = System.nanoTime();
+        String outcome = "failed";
+        try {
+            if (embeddedSearchEngine.isPrimary()) {
+                applyToEmbedded(batch);
+                outcome = "success";
+            } else {
+                outcome = sendToIndex(batch);
+            }
+        } catch (IOException | RuntimeException e) {
+            requeue(batch);
+            log.warn("Course write batch of {} failed, retrying with the next flush: {}", batch.size(), e.getMessage());
+        } finally {
+            batch.forEach(write -> inFlight.remove(write.id(), write));
+            searchMetrics.recordWriteFlush(Duration.ofNanos(System.nanoTime() - started), batch.size(), outcome);
+        }
+    }
+
+    private String sendToIndex(List<Write> batch) throws IOException {
+        Map<String, CourseDocument> current = currentCourses(batch);
+        List<Write> sent = new ArrayList<>(batch.size());
+        List<BulkOperation> operations = new ArrayList<>(batch.size());
+        boolean waited = false;
+        for (Write write : batch) {
+            CourseDocument before = current.get(write.id());
+            if (rejected(write, before)) {
+                continue;
+            }
+            if (write.course() == null && before == null) {
+                fail(write, "Course '" + write.id() + "' does not exist", SearchFailure.NOT_FOUND);
+                continue;
+            }
+            if (write.course() != null && before != null) {
+                EngagementCollector.copyEngagement(before, write.course());
+            }
+            operations.add(operation(write));
+            sent.add(write);
+            waited |= !write.callers().isEmpty();
+        }
+        if (operations.isEmpty()) {
+            return "success";
+        }
+
+        boolean refresh = waited;
+        BulkResponse response = elasticsearchClient.bulk(b -> {
+            b.operations(operations);
+            // One refresh answers every caller in the batch that waits for it
+            return refresh ? b.refresh(Refresh.WaitFor) : b;
+        });
+        Changes changes = new Changes();
+        List<Write> retry = new ArrayList<>();
+        List<BulkResponseItem> items = response.items();
+        for (int i = 0; i < items.size(); i++) {
+            BulkResponseItem item = items.get(i);
+            Write write = sent.get(i);
+            if (item.error() == null) {
+                applied(write, current.get(write.id()), changes);
+                succeed(write);
+            } else if (item.status() == 409) {
+                // A newer write, from the catalog sync, is already in the index; it stands
+                searchMetrics.recordWrite(operation(write.course()), "superseded");
+                succeed(write);
+            } else if (item.status() == 400 || item.status() == 404) {
+                fail(write, "Course '" + write.id() + "' was not written: " + item.error().reason(),
+                        item.status() == 400 ? SearchFailure.BAD_QUERY : SearchFailure.NOT_FOUND);
+            } else {
+                // Not taken this time (429, 5xx), as when the whole batch fails; queued callers were
+                // already answered, so the write must not be dropped
+                retry.add(write);
+            }
+        }
+        if (!retry.isEmpty()) {
+            requeue(retry);
+            log.warn("{} course writes were not taken by Elasticsearch, retrying with the next flush", retry.size());
+        }
+        changes.invalidate();
+        return response.errors() ? "partial" : "success";
+    }
+
+    /**
+     * Applies the writes to the embedded index when it is the only backend.
+     */
+    private void applyToEmbedded(List<Write> batch) {
+        for (Write write : batch) {
+            CourseDocument before = embeddedSearchEngine.get(write.id());
+            if (before != null && !Objects.equals(before.getTenant(), write.route().tenant())) {
+                before = null;
+            }
+            if (rejected(write, before)) {
+                continue;
+            }
+            if (write.course() == null && before == null) {
+                fail(write, "Course '" + write.id() + "' does not exist", SearchFailure.NOT_FOUND);
+                continue;
+            }
+            if (write.course() != null && before != null) {
+                EngagementCollector.copyEngagement(before, write.course());
+            }
+            applied(write, before, null);
+            succeed(write);
+        }
+    }
+
+    // Fails a create of a course that exists, and a write over a course of another tenant with the same id
+    private boolean rejected(Write write, CourseDocument before) {
+        if (before == null) {
+            return false;
+        }
+        if (!Objects.equals(before.getTenant(), write.route().tenant())) {
+            fail(write, "Course id '" + write.id() + "' belongs to another tenant", SearchFailure.CONFLICT);
+            return true;
+        }
+        if (write.create()) {
+            fail(write, "Course '" + write.id() + "' already exists", SearchFailure.CONFLICT);
+            return true;
+        }
+        return false;
+    }
+
+    private void applied(Write write, CourseDocument before, Changes changes) {
+        if (write.course() != null) {
+            suggestionIndex.upsert(write.course());
+            embeddedSearchEngine.upsert(write.course());
+        } else {
+            suggestionIndex.remove(write.id());
+            embeddedSearchEngine.upsert(tombstone(write));
+        }
+        searchMetrics.recordWrite(operation(write.course()), "indexed");
+        if (changes != null) {
+            changes.add(write, before);
+        }
+    }
+
+    private static String operation(CourseDocument course) {
+        return course == null ? "delete" : "update";
+    }
+
+    // A delete is written as the course's tombstone
+    private BulkOperation operation(Write write) {
+        String alias = write.route().alias();
+        String routing = write.route().routing();
+        CourseDocument course = write.course() == null ? tombstone(write) : write.course();
+        Map<String, Object> document = elasticsearchOperations.getElasticsearchConverter().mapObject(course);
+        return BulkOperation.of(o -> o.index(idx -> idx
+                .index(alias)
+                .id(write.id())
+                .routing(routing)
+                .document(document)
+                .version(write.version())
+                .versionType(VersionType.External)));
+    }
+
+    private static CourseDocument tombstone(Write write) {
+        return CourseDocument.tombstone(write.id(), write.route().tenant(), API_ORIGIN);
+    }
+
+    /**
+     * The indexed version of every course in the batch that exists, by id: for the engagement to carry
+     * over, to tell a create of an existing course, and for the cached searches it is in. A tombstone
+     * counts as no course.
+     */
+    private Map<String, CourseDocument> currentCourses(List<Write> batch) {
+        Map<String, List<Query.IdWithRouting>> lookupsByAlias = new HashMap<>();
+        for (Write write : batch) {
+            lookupsByAlias.computeIfAbsent(write.route().alias(), a -> new ArrayList<>())
+                    .add(new Query.IdWithRouting(write.id(), write.route().routing()));
+        }
+        Map<String, CourseDocument> current = new HashMap<>();
+        lookupsByAlias.forEach((alias, lookups) -> {
+            NativeQuery query = NativeQuery.builder().withIdsWithRouting(lookups).build();
+            for (MultiGetItem<CourseDocument> item :
+                    elasticsearchOperations.multiGet(query, CourseDocument.class, IndexCoordinates.of(alias))) {
+                if (item.hasItem() && !item.getItem().isTombstone()) {
+                    current.put(item.getItem().getId(), item.getItem());
+                }
+            }
+        });
+        return current;
+    }
+
+    private void succeed(Write write) {
+        write.callers().forEach(caller -> caller.complete(null));
+    }
+
+    private void fail(Write write, String message, SearchFailure failure) {
+        searchMetrics.recordWrite(operation(write.course()), failure.tag());
+        log.debug("Course write failed: {}", message);
+        write.callers().forEach(caller -> caller.completeExceptionally(new SearchFailedException(message, failure)));
+    }
+
+    // A newer write queued meanwhile replaces the one put back, and answers its callers too
+    private void requeue(List<Write> batch) {
+        lock.lock();
+        try {
+            for (Write write : batch) {
+                Write newer = pending.get(write.id());
+                if (newer == null) {
+                    pending.put(write.id(), write);
+                } else {
+                    newer.callers().addAll(write.callers());
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The courses a batch changed per tenant, before and after, to drop the cached searches of.
+     */
+    private final class Changes {
+        private final Map<String, Set<String>> ids = new HashMap<>();
+        private final Map<String, List<CourseDocument>> versions = new HashMap<>();
+
+        private void add(Write write, CourseDocument before) {
+            String tenant = write.route().tenant();
+            ids.computeIfAbsent(tenant, t -> new HashSet<>()).add(write.id());
+            List<CourseDocument> courses = versions.computeIfAbsent(tenant, t -> new ArrayList<>());
+            if (before != null) {
+                courses.add(before);
+            }
+            if (write.course() != null) {
+                courses.add(write.course());
+            }
+        }
+
+        private void invalidate() {
+            ids.forEach((tenant, courseIds) -> {
+                List<CourseDocument> courses = versions.get(tenant);
+                searchResultCache.invalidate(tenant, courseIds,
+                        key -> courses.stream().anyMatch(key::mayMatch));
+            });
+        }
+    }
+
+    /**
+     * Copies the courses written through the course API from {@code fromIndex} to {@code toIndex}, so a
+     * reindex from the catalog keeps them. The copies are written over the catalog's, routed as in the
+     * old index; tombstones are copied too, so courses deleted through the API stay deleted.
+     *
+     * @return the number of courses copied
+     * @throws IllegalStateException if any course could not be copied; the new index would lose it
+     */
+    public long copyApiCourses(String fromIndex, String toIndex) {
+        NativeQuery query = NativeQuery.builder()
+                .withQuery(q -> q.term(t -> t.field("origin").value(API_ORIGIN)))
+                .withPageable(PageRequest.of(0, batchSize))
+                .withScrollTime(Duration.ofMinutes(1))
+                .build();
+
+        long copied = 0;
+        List<BulkOperation> operations = new ArrayList<>(batchSize);
+        try (SearchHitsIterator<CourseDocument> hits =
+                     elasticsearchOperations.searchForStream(query, CourseDocument.class, IndexCoordinates.of(fromIndex))) {
+            while (hits.hasNext()) {
+                SearchHit<CourseDocument> hit = hits.next();
+                Map<String, Object> document = elasticsearchOperations.getElasticsearchConverter().mapObject(hit.getContent());
+                operations.add(BulkOperation.of(o -> o.index(idx -> idx
+                        .id(hit.getId())
+                        .routing(hit.getRouting())
+                        .document(document))));
+                if (operations.size() >= batchSize) {
+                    copied += copyBatch(toIndex, operations);
+                    operations = new ArrayList<>(batchSize);
+                }
+            }
+        }
+        if (!operations.isEmpty()) {
+            copied += copyBatch(toIndex, operations);
+        }
+        log.info("Copied {} courses written through the course API from '{}' to '{}'", copied, fromIndex, toIndex);
+        return copied;
+    }
+
+    private long copyBatch(String index, List<BulkOperation> operations) {
+        try {
+            BulkResponse response = elasticsearchClient.bulk(b -> b.index(index).operations(operations));
+            List<BulkResponseItem> failed = response.items().stream().filter(item -> item.error() != null).toList();
+            if (!failed.isEmpty()) {
+                throw new IllegalStateException(failed.size() + " courses could not be copied to " + index
+                        + ", first '" + failed.get(0).id() + "': " + failed.get(0).error().reason());
+            }
+            return response.items().size();
+        } catch (IOException e) {
+            throw new RuntimeException("Course copy to " + index + " failed: " + e.getMessage(), e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flusher.shutdownNow();
+        // Queued writes were acknowledged; send them while the client is still open
+        flushQuietly();
+    }
+}
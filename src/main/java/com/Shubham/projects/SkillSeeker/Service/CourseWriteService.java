@@ -0,0 +1,298 @@
+package com.Shubham.projects.SkillSeeker.Service;
+
+import com.Shubham.projects.SkillSeeker.Document.CourseDocument;
+import com.Shubham.projects.SkillSeeker.Document.CourseSession;
+import com.Shubham.projects.SkillSeeker.Dto.CourseDto;
+import com.Shubham.projects.SkillSeeker.Exception.SearchFailedException;
+import com.Shubham.projects.SkillSeeker.Exception.SearchFailure;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.MultiGetItem;
+import org.springframework.data.elasticsearch.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Creates, replaces, patches and deletes single courses for the course API. Bodies use the catalog's
+ * course format (see {@link CourseJsonReader}); the course is then written through the
+ * {@link CourseWriteBuffer}, marked as written by the API so that the catalog sync and a reindex keep
+ * it. Reads see the buffered writes, so a client reads what it wrote before it is searchable.
+ * <p>
+ * Writes to one course through this instance are serialised, so a patch applies to the latest
+ * version of the course rather than losing a write that raced it. A writer waits for room in the
+ * queue before it takes the course's lock, so a full queue does not hold up the writers of other
+ * courses that share the lock. A deleted course reads as missing, although its tombstone is indexed.
+ */
+@Service
+public class CourseWriteService {
+
+    private static final int LOCK_STRIPES = 64;
+
+    @Autowired
+    private CourseWriteBuffer courseWriteBuffer;
+
+    @Autowired
+    private ElasticsearchOperations elasticsearchOperations;
+
+    @Autowired
+    private EmbeddedSearchEngine embeddedSearchEngine;
+
+    @Autowired
+    private TenantRegistry tenantRegistry;
+
+    @Autowired
+    private CourseMapper courseMapper;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    {
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    /**
+     * Whether a {@code refresh} parameter asks to answer only once the write is searchable.
+     *
+     * @throws IllegalArgumentException for anything but false or wait_for
+     */
+    public static boolean waitForRefresh(String refresh) {
+        if (refresh == null || refresh.isBlank() || refresh.equals("false")) {
+            return false;
+        }
+        if (refresh.equals("wait_for")) {
+            return true;
+        }
+        throw new IllegalArgumentException("Unknown refresh '" + refresh + "'; expected false or wait_for");
+    }
+
+    /**
+     * @throws SearchFailedException NOT_FOUND when the tenant has no such course
+     */
+    public CourseDto get(String tenant, String courseId) {
+        TenantRoute route = tenantRegistry.route(tenant);
+        return courseMapper.toDto(existing(route, courseId));
+    }
+
+    /**
+     * Creates a course, under the id in the body or a generated one.
+     *
+     * @return the course as stored, completing as {@link CourseWriteBuffer#submit} does
+     */
+    public CompletableFuture<CourseDto> create(String tenant, byte[] body, boolean waitForRefresh) {
+        TenantRoute route = tenantRegistry.route(tenant);
+        CourseDocument course = parse(body, route);
+        if (course.getId() == null) {
+            course.setId(UUID.randomUUID().toString());
+        }
+        courseWriteBuffer.awaitRoom(course.getId(), "create");
+        synchronized (lockFor(course.getId())) {
+            // Checked again when the write is sent, for a course created meanwhile elsewhere
+            CourseDocument existing = find(route, course.getId());
+            checkTenant(route, existing);
+            if (existing != null) {
+                throw new SearchFailedException("Course '" + course.getId() + "' already exists", SearchFailure.CONFLICT);
+            }
+            return write(route, course, true, waitForRefresh);
+        }
+    }
+
+    /**
+     * Creates or replaces the course with the given id.
+     */
+    public CompletableFuture<CourseDto> replace(String tenant, String courseId, byte[] body, boolean waitForRefresh) {
+        TenantRoute route = tenantRegistry.route(tenant);
+        CourseDocument course = parse(body, route);
+        if (course.getId() != null && !course.getId().equals(courseId)) {
+            throw new IllegalArgumentException("Body id '" + course.getId() + "' does not match '" + courseId + "'");
+        }
+        course.setId(courseId);
+        courseWriteBuffer.awaitRoom(courseId, "update");
+        synchronized (lockFor(courseId)) {
+            // Checked again when the write is sent
+            checkTenant(route, find(route, courseId));
+            return write(route, course, false, waitForRefresh);
+        }
+    }
+
+    /**
+     * Changes the given fields of a course and keeps the rest; a null value removes a field. Fields
+     * use the catalog's format. The id and tenant cannot be changed; moving a course to another tenant
+     * takes a delete and a create.
+     *
+     * @throws SearchFailedException NOT_FOUND when the tenant has no such course
+     */
+    public CompletableFuture<CourseDto> patch(String tenant, String courseId, Map<String, Object> fields,
+                                              boolean waitForRefresh) {
+        if (fields == null || fields.isEmpty()) {
+            throw new IllegalArgumentException("Expected the fields to change");
+        }
+        TenantRoute route = tenantRegistry.route(tenant);
+        courseWriteBuffer.awaitRoom(courseId, "update");
+        synchronized (lockFor(courseId)) {
+            Map<String, Object> merged = catalogFields(existing(route, courseId));
+            for (Map.Entry<String, Object> field : fields.entrySet()) {
+                String name = field.getKey();
+                if ((name.equals("id") || name.equals("tenant")) && !Objects.equals(field.getValue(), merged.get(name))) {
+                    throw new IllegalArgumentException("The " + name + " of a course cannot be changed");
+                }
+                if (field.getValue() == null) {
+                    merged.remove(name);
+                } else {
+                    merged.put(name, field.getValue());
+                }
+            }
+            // New sessions give a new next session unless the patch sets one
+            if (fields.containsKey("sessions") && !fields.containsKey("nextSessionDate")) {
+                merged.remove("nextSessionDate");
+            }
+            try {
+                return write(route, parse(objectMapper.writeValueAsBytes(merged), route), false, waitForRefresh);
+            } catch (JsonProcessingException e) {
+                throw new IllegalArgumentException("Invalid course fields: " + e.getOriginalMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * @throws SearchFailedException NOT_FOUND when the tenant has no such course
+     */
+    public CompletableFuture<Void> delete(String tenant, String courseId, boolean waitForRefresh) {
+        TenantRoute route = tenantRegistry.route(tenant);
+        courseWriteBuffer.awaitRoom(courseId, "delete");
+        synchronized (lockFor(courseId)) {
+            existing(route, courseId);
+            return courseWriteBuffer.submit(route, courseId, null, false, waitForRefresh);
+        }
+    }
+
+    private CompletableFuture<CourseDto> write(TenantRoute route, CourseDocument course, boolean create,
+                                               boolean waitForRefresh) {
+        course.setOrigin(CourseWriteBuffer.API_ORIGIN);
+        course.setSuggestFromTitle();
+        course.setContentHash(CourseContentHash.of(course));
+        CourseDto written = courseMapper.toDto(course);
+        synchronized (lockFor(course.getId())) {
+            return courseWriteBuffer.submit(route, course.getId(), course, create, waitForRefresh)
+                    .thenApply(ignored -> written);
+        }
+    }
+
+    // A course in the catalog format, with the tenant of the route
+    private CourseDocument parse(byte[] body, TenantRoute route) {
+        CourseDocument course;
+        try (CourseJsonReader reader = new CourseJsonReader(new ByteArrayInputStream(body))) {
+            course = reader.next();
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Invalid course JSON: " + e.getMessage(), e);
+        }
+        if (course == null) {
+            throw new IllegalArgumentException("Expected a course object");
+        }
+        if (course.getTitle() == null || course.getTitle().isBlank()) {
+            throw new IllegalArgumentException("A course needs a title");
+        }
+        if (course.getId() != null && course.getId().isBlank()) {
+            throw new IllegalArgumentException("A course id cannot be blank");
+        }
+        if (course.getTenant() != null && !route.tenant().equals(tenantRegistry.resolve(course.getTenant()))) {
+            throw new IllegalArgumentException("Body tenant '" + course.getTenant() + "' does not match '"
+                    + route.tenant() + "'");
+        }
+        course.setTenant(route.tenant());
+        return course;
+    }
+
+    /**
+     * The latest version of a course of the route's tenant: the buffered write if there is one,
+     * otherwise the indexed course.
+     */
+    private CourseDocument existing(TenantRoute route, String courseId) {
+        CourseDocument course = find(route, courseId);
+        if (course == null || !route.tenant().equals(course.getTenant())) {
+            throw new SearchFailedException("Course '" + courseId + "' does not exist", SearchFailure.NOT_FOUND);
+        }
+        return course;
+    }
+
+    private static void checkTenant(TenantRoute route, CourseDocument existing) {
+        if (existing != null && !route.tenant().equals(existing.getTenant())) {
+            throw new SearchFailedException("Course id '" + existing.getId() + "' belongs to another tenant",
+                    SearchFailure.CONFLICT);
+        }
+    }
+
+    // Whichever tenant it belongs to, since ids are unique across tenants; null for a deleted course
+    private CourseDocument find(TenantRoute route, String courseId) {
+        CourseWriteBuffer.Buffered buffered = courseWriteBuffer.buffered(courseId);
+        if (buffered != null) {
+            return buffered.course();
+        }
+        return embeddedSearchEngine.isPrimary() ? embeddedSearchEngine.get(courseId) : indexed(route, courseId);
+    }
+
+    private CourseDocument indexed(TenantRoute route, String courseId) {
+        NativeQuery query = NativeQuery.builder()
+                .withIdsWithRouting(List.of(new Query.IdWithRouting(courseId, route.routing())))
+                .build();
+        try {
+            for (MultiGetItem<CourseDocument> item : elasticsearchOperations.multiGet(query, CourseDocument.class, route.index())) {
+                if (item.hasItem()) {
+                    return item.getItem().isTombstone() ? null : item.getItem();
+                }
+            }
+            return null;
+        } catch (RuntimeException e) {
+            throw new SearchFailedException("Reading course '" + courseId + "' failed", e);
+        }
+    }
+
+    // The catalog fields of a course, as its JSON would list them
+    private static Map<String, Object> catalogFields(CourseDocument course) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        putIfSet(fields, "id", course.getId());
+        putIfSet(fields, "tenant", course.getTenant());
+        putIfSet(fields, "title", course.getTitle());
+        putIfSet(fields, "description", course.getDescription());
+        putIfSet(fields, "category", course.getCategory());
+        putIfSet(fields, "type", course.getType());
+        putIfSet(fields, "gradeRange", course.getGradeRange());
+        putIfSet(fields, "minAge", course.getMinAge());
+        putIfSet(fields, "maxAge", course.getMaxAge());
+        putIfSet(fields, "price", course.getPrice());
+        putIfSet(fields, "nextSessionDate", course.getNextSessionDate() == null ? null : course.getNextSessionDate().toString());
+        putIfSet(fields, "sessions", course.getSessions() == null ? null : course.getSessions().stream()
+                .map(CourseSession::getStartDate)
+                .filter(Objects::nonNull)
+                .map(Object::toString)
+                .toList());
+        if (course.getLocation() != null) {
+            fields.put("location", Map.of("lat", course.getLocation().getLat(), "lon", course.getLocation().getLon()));
+        }
+        return fields;
+    }
+
+    private static void putIfSet(Map<String, Object> fields, String field, Object value) {
+        if (value != null) {
+            fields.put(field, value);
+        }
+    }
+
+    private Object lockFor(String courseId) {
+        return locks[Math.floorMod(courseId.hashCode(), LOCK_STRIPES)];
+    }
+}
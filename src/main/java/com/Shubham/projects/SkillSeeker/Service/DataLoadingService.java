@@ -1,79 +1,79 @@
 package com.Shubham.projects.SkillSeeker.Service;
 
-import com.Shubham.projects.SkillSeeker.Document.CourseDocument;
-import com.Shubham.projects.SkillSeeker.Repository.CourseRepository;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import jakarta.annotation.PostConstruct;
+import com.Shubham.projects.SkillSeeker.Dto.IngestionReportDto;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.ClassPathResource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.stereotype.Service;
 
-import java.io.IOException;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.CountDownLatch;
 
+/**
+ * Brings the course index up to date with the catalog once the application is serving.
+ * All of it runs in the background, so startup time does not depend on catalog size.
+ */
 @Service
+@Slf4j
 public class DataLoadingService {
 
     @Autowired
-    private CourseRepository courseRepository;
+    private CourseService courseService;
 
-    @PostConstruct
-    public void loadSampleData() {
-        try {
-
-            if (courseRepository.count() < 52) {
-                System.out.println("Loading fresh data...");
-                courseRepository.deleteAll(); // Clear existing data
-            } else {
-                System.out.println("All 52 courses already loaded.");
-                return;
-            }
-
-            // Load JSON file
-            ObjectMapper mapper = new ObjectMapper();
-            ClassPathResource resource = new ClassPathResource("sample-courses.json");
+    @Autowired
+    private TenantRegistry tenantRegistry;
 
-            List<Map<String, Object>> coursesData = mapper.readValue(
-                    resource.getInputStream(),
-                    new TypeReference<>() {}
-            );
+    @Autowired
+    private CourseIndexService courseIndexService;
 
-            for (Map<String, Object> courseData : coursesData) {
-                CourseDocument course = new CourseDocument();
-                course.setId((String) courseData.get("id"));
-                course.setTitle((String) courseData.get("title"));
-                course.setDescription((String) courseData.get("description"));
-                course.setCategory((String) courseData.get("category"));
-                course.setType((String) courseData.get("type"));
-                course.setGradeRange((String) courseData.get("gradeRange"));
-                course.setMinAge((Integer) courseData.get("minAge"));
-                course.setMaxAge((Integer) courseData.get("maxAge"));
-                course.setPrice((Double) courseData.get("price"));
+    @Autowired
+    private CatalogSyncService catalogSyncService;
 
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private AsyncTaskExecutor taskExecutor;
 
-                String dateString = (String) courseData.get("nextSessionDate");
-                LocalDateTime sessionDate = LocalDateTime.parse(
-                        dateString,
-                        DateTimeFormatter.ISO_DATE_TIME
-                );
-                course.setNextSessionDate(sessionDate.toLocalDate());
+    private final CountDownLatch initialLoad = new CountDownLatch(1);
 
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadSampleData() {
+        taskExecutor.execute(this::syncCatalog);
+    }
 
-                course.setSuggestFromTitle();
+    private void syncCatalog() {
+        try {
 
-                courseRepository.save(course);
+            List<String> stale = courseIndexService.getStaleAliases();
+            if (!stale.isEmpty()) {
+                // Nothing routed is indexed there yet, so there is nothing to diff against
+                log.info("Aliases {} missing or built with an older mapping, loading fresh data...", stale);
+                for (IngestionReportDto report : courseIndexService.reindex(stale)) {
+                    report.getFailures().forEach(failure -> log.warn("Ingestion failure: {}", failure));
+                }
+                log.info("Sample data loaded successfully!");
+                for (String tenant : tenantRegistry.tenants()) {
+                    log.info("Total courses loaded for tenant '{}': {}", tenant, courseService.getTotalCourses(tenant));
+                }
+            }
+            if (stale.size() < courseIndexService.getAliases().size()) {
+                // Only courses that changed since the last run are written
+                catalogSyncService.sync().getFailures().forEach(failure -> log.warn("Sync failure: {}", failure));
             }
 
-            System.out.println("Sample data loaded successfully!");
-            System.out.println("Total courses loaded: " + courseRepository.count());
-
-        } catch (IOException e) {
-            System.err.println("Error loading sample data: " + e.getMessage());
-            e.printStackTrace();
+        } catch (RuntimeException e) {
+            log.error("Error loading sample data: {}", e.getMessage(), e);
+        } finally {
+            initialLoad.countDown();
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Waits until the startup reindex or sync has finished, whether or not it succeeded.
+     */
+    public void awaitInitialLoad() throws InterruptedException {
+        initialLoad.await();
+    }
+}
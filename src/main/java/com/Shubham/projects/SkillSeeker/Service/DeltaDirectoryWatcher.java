@@ -0,0 +1,171 @@
+package com.Shubham.projects.SkillSeeker.Service;
+
+import com.Shubham.projects.SkillSeeker.Dto.SyncReportDto;
+import com.Shubham.projects.SkillSeeker.Exception.SearchFailure;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies NDJSON delta files dropped into {@code skillseeker.sync.watch-dir}.
+ * Files are applied in name order and then moved to {@code processed/}, or to {@code failed/} if any
+ * line was rejected or the file is not valid JSON. A file that cannot be applied yet, because a
+ * reindex is running, Elasticsearch is unavailable or the file could not be read, stays in place with
+ * the files after it and is retried every {@code retry-interval}. Nothing is applied before the startup sync has finished, which
+ * would otherwise undo it. Writers should create a file under a name starting with a dot and rename
+ * it once complete, since dot-files are never picked up.
+ */
+@Component
+@Slf4j
+public class DeltaDirectoryWatcher {
+
+    private static final String EXTENSION = ".ndjson";
+
+    @Autowired
+    private CatalogSyncService catalogSyncService;
+
+    @Autowired
+    private DataLoadingService dataLoadingService;
+
+    @Value("${skillseeker.sync.watch-dir:}")
+    private String watchDir;
+
+    @Value("${skillseeker.sync.retry-interval:30s}")
+    private Duration retryInterval;
+
+    private volatile WatchService watchService;
+    private Thread watcher;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (watchDir == null || watchDir.isBlank()) {
+            return;
+        }
+        Path directory = Path.of(watchDir);
+        try {
+            Files.createDirectories(directory.resolve("processed"));
+            Files.createDirectories(directory.resolve("failed"));
+            watchService = directory.getFileSystem().newWatchService();
+            directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException e) {
+            log.error("Cannot watch delta directory {}: {}", directory, e.getMessage(), e);
+            return;
+        }
+
+        watcher = new Thread(() -> watch(directory), "delta-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+        log.info("Watching {} for course delta files", directory.toAbsolutePath());
+    }
+
+    private void watch(Path directory) {
+        try {
+            dataLoadingService.awaitInitialLoad();
+            // Files that arrived while the application was down
+            boolean deferred = !applyPending(directory);
+            while (true) {
+                WatchKey key = deferred
+                        ? watchService.poll(retryInterval.toMillis(), TimeUnit.MILLISECONDS)
+                        : watchService.take();
+                // Events only say that something changed; rescanning also covers overflowed events
+                if (key != null) {
+                    key.pollEvents();
+                }
+                deferred = !applyPending(directory);
+                if (key != null && !key.reset()) {
+                    log.warn("Delta directory {} is no longer accessible", directory);
+                    return;
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @return false if a file was left in place to be retried; the files after it wait too, since
+     *         deltas only make sense in order
+     */
+    boolean applyPending(Path directory) {
+        for (Path file : pendingFiles(directory)) {
+            String target = "failed";
+            try {
+                SyncReportDto report = catalogSyncService.applyDeltas(file);
+                if (report.getFailed() == 0) {
+                    target = "processed";
+                }
+            } catch (IllegalStateException e) {
+                log.info("Delta file {} deferred: {}", file.getFileName(), e.getMessage());
+                return false;
+            } catch (JsonProcessingException e) {
+                log.error("Delta file {} is not valid course JSON: {}", file.getFileName(), e.getOriginalMessage());
+            } catch (IOException e) {
+                log.warn("Delta file {} could not be read, retrying in {}: {}", file.getFileName(), retryInterval,
+                        e.getMessage());
+                return false;
+            } catch (RuntimeException e) {
+                if (isTransient(e)) {
+                    log.warn("Delta file {} could not be applied, retrying in {}: {}", file.getFileName(), retryInterval,
+                            e.getMessage());
+                    return false;
+                }
+                log.error("Delta file {} could not be applied: {}", file.getFileName(), e.getMessage(), e);
+            }
+            try {
+                Files.move(file, directory.resolve(target).resolve(file.getFileName()), StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException e) {
+                log.error("Could not move delta file {} to {}: {}", file.getFileName(), target, e.getMessage());
+            }
+        }
+        return true;
+    }
+
+    private static boolean isTransient(RuntimeException e) {
+        SearchFailure failure = SearchFailure.of(e);
+        return failure == SearchFailure.UNAVAILABLE || failure == SearchFailure.TIMEOUT || failure == SearchFailure.REJECTED;
+    }
+
+    private List<Path> pendingFiles(Path directory) {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "[!.]*" + EXTENSION)) {
+            stream.forEach(file -> {
+                if (Files.isRegularFile(file)) {
+                    files.add(file);
+                }
+            });
+        } catch (IOException e) {
+            log.error("Cannot list delta directory {}: {}", directory, e.getMessage());
+        }
+        files.sort(null);
+        return files;
+    }
+
+    @PreDestroy
+    public void stop() throws IOException {
+        if (watchService != null) {
+            watchService.close();
+        }
+        if (watcher != null) {
+            watcher.interrupt();
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.Shubham.projects.SkillSeeker.Service;
+
+import co.elastic.clients.elasticsearch.ElasticsearchAsyncClient;
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.SortOrder;
+import co.elastic.clients.elasticsearch.core.MsearchResponse;
+import co.elastic.clients.elasticsearch.core.SearchRequest;
+import co.elastic.clients.elasticsearch.core.SearchResponse;
+import co.elastic.clients.elasticsearch.core.msearch.MultisearchBody;
+import co.elastic.clients.elasticsearch.core.search.ScoreMode;
+import co.elastic.clients.json.JsonpMapper;
+import co.elastic.clients.json.JsonpUtils;
+import com.Shubham.projects.SkillSeeker.Dto.CourseDto;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.RescorerQuery;
+import org.springframework.data.elasticsearch.core.query.SourceFilter;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Runs a search built by {@link CourseQueryBuilder} on the Java client, which reads each hit's
+ * {@code _source} straight into a {@link CourseDto}. Going through Spring Data would build a
+ * source map and a {@code CourseDocument} per hit first, only to copy them into the DTO.
+ */
+@Component
+public class DirectCourseSearch {
+
+    @Autowired
+    private ElasticsearchClient elasticsearchClient;
+
+    @Autowired
+    @Qualifier("elasticsearchAsyncClient")
+    private ElasticsearchAsyncClient elasticsearchAsyncClient;
+
+    public SearchResponse<CourseDto> search(NativeQuery query, IndexCoordinates index) throws IOException {
+        return elasticsearchClient.search(s -> copy(s, query, index), CourseDto.class);
+    }
+
+    /**
+     * The same search without holding a thread: the future completes on the client's I/O thread.
+     */
+    public CompletableFuture<SearchResponse<CourseDto>> searchAsync(NativeQuery query, IndexCoordinates index) {
+        return elasticsearchAsyncClient.search(s -> copy(s, query, index), CourseDto.class);
+    }
+
+    /**
+     * Runs the searches as one _msearch. Unlike Spring Data's multi-search, which drops failed
+     * searches from its result, every search keeps its own response item, failed or not.
+     */
+    public MsearchResponse<CourseDto> multiSearch(List<NativeQuery> queries, List<IndexCoordinates> indices)
+            throws IOException {
+        JsonpMapper mapper = elasticsearchClient._jsonpMapper();
+        return elasticsearchClient.msearch(m -> {
+            for (int i = 0; i < queries.size(); i++) {
+                NativeQuery query = queries.get(i);
+                IndexCoordinates index = indices.get(i);
+                m.searches(item -> item
+                        .header(h -> h.index(index.getIndexName()).routing(query.getRoute()))
+                        .body(b -> body(b, query, index, mapper)));
+            }
+            return m;
+        }, CourseDto.class);
+    }
+
+    // An _msearch body is a search body, so it is read back from the request copy() builds
+    static MultisearchBody.Builder body(MultisearchBody.Builder b, NativeQuery query, IndexCoordinates index,
+                                        JsonpMapper mapper) {
+        SearchRequest search = copy(new SearchRequest.Builder(), query, index).build();
+        return b.withJson(new StringReader(JsonpUtils.toJsonString(search, mapper)));
+    }
+
+    /**
+     * Copies the query, routing, post filter, aggregations, paging, sort, rescore, total tracking and
+     * source filter of a Spring Data query onto a Java client request.
+     */
+    static SearchRequest.Builder copy(SearchRequest.Builder s, NativeQuery query, IndexCoordinates index) {
+        Pageable pageable = query.getPageable();
+        s.index(index.getIndexName())
+                .query(query.getQuery())
+                .aggregations(query.getAggregations())
+                .from((int) pageable.getOffset())
+                .size(pageable.getPageSize());
+        if (query.getRoute() != null) {
+            s.routing(query.getRoute());
+        }
+        if (query.getFilter() != null) {
+            s.postFilter(query.getFilter());
+        }
+        if (query.getTrackTotalHitsUpTo() != null) {
+            s.trackTotalHits(t -> t.count(query.getTrackTotalHitsUpTo()));
+        }
+        SourceFilter sourceFilter = query.getSourceFilter();
+        if (sourceFilter != null) {
+            s.source(source -> source.filter(f -> {
+                if (sourceFilter.getIncludes() != null) {
+                    f.includes(List.of(sourceFilter.getIncludes()));
+                }
+                if (sourceFilter.getExcludes() != null) {
+                    f.excludes(List.of(sourceFilter.getExcludes()));
+                }
+                return f;
+            }));
+        }
+        pageable.getSort().forEach(order -> s.sort(so -> so
+                .field(f -> f
+                        .field(order.getProperty())
+                        .order(order.isAscending() ? SortOrder.Asc : SortOrder.Desc))));
+        if (!query.getSortOptions().isEmpty()) {
+            s.sort(query.getSortOptions());
+        }
+        for (RescorerQuery rescorer : query.getRescorerQueries()) {
+            s.rescore(r -> r
+                    .windowSize(rescorer.getWindowSize())
+                    .query(rq -> rq
+                            .query(((NativeQuery) rescorer.getQuery()).getQuery())
+                            .queryWeight(rescorer.getQueryWeight() == null ? null : rescorer.getQueryWeight().doubleValue())
+                            .rescoreQueryWeight(rescorer.getRescoreQueryWeight() == null ? null
+                                    : rescorer.getRescoreQueryWeight().doubleValue())
+                            .scoreMode(scoreMode(rescorer.getScoreMode()))));
+        }
+        return s;
+    }
+
+    private static ScoreMode scoreMode(RescorerQuery.ScoreMode mode) {
+        return switch (mode) {
+            case Avg -> ScoreMode.Avg;
+            case Max -> ScoreMode.Max;
+            case Min -> ScoreMode.Min;
+            case Multiply -> ScoreMode.Multiply;
+            case Total -> ScoreMode.Total;
+            case Default -> null;
+        };
+    }
+}
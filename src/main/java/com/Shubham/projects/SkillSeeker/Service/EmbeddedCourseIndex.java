@@ -0,0 +1,1032 @@
+package com.Shubham.projects.SkillSeeker.Service;
+
+import com.Shubham.projects.SkillSeeker.Document.CourseDocument;
+import com.Shubham.projects.SkillSeeker.Document.CourseSession;
+import com.Shubham.projects.SkillSeeker.Dto.CourseDto;
+import com.Shubham.projects.SkillSeeker.Dto.FacetBucketDto;
+import com.Shubham.projects.SkillSeeker.Dto.SearchRequestDto;
+import com.Shubham.projects.SkillSeeker.Dto.SearchResponseDto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntBinaryOperator;
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * Immutable in-process search index over a course catalog that answers the same requests as the
+ * Elasticsearch queries built by {@link CourseQueryBuilder}: the same text matching (including
+ * synonyms, prefixes and fuzziness), filters, sorts, paging, total tracking and facets.
+ * <ul>
+ *     <li>Text: a sorted dictionary of the words of {@code title} and {@code description} as
+ *     {@link CourseAnalyzer} analyzes them, each with a sorted array of the courses containing it, and
+ *     one of the folded but unstemmed title words that {@code title.prefix} matches the start of.</li>
+ *     <li>Numbers and dates: one primitive array per field, indexed by position in the catalog, plus
+ *     the positions pre-sorted for each sort order. Session dates are one sorted run per course in a
+ *     shared array.</li>
+ *     <li>Keywords: one {@link BitSet} per {@code tenant}, {@code category}, {@code type} and
+ *     {@code gradeRange} value.</li>
+ * </ul>
+ * Every search is sorted on a field, so matches are never scored; {@code sort=relevance} orders by the
+ * stored engagement signals as {@link RelevanceModel#popularity} scores them, then by date. A search touches only the courses
+ * its text and keyword filters select, or walks the sort order until the page and the total are
+ * settled when it has neither. Distance and soonest-session sorts depend on the request, so their
+ * keys are computed for every match and only the courses up to the requested page are kept.
+ * Facets are counted in one pass over the text matches.
+ * <p>
+ * {@link #with} derives a new index from changed courses without analyzing the unchanged ones: the
+ * changed courses are appended, and their old positions are masked out of every search.
+ */
+public class EmbeddedCourseIndex {
+
+    public static final String BACKEND = "embedded";
+
+    private static final int MISSING_AGE = Integer.MIN_VALUE;
+    private static final long MISSING_DAY = Long.MIN_VALUE;
+    // Mean earth radius used by geo_distance's arc calculation
+    private static final double EARTH_RADIUS_KM = 6371.0087714;
+    private static final double KM_PER_DEGREE_LATITUDE = Math.PI * EARTH_RADIUS_KM / 180;
+    // Request-dependent sort keys fit in 31 bits, so (key << 32 | position) stays positive and sorts by key
+    private static final long MISSING_KEY = Integer.MAX_VALUE;
+    private static final long DAY_KEY_OFFSET = 1L << 30;
+    // multi_match's default cap on the terms one fuzzy word expands to
+    private static final int MAX_EXPANSIONS = 50;
+    private static final int TERMS_FACET_SIZE = 50;
+    private static final int AGE_INTERVAL = 2;
+    private static final String[] PRICE_KEYS = {"<150", "150-250", "250-400", "400+"};
+    private static final double[] PRICE_BOUNDS = {150, 250, 400};
+    private static final CourseMapper MAPPER = new CourseMapper();
+
+    // Positions, removed courses included; a changed course is removed and added again at the end
+    private final int size;
+    private final CourseDto[] courses;
+    private final BitSet removed;
+    // Every position that is not removed, or null when none is
+    private final BitSet live;
+    private final int removedCount;
+
+    private final int[] minAges;
+    private final int[] maxAges;
+    private final double[] prices;
+    private final long[] sessionDays;
+    private final double[] lats;
+    private final double[] lons;
+    // Sessions of course doc are sessionStarts[sessionOffsets[doc]] up to sessionOffsets[doc + 1], in epoch days
+    private final int[] sessionOffsets;
+    private final int[] sessionStarts;
+
+    private final KeywordColumn tenants;
+    private final KeywordColumn categories;
+    private final KeywordColumn types;
+    private final KeywordColumn gradeRanges;
+
+    // Age histogram buckets are counted in arrays starting at this bucket
+    private final int firstAgeBucket;
+    private final int ageBuckets;
+
+    private final String[] terms;
+    private final int[][] postings;
+    private final String[] prefixTerms;
+    private final int[][] prefixPostings;
+    private final SynonymSet synonyms;
+    private final RelevanceModel relevanceModel;
+
+    // Positions in sort order, and each course's rank in that order; missing values sort last
+    private final int[] byDate;
+    private final int[] dateRanks;
+    private final int[] byPriceAsc;
+    private final int[] priceAscRanks;
+    private final int[] byPriceDesc;
+    private final int[] priceDescRanks;
+    private final double[] popularity;
+    private final int[] byRelevance;
+    private final int[] relevanceRanks;
+
+    /**
+     * The courses of {@code base}, less those in {@code changed}, followed by {@code added}. Without a
+     * base everything is built from {@code added}; with one, only the added courses are analyzed and
+     * sorted, and the base's columns, postings and sort orders are extended.
+     */
+    private EmbeddedCourseIndex(EmbeddedCourseIndex base, List<CourseDocument> added, Set<String> changed,
+                                RelevanceModel relevanceModel, SynonymSet synonyms) {
+        this.synonyms = synonyms;
+        this.relevanceModel = relevanceModel;
+        int first = base == null ? 0 : base.size;
+        size = first + added.size();
+        courses = base == null ? new CourseDto[size] : Arrays.copyOf(base.courses, size);
+        minAges = base == null ? new int[size] : Arrays.copyOf(base.minAges, size);
+        maxAges = base == null ? new int[size] : Arrays.copyOf(base.maxAges, size);
+        prices = base == null ? new double[size] : Arrays.copyOf(base.prices, size);
+        sessionDays = base == null ? new long[size] : Arrays.copyOf(base.sessionDays, size);
+        lats = base == null ? new double[size] : Arrays.copyOf(base.lats, size);
+        lons = base == null ? new double[size] : Arrays.copyOf(base.lons, size);
+        popularity = base == null ? new double[size] : Arrays.copyOf(base.popularity, size);
+        sessionOffsets = base == null ? new int[size + 1] : Arrays.copyOf(base.sessionOffsets, size + 1);
+        tenants = new KeywordColumn(base == null ? null : base.tenants, size);
+        categories = new KeywordColumn(base == null ? null : base.categories, size);
+        types = new KeywordColumn(base == null ? null : base.types, size);
+        gradeRanges = new KeywordColumn(base == null ? null : base.gradeRanges, size);
+
+        removed = base == null ? new BitSet() : (BitSet) base.removed.clone();
+        if (!changed.isEmpty()) {
+            for (int doc = removed.nextClearBit(0); doc < first; doc = removed.nextClearBit(doc + 1)) {
+                if (changed.contains(courses[doc].getId())) {
+                    removed.set(doc);
+                }
+            }
+        }
+        removedCount = removed.cardinality();
+        if (removedCount == 0) {
+            live = null;
+        } else {
+            live = new BitSet(size);
+            live.set(0, size);
+            live.andNot(removed);
+        }
+
+        Map<String, PostingsBuilder> words = new HashMap<>();
+        Map<String, PostingsBuilder> titleWords = new HashMap<>();
+        int sessionCount = sessionOffsets[first];
+        for (CourseDocument course : added) {
+            sessionCount += course.getSessions() == null ? 0 : course.getSessions().size();
+        }
+        sessionStarts = base == null ? new int[sessionCount] : Arrays.copyOf(base.sessionStarts, sessionCount);
+        for (int doc = first; doc < size; doc++) {
+            CourseDocument course = added.get(doc - first);
+            courses[doc] = MAPPER.toDto(course);
+            minAges[doc] = course.getMinAge() == null ? MISSING_AGE : course.getMinAge();
+            maxAges[doc] = course.getMaxAge() == null ? MISSING_AGE : course.getMaxAge();
+            prices[doc] = course.getPrice() == null ? Double.NaN : course.getPrice();
+            sessionDays[doc] = course.getNextSessionDate() == null ? MISSING_DAY : course.getNextSessionDate().toEpochDay();
+            lats[doc] = course.getLocation() == null ? Double.NaN : course.getLocation().getLat();
+            lons[doc] = course.getLocation() == null ? Double.NaN : course.getLocation().getLon();
+            double score = relevanceModel.popularity(course.getClickThroughRate(), course.getEnrollments());
+            // Courses without engagement fall back to date order after the rest
+            popularity[doc] = score > 0 ? score : Double.NaN;
+
+            int end = sessionOffsets[doc];
+            if (course.getSessions() != null) {
+                for (CourseSession session : course.getSessions()) {
+                    if (session.getStartDate() != null) {
+                        sessionStarts[end++] = (int) session.getStartDate().toEpochDay();
+                    }
+                }
+                Arrays.sort(sessionStarts, sessionOffsets[doc], end);
+            }
+            sessionOffsets[doc + 1] = end;
+
+            tenants.add(course.getTenant(), doc);
+            categories.add(course.getCategory(), doc);
+            types.add(course.getType(), doc);
+            gradeRanges.add(course.getGradeRange(), doc);
+
+            for (String token : CourseAnalyzer.tokens(course.getTitle())) {
+                titleWords.computeIfAbsent(token, w -> new PostingsBuilder()).add(doc);
+                words.computeIfAbsent(CourseAnalyzer.stem(token), w -> new PostingsBuilder()).add(doc);
+            }
+            for (String word : CourseAnalyzer.analyze(course.getDescription())) {
+                words.computeIfAbsent(word, w -> new PostingsBuilder()).add(doc);
+            }
+        }
+
+        // Removed courses may widen the range; the empty buckets at its ends are never returned
+        int lowestAge = Integer.MAX_VALUE;
+        int highestAge = Integer.MIN_VALUE;
+        for (int doc = 0; doc < size; doc++) {
+            for (int age : new int[]{minAges[doc], maxAges[doc]}) {
+                if (age != MISSING_AGE) {
+                    lowestAge = Math.min(lowestAge, age);
+                    highestAge = Math.max(highestAge, age);
+                }
+            }
+        }
+        firstAgeBucket = lowestAge > highestAge ? 0 : Math.floorDiv(lowestAge, AGE_INTERVAL);
+        ageBuckets = lowestAge > highestAge ? 0 : Math.floorDiv(highestAge, AGE_INTERVAL) - firstAgeBucket + 1;
+
+        Dictionary text = Dictionary.merge(base == null ? null : base.terms, base == null ? null : base.postings, words);
+        terms = text.terms();
+        postings = text.postings();
+        Dictionary prefixes = Dictionary.merge(base == null ? null : base.prefixTerms,
+                base == null ? null : base.prefixPostings, titleWords);
+        prefixTerms = prefixes.terms();
+        prefixPostings = prefixes.postings();
+
+        IntToDoubleFunction day = doc -> sessionDays[doc] == MISSING_DAY ? Double.NaN : sessionDays[doc];
+        byDate = sortOrder(base == null ? null : base.byDate, first, day, false, null);
+        dateRanks = ranks(byDate);
+        byPriceAsc = sortOrder(base == null ? null : base.byPriceAsc, first, doc -> prices[doc], false, null);
+        priceAscRanks = ranks(byPriceAsc);
+        byPriceDesc = sortOrder(base == null ? null : base.byPriceDesc, first, doc -> prices[doc], true, null);
+        priceDescRanks = ranks(byPriceDesc);
+        byRelevance = sortOrder(base == null ? null : base.byRelevance, first, doc -> popularity[doc], true, dateRanks);
+        relevanceRanks = ranks(byRelevance);
+    }
+
+    public static EmbeddedCourseIndex of(Collection<CourseDocument> catalog) {
+        return of(catalog, RelevanceModel.defaults());
+    }
+
+    public static EmbeddedCourseIndex of(Collection<CourseDocument> catalog, RelevanceModel relevanceModel) {
+        return of(catalog, relevanceModel, SynonymSet.defaults());
+    }
+
+    /**
+     * An index that expands search words with whatever rules {@code synonyms} holds at search time,
+     * as Elasticsearch does with the managed set.
+     */
+    public static EmbeddedCourseIndex of(Collection<CourseDocument> catalog, RelevanceModel relevanceModel,
+                                         SynonymSet synonyms) {
+        return new EmbeddedCourseIndex(null, new ArrayList<>(catalog), Set.of(), relevanceModel, synonyms);
+    }
+
+    /**
+     * This index with the courses whose ids are in {@code changed} replaced by {@code upserts}; a changed
+     * id without an upsert is removed. Costs about the changed courses plus a copy of the columns,
+     * while the removed courses stay behind as gaps until {@link #removedShare()} suggests a rebuild.
+     */
+    public EmbeddedCourseIndex with(Collection<CourseDocument> upserts, Set<String> changed) {
+        return new EmbeddedCourseIndex(this, new ArrayList<>(upserts), changed, relevanceModel, synonyms);
+    }
+
+    /**
+     * The share of positions taken by removed or replaced courses.
+     */
+    public double removedShare() {
+        return size == 0 ? 0 : (double) removedCount / size;
+    }
+
+    public int size() {
+        return size - removedCount;
+    }
+
+    public SearchResponseDto search(SearchRequestDto request, QueryPlan plan) {
+        int page = Math.max(request.getPage(), 0);
+        int pageSize = Math.min(Math.max(request.getSize(), 1), SearchCacheKey.MAX_PAGE_SIZE);
+        long offset = (long) page * pageSize;
+        int trackUpTo = plan.trackTotalHitsUpTo();
+
+        // null stands for every course
+        BitSet textMatches = plan.shape() == QueryPlan.Shape.MATCH ? matchText(request.getQ(), plan) : null;
+        textMatches = intersect(textMatches, live);
+        Filters filters = new Filters(request);
+        // Everything else, facet counts included, only sees the tenant's courses
+        textMatches = intersect(textMatches, filters.tenant);
+
+        BitSet candidates = intersect(textMatches, filters.category);
+        candidates = intersect(candidates, filters.type);
+
+        String sort = SearchCacheKey.canonicalSort(request.getSort());
+        List<Integer> pageDocs = new ArrayList<>(pageSize);
+        long total = switch (sort) {
+            case "priceasc" -> sortedPage(candidates, filters, byPriceAsc, priceAscRanks, offset, pageSize, trackUpTo, pageDocs);
+            case "pricedesc" -> sortedPage(candidates, filters, byPriceDesc, priceDescRanks, offset, pageSize, trackUpTo, pageDocs);
+            case "relevance" -> sortedPage(candidates, filters, byRelevance, relevanceRanks, offset, pageSize, trackUpTo, pageDocs);
+            case "distance", "soonest" -> computedPage(candidates, filters, request, offset, pageSize, pageDocs);
+            default -> sortedPage(candidates, filters, byDate, dateRanks, offset, pageSize, trackUpTo, pageDocs);
+        };
+
+        String fields = SearchCacheKey.canonicalFields(request.getFields());
+        boolean distanceSorted = sort.equals("distance");
+        List<CourseDto> results = new ArrayList<>(pageDocs.size());
+        for (int doc : pageDocs) {
+            CourseDto course = project(courses[doc], fields, distanceSorted);
+            if (distanceSorted && !Double.isNaN(lats[doc])) {
+                course.setDistanceKm(distanceKm(request.getLat(), request.getLon(), lats[doc], lons[doc]));
+            }
+            results.add(course);
+        }
+
+        return SearchResponseDto.builder()
+                .total(Math.min(total, trackUpTo))
+                .totalRelation(total > trackUpTo ? "gte" : null)
+                .courses(results)
+                .page(page)
+                .size(pageSize)
+                .facets(request.isFacets() ? facets(textMatches, filters) : null)
+                .backend(BACKEND)
+                .build();
+    }
+
+    /**
+     * Fills {@code pageDocs} in one of the pre-sorted orders and returns the matches counted, which
+     * stops shortly past {@code trackUpTo} when the order is walked.
+     */
+    private long sortedPage(BitSet candidates, Filters filters, int[] order, int[] ranks,
+                            long offset, int pageSize, int trackUpTo, List<Integer> pageDocs) {
+        // Ranking costs about c log c for c candidates; walking the sort order costs about the courses
+        // needed for the page and the total divided by the share of courses that are candidates
+        long needed = Math.max(offset + pageSize, (long) trackUpTo + 1);
+        int candidateCount = candidates == null ? size : candidates.cardinality();
+        if (candidates != null && (long) candidateCount * candidateCount <= needed * size) {
+            // Selective: rank the matching courses and sort the ranks
+            int[] matched = new int[candidateCount];
+            int count = 0;
+            for (int doc = candidates.nextSetBit(0); doc >= 0; doc = candidates.nextSetBit(doc + 1)) {
+                if (filters.rangesMatch(doc)) {
+                    matched[count++] = ranks[doc];
+                }
+            }
+            Arrays.sort(matched, 0, count);
+            for (long i = offset; i < count && pageDocs.size() < pageSize; i++) {
+                pageDocs.add(order[matched[(int) i]]);
+            }
+            return count;
+        }
+
+        // Unselective: walk the sort order and stop once the page is full and the total is past tracking
+        long total = 0;
+        for (int doc : order) {
+            if ((candidates != null && !candidates.get(doc)) || !filters.rangesMatch(doc)) {
+                continue;
+            }
+            if (total >= offset && pageDocs.size() < pageSize) {
+                pageDocs.add(doc);
+            }
+            total++;
+            if (total > trackUpTo && pageDocs.size() == pageSize) {
+                break;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Fills {@code pageDocs} for a sort whose keys depend on the request (distance from a point, first
+     * session in a window). Every match is keyed, and only the smallest keys up to the end of the page
+     * are kept.
+     */
+    private long computedPage(BitSet candidates, Filters filters, SearchRequestDto request,
+                              long offset, int pageSize, List<Integer> pageDocs) {
+        boolean distance = SearchCacheKey.canonicalSort(request.getSort()).equals("distance");
+        long fromDay = request.getSessionFrom() != null ? request.getSessionFrom().toEpochDay()
+                : LocalDate.now(ZoneOffset.UTC).toEpochDay();
+        long toDay = request.getSessionTo() == null ? Long.MAX_VALUE : request.getSessionTo().toEpochDay();
+
+        SmallestLongs smallest = new SmallestLongs((int) Math.min(offset + pageSize, size));
+        long total = 0;
+        for (int doc = next(candidates, 0); doc >= 0 && doc < size; doc = next(candidates, doc + 1)) {
+            if (!filters.rangesMatch(doc)) {
+                continue;
+            }
+            total++;
+            long key = distance ? distanceKey(doc, request.getLat(), request.getLon()) : sessionKey(doc, fromDay, toDay);
+            smallest.offer(key << 32 | doc);
+        }
+        long[] kept = smallest.sorted();
+        for (long i = offset; i < kept.length; i++) {
+            pageDocs.add((int) kept[(int) i]);
+        }
+        return total;
+    }
+
+    // Non-negative floats order like their bits; float precision is well below a metre at these distances
+    private long distanceKey(int doc, double lat, double lon) {
+        if (Double.isNaN(lats[doc])) {
+            return MISSING_KEY;
+        }
+        return Float.floatToIntBits((float) distanceKm(lat, lon, lats[doc], lons[doc]));
+    }
+
+    private long sessionKey(int doc, long fromDay, long toDay) {
+        int session = firstSession(doc, fromDay);
+        if (session < 0 || sessionStarts[session] > toDay) {
+            return MISSING_KEY;
+        }
+        return sessionStarts[session] + DAY_KEY_OFFSET;
+    }
+
+    /**
+     * Position of the course's first session on or after {@code fromDay}, or -1 when there is none.
+     */
+    private int firstSession(int doc, long fromDay) {
+        int low = sessionOffsets[doc];
+        int high = sessionOffsets[doc + 1];
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sessionStarts[mid] < fromDay) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low < sessionOffsets[doc + 1] ? low : -1;
+    }
+
+    /**
+     * Great-circle distance, as geo_distance computes it with {@code distance_type: arc}.
+     */
+    static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double h = Math.pow(Math.sin(dLat / 2), 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.pow(Math.sin(dLon / 2), 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(h)));
+    }
+
+    private BitSet matchText(String q, QueryPlan plan) {
+        BitSet matches = new BitSet(size);
+        for (String token : CourseAnalyzer.tokens(q)) {
+            for (String synonym : synonyms.expand(token)) {
+                String word = CourseAnalyzer.stem(synonym);
+                int maxEdits = plan.isFuzzy() ? autoEdits(word.length()) : 0;
+                if (maxEdits == 0) {
+                    int t = Arrays.binarySearch(terms, word);
+                    if (t >= 0) {
+                        addAll(matches, postings[t]);
+                    }
+                } else {
+                    for (int t : fuzzyTerms(word, maxEdits, plan.prefixLength())) {
+                        addAll(matches, postings[t]);
+                    }
+                }
+            }
+            // The prefix field's search analyzer neither stems nor expands synonyms
+            if (plan.prefixMatch() && CourseAnalyzer.isPrefixable(token)) {
+                int to = insertionPoint(prefixTerms, token + Character.MAX_VALUE);
+                for (int t = insertionPoint(prefixTerms, token); t < to; t++) {
+                    addAll(matches, prefixPostings[t]);
+                }
+            }
+        }
+        return matches;
+    }
+
+    // Elasticsearch's AUTO fuzziness
+    private static int autoEdits(int length) {
+        return length <= 2 ? 0 : length <= 5 ? 1 : 2;
+    }
+
+    /**
+     * Dictionary terms within {@code maxEdits} of the word that share its first {@code prefixLength}
+     * characters, closest first and at most {@link #MAX_EXPANSIONS}.
+     */
+    private List<Integer> fuzzyTerms(String word, int maxEdits, int prefixLength) {
+        String prefix = word.substring(0, Math.min(prefixLength, word.length()));
+        int from = insertionPoint(terms, prefix);
+        int to = prefix.isEmpty() ? terms.length : insertionPoint(terms, prefix + Character.MAX_VALUE);
+
+        List<int[]> candidates = new ArrayList<>();
+        for (int t = from; t < to; t++) {
+            String term = terms[t];
+            if (Math.abs(term.length() - word.length()) > maxEdits) {
+                continue;
+            }
+            int distance = editDistance(word, term, maxEdits);
+            if (distance <= maxEdits) {
+                candidates.add(new int[]{distance, t});
+            }
+        }
+        candidates.sort(Comparator.comparingInt(c -> c[0]));
+
+        List<Integer> expansions = new ArrayList<>(Math.min(candidates.size(), MAX_EXPANSIONS));
+        for (int i = 0; i < candidates.size() && i < MAX_EXPANSIONS; i++) {
+            expansions.add(candidates.get(i)[1]);
+        }
+        return expansions;
+    }
+
+    private static int insertionPoint(String[] dictionary, String key) {
+        int t = Arrays.binarySearch(dictionary, key);
+        return t >= 0 ? t : -t - 1;
+    }
+
+    /**
+     * Edit distance counting a swap of adjacent characters as one edit, like fuzzy queries do.
+     * Gives up with {@code maxEdits + 1} as soon as the distance is certain to exceed it.
+     */
+    static int editDistance(String a, String b, int maxEdits) {
+        int[] previous2 = new int[b.length() + 1];
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    value = Math.min(value, previous2[j - 2] + 1);
+                }
+                current[j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            if (rowMin > maxEdits) {
+                return maxEdits + 1;
+            }
+            int[] recycled = previous2;
+            previous2 = previous;
+            previous = current;
+            current = recycled;
+        }
+        return previous[b.length()];
+    }
+
+    /**
+     * Facet counts with the same semantics as the facet aggregations: each facet counts the text
+     * matches that pass every filter except its own.
+     */
+    private Map<String, List<FacetBucketDto>> facets(BitSet textMatches, Filters filters) {
+        long[] categoryCounts = new long[categories.values.size()];
+        long[] typeCounts = new long[types.values.size()];
+        long[] gradeRangeCounts = new long[gradeRanges.values.size()];
+        long[] priceCounts = new long[PRICE_KEYS.length];
+        long[] minAgeCounts = new long[ageBuckets];
+        long[] maxAgeCounts = new long[ageBuckets];
+
+        for (int doc = next(textMatches, 0); doc >= 0 && doc < size; doc = next(textMatches, doc + 1)) {
+            if (!filters.queryMatches(doc)) {
+                continue;
+            }
+            boolean category = filters.category == null || filters.category.get(doc);
+            boolean type = filters.type == null || filters.type.get(doc);
+            boolean age = filters.ageMatches(doc);
+            boolean price = filters.priceMatches(doc);
+
+            if (type && age && price) {
+                count(categoryCounts, categories.ordinals[doc]);
+            }
+            if (category && age && price) {
+                count(typeCounts, types.ordinals[doc]);
+            }
+            if (category && type && price) {
+                if (minAges[doc] != MISSING_AGE) {
+                    minAgeCounts[Math.floorDiv(minAges[doc], AGE_INTERVAL) - firstAgeBucket]++;
+                }
+                if (maxAges[doc] != MISSING_AGE) {
+                    maxAgeCounts[Math.floorDiv(maxAges[doc], AGE_INTERVAL) - firstAgeBucket]++;
+                }
+            }
+            if (category && type && age) {
+                if (!Double.isNaN(prices[doc])) {
+                    priceCounts[priceBucket(prices[doc])]++;
+                }
+                if (price) {
+                    count(gradeRangeCounts, gradeRanges.ordinals[doc]);
+                }
+            }
+        }
+
+        Map<String, List<FacetBucketDto>> facets = new LinkedHashMap<>();
+        facets.put("category", termBuckets(categories, categoryCounts));
+        facets.put("type", termBuckets(types, typeCounts));
+        facets.put("gradeRange", termBuckets(gradeRanges, gradeRangeCounts));
+        facets.put("price", priceBuckets(priceCounts));
+        facets.put("minAge", histogramBuckets(minAgeCounts));
+        facets.put("maxAge", histogramBuckets(maxAgeCounts));
+        return facets;
+    }
+
+    private static void count(long[] counts, int ordinal) {
+        if (ordinal >= 0) {
+            counts[ordinal]++;
+        }
+    }
+
+    // Most frequent first, ties by key, like a terms aggregation
+    private static List<FacetBucketDto> termBuckets(KeywordColumn column, long[] counts) {
+        List<FacetBucketDto> buckets = new ArrayList<>();
+        for (int ordinal = 0; ordinal < counts.length; ordinal++) {
+            if (counts[ordinal] > 0) {
+                buckets.add(new FacetBucketDto(column.values.get(ordinal), counts[ordinal], null, null));
+            }
+        }
+        buckets.sort(Comparator.comparingLong(FacetBucketDto::getCount).reversed()
+                .thenComparing(FacetBucketDto::getKey));
+        return buckets.size() > TERMS_FACET_SIZE ? new ArrayList<>(buckets.subList(0, TERMS_FACET_SIZE)) : buckets;
+    }
+
+    private static int priceBucket(double price) {
+        int bucket = 0;
+        while (bucket < PRICE_BOUNDS.length && price >= PRICE_BOUNDS[bucket]) {
+            bucket++;
+        }
+        return bucket;
+    }
+
+    private static List<FacetBucketDto> priceBuckets(long[] counts) {
+        List<FacetBucketDto> buckets = new ArrayList<>(PRICE_KEYS.length);
+        for (int i = 0; i < PRICE_KEYS.length; i++) {
+            Double from = i == 0 ? null : PRICE_BOUNDS[i - 1];
+            Double to = i == PRICE_BOUNDS.length ? null : PRICE_BOUNDS[i];
+            buckets.add(new FacetBucketDto(PRICE_KEYS[i], counts[i], from, to));
+        }
+        return buckets;
+    }
+
+    // A histogram also returns the empty buckets between its lowest and highest key
+    private List<FacetBucketDto> histogramBuckets(long[] counts) {
+        int first = 0;
+        int last = counts.length - 1;
+        while (first <= last && counts[first] == 0) {
+            first++;
+        }
+        while (last >= first && counts[last] == 0) {
+            last--;
+        }
+        List<FacetBucketDto> buckets = new ArrayList<>();
+        for (int i = first; i <= last; i++) {
+            buckets.add(new FacetBucketDto(String.valueOf((firstAgeBucket + i) * AGE_INTERVAL), counts[i], null, null));
+        }
+        return buckets;
+    }
+
+    // The indexed courses are shared between searches, so a course that gets a distance is copied
+    private static CourseDto project(CourseDto course, String fields, boolean copy) {
+        if (fields == null) {
+            return !copy ? course : new CourseDto(course.getId(), course.getTitle(), course.getDescription(),
+                    course.getCategory(), course.getType(), course.getGradeRange(), course.getMinAge(),
+                    course.getMaxAge(), course.getPrice(), course.getNextSessionDate(), course.getSessions(),
+                    course.getLocation(), null);
+        }
+        CourseDto projected = new CourseDto();
+        for (String field : fields.split(",")) {
+            switch (field) {
+                case "id" -> projected.setId(course.getId());
+                case "title" -> projected.setTitle(course.getTitle());
+                case "description" -> projected.setDescription(course.getDescription());
+                case "category" -> projected.setCategory(course.getCategory());
+                case "type" -> projected.setType(course.getType());
+                case "gradeRange" -> projected.setGradeRange(course.getGradeRange());
+                case "minAge" -> projected.setMinAge(course.getMinAge());
+                case "maxAge" -> projected.setMaxAge(course.getMaxAge());
+                case "price" -> projected.setPrice(course.getPrice());
+                case "nextSessionDate" -> projected.setNextSessionDate(course.getNextSessionDate());
+                case "sessions" -> projected.setSessions(course.getSessions());
+                case "location" -> projected.setLocation(course.getLocation());
+                default -> { }
+            }
+        }
+        return projected;
+    }
+
+    private int next(BitSet docs, int from) {
+        if (docs == null) {
+            return from < size ? from : -1;
+        }
+        return docs.nextSetBit(from);
+    }
+
+    private static BitSet intersect(BitSet docs, BitSet filter) {
+        if (filter == null) {
+            return docs;
+        }
+        BitSet result = (BitSet) filter.clone();
+        if (docs != null) {
+            result.and(docs);
+        }
+        return result;
+    }
+
+    private static void addAll(BitSet docs, int[] postings) {
+        for (int doc : postings) {
+            docs.set(doc);
+        }
+    }
+
+    /**
+     * Positions ordered by value, with equal and missing values in the order of {@code tieRanks}, or
+     * in catalog order without them. With a base order, which holds every position before
+     * {@code first}, only the positions from {@code first} on are sorted and merged into it.
+     */
+    private int[] sortOrder(int[] base, int first, IntToDoubleFunction value, boolean descending, int[] tieRanks) {
+        if (base == null) {
+            return sortOrder(value, descending, tieRanks);
+        }
+        IntBinaryOperator compare = (a, b) -> {
+            double va = value.applyAsDouble(a);
+            double vb = value.applyAsDouble(b);
+            if (Double.isNaN(va) != Double.isNaN(vb)) {
+                return Double.isNaN(va) ? 1 : -1;
+            }
+            int byValue = Double.isNaN(va) ? 0 : descending ? Double.compare(vb, va) : Double.compare(va, vb);
+            return byValue != 0 ? byValue
+                    : Integer.compare(tieRanks == null ? a : tieRanks[a], tieRanks == null ? b : tieRanks[b]);
+        };
+        Integer[] added = new Integer[size - first];
+        for (int i = 0; i < added.length; i++) {
+            added[i] = first + i;
+        }
+        Arrays.sort(added, compare::applyAsInt);
+
+        int[] order = new int[size];
+        int i = 0;
+        int j = 0;
+        for (int n = 0; n < size; n++) {
+            order[n] = j == added.length || (i < base.length && compare.applyAsInt(base[i], added[j]) <= 0)
+                    ? base[i++] : added[j++];
+        }
+        return order;
+    }
+
+    private int[] sortOrder(IntToDoubleFunction value, boolean descending, int[] tieRanks) {
+        // Sorting packed (rank of value, tiebreak) longs avoids boxing millions of positions
+        double[] distinct = new double[size];
+        int present = 0;
+        for (int doc = 0; doc < size; doc++) {
+            double v = value.applyAsDouble(doc);
+            if (!Double.isNaN(v)) {
+                distinct[present++] = descending ? -v : v;
+            }
+        }
+        Arrays.sort(distinct, 0, present);
+
+        long[] packed = new long[size];
+        for (int doc = 0; doc < size; doc++) {
+            double v = value.applyAsDouble(doc);
+            long rank = Double.isNaN(v) ? Integer.MAX_VALUE : Arrays.binarySearch(distinct, 0, present, descending ? -v : v);
+            packed[doc] = rank << 32 | (tieRanks == null ? doc : tieRanks[doc]);
+        }
+        Arrays.sort(packed);
+
+        int[] order = new int[size];
+        int[] tieOrder = tieRanks == null ? null : inverse(tieRanks);
+        for (int i = 0; i < size; i++) {
+            order[i] = tieOrder == null ? (int) packed[i] : tieOrder[(int) packed[i]];
+        }
+        return order;
+    }
+
+    private static int[] inverse(int[] ranks) {
+        int[] order = new int[ranks.length];
+        for (int doc = 0; doc < ranks.length; doc++) {
+            order[ranks[doc]] = doc;
+        }
+        return order;
+    }
+
+    private static int[] ranks(int[] order) {
+        int[] ranks = new int[order.length];
+        for (int i = 0; i < order.length; i++) {
+            ranks[order[i]] = i;
+        }
+        return ranks;
+    }
+
+    /**
+     * The request's filters: keyword filters as bitsets, range filters as checks on the columns.
+     */
+    private final class Filters {
+        private final BitSet tenant;
+        private final BitSet category;
+        private final BitSet type;
+        private final Integer minAge;
+        private final Integer maxAge;
+        private final Double minPrice;
+        private final Double maxPrice;
+        private final long firstDay;
+        private final long windowFrom;
+        private final long windowTo;
+        private final Double lat;
+        private final Double lon;
+        private final Double radiusKm;
+
+        private Filters(SearchRequestDto request) {
+            tenant = keyword(tenants, request.getTenant());
+            category = keyword(categories, request.getCategory());
+            type = keyword(types, request.getType());
+            minAge = request.getMinAge();
+            maxAge = request.getMaxAge();
+            minPrice = request.getMinPrice();
+            maxPrice = request.getMaxPrice();
+            firstDay = firstDay(request.getStartDate());
+            windowFrom = request.getSessionFrom() == null ? Long.MIN_VALUE : request.getSessionFrom().toEpochDay();
+            windowTo = request.getSessionTo() == null ? Long.MAX_VALUE : request.getSessionTo().toEpochDay();
+            lat = request.getLat();
+            lon = request.getLon();
+            radiusKm = request.getRadiusKm();
+        }
+
+        private BitSet keyword(KeywordColumn column, String value) {
+            if (value == null || value.trim().isEmpty()) {
+                return null;
+            }
+            Integer ordinal = column.ordinalOf.get(value);
+            return ordinal == null ? new BitSet() : column.docs.get(ordinal);
+        }
+
+        // A session dated that day starts at midnight, so a start time later in the day excludes it
+        private long firstDay(LocalDateTime startDate) {
+            if (startDate == null) {
+                return MISSING_DAY;
+            }
+            long day = startDate.toLocalDate().toEpochDay();
+            return startDate.toLocalTime().equals(LocalTime.MIDNIGHT) ? day : day + 1;
+        }
+
+        private boolean rangesMatch(int doc) {
+            return queryMatches(doc) && ageMatches(doc) && priceMatches(doc);
+        }
+
+        // The filters that are not facets, and so apply to every facet count
+        private boolean queryMatches(int doc) {
+            return dateMatches(doc) && sessionsMatch(doc) && distanceMatches(doc);
+        }
+
+        private boolean sessionsMatch(int doc) {
+            if (windowFrom == Long.MIN_VALUE && windowTo == Long.MAX_VALUE) {
+                return true;
+            }
+            int session = firstSession(doc, windowFrom);
+            return session >= 0 && sessionStarts[session] <= windowTo;
+        }
+
+        private boolean distanceMatches(int doc) {
+            if (radiusKm == null) {
+                return true;
+            }
+            // A latitude band check first rules out most courses without any trigonometry
+            if (Double.isNaN(lats[doc]) || Math.abs(lats[doc] - lat) * KM_PER_DEGREE_LATITUDE > radiusKm) {
+                return false;
+            }
+            return distanceKm(lat, lon, lats[doc], lons[doc]) <= radiusKm;
+        }
+
+        private boolean dateMatches(int doc) {
+            return firstDay == MISSING_DAY || (sessionDays[doc] != MISSING_DAY && sessionDays[doc] >= firstDay);
+        }
+
+        // A course fits when its age range overlaps the requested one
+        private boolean ageMatches(int doc) {
+            if (minAge != null && (maxAges[doc] == MISSING_AGE || maxAges[doc] < minAge)) {
+                return false;
+            }
+            return maxAge == null || (minAges[doc] != MISSING_AGE && minAges[doc] <= maxAge);
+        }
+
+        private boolean priceMatches(int doc) {
+            if (minPrice == null && maxPrice == null) {
+                return true;
+            }
+            double price = prices[doc];
+            return !Double.isNaN(price)
+                    && (minPrice == null || price >= minPrice)
+                    && (maxPrice == null || price <= maxPrice);
+        }
+    }
+
+    /**
+     * One keyword field: its distinct values, each course's value as an ordinal (-1 when missing)
+     * and the courses holding each value.
+     */
+    private static final class KeywordColumn {
+        private final Map<String, Integer> ordinalOf;
+        private final List<String> values;
+        private final List<BitSet> docs;
+        private final int[] ordinals;
+        // Value bitsets still shared with the base column, copied before they are first changed
+        private final BitSet shared = new BitSet();
+
+        private KeywordColumn(KeywordColumn base, int size) {
+            ordinalOf = base == null ? new HashMap<>() : new HashMap<>(base.ordinalOf);
+            values = base == null ? new ArrayList<>() : new ArrayList<>(base.values);
+            docs = base == null ? new ArrayList<>() : new ArrayList<>(base.docs);
+            ordinals = base == null ? new int[size] : Arrays.copyOf(base.ordinals, size);
+            shared.set(0, docs.size());
+        }
+
+        private void add(String value, int doc) {
+            if (value == null) {
+                ordinals[doc] = -1;
+                return;
+            }
+            int ordinal = ordinalOf.computeIfAbsent(value, v -> {
+                values.add(v);
+                docs.add(new BitSet());
+                return values.size() - 1;
+            });
+            ordinals[doc] = ordinal;
+            if (shared.get(ordinal)) {
+                docs.set(ordinal, (BitSet) docs.get(ordinal).clone());
+                shared.clear(ordinal);
+            }
+            docs.get(ordinal).set(doc);
+        }
+    }
+
+    /**
+     * Keeps the {@code capacity} smallest values offered, in a max-heap so the largest kept value is
+     * the one to beat.
+     */
+    private static final class SmallestLongs {
+        private final long[] heap;
+        private int count;
+
+        private SmallestLongs(int capacity) {
+            heap = new long[capacity];
+        }
+
+        private void offer(long value) {
+            if (count < heap.length) {
+                heap[count] = value;
+                siftUp(count++);
+            } else if (count > 0 && value < heap[0]) {
+                heap[0] = value;
+                siftDown(0);
+            }
+        }
+
+        private long[] sorted() {
+            long[] values = Arrays.copyOf(heap, count);
+            Arrays.sort(values);
+            return values;
+        }
+
+        private void siftUp(int i) {
+            while (i > 0 && heap[(i - 1) / 2] < heap[i]) {
+                swap(i, (i - 1) / 2);
+                i = (i - 1) / 2;
+            }
+        }
+
+        private void siftDown(int i) {
+            while (true) {
+                int largest = i;
+                for (int child = 2 * i + 1; child <= 2 * i + 2 && child < count; child++) {
+                    if (heap[child] > heap[largest]) {
+                        largest = child;
+                    }
+                }
+                if (largest == i) {
+                    return;
+                }
+                swap(i, largest);
+                i = largest;
+            }
+        }
+
+        private void swap(int a, int b) {
+            long value = heap[a];
+            heap[a] = heap[b];
+            heap[b] = value;
+        }
+    }
+
+    /**
+     * A sorted word dictionary with the sorted positions of the courses holding each word.
+     */
+    private record Dictionary(String[] terms, int[][] postings) {
+
+        // Added courses come after every course of the base, so their positions extend its postings in order
+        private static Dictionary merge(String[] baseTerms, int[][] basePostings, Map<String, PostingsBuilder> added) {
+            String[] base = baseTerms == null ? new String[0] : baseTerms;
+            String[] addedTerms = added.keySet().toArray(new String[0]);
+            Arrays.sort(addedTerms);
+            String[] terms = new String[base.length + addedTerms.length];
+            int[][] postings = new int[terms.length][];
+            int i = 0;
+            int j = 0;
+            int n = 0;
+            while (i < base.length || j < addedTerms.length) {
+                int order = i == base.length ? 1 : j == addedTerms.length ? -1 : base[i].compareTo(addedTerms[j]);
+                if (order < 0) {
+                    terms[n] = base[i];
+                    postings[n++] = basePostings[i++];
+                } else if (order > 0) {
+                    terms[n] = addedTerms[j];
+                    postings[n++] = added.get(addedTerms[j++]).toArray();
+                } else {
+                    int[] more = added.get(addedTerms[j++]).toArray();
+                    int[] merged = Arrays.copyOf(basePostings[i], basePostings[i].length + more.length);
+                    System.arraycopy(more, 0, merged, basePostings[i].length, more.length);
+                    terms[n] = base[i++];
+                    postings[n++] = merged;
+                }
+            }
+            return new Dictionary(Arrays.copyOf(terms, n), Arrays.copyOf(postings, n));
+        }
+    }
+
+    private static final class PostingsBuilder {
+        private int[] docs = new int[4];
+        private int count;
+
+        // Courses are added in order, so a repeated word in the same course is the last entry
+        private void add(int doc) {
+            if (count > 0 && docs[count - 1] == doc) {
+                return;
+            }
+            if (count == docs.length) {
+                docs = Arrays.copyOf(docs, count * 2);
+            }
+            docs[count++] = doc;
+        }
+
+        private int[] toArray() {
+            return Arrays.copyOf(docs, count);
+        }
+    }
+}
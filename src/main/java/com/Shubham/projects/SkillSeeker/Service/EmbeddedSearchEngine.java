@@ -0,0 +1,295 @@
+package com.Shubham.projects.SkillSeeker.Service;
+
+import com.Shubham.projects.SkillSeeker.Document.CourseDocument;
+import com.Shubham.projects.SkillSeeker.Dto.SearchRequestDto;
+import com.Shubham.projects.SkillSeeker.Dto.SearchResponseDto;
+import com.Shubham.projects.SkillSeeker.Exception.SearchFailedException;
+import com.Shubham.projects.SkillSeeker.Exception.SearchFailure;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Serves searches from an {@link EmbeddedCourseIndex} held in this process.
+ * {@code skillseeker.search.backend} selects how it is used:
+ * <ul>
+ *     <li>{@code elasticsearch}: never; nothing is loaded.</li>
+ *     <li>{@code auto}: a hot standby that answers when Elasticsearch is unreachable.</li>
+ *     <li>{@code embedded}: answers every page search, so no cluster is needed at all.</li>
+ * </ul>
+ * The index is loaded from the catalog once the application is ready and follows the same writes as
+ * the live index. Writes are collected and folded into a fresh snapshot shortly afterwards, so
+ * searches always read an immutable index. A snapshot is derived from the previous one and only the
+ * changed courses (see {@link EmbeddedCourseIndex#with}); it is rebuilt in full once a quarter of its
+ * positions hold replaced or removed courses.
+ */
+@Component
+@Slf4j
+public class EmbeddedSearchEngine {
+
+    private static final double MAX_REMOVED_SHARE = 0.25;
+
+    @Autowired
+    private QueryPlanner queryPlanner;
+
+    @Autowired
+    private RelevanceModel relevanceModel;
+
+    @Autowired
+    private SynonymSet synonymSet;
+
+    @Autowired
+    private TenantRegistry tenantRegistry;
+
+    @Value("${skillseeker.search.backend:auto}")
+    private String backend;
+
+    @Value("${skillseeker.catalog.location:classpath:sample-courses.json}")
+    private Resource catalog;
+
+    @Value("${skillseeker.search.embedded.refresh-delay:1s}")
+    private Duration refreshDelay;
+
+    private final Map<String, CourseDocument> courses = new ConcurrentHashMap<>();
+    // Ids written since the last snapshot
+    private final Set<String> changed = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean refreshPending = new AtomicBoolean(false);
+    // Writes made while reload() reads the catalog, replayed onto it; a null value is a removal
+    private Map<String, CourseDocument> changedDuringReload;
+    private volatile EmbeddedCourseIndex index;
+
+    private final ScheduledExecutorService refresher = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "embedded-index");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public boolean isEnabled() {
+        return !"elasticsearch".equalsIgnoreCase(backend);
+    }
+
+    /**
+     * Whether searches go here first instead of to Elasticsearch.
+     */
+    public boolean isPrimary() {
+        return EmbeddedCourseIndex.BACKEND.equalsIgnoreCase(backend);
+    }
+
+    public boolean isReady() {
+        return index != null;
+    }
+
+    public int size() {
+        EmbeddedCourseIndex current = index;
+        return current == null ? 0 : current.size();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (isEnabled()) {
+            refresher.execute(this::reload);
+        }
+    }
+
+    /**
+     * Replaces the contents with the configured catalog, as a reindex does for the live index. Courses
+     * last written through the course API are kept, as a reindex keeps them too, and so are the
+     * tombstones of courses it deleted, which keep their catalog copies out.
+     */
+    public void reload() {
+        if (!isEnabled()) {
+            return;
+        }
+        long startNanos = System.nanoTime();
+        Map<String, CourseDocument> loaded = new HashMap<>();
+        int undeclared = 0;
+        synchronized (courses) {
+            changedDuringReload = new HashMap<>();
+        }
+        try {
+            try (InputStream inputStream = catalog.getInputStream();
+                 CourseJsonReader reader = new CourseJsonReader(inputStream)) {
+                CourseDocument course;
+                while ((course = reader.next()) != null) {
+                    if (course.getId() == null) {
+                        continue;
+                    }
+                    try {
+                        tenantRegistry.assign(course);
+                        loaded.put(course.getId(), course);
+                    } catch (IllegalArgumentException e) {
+                        // Left out of the live indices as well
+                        undeclared++;
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                log.error("Could not load the embedded search index: {}", e.getMessage(), e);
+                return;
+            }
+            synchronized (courses) {
+                courses.values().stream()
+                        .filter(course -> CourseWriteBuffer.API_ORIGIN.equals(course.getOrigin()))
+                        .forEach(course -> loaded.put(course.getId(), course));
+                changedDuringReload.forEach((id, course) -> {
+                    if (course == null) {
+                        loaded.remove(id);
+                    } else {
+                        loaded.put(id, course);
+                    }
+                });
+                courses.clear();
+                courses.putAll(loaded);
+                changed.clear();
+                index = EmbeddedCourseIndex.of(searchable(courses.values()), relevanceModel, synonymSet);
+            }
+        } finally {
+            synchronized (courses) {
+                changedDuringReload = null;
+            }
+        }
+        log.info("Embedded search index loaded with {} courses in {} ms", loaded.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        if (undeclared > 0) {
+            log.warn("Left out {} catalog courses of undeclared tenants", undeclared);
+        }
+    }
+
+    /**
+     * The course with the given id, or null; the instance the index holds, so not to be changed.
+     */
+    public CourseDocument get(String courseId) {
+        CourseDocument course = courses.get(courseId);
+        return course == null || course.isTombstone() ? null : course;
+    }
+
+    /**
+     * Adds or replaces a course. A tombstone takes the course out of searches and reads, and is kept so
+     * that a reload does not bring the catalog's copy back.
+     */
+    public void upsert(CourseDocument course) {
+        if (isEnabled() && course.getId() != null) {
+            synchronized (courses) {
+                courses.put(course.getId(), course);
+                changed(course.getId(), course);
+            }
+            scheduleRefresh();
+        }
+    }
+
+    public void remove(String courseId) {
+        if (!isEnabled()) {
+            return;
+        }
+        synchronized (courses) {
+            if (courses.remove(courseId) == null && changedDuringReload == null) {
+                return;
+            }
+            changed(courseId, null);
+        }
+        scheduleRefresh();
+    }
+
+    /**
+     * Adds engagement collected for a course of the tenant. Courses are replaced rather than changed,
+     * since the current snapshot still reads them.
+     */
+    public void applyEngagement(String tenant, String courseId, EngagementCollector.Delta delta) {
+        if (!isEnabled()) {
+            return;
+        }
+        synchronized (courses) {
+            CourseDocument course = courses.get(courseId);
+            if (course == null || course.isTombstone() || !tenant.equals(course.getTenant())) {
+                return;
+            }
+            CourseDocument updated = new CourseDocument();
+            BeanUtils.copyProperties(course, updated);
+            delta.applyTo(updated, relevanceModel);
+            courses.put(courseId, updated);
+            changed(courseId, updated);
+        }
+        scheduleRefresh();
+    }
+
+    // Called holding the courses lock
+    private void changed(String courseId, CourseDocument course) {
+        changed.add(courseId);
+        if (changedDuringReload != null) {
+            changedDuringReload.put(courseId, course);
+        }
+    }
+
+    public SearchResponseDto search(SearchRequestDto request) {
+        EmbeddedCourseIndex current = index;
+        if (current == null) {
+            throw new SearchFailedException("Embedded search index is not loaded yet", SearchFailure.UNAVAILABLE);
+        }
+        return current.search(request, queryPlanner.plan(request));
+    }
+
+    private void scheduleRefresh() {
+        if (refreshPending.compareAndSet(false, true)) {
+            refresher.schedule(this::refresh, refreshDelay.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void refresh() {
+        // Cleared first, so a write arriving during the refresh schedules another one
+        refreshPending.set(false);
+        EmbeddedCourseIndex current = index;
+        if (current == null) {
+            // Not loaded yet; the load reads every course
+            return;
+        }
+        EmbeddedCourseIndex refreshed;
+        synchronized (courses) {
+            if (current.removedShare() > MAX_REMOVED_SHARE) {
+                changed.clear();
+                refreshed = EmbeddedCourseIndex.of(searchable(courses.values()), relevanceModel, synonymSet);
+            } else {
+                Set<String> ids = Set.copyOf(changed);
+                changed.clear();
+                List<CourseDocument> upserts = new ArrayList<>(ids.size());
+                for (String id : ids) {
+                    CourseDocument course = courses.get(id);
+                    if (course != null && !course.isTombstone()) {
+                        upserts.add(course);
+                    }
+                }
+                refreshed = current.with(upserts, ids);
+            }
+            index = refreshed;
+        }
+        log.debug("Embedded search index refreshed with {} courses", refreshed.size());
+    }
+
+    private static List<CourseDocument> searchable(Collection<CourseDocument> courses) {
+        return courses.stream().filter(course -> !course.isTombstone()).toList();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refresher.shutdownNow();
+    }
+}
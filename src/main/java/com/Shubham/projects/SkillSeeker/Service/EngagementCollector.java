@@ -0,0 +1,427 @@
+package com.Shubham.projects.SkillSeeker.Service;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch.core.BulkResponse;
+import co.elastic.clients.elasticsearch.core.bulk.BulkOperation;
+import co.elastic.clients.elasticsearch.core.bulk.BulkResponseItem;
+import co.elastic.clients.json.JsonData;
+import com.Shubham.projects.SkillSeeker.Document.CourseDocument;
+import com.Shubham.projects.SkillSeeker.Dto.CourseDto;
+import com.Shubham.projects.SkillSeeker.Dto.EngagementEventDto;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.SearchHitsIterator;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.FetchSourceFilter;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Collects impressions, clicks and enrollments per course in memory and writes them to the index in
+ * periodic batches of scripted partial updates, so ranking signals stay current without a write per
+ * event. Impressions are counted from the search responses served; clicks and enrollments are
+ * reported by clients. Counts are kept per tenant and course, and each update is sent to the tenant's
+ * alias with its routing.
+ * <p>
+ * Counts are folded atomically per course and taken out of the pending map before they are sent,
+ * so an event is either in the next flush or in the one after. A batch the cluster cannot take is
+ * put back for the next flush. Flushes are held while a reindex copies the signals to the new index,
+ * and resume against it once the alias has moved.
+ */
+@Service
+@Slf4j
+public class EngagementCollector {
+
+    public static final int MAX_EVENTS_PER_REQUEST = 1000;
+
+    static final String[] ENGAGEMENT_FIELDS = {RelevanceModel.IMPRESSIONS, RelevanceModel.CLICKS,
+            RelevanceModel.CLICK_THROUGH_RATE, RelevanceModel.ENROLLMENTS};
+
+    // Adds the deltas to the stored counts and derives the rank features from them; a feature is
+    // only written once positive, as rank_feature requires. Routing only picks the shard, so a course
+    // of another tenant with the same id is left alone, and so is the tombstone of a deleted course
+    private static final String UPDATE_SCRIPT = """
+            def s = ctx._source;
+            if (s.tenant != params.tenant || s.deleted == true) {
+              ctx.op = 'noop';
+              return;
+            }
+            s.impressions = (s.impressions == null ? 0L : s.impressions) + params.impressions;
+            s.clicks = (s.clicks == null ? 0L : s.clicks) + params.clicks;
+            if (params.enrollments > 0) {
+              s.enrollments = (s.enrollments == null ? 0L : s.enrollments) + params.enrollments;
+            }
+            if (s.impressions > 0 || s.clicks > 0) {
+              s.clickThroughRate = (s.clicks + params.priorClicks) / (s.impressions + params.priorImpressions);
+            }
+            """;
+
+    /**
+     * A course of a tenant, which tells the flush the alias and routing to update it under.
+     */
+    record Target(String tenant, String courseId) {
+    }
+
+    /**
+     * Counts collected for one course since the last flush.
+     */
+    record Delta(long impressions, long clicks, long enrollments) {
+
+        static final Delta IMPRESSION = new Delta(1, 0, 0);
+        static final Delta CLICK = new Delta(0, 1, 0);
+        static final Delta ENROLLMENT = new Delta(0, 0, 1);
+
+        Delta plus(Delta other) {
+            return new Delta(impressions + other.impressions, clicks + other.clicks, enrollments + other.enrollments);
+        }
+
+        /**
+         * What the update script does in the index, for an in-memory copy of the course.
+         */
+        void applyTo(CourseDocument course, RelevanceModel relevanceModel) {
+            long totalImpressions = (course.getImpressions() == null ? 0 : course.getImpressions()) + impressions;
+            long totalClicks = (course.getClicks() == null ? 0 : course.getClicks()) + clicks;
+            course.setImpressions(totalImpressions);
+            course.setClicks(totalClicks);
+            if (enrollments > 0) {
+                course.setEnrollments((course.getEnrollments() == null ? 0 : course.getEnrollments()) + enrollments);
+            }
+            if (totalImpressions > 0 || totalClicks > 0) {
+                course.setClickThroughRate(relevanceModel.clickThroughRate(totalClicks, totalImpressions));
+            }
+        }
+    }
+
+    @Autowired
+    private ElasticsearchClient elasticsearchClient;
+
+    @Autowired
+    private ElasticsearchOperations elasticsearchOperations;
+
+    @Autowired
+    private EmbeddedSearchEngine embeddedSearchEngine;
+
+    @Autowired
+    private RelevanceModel relevanceModel;
+
+    @Autowired
+    private SearchMetrics searchMetrics;
+
+    @Autowired
+    private TenantRegistry tenantRegistry;
+
+    @Value("${skillseeker.engagement.enabled:true}")
+    private boolean enabled;
+
+    @Value("${skillseeker.engagement.flush-interval:10s}")
+    private Duration flushInterval;
+
+    @Value("${skillseeker.engagement.max-pending:100000}")
+    private int maxPending;
+
+    @Value("${skillseeker.engagement.batch-size:500}")
+    private int batchSize;
+
+    private final Map<Target, Delta> pending = new ConcurrentHashMap<>();
+    private final AtomicInteger holds = new AtomicInteger();
+
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "engagement-flush");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PostConstruct
+    void start() {
+        if (enabled) {
+            flusher.scheduleWithFixedDelay(this::flushQuietly, flushInterval.toMillis(), flushInterval.toMillis(),
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public int pendingCourses() {
+        return pending.size();
+    }
+
+    /**
+     * Counts one impression for every course in a page served for the tenant.
+     */
+    public void recordImpressions(String tenant, List<CourseDto> courses) {
+        if (!enabled || courses == null) {
+            return;
+        }
+        for (CourseDto course : courses) {
+            if (course.getId() != null) {
+                add(new Target(tenant, course.getId()), Delta.IMPRESSION);
+            }
+        }
+    }
+
+    /**
+     * Queues client-reported events.
+     *
+     * @return how many were accepted; events beyond the pending limit are dropped
+     */
+    public int record(String tenant, List<EngagementEventDto> events) {
+        if (events == null || events.isEmpty()) {
+            return 0;
+        }
+        if (events.size() > MAX_EVENTS_PER_REQUEST) {
+            throw new IllegalArgumentException("At most " + MAX_EVENTS_PER_REQUEST + " events per request");
+        }
+        List<Map.Entry<Target, Delta>> parsed = new ArrayList<>(events.size());
+        for (EngagementEventDto event : events) {
+            // Everything is validated before anything is counted, so a rejected request counts nothing
+            if (event == null || event.getCourseId() == null || event.getCourseId().isBlank()) {
+                throw new IllegalArgumentException("Every event needs a courseId");
+            }
+            String type = event.getType() == null ? "" : event.getType().trim().toLowerCase(Locale.ROOT);
+            Delta delta = switch (type) {
+                case "click" -> Delta.CLICK;
+                case "enrollment" -> Delta.ENROLLMENT;
+                default -> throw new IllegalArgumentException("Unknown event type '" + event.getType()
+                        + "'; expected click or enrollment");
+            };
+            parsed.add(Map.entry(new Target(tenant, event.getCourseId().trim()), delta));
+        }
+        if (!enabled) {
+            return 0;
+        }
+        int accepted = 0;
+        for (Map.Entry<Target, Delta> event : parsed) {
+            if (add(event.getKey(), event.getValue())) {
+                searchMetrics.recordEngagementEvent(event.getValue() == Delta.CLICK ? "click" : "enrollment");
+                accepted++;
+            }
+        }
+        return accepted;
+    }
+
+    private boolean add(Target target, Delta delta) {
+        // Bounded so that events for made-up ids cannot grow the map without limit
+        if (pending.size() >= maxPending && !pending.containsKey(target)) {
+            searchMetrics.recordEngagementDropped("full");
+            return false;
+        }
+        pending.merge(target, delta, Delta::plus);
+        return true;
+    }
+
+    /**
+     * Keeps collected events in memory until {@link #resumeFlushes()}, after waiting for a running
+     * flush; used while a reindex or a sync batch copies the signals of a course to its new copy.
+     */
+    public synchronized void suspendFlushes() {
+        holds.incrementAndGet();
+    }
+
+    public synchronized void resumeFlushes() {
+        holds.decrementAndGet();
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("Engagement flush failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Sends everything collected so far. The embedded index is updated along with Elasticsearch, and
+     * instead of it when the embedded index is the only backend.
+     */
+    public synchronized void flush() {
+        if (pending.isEmpty() || holds.get() > 0) {
+            return;
+        }
+        Map<Target, Delta> drained = new LinkedHashMap<>();
+        for (Target target : pending.keySet()) {
+            Delta delta = pending.remove(target);
+            if (delta != null) {
+                drained.put(target, delta);
+            }
+        }
+        if (embeddedSearchEngine.isPrimary()) {
+            drained.forEach((target, delta) ->
+                    embeddedSearchEngine.applyEngagement(target.tenant(), target.courseId(), delta));
+            return;
+        }
+
+        // One bulk request can update courses of every tenant, each under its own alias and routing
+        List<Map.Entry<Target, Delta>> batch = new ArrayList<>(batchSize);
+        for (Map.Entry<Target, Delta> entry : drained.entrySet()) {
+            batch.add(entry);
+            if (batch.size() >= batchSize) {
+                send(batch);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            send(batch);
+        }
+    }
+
+    private void send(List<Map.Entry<Target, Delta>> batch) {
+        List<BulkOperation> operations = new ArrayList<>(batch.size());
+        for (Map.Entry<Target, Delta> entry : batch) {
+            TenantRoute route = tenantRegistry.route(entry.getKey().tenant());
+            Delta delta = entry.getValue();
+            Map<String, JsonData> params = Map.of(
+                    "tenant", JsonData.of(entry.getKey().tenant()),
+                    "impressions", JsonData.of(delta.impressions()),
+                    "clicks", JsonData.of(delta.clicks()),
+                    "enrollments", JsonData.of(delta.enrollments()),
+                    "priorClicks", JsonData.of(relevanceModel.priorClicks()),
+                    "priorImpressions", JsonData.of(relevanceModel.priorImpressions()));
+            operations.add(BulkOperation.of(o -> o.update(u -> u
+                    .index(route.alias())
+                    .id(entry.getKey().courseId())
+                    .routing(route.routing())
+                    // Catalog writes and other flushes may touch the same course
+                    .retryOnConflict(3)
+                    .action(a -> a.script(s -> s.inline(i -> i.lang("painless").source(UPDATE_SCRIPT).params(params)))))));
+        }
+
+        long started = System.nanoTime();
+        String outcome = "failed";
+        try {
+            BulkResponse response = elasticsearchClient.bulk(b -> b.operations(operations));
+            List<BulkResponseItem> items = response.items();
+            for (int i = 0; i < items.size(); i++) {
+                BulkResponseItem item = items.get(i);
+                Map.Entry<Target, Delta> entry = batch.get(i);
+                if (item.error() == null && "noop".equals(item.result())) {
+                    // The id belongs to a course of another tenant, or to a deleted one
+                    searchMetrics.recordEngagementDropped("tenant");
+                } else if (item.error() == null) {
+                    embeddedSearchEngine.applyEngagement(entry.getKey().tenant(), entry.getKey().courseId(), entry.getValue());
+                } else if (item.status() == 404) {
+                    // Events for a course that is not (or no longer) in the catalog
+                    searchMetrics.recordEngagementDropped("missing");
+                } else {
+                    requeue(entry);
+                    log.debug("Engagement update for course {} failed: {}", entry.getKey(), item.error().reason());
+                }
+            }
+            outcome = response.errors() ? "partial" : "success";
+        } catch (IOException | RuntimeException e) {
+            batch.forEach(this::requeue);
+            log.warn("Engagement flush of {} courses failed, retrying with the next flush: {}", batch.size(), e.getMessage());
+        } finally {
+            searchMetrics.recordEngagementFlush(Duration.ofNanos(System.nanoTime() - started), batch.size(), outcome);
+        }
+    }
+
+    private void requeue(Map.Entry<Target, Delta> entry) {
+        add(entry.getKey(), entry.getValue());
+    }
+
+    /**
+     * Copies the engagement fields of every course that has any from {@code fromIndex} to
+     * {@code toIndex}, so a reindex from the catalog does not reset the ranking signals.
+     *
+     * @return the number of courses copied
+     */
+    public long copyEngagement(String fromIndex, String toIndex) {
+        NativeQuery query = NativeQuery.builder()
+                .withQuery(q -> q.bool(b -> b
+                        .should(s -> s.rankFeature(r -> r.field(RelevanceModel.CLICK_THROUGH_RATE)))
+                        .should(s -> s.rankFeature(r -> r.field(RelevanceModel.ENROLLMENTS)))))
+                .withSourceFilter(new FetchSourceFilter(ENGAGEMENT_FIELDS, null))
+                .withPageable(PageRequest.of(0, batchSize))
+                .withScrollTime(Duration.ofMinutes(1))
+                .build();
+
+        long copied = 0;
+        List<BulkOperation> operations = new ArrayList<>(batchSize);
+        try (SearchHitsIterator<CourseDocument> hits =
+                     elasticsearchOperations.searchForStream(query, CourseDocument.class, IndexCoordinates.of(fromIndex))) {
+            while (hits.hasNext()) {
+                SearchHit<CourseDocument> hit = hits.next();
+                Map<String, Object> fields = engagementOf(hit.getContent());
+                // Routed as the course is in the old index, which the new one copies
+                operations.add(BulkOperation.of(o -> o.update(u -> u
+                        .id(hit.getId())
+                        .routing(hit.getRouting())
+                        .action(a -> a.doc(fields)))));
+                if (operations.size() >= batchSize) {
+                    copied += copyBatch(toIndex, operations);
+                    operations = new ArrayList<>(batchSize);
+                }
+            }
+        }
+        if (!operations.isEmpty()) {
+            copied += copyBatch(toIndex, operations);
+        }
+        log.info("Copied engagement of {} courses from '{}' to '{}'", copied, fromIndex, toIndex);
+        return copied;
+    }
+
+    private long copyBatch(String index, List<BulkOperation> operations) {
+        try {
+            BulkResponse response = elasticsearchClient.bulk(b -> b.index(index).operations(operations));
+            // Courses dropped from the catalog are missing in the new index, which is expected
+            return response.items().stream().filter(item -> item.error() == null).count();
+        } catch (IOException e) {
+            throw new RuntimeException("Engagement copy to " + index + " failed: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Copies the engagement fields of {@code from} onto {@code to}.
+     */
+    static void copyEngagement(CourseDocument from, CourseDocument to) {
+        to.setImpressions(from.getImpressions());
+        to.setClicks(from.getClicks());
+        to.setClickThroughRate(from.getClickThroughRate());
+        to.setEnrollments(from.getEnrollments());
+    }
+
+    /**
+     * The engagement fields of a course that are set, as a partial document.
+     */
+    static Map<String, Object> engagementOf(CourseDocument course) {
+        Map<String, Object> fields = new HashMap<>();
+        putIfSet(fields, RelevanceModel.IMPRESSIONS, course.getImpressions());
+        putIfSet(fields, RelevanceModel.CLICKS, course.getClicks());
+        putIfSet(fields, RelevanceModel.CLICK_THROUGH_RATE, course.getClickThroughRate());
+        putIfSet(fields, RelevanceModel.ENROLLMENTS, course.getEnrollments());
+        return fields;
+    }
+
+    private static void putIfSet(Map<String, Object> fields, String field, Object value) {
+        if (value != null) {
+            fields.put(field, value);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flusher.shutdownNow();
+        // Whatever is still pending is lost with the process; send it while the client is still open
+        if (enabled) {
+            flushQuietly();
+        }
+    }
+}
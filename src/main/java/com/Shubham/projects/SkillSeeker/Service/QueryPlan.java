@@ -0,0 +1,24 @@
+package com.Shubham.projects.SkillSeeker.Service;
+
+/**
+ * Query shape chosen by {@link QueryPlanner} for one search request.
+ *
+ * @param shape              FILTER when there is no text to score, MATCH otherwise
+ * @param multiMatchType     best_fields or cross_fields; null for FILTER
+ * @param fuzziness          fuzziness passed to multi_match, or null for exact term matching
+ * @param prefixLength       leading characters that must match exactly when fuzzy
+ * @param prefixMatch        whether words also match the start of title words, through {@code title.prefix}
+ * @param trackTotalHitsUpTo hit count after which the total is reported as a lower bound
+ */
+public record QueryPlan(Shape shape, String multiMatchType, String fuzziness, int prefixLength,
+                        boolean prefixMatch, int trackTotalHitsUpTo) {
+
+    public enum Shape {
+        FILTER,
+        MATCH
+    }
+
+    public boolean isFuzzy() {
+        return fuzziness != null;
+    }
+}
@@ -0,0 +1,73 @@
+package com.Shubham.projects.SkillSeeker.Service;
+
+import com.Shubham.projects.SkillSeeker.Dto.SearchRequestDto;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Picks the query shape for a search from its input, before {@link CourseQueryBuilder} renders it.
+ * <ul>
+ *     <li>No text: pure filter context, so nothing is scored and filters can be cached.</li>
+ *     <li>Text: one multi_match over {@code title^2} and {@code description}, whose analyzers already
+ *     fold accents, undo plurals and expand synonyms, plus the {@code title.prefix} edge n-grams so a
+ *     partly typed word matches. These expansions are made once at index time, so they cost no more
+ *     than exact term lookups.</li>
+ *     <li>Fuzzy matching is off unless {@code fuzzy-min-length} is set. Then it is enabled once a token
+ *     is long enough for a typo to be likely, and requires the first characters to match so the term
+ *     expansion stays small. Fuzzy plans leave out the n-grams, which would match almost anything.</li>
+ *     <li>Multi-word input without fuzzy tokens uses cross_fields, so words may match across title and
+ *     description as if they were one field. cross_fields cannot be fuzzy, so fuzzy input stays on
+ *     best_fields.</li>
+ *     <li>Totals are counted exactly only up to a threshold.</li>
+ * </ul>
+ */
+@Component
+public class QueryPlanner {
+
+    private static final int FUZZY_PREFIX_LENGTH = 1;
+
+    private final int trackTotalHitsUpTo;
+    private final int fuzzyMinLength;
+    private final boolean prefixMatch;
+
+    /**
+     * A planner without prefix matching, and with fuzzy matching from {@code fuzzyMinLength}
+     * characters; 0 turns fuzziness off.
+     */
+    public QueryPlanner(int trackTotalHitsUpTo, int fuzzyMinLength) {
+        this(trackTotalHitsUpTo, fuzzyMinLength, false);
+    }
+
+    @Autowired
+    public QueryPlanner(@Value("${skillseeker.search.track-total-hits-up-to:1000}") int trackTotalHitsUpTo,
+                        @Value("${skillseeker.search.fuzzy-min-length:0}") int fuzzyMinLength,
+                        @Value("${skillseeker.search.prefix-match:true}") boolean prefixMatch) {
+        this.trackTotalHitsUpTo = trackTotalHitsUpTo;
+        this.fuzzyMinLength = fuzzyMinLength;
+        this.prefixMatch = prefixMatch;
+    }
+
+    public QueryPlan plan(SearchRequestDto request) {
+        String q = request.getQ() == null ? "" : request.getQ().trim();
+        if (q.isEmpty()) {
+            return new QueryPlan(QueryPlan.Shape.FILTER, null, null, 0, false, trackTotalHitsUpTo);
+        }
+
+        String[] tokens = q.split("\\s+");
+        boolean fuzzy = false;
+        for (String token : tokens) {
+            if (fuzzyMinLength > 0 && token.length() >= fuzzyMinLength) {
+                fuzzy = true;
+                break;
+            }
+        }
+
+        if (fuzzy) {
+            return new QueryPlan(QueryPlan.Shape.MATCH, "best_fields", "AUTO", FUZZY_PREFIX_LENGTH, false,
+                    trackTotalHitsUpTo);
+        }
+        String type = tokens.length > 1 ? "cross_fields" : "best_fields";
+        return new QueryPlan(QueryPlan.Shape.MATCH, type, null, 0, prefixMatch, trackTotalHitsUpTo);
+    }
+}
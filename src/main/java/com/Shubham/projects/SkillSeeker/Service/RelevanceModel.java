@@ -0,0 +1,134 @@
+package com.Shubham.projects.SkillSeeker.Service;
+
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import co.elastic.clients.json.JsonData;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * The signals behind {@code sort=relevance} and how much each counts, added to the text score:
+ * <ul>
+ *     <li>Click-through rate, smoothed towards a prior so a course with two impressions and one click
+ *     does not outrank one with a long record. Saturates at {@code click-pivot}.</li>
+ *     <li>Enrollments, on a log scale so the most popular courses do not drown out the text match.</li>
+ *     <li>Recency: courses whose next session is close to today score higher, halving at
+ *     {@code recency-pivot} days away. Computed at query time, so it never goes stale.</li>
+ * </ul>
+ * All three are rank_feature and distance_feature queries, which Elasticsearch can skip through
+ * without scoring every match. With text, they are applied in a rescore of the top
+ * {@code rescore-window} hits per shard, so the first pass ranks on text alone.
+ */
+@Component
+public class RelevanceModel {
+
+    static final String CLICK_THROUGH_RATE = "clickThroughRate";
+    static final String ENROLLMENTS = "enrollments";
+    static final String IMPRESSIONS = "impressions";
+    static final String CLICKS = "clicks";
+
+    private final double clickWeight;
+    private final double clickPivot;
+    private final double enrollmentWeight;
+    private final double recencyWeight;
+    private final int recencyPivotDays;
+    private final int rescoreWindow;
+    private final double rescoreWeight;
+    private final double priorClicks;
+    private final double priorImpressions;
+
+    @Autowired
+    public RelevanceModel(@Value("${skillseeker.search.relevance.click-weight:2.0}") double clickWeight,
+                          @Value("${skillseeker.search.relevance.click-pivot:0.05}") double clickPivot,
+                          @Value("${skillseeker.search.relevance.enrollment-weight:0.5}") double enrollmentWeight,
+                          @Value("${skillseeker.search.relevance.recency-weight:1.0}") double recencyWeight,
+                          @Value("${skillseeker.search.relevance.recency-pivot-days:14}") int recencyPivotDays,
+                          @Value("${skillseeker.search.relevance.rescore-window:100}") int rescoreWindow,
+                          @Value("${skillseeker.search.relevance.rescore-weight:1.0}") double rescoreWeight,
+                          @Value("${skillseeker.search.relevance.prior-clicks:1}") double priorClicks,
+                          @Value("${skillseeker.search.relevance.prior-impressions:20}") double priorImpressions) {
+        if (clickPivot <= 0 || recencyPivotDays < 1 || priorClicks <= 0 || priorImpressions < priorClicks) {
+            throw new IllegalArgumentException("Invalid skillseeker.search.relevance settings");
+        }
+        this.clickWeight = clickWeight;
+        this.clickPivot = clickPivot;
+        this.enrollmentWeight = enrollmentWeight;
+        this.recencyWeight = recencyWeight;
+        this.recencyPivotDays = recencyPivotDays;
+        this.rescoreWindow = Math.max(rescoreWindow, 0);
+        this.rescoreWeight = rescoreWeight;
+        this.priorClicks = priorClicks;
+        this.priorImpressions = priorImpressions;
+    }
+
+    /**
+     * The model with its default settings, for code that runs outside the application context.
+     */
+    public static RelevanceModel defaults() {
+        return new RelevanceModel(2.0, 0.05, 0.5, 1.0, 14, 100, 1.0, 1, 20);
+    }
+
+    /**
+     * Hits per shard the signals are rescored on when the request has text; 0 scores every match.
+     */
+    public int rescoreWindow() {
+        return rescoreWindow;
+    }
+
+    public double rescoreWeight() {
+        return rescoreWeight;
+    }
+
+    double priorClicks() {
+        return priorClicks;
+    }
+
+    double priorImpressions() {
+        return priorImpressions;
+    }
+
+    /**
+     * Optional clauses that add the signals to the score of whatever they are combined with.
+     */
+    public List<Query> signals() {
+        return List.of(
+                Query.of(q -> q.rankFeature(r -> r
+                        .field(CLICK_THROUGH_RATE)
+                        .saturation(s -> s.pivot((float) clickPivot))
+                        .boost((float) clickWeight))),
+                Query.of(q -> q.rankFeature(r -> r
+                        .field(ENROLLMENTS)
+                        .log(l -> l.scalingFactor(1f))
+                        .boost((float) enrollmentWeight))),
+                Query.of(q -> q.distanceFeature(d -> d
+                        .field("nextSessionDate")
+                        // Rounded to the day, so the clause stays cacheable
+                        .origin(JsonData.of("now/d"))
+                        .pivot(JsonData.of(recencyPivotDays + "d"))
+                        .boost((float) recencyWeight))));
+    }
+
+    /**
+     * Smoothed click-through rate; always positive, as rank_feature requires.
+     */
+    public double clickThroughRate(long clicks, long impressions) {
+        return (clicks + priorClicks) / (impressions + priorImpressions);
+    }
+
+    /**
+     * Score of the stored signals alone, as the rank_feature clauses compute it. The embedded index
+     * orders {@code sort=relevance} by this, since it neither scores text nor tracks the date.
+     */
+    public double popularity(Double clickThroughRate, Long enrollments) {
+        double score = 0;
+        if (clickThroughRate != null && clickThroughRate > 0) {
+            score += clickWeight * clickThroughRate / (clickThroughRate + clickPivot);
+        }
+        if (enrollments != null && enrollments > 0) {
+            score += enrollmentWeight * Math.log(1 + enrollments);
+        }
+        return score;
+    }
+}
@@ -0,0 +1,155 @@
+package com.Shubham.projects.SkillSeeker.Service;
+
+import co.elastic.clients.elasticsearch._types.ElasticsearchException;
+import co.elastic.clients.elasticsearch.core.msearch.MultiSearchResponseItem;
+import co.elastic.clients.elasticsearch.core.search.ResponseBody;
+import com.Shubham.projects.SkillSeeker.Dto.CourseDto;
+import com.Shubham.projects.SkillSeeker.Exception.SearchFailure;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Optional micro-batching of searches. Distinct searches arriving within {@code window} of the
+ * first one are sent together as one _msearch, which trades a few milliseconds of latency for
+ * fewer round trips under bursty load. A batch is sent early once it reaches {@code max-size}.
+ * <p>
+ * A search that fails inside a batch fails alone; the others get their results.
+ */
+@Component
+@Slf4j
+public class SearchBatcher {
+
+    private record Pending(NativeQuery query, IndexCoordinates index, CompletableFuture<ResponseBody<CourseDto>> result) {
+    }
+
+    @Autowired
+    private DirectCourseSearch directCourseSearch;
+
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private AsyncTaskExecutor searchTaskExecutor;
+
+    @Autowired
+    private SearchMetrics searchMetrics;
+
+    @Value("${skillseeker.search.batch.enabled:false}")
+    private boolean enabled;
+
+    @Value("${skillseeker.search.batch.window:5ms}")
+    private Duration window;
+
+    @Value("${skillseeker.search.batch.max-size:20}")
+    private int maxSize;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "search-batcher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Object lock = new Object();
+    private List<Pending> pending = new ArrayList<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Queues a search of {@code index}; searches of different tenants' indices share a batch.
+     */
+    public CompletableFuture<ResponseBody<CourseDto>> submit(NativeQuery query, IndexCoordinates index) {
+        Pending search = new Pending(query, index, new CompletableFuture<>());
+        List<Pending> full = null;
+        synchronized (lock) {
+            pending.add(search);
+            if (pending.size() == 1) {
+                List<Pending> batch = pending;
+                scheduler.schedule(() -> flush(batch), window.toNanos(), TimeUnit.NANOSECONDS);
+            }
+            if (pending.size() >= maxSize) {
+                full = pending;
+                pending = new ArrayList<>();
+            }
+        }
+        if (full != null) {
+            dispatch(full);
+        }
+        return search.result();
+    }
+
+    private void flush(List<Pending> batch) {
+        synchronized (lock) {
+            // Already sent because it filled up
+            if (pending != batch) {
+                return;
+            }
+            pending = new ArrayList<>();
+        }
+        dispatch(batch);
+    }
+
+    private void dispatch(List<Pending> batch) {
+        searchMetrics.recordBatch(batch.size());
+        searchTaskExecutor.execute(() -> execute(batch));
+    }
+
+    private void execute(List<Pending> batch) {
+        if (batch.size() == 1) {
+            executeAlone(batch.get(0));
+            return;
+        }
+        List<MultiSearchResponseItem<CourseDto>> responses;
+        try {
+            responses = directCourseSearch.multiSearch(
+                    batch.stream().map(Pending::query).toList(),
+                    batch.stream().map(Pending::index).toList()).responses();
+        } catch (IOException | RuntimeException e) {
+            SearchFailure failure = SearchFailure.of(e);
+            if (failure == SearchFailure.BAD_QUERY || failure == SearchFailure.INTERNAL) {
+                // The whole request was refused, so the bad search is unknown; retry them side by side
+                log.warn("Batched search of {} failed ({}), running them individually", batch.size(), e.getMessage());
+                batch.forEach(search -> searchTaskExecutor.execute(() -> executeAlone(search)));
+            } else {
+                batch.forEach(search -> search.result().completeExceptionally(e));
+            }
+            return;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            MultiSearchResponseItem<CourseDto> response = responses.get(i);
+            if (response.isResult()) {
+                batch.get(i).result().complete(response.result());
+            } else {
+                batch.get(i).result().completeExceptionally(new ElasticsearchException("msearch", response.failure()));
+            }
+        }
+    }
+
+    private void executeAlone(Pending search) {
+        try {
+            search.result().complete(directCourseSearch.search(search.query(), search.index()));
+        } catch (IOException | RuntimeException e) {
+            search.result().completeExceptionally(e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,252 @@
+package com.Shubham.projects.SkillSeeker.Service;
+
+import com.Shubham.projects.SkillSeeker.Document.CourseDocument;
+import com.Shubham.projects.SkillSeeker.Document.CourseSession;
+import com.Shubham.projects.SkillSeeker.Dto.CourseDto;
+import com.Shubham.projects.SkillSeeker.Dto.SearchRequestDto;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Canonical form of a {@link SearchRequestDto}. Requests that Elasticsearch would answer
+ * identically map to equal keys, and the search itself is built from the key so a cached
+ * response always matches the query that produced it.
+ * <p>
+ * Coordinates are rounded to {@link #COORDINATE_SCALE} decimals (about 110 m), and the search runs from
+ * the rounded point, so nearby users share cache entries. The tenant is part of the key, and of the
+ * cursor fingerprint, so nothing is ever shared between tenants.
+ */
+public record SearchCacheKey(
+        String tenant,
+        String q,
+        Integer minAge,
+        Integer maxAge,
+        String category,
+        String type,
+        Double minPrice,
+        Double maxPrice,
+        LocalDateTime startDate,
+        Double lat,
+        Double lon,
+        Double radiusKm,
+        LocalDate sessionFrom,
+        LocalDate sessionTo,
+        String sort,
+        int page,
+        int size,
+        boolean facets,
+        String fields) {
+
+    public static final int MAX_PAGE_SIZE = 100;
+    public static final int COORDINATE_SCALE = 3;
+
+    /** Course fields a search can be projected onto, in {@link CourseDto} order. */
+    public static final List<String> PROJECTABLE_FIELDS = List.of("id", "title", "description", "category",
+            "type", "gradeRange", "minAge", "maxAge", "price", "nextSessionDate", "sessions", "location");
+
+    /**
+     * @throws IllegalArgumentException for an unknown field, a distance filter or sort without a complete
+     *                                  point, coordinates out of range, or a session window that ends before it starts
+     */
+    public static SearchCacheKey from(SearchRequestDto request) {
+        String sort = canonicalSort(request.getSort());
+        validateLocation(request, sort);
+        if (request.getSessionFrom() != null && request.getSessionTo() != null
+                && request.getSessionTo().isBefore(request.getSessionFrom())) {
+            throw new IllegalArgumentException("sessionTo must not be before sessionFrom");
+        }
+        return new SearchCacheKey(
+                normalizeTenant(request.getTenant()),
+                normalizeQuery(request.getQ()),
+                request.getMinAge(),
+                request.getMaxAge(),
+                trimToNull(request.getCategory()),
+                trimToNull(request.getType()),
+                request.getMinPrice(),
+                request.getMaxPrice(),
+                request.getStartDate(),
+                roundCoordinate(request.getLat()),
+                roundCoordinate(request.getLon()),
+                request.getRadiusKm(),
+                request.getSessionFrom(),
+                request.getSessionTo(),
+                sort,
+                Math.max(request.getPage(), 0),
+                Math.min(Math.max(request.getSize(), 1), MAX_PAGE_SIZE),
+                request.isFacets(),
+                canonicalFields(request.getFields())
+        );
+    }
+
+    public SearchRequestDto toRequest() {
+        return SearchRequestDto.builder()
+                .tenant(tenant)
+                .q(q)
+                .minAge(minAge)
+                .maxAge(maxAge)
+                .category(category)
+                .type(type)
+                .minPrice(minPrice)
+                .maxPrice(maxPrice)
+                .startDate(startDate)
+                .lat(lat)
+                .lon(lon)
+                .radiusKm(radiusKm)
+                .sessionFrom(sessionFrom)
+                .sessionTo(sessionTo)
+                .sort(sort)
+                .page(page)
+                .size(size)
+                .facets(facets)
+                .fields(fields)
+                .build();
+    }
+
+    /**
+     * Identifies the result set independently of the page, so a cursor can be tied to its filters. A
+     * digest rather than a hash code, so two different searches cannot share a cursor.
+     */
+    public String fingerprint() {
+        StringBuilder key = new StringBuilder(128);
+        for (Object value : Arrays.asList(tenant, q, minAge, maxAge, category, type, minPrice, maxPrice,
+                startDate, lat, lon, radiusKm, sessionFrom, sessionTo, sort, size)) {
+            // Null and empty must not collide, as in CourseContentHash
+            key.append(value == null ? "\u0000" : value.toString()).append('\u001f');
+        }
+        return CourseContentHash.digest(key.toString());
+    }
+
+    /**
+     * Whether the course could be among this search's hits or counted in its facets. Text is assumed
+     * to match, since only the index can analyze it; facet searches ignore the filters their facets
+     * are computed without. Used to drop only the cached pages that a written course can change.
+     */
+    public boolean mayMatch(CourseDocument course) {
+        if (course == null || (tenant != null && !tenant.equals(course.getTenant()))) {
+            return false;
+        }
+        LocalDate next = course.getNextSessionDate();
+        if (startDate != null && (next == null || next.isBefore(startDate.toLocalDate()))) {
+            return false;
+        }
+        if ((sessionFrom != null || sessionTo != null) && (course.getSessions() == null
+                || course.getSessions().stream().map(CourseSession::getStartDate).noneMatch(this::inSessionWindow))) {
+            return false;
+        }
+        if (radiusKm != null && (course.getLocation() == null || distanceKm(lat, lon,
+                course.getLocation().getLat(), course.getLocation().getLon()) > radiusKm * 1.01)) {
+            return false;
+        }
+        if (facets) {
+            return true;
+        }
+        return (category == null || category.equals(course.getCategory()))
+                && (type == null || type.equals(course.getType()))
+                && (minAge == null || (course.getMaxAge() != null && course.getMaxAge() >= minAge))
+                && (maxAge == null || (course.getMinAge() != null && course.getMinAge() <= maxAge))
+                && ((minPrice == null && maxPrice == null) || (course.getPrice() != null
+                && (minPrice == null || course.getPrice() >= minPrice)
+                && (maxPrice == null || course.getPrice() <= maxPrice)));
+    }
+
+    private boolean inSessionWindow(LocalDate date) {
+        return date != null && (sessionFrom == null || !date.isBefore(sessionFrom))
+                && (sessionTo == null || !date.isAfter(sessionTo));
+    }
+
+    // Haversine; the 1% slack above covers the difference to Elasticsearch's arc distance
+    private static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2) + Math.cos(Math.toRadians(lat1))
+                * Math.cos(Math.toRadians(lat2)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * 6371.0088 * Math.asin(Math.sqrt(a));
+    }
+
+    static String canonicalSort(String sort) {
+        if (sort == null) {
+            return "upcoming";
+        }
+        return switch (sort.trim().toLowerCase(Locale.ROOT)) {
+            case "priceasc" -> "priceasc";
+            case "pricedesc" -> "pricedesc";
+            case "distance" -> "distance";
+            case "soonest" -> "soonest";
+            case "relevance" -> "relevance";
+            default -> "upcoming";
+        };
+    }
+
+    private static void validateLocation(SearchRequestDto request, String sort) {
+        Double lat = request.getLat();
+        Double lon = request.getLon();
+        if ((lat == null) != (lon == null)) {
+            throw new IllegalArgumentException("lat and lon must be given together");
+        }
+        if (lat == null && (request.getRadiusKm() != null || sort.equals("distance"))) {
+            throw new IllegalArgumentException("radiusKm and sort=distance need lat and lon");
+        }
+        if (lat != null && (lat < -90 || lat > 90 || lon < -180 || lon > 180)) {
+            throw new IllegalArgumentException("lat must be within [-90, 90] and lon within [-180, 180]");
+        }
+        if (request.getRadiusKm() != null && !(request.getRadiusKm() > 0)) {
+            throw new IllegalArgumentException("radiusKm must be positive");
+        }
+    }
+
+    private static Double roundCoordinate(Double value) {
+        return value == null ? null
+                : BigDecimal.valueOf(value).setScale(COORDINATE_SCALE, RoundingMode.HALF_UP).doubleValue();
+    }
+
+    /**
+     * Sorted, de-duplicated field list including {@code id}, or null when every field is wanted.
+     *
+     * @throws IllegalArgumentException for a field that is not in {@link #PROJECTABLE_FIELDS}
+     */
+    static String canonicalFields(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return null;
+        }
+        Set<String> selected = new TreeSet<>();
+        selected.add("id");
+        for (String field : fields.split(",")) {
+            String trimmed = field.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            if (!PROJECTABLE_FIELDS.contains(trimmed)) {
+                throw new IllegalArgumentException("Unknown field '" + trimmed + "'; expected any of " + PROJECTABLE_FIELDS);
+            }
+            selected.add(trimmed);
+        }
+        return selected.size() == PROJECTABLE_FIELDS.size() ? null : String.join(",", selected);
+    }
+
+    private static String normalizeTenant(String tenant) {
+        String trimmed = trimToNull(tenant);
+        return trimmed == null ? null : trimmed.toLowerCase(Locale.ROOT);
+    }
+
+    private static String normalizeQuery(String q) {
+        String trimmed = trimToNull(q);
+        // Text fields are lower-cased by the analyzer, so case never changes the result
+        return trimmed == null ? null : trimmed.toLowerCase(Locale.ROOT);
+    }
+
+    private static String trimToNull(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+}
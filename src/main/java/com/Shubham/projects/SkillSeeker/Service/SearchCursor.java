@@ -0,0 +1,52 @@
+package com.Shubham.projects.SkillSeeker.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * State carried between cursor pages: the point-in-time id, the sort values of the last hit,
+ * the total from the first page and a fingerprint of the filters the cursor was opened with.
+ * Clients only ever see it as an opaque URL-safe token.
+ */
+public record SearchCursor(String pitId, List<Object> searchAfter, long total, String fingerprint) {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    public static boolean isStart(String cursor) {
+        return cursor.isBlank() || cursor.equals("*");
+    }
+
+    public String encode() {
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(MAPPER.writeValueAsBytes(this));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not encode cursor", e);
+        }
+    }
+
+    public static SearchCursor decode(String token) {
+        try {
+            SearchCursor cursor = MAPPER.readValue(Base64.getUrlDecoder().decode(token), SearchCursor.class);
+            if (cursor.pitId() == null || cursor.searchAfter() == null) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new SearchCursor(cursor.pitId(), widen(cursor.searchAfter()), cursor.total(), cursor.fingerprint());
+        } catch (IOException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    // Jackson reads small whole numbers back as Integer; numeric sort values are longs
+    private static List<Object> widen(List<Object> values) {
+        List<Object> widened = new ArrayList<>(values.size());
+        for (Object value : values) {
+            widened.add(value instanceof Integer i ? Long.valueOf(i) : value);
+        }
+        return widened;
+    }
+}
@@ -0,0 +1,230 @@
+package com.Shubham.projects.SkillSeeker.Service;
+
+import com.Shubham.projects.SkillSeeker.Dto.SearchRequestDto;
+import com.Shubham.projects.SkillSeeker.Dto.SearchResponseDto;
+import com.Shubham.projects.SkillSeeker.Exception.SearchFailure;
+import io.micrometer.common.KeyValues;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.StringJoiner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Meters for the search path. Searches and suggestions are recorded as observations, so they show up
+ * as timers and, when a tracing bridge is present, as spans. Tags are kept low-cardinality: the
+ * tenant, which is one of the declared few, the sort mode, whether text was given, and which filters
+ * were combined, never the values themselves.
+ */
+@Component
+public class SearchMetrics {
+
+    static final String SEARCH = "skillseeker.search";
+    static final String SUGGEST = "skillseeker.suggest";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ObservationRegistry observationRegistry;
+
+    /**
+     * Times a search from the call until its future completes, including cache hits and queueing.
+     */
+    public CompletableFuture<SearchResponseDto> observeSearch(SearchRequestDto request, String mode,
+                                                              Supplier<CompletableFuture<SearchResponseDto>> search) {
+        String query = request.getQ() == null || request.getQ().isBlank() ? "none" : "text";
+        // Tenants are declared up front, so the tag stays bounded
+        String tenant = request.getTenant() == null ? "none" : request.getTenant();
+        KeyValues tags = KeyValues.of(
+                "tenant", tenant,
+                "sort", SearchCacheKey.canonicalSort(request.getSort()),
+                "query", query,
+                "filters", filterCombination(request),
+                "mode", mode);
+        return observe(SEARCH, tags, search).whenComplete((response, error) -> {
+            if (response != null) {
+                DistributionSummary.builder(SEARCH + ".hits")
+                        .description("Total hits per search")
+                        .tag("tenant", tenant)
+                        .tag("query", query)
+                        .register(meterRegistry)
+                        .record(response.getTotal());
+            }
+        });
+    }
+
+    public <T> CompletableFuture<T> observeSuggest(String tenant, Supplier<CompletableFuture<T>> suggest) {
+        return observe(SUGGEST, KeyValues.of("tenant", tenant), suggest);
+    }
+
+    public void recordSuggestSource(String tenant, String source) {
+        meterRegistry.counter(SUGGEST + ".source", "tenant", tenant, "source", source).increment();
+    }
+
+    public void recordFallback(SearchFailure failure) {
+        meterRegistry.counter(SEARCH + ".fallback", "error", failure.tag()).increment();
+    }
+
+    /**
+     * A request turned away by admission control; {@code reason} is rate_limited or overloaded.
+     */
+    public void recordAdmissionRejected(AdmissionLane lane, String reason) {
+        meterRegistry.counter("skillseeker.admission.rejected", "lane", lane.tag(), "reason", reason).increment();
+    }
+
+    public void recordEngagementEvent(String type) {
+        meterRegistry.counter("skillseeker.engagement.events", "type", type).increment();
+    }
+
+    /**
+     * An engagement event that was not counted; {@code reason} is full or missing.
+     */
+    public void recordEngagementDropped(String reason) {
+        meterRegistry.counter("skillseeker.engagement.dropped", "reason", reason).increment();
+    }
+
+    public void recordEngagementFlush(Duration elapsed, int courses, String outcome) {
+        Timer.builder("skillseeker.engagement.flush")
+                .description("Time per batch of engagement updates")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(elapsed);
+        DistributionSummary.builder("skillseeker.engagement.flush.courses")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(courses);
+    }
+
+    public void recordCoalesced() {
+        meterRegistry.counter(SEARCH + ".coalesced").increment();
+    }
+
+    public void recordBatch(int size) {
+        DistributionSummary.builder(SEARCH + ".batch.size")
+                .description("Searches sent per _msearch batch")
+                .register(meterRegistry)
+                .record(size);
+    }
+
+    public void recordIngestBatch(Duration elapsed, int documents, String outcome) {
+        Timer.builder("skillseeker.ingest.batch")
+                .description("Bulk indexing time per ingestion batch")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(elapsed);
+        DistributionSummary.builder("skillseeker.ingest.batch.documents")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(documents);
+    }
+
+    /**
+     * A write through the course API; {@code outcome} is queued, coalesced, rejected, indexed,
+     * superseded or the failure tag.
+     */
+    public void recordWrite(String operation, String outcome) {
+        meterRegistry.counter("skillseeker.writes", "operation", operation, "outcome", outcome).increment();
+    }
+
+    public void recordWriteFlush(Duration elapsed, int courses, String outcome) {
+        Timer.builder("skillseeker.writes.flush")
+                .description("Time per _bulk batch of course API writes")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(elapsed);
+        DistributionSummary.builder("skillseeker.writes.flush.courses")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(courses);
+    }
+
+    public void registerWritesPending(IntSupplier pending) {
+        Gauge.builder("skillseeker.writes.pending", pending, IntSupplier::getAsInt)
+                .description("Course API writes queued or being sent")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs {@code work} with the current observation as parent, for work handed to another thread.
+     */
+    public <T> Supplier<T> inCurrentObservation(Supplier<T> work) {
+        Observation parent = observationRegistry.getCurrentObservation();
+        if (parent == null) {
+            return work;
+        }
+        return () -> {
+            try (Observation.Scope ignored = parent.openScope()) {
+                return work.get();
+            }
+        };
+    }
+
+    private <T> CompletableFuture<T> observe(String name, KeyValues tags, Supplier<CompletableFuture<T>> call) {
+        Observation observation = Observation.createNotStarted(name, observationRegistry)
+                .lowCardinalityKeyValues(tags)
+                .start();
+        CompletableFuture<T> future;
+        try (Observation.Scope ignored = observation.openScope()) {
+            future = call.get();
+        } catch (RuntimeException e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+        return future.whenComplete((result, error) -> {
+            if (error != null) {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                SearchFailure failure = SearchFailure.of(cause);
+                observation.lowCardinalityKeyValue("outcome", failure.tag());
+                observation.error(cause);
+                errors(name, failure).increment();
+            } else {
+                observation.lowCardinalityKeyValue("outcome", "success");
+            }
+            observation.stop();
+        });
+    }
+
+    private Counter errors(String name, SearchFailure failure) {
+        return Counter.builder(name + ".errors")
+                .description("Failed calls by failure type")
+                .tag("type", failure.tag())
+                .register(meterRegistry);
+    }
+
+    static String filterCombination(SearchRequestDto request) {
+        StringJoiner filters = new StringJoiner("+");
+        if (request.getCategory() != null && !request.getCategory().isBlank()) {
+            filters.add("category");
+        }
+        if (request.getType() != null && !request.getType().isBlank()) {
+            filters.add("type");
+        }
+        if (request.getMinAge() != null || request.getMaxAge() != null) {
+            filters.add("age");
+        }
+        if (request.getMinPrice() != null || request.getMaxPrice() != null) {
+            filters.add("price");
+        }
+        if (request.getStartDate() != null) {
+            filters.add("date");
+        }
+        if (request.getSessionFrom() != null || request.getSessionTo() != null) {
+            filters.add("sessions");
+        }
+        if (request.getRadiusKm() != null) {
+            filters.add("distance");
+        }
+        return filters.length() == 0 ? "none" : filters.toString();
+    }
+}
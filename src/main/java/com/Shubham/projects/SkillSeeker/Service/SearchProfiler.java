@@ -0,0 +1,41 @@
+package com.Shubham.projects.SkillSeeker.Service;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch.core.SearchResponse;
+import co.elastic.clients.json.JsonpMapper;
+import co.elastic.clients.json.JsonpUtils;
+import com.Shubham.projects.SkillSeeker.Dto.CourseDto;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * Runs a search built by {@link CourseQueryBuilder} with Elasticsearch's profiler enabled.
+ * Spring Data's query API has no profile option, so the request is built the same way as
+ * {@link DirectCourseSearch} builds it, with profiling switched on. Debug use only.
+ */
+@Component
+public class SearchProfiler {
+
+    @Autowired
+    private ElasticsearchClient elasticsearchClient;
+
+    @Autowired
+    private JsonpMapper jsonpMapper;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    public SearchResponse<CourseDto> search(NativeQuery query, IndexCoordinates index) throws IOException {
+        return elasticsearchClient.search(s -> DirectCourseSearch.copy(s, query, index).profile(true), CourseDto.class);
+    }
+
+    public JsonNode toJson(Object value) throws IOException {
+        return objectMapper.readTree(JsonpUtils.toJsonString(value, jsonpMapper));
+    }
+}
@@ -0,0 +1,222 @@
+package com.Shubham.projects.SkillSeeker.Service;
+
+import com.Shubham.projects.SkillSeeker.Dto.CacheStatsDto;
+import com.Shubham.projects.SkillSeeker.Dto.SearchResponseDto;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Size- and TTL-bounded cache of search responses keyed on {@link SearchCacheKey}.
+ * Each tenant has a partition of its own with its own size bound, so one tenant's traffic cannot
+ * evict another's hot entries. Anything that writes to a course index must call
+ * {@link #invalidate(Collection)} for the tenants it touched, {@link #invalidateAll()}, or, for writes
+ * to a few known courses, {@link #invalidate(String, Set, Predicate)}.
+ * <p>
+ * Partitions are created on first use; only tenants declared in the {@link TenantRegistry} reach the
+ * cache, so their number stays bounded. Each is published as the {@code skillseeker.search.cache}
+ * cache metrics with a {@code tenant} tag.
+ */
+@Component
+@Slf4j
+public class SearchResultCache {
+
+    // Keys without a tenant, from code that does not go through the registry
+    private static final String UNSCOPED = "";
+
+    private final boolean enabled;
+    private final long maxSize;
+    private final Duration ttl;
+    private final Map<String, Partition> partitions = new ConcurrentHashMap<>();
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    public SearchResultCache(@Value("${skillseeker.cache.search.enabled:true}") boolean enabled,
+                             @Value("${skillseeker.cache.search.max-size:10000}") long maxSize,
+                             @Value("${skillseeker.cache.search.ttl:60s}") Duration ttl) {
+        this.enabled = enabled;
+        this.maxSize = maxSize;
+        this.ttl = ttl;
+    }
+
+    public SearchResponseDto get(SearchCacheKey key, Function<SearchCacheKey, SearchResponseDto> loader) {
+        SearchResponseDto cached = getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        long generation = generation(key);
+        SearchResponseDto loaded = loader.apply(key);
+        put(key, loaded, generation);
+        return loaded;
+    }
+
+    /**
+     * Looks up a cached response and counts the lookup as a hit or a miss.
+     */
+    public SearchResponseDto getIfPresent(SearchCacheKey key) {
+        if (!enabled) {
+            return null;
+        }
+        Partition partition = partition(key);
+        SearchResponseDto cached = partition.cache.getIfPresent(key);
+        (cached != null ? partition.hits : partition.misses).increment();
+        return cached;
+    }
+
+    /**
+     * Current generation of the key's partition; take it before starting a search and pass it to {@link #put}.
+     */
+    public long generation(SearchCacheKey key) {
+        return partition(key).generation.get();
+    }
+
+    /**
+     * Caches a response unless the key's partition was invalidated since {@code generation}, so a
+     * search that started before a reindex cannot put its stale result back.
+     */
+    public void put(SearchCacheKey key, SearchResponseDto response, long generation) {
+        if (!enabled) {
+            return;
+        }
+        Partition partition = partition(key);
+        partition.cache.put(key, response);
+        if (partition.generation.get() != generation) {
+            partition.cache.invalidate(key);
+        }
+    }
+
+    public void invalidateAll() {
+        partitions.values().forEach(Partition::invalidate);
+        log.debug("Search result cache cleared");
+    }
+
+    /**
+     * Drops the entries of the given tenants only; the other tenants keep theirs.
+     */
+    public void invalidate(Collection<String> tenants) {
+        for (String tenant : tenants) {
+            Partition partition = partitions.get(tenant);
+            if (partition != null) {
+                partition.invalidate();
+            }
+        }
+        log.debug("Search result cache cleared for tenants {}", tenants);
+    }
+
+    /**
+     * Drops only the tenant's entries that writes to {@code courseIds} can change: pages that show one
+     * of those courses, and searches that are {@code affected}, typically because a written course
+     * matches them before or after the write. Every other entry stays cached.
+     *
+     * @return the number of entries dropped
+     */
+    public int invalidate(String tenant, Set<String> courseIds, Predicate<SearchCacheKey> affected) {
+        Partition partition = partitions.get(tenant == null ? UNSCOPED : tenant);
+        if (partition == null) {
+            return 0;
+        }
+        // Searches already running may have read the courses before the write; they must not cache them
+        partition.generation.incrementAndGet();
+        int dropped = 0;
+        Iterator<Map.Entry<SearchCacheKey, SearchResponseDto>> entries = partition.cache.asMap().entrySet().iterator();
+        while (entries.hasNext()) {
+            Map.Entry<SearchCacheKey, SearchResponseDto> entry = entries.next();
+            if (shows(entry.getValue(), courseIds) || affected.test(entry.getKey())) {
+                entries.remove();
+                dropped++;
+            }
+        }
+        log.debug("Search result cache dropped {} entries of tenant '{}' for {} written courses",
+                dropped, tenant, courseIds.size());
+        return dropped;
+    }
+
+    private static boolean shows(SearchResponseDto response, Set<String> courseIds) {
+        return response.getCourses() != null
+                && response.getCourses().stream().anyMatch(course -> courseIds.contains(course.getId()));
+    }
+
+    /**
+     * Totals over every tenant.
+     */
+    public CacheStatsDto getStats() {
+        long size = 0;
+        long hitCount = 0;
+        long missCount = 0;
+        long evictions = 0;
+        for (Partition partition : partitions.values()) {
+            size += partition.cache.estimatedSize();
+            hitCount += partition.hits.sum();
+            missCount += partition.misses.sum();
+            evictions += partition.cache.stats().evictionCount();
+        }
+        return stats(size, hitCount, missCount, evictions);
+    }
+
+    /**
+     * Statistics of each tenant that has been searched, by tenant.
+     */
+    public Map<String, CacheStatsDto> getTenantStats() {
+        Map<String, CacheStatsDto> stats = new TreeMap<>();
+        partitions.forEach((tenant, partition) -> stats.put(tenant, stats(partition.cache.estimatedSize(),
+                partition.hits.sum(), partition.misses.sum(), partition.cache.stats().evictionCount())));
+        return stats;
+    }
+
+    private static CacheStatsDto stats(long size, long hitCount, long missCount, long evictions) {
+        long lookups = hitCount + missCount;
+        return new CacheStatsDto(size, hitCount, missCount, evictions,
+                lookups == 0 ? 1.0 : (double) hitCount / lookups);
+    }
+
+    private Partition partition(SearchCacheKey key) {
+        String tenant = key.tenant() == null ? UNSCOPED : key.tenant();
+        return partitions.computeIfAbsent(tenant, this::newPartition);
+    }
+
+    private Partition newPartition(String tenant) {
+        Cache<SearchCacheKey, SearchResponseDto> cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        if (meterRegistry != null) {
+            CaffeineCacheMetrics.monitor(meterRegistry, cache, "skillseeker.search.cache", "tenant", tenant);
+        }
+        return new Partition(cache);
+    }
+
+    private static final class Partition {
+        private final Cache<SearchCacheKey, SearchResponseDto> cache;
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+        private final AtomicLong generation = new AtomicLong();
+
+        private Partition(Cache<SearchCacheKey, SearchResponseDto> cache) {
+            this.cache = cache;
+        }
+
+        private void invalidate() {
+            generation.incrementAndGet();
+            cache.invalidateAll();
+        }
+    }
+}
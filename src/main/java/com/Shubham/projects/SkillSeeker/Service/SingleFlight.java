@@ -0,0 +1,52 @@
+package com.Shubham.projects.SkillSeeker.Service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Collapses concurrent calls for the same key into one: the first caller starts the call and
+ * everyone arriving before it completes shares its result, success or failure. Nothing is
+ * remembered afterwards, so this complements a cache rather than replacing one.
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Runnable onShared;
+
+    public SingleFlight(Runnable onShared) {
+        this.onShared = onShared;
+    }
+
+    public CompletableFuture<V> execute(K key, Supplier<CompletableFuture<V>> call) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            onShared.run();
+            // A copy, so one caller cancelling does not cancel the call for the others
+            return existing.copy();
+        }
+
+        try {
+            call.get().whenComplete((value, error) -> {
+                // Leave before completing, so callers arriving afterwards start a fresh call
+                inFlight.remove(key, flight);
+                if (error != null) {
+                    flight.completeExceptionally(error instanceof CompletionException && error.getCause() != null
+                            ? error.getCause() : error);
+                } else {
+                    flight.complete(value);
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlight.remove(key, flight);
+            flight.completeExceptionally(e);
+        }
+        return flight.copy();
+    }
+
+    public int size() {
+        return inFlight.size();
+    }
+}
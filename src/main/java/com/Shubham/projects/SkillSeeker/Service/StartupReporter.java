@@ -0,0 +1,118 @@
+package com.Shubham.projects.SkillSeeker.Service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.aot.AotDetector;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.NativeDetector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.support.ServletRequestHandledEvent;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Reports how long the process took to become ready and to serve its first request, and its resident
+ * memory at both points, so the startup modes (plain jar, AOT, CDS, native image) can be compared
+ * from the logs of an autoscaled pod. Times are measured from JVM start, so they include what happens
+ * before Spring runs. Resident memory is read from {@code /proc}; elsewhere it falls back to the
+ * committed heap and non-heap memory.
+ */
+@Component
+@Slf4j
+public class StartupReporter {
+
+    private static final Path PROC_STATUS = Path.of("/proc/self/status");
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    private final AtomicBoolean firstRequestSeen = new AtomicBoolean(false);
+    private volatile double readySeconds = Double.NaN;
+    private volatile double firstRequestSeconds = Double.NaN;
+
+    @PostConstruct
+    void registerGauges() {
+        if (meterRegistry == null) {
+            return;
+        }
+        Gauge.builder("skillseeker.startup.ready", this, reporter -> reporter.readySeconds)
+                .description("Seconds from JVM start until the application was ready")
+                .baseUnit("seconds")
+                .tag("mode", mode())
+                .register(meterRegistry);
+        Gauge.builder("skillseeker.startup.first-request", this, reporter -> reporter.firstRequestSeconds)
+                .description("Seconds from JVM start until the first request was served")
+                .baseUnit("seconds")
+                .tag("mode", mode())
+                .register(meterRegistry);
+        Gauge.builder("skillseeker.process.resident-memory", StartupReporter::residentMemoryBytes)
+                .description("Resident set size of the process")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        long uptime = uptimeMillis();
+        readySeconds = uptime / 1000.0;
+        log.info("Ready {} ms after JVM start in {} mode, resident memory {} MB",
+                uptime, mode(), residentMemoryBytes() >> 20);
+    }
+
+    @EventListener(ServletRequestHandledEvent.class)
+    public void onRequest(ServletRequestHandledEvent event) {
+        if (firstRequestSeen.compareAndSet(false, true)) {
+            long uptime = uptimeMillis();
+            firstRequestSeconds = uptime / 1000.0;
+            log.info("First request ({} {}) served {} ms after JVM start, resident memory {} MB",
+                    event.getMethod(), event.getRequestUrl(), uptime, residentMemoryBytes() >> 20);
+        }
+    }
+
+    /**
+     * native, aot-cds, aot, cds or jvm, from how this process was built and started.
+     */
+    static String mode() {
+        if (NativeDetector.inNativeImage()) {
+            return "native";
+        }
+        boolean cds = usesSharedArchive(ManagementFactory.getRuntimeMXBean().getInputArguments());
+        if (AotDetector.useGeneratedArtifacts()) {
+            return cds ? "aot-cds" : "aot";
+        }
+        return cds ? "cds" : "jvm";
+    }
+
+    static boolean usesSharedArchive(List<String> jvmArguments) {
+        return jvmArguments.stream().anyMatch(argument -> argument.startsWith("-XX:SharedArchiveFile=")
+                || argument.equals("-XX:+AutoCreateSharedArchive"));
+    }
+
+    private static long uptimeMillis() {
+        return ManagementFactory.getRuntimeMXBean().getUptime();
+    }
+
+    static long residentMemoryBytes() {
+        try {
+            for (String line : Files.readAllLines(PROC_STATUS)) {
+                // VmRSS:	  123456 kB
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.substring(6).replace("kB", "").trim()) * 1024;
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            log.debug("Could not read resident memory: {}", e.getMessage());
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getCommitted()
+                + ManagementFactory.getMemoryMXBean().getNonHeapMemoryUsage().getCommitted();
+    }
+}
@@ -0,0 +1,231 @@
+package com.Shubham.projects.SkillSeeker.Service;
+
+import com.Shubham.projects.SkillSeeker.Document.CourseDocument;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.SearchHitsIterator;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.FetchSourceFilter;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * In-memory prefix index over the {@code suggest} inputs of every course, one per tenant.
+ * Inputs are kept in a sorted map keyed by their lower-cased text, so a prefix lookup is a
+ * range scan that returns completions in alphabetical order. The completion suggester it stands in
+ * for orders by weight instead, which ties for every course since none is weighted, so the two can
+ * list the same completions in a different order.
+ * <p>
+ * Reads are lock-free; courses are added and removed one at a time as they change. Changes made
+ * while a rebuild scans the index are recorded and replayed onto the rebuilt index before it is
+ * swapped in, so they are not lost.
+ */
+@Component
+@Slf4j
+public class SuggestionIndex {
+
+    // Courses without a tenant, indexed before tenants existed
+    private static final String UNSCOPED = "";
+
+    @Autowired
+    private ElasticsearchOperations elasticsearchOperations;
+
+    @Autowired
+    private TenantRegistry tenantRegistry;
+
+    private volatile Map<String, Entries> entries = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+
+    // Guards changes against the swap at the end of a rebuild
+    private final Object writeLock = new Object();
+    // Course id to its latest version, or null once removed, while a rebuild runs; guarded by writeLock
+    private Map<String, CourseDocument> changedDuringRebuild;
+
+    /**
+     * Returns up to {@code limit} distinct completions for the prefix among the tenant's courses, or an
+     * empty list on a miss.
+     */
+    public List<String> suggest(String tenant, String prefix, int limit) {
+        String key = normalize(prefix);
+        List<String> suggestions = new ArrayList<>(limit);
+        Entries tenantEntries = entries.get(tenant);
+        if (key.isEmpty() || tenantEntries == null) {
+            return suggestions;
+        }
+        NavigableMap<String, Suggestion> range =
+                tenantEntries.byText.subMap(key, true, key + Character.MAX_VALUE, true);
+        for (Suggestion suggestion : range.values()) {
+            suggestions.add(suggestion.text);
+            if (suggestions.size() >= limit) {
+                break;
+            }
+        }
+        return suggestions;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        return entries.values().stream().mapToInt(tenantEntries -> tenantEntries.byText.size()).sum();
+    }
+
+    public void upsert(CourseDocument course) {
+        if (course.getId() == null) {
+            return;
+        }
+        synchronized (writeLock) {
+            if (changedDuringRebuild != null) {
+                changedDuringRebuild.put(course.getId(), course);
+            }
+            upsert(entries, course);
+        }
+    }
+
+    public void remove(String courseId) {
+        synchronized (writeLock) {
+            if (changedDuringRebuild != null) {
+                changedDuringRebuild.put(courseId, null);
+            }
+            remove(entries, courseId);
+        }
+    }
+
+    private static void upsert(Map<String, Entries> entries, CourseDocument course) {
+        // A course that moved to another tenant leaves the old one's suggestions
+        String tenant = tenantOf(course);
+        entries.forEach((other, otherEntries) -> {
+            if (!other.equals(tenant)) {
+                otherEntries.remove(course.getId());
+            }
+        });
+        entries.computeIfAbsent(tenant, t -> new Entries()).upsert(course.getId(), inputsOf(course));
+    }
+
+    private static void remove(Map<String, Entries> entries, String courseId) {
+        entries.values().forEach(tenantEntries -> tenantEntries.remove(courseId));
+    }
+
+    /**
+     * Rebuilds the index from everything currently searchable under the tenants' aliases. Courses
+     * changed while the aliases are scanned keep their latest version.
+     */
+    public synchronized void rebuild() {
+        synchronized (writeLock) {
+            changedDuringRebuild = new LinkedHashMap<>();
+        }
+        try {
+            swap(scan());
+        } finally {
+            synchronized (writeLock) {
+                changedDuringRebuild = null;
+            }
+        }
+        ready = true;
+        log.info("Suggestion index rebuilt with {} entries for {} tenants", size(), entries.size());
+    }
+
+    private void swap(Map<String, Entries> rebuilt) {
+        synchronized (writeLock) {
+            changedDuringRebuild.forEach((courseId, course) -> {
+                if (course == null) {
+                    remove(rebuilt, courseId);
+                } else {
+                    upsert(rebuilt, course);
+                }
+            });
+            entries = rebuilt;
+        }
+    }
+
+    private Map<String, Entries> scan() {
+        NativeQuery query = NativeQuery.builder()
+                .withQuery(q -> q.bool(b -> b.mustNot(CourseQueryBuilder.TOMBSTONE)))
+                .withSourceFilter(new FetchSourceFilter(new String[]{"id", "tenant", "title", "suggest"}, null))
+                .withPageable(PageRequest.of(0, 1000))
+                .withScrollTime(Duration.ofMinutes(1))
+                .build();
+
+        Map<String, Entries> rebuilt = new ConcurrentHashMap<>();
+        IndexCoordinates aliases = IndexCoordinates.of(tenantRegistry.aliases().keySet().toArray(new String[0]));
+        try (SearchHitsIterator<CourseDocument> hits =
+                     elasticsearchOperations.searchForStream(query, CourseDocument.class, aliases)) {
+            hits.forEachRemaining(hit -> {
+                CourseDocument course = hit.getContent();
+                rebuilt.computeIfAbsent(tenantOf(course), t -> new Entries()).upsert(course.getId(), inputsOf(course));
+            });
+        }
+        return rebuilt;
+    }
+
+    private static String tenantOf(CourseDocument course) {
+        return course.getTenant() == null ? UNSCOPED : course.getTenant();
+    }
+
+    private static List<String> inputsOf(CourseDocument course) {
+        if (course.getSuggest() != null && course.getSuggest().getInput() != null) {
+            return Arrays.asList(course.getSuggest().getInput());
+        }
+        return course.getTitle() == null ? List.of() : List.of(course.getTitle());
+    }
+
+    static String normalize(String text) {
+        return text == null ? "" : text.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Suggestion {
+        private final String text;
+        private final Set<String> courseIds = ConcurrentHashMap.newKeySet();
+
+        private Suggestion(String text) {
+            this.text = text;
+        }
+    }
+
+    private static final class Entries {
+        private final ConcurrentSkipListMap<String, Suggestion> byText = new ConcurrentSkipListMap<>();
+        private final Map<String, List<String>> inputsByCourse = new ConcurrentHashMap<>();
+
+        private synchronized void upsert(String courseId, List<String> inputs) {
+            remove(courseId);
+            List<String> keys = new ArrayList<>(inputs.size());
+            for (String input : inputs) {
+                String key = normalize(input);
+                if (key.isEmpty()) {
+                    continue;
+                }
+                byText.computeIfAbsent(key, k -> new Suggestion(input.trim())).courseIds.add(courseId);
+                keys.add(key);
+            }
+            inputsByCourse.put(courseId, keys);
+        }
+
+        private synchronized void remove(String courseId) {
+            List<String> keys = inputsByCourse.remove(courseId);
+            if (keys == null) {
+                return;
+            }
+            for (String key : keys) {
+                byText.computeIfPresent(key, (k, suggestion) -> {
+                    suggestion.courseIds.remove(courseId);
+                    return suggestion.courseIds.isEmpty() ? null : suggestion;
+                });
+            }
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.Shubham.projects.SkillSeeker.Service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The synonym rules searches expand with, read from {@code skillseeker.search.synonyms.location}
+ * in Solr format: {@code coding, programming} makes words equivalent, {@code maths => mathematics}
+ * rewrites one into the other.
+ * <p>
+ * Elasticsearch keeps the rules as the managed {@value #SET_ID} synonyms set, which only the search
+ * analyzer reads, so publishing new rules takes effect without a reindex. The
+ * {@link EmbeddedCourseIndex} expands query words here, against whatever rules were last loaded;
+ * it only knows single-word rules, multi-word ones apply in Elasticsearch alone.
+ */
+@Component
+public class SynonymSet {
+
+    public static final String SET_ID = "course-synonyms";
+
+    private final Resource location;
+    private volatile Rules rules;
+
+    @Autowired
+    public SynonymSet(@Value("${skillseeker.search.synonyms.location:classpath:elasticsearch/synonyms.txt}") Resource location) {
+        this.location = location;
+        this.rules = read(location);
+    }
+
+    /**
+     * The bundled rules, for code that runs outside the application context.
+     */
+    public static SynonymSet defaults() {
+        return new SynonymSet(new ClassPathResource("elasticsearch/synonyms.txt"));
+    }
+
+    /**
+     * Re-reads the rules; the current ones stay in place if that fails.
+     */
+    public void reload() {
+        rules = read(location);
+    }
+
+    /**
+     * The rules as written, one per line, without comments and blank lines.
+     */
+    public List<String> rules() {
+        return rules.lines();
+    }
+
+    /**
+     * The folded words a folded search word is searched as, itself included unless a rule rewrites it.
+     */
+    List<String> expand(String token) {
+        return rules.expansions().getOrDefault(token, List.of(token));
+    }
+
+    private static Rules read(Resource location) {
+        List<String> lines = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(location.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (!line.isEmpty() && !line.startsWith("#")) {
+                    lines.add(line);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read synonyms from " + location, e);
+        }
+        return parse(lines);
+    }
+
+    static Rules parse(List<String> lines) {
+        Map<String, Set<String>> expansions = new HashMap<>();
+        for (String line : lines) {
+            int arrow = line.indexOf("=>");
+            List<String> from = words(arrow < 0 ? line : line.substring(0, arrow));
+            List<String> to = arrow < 0 ? from : words(line.substring(arrow + 2));
+            if (from.isEmpty() || to.isEmpty()) {
+                throw new IllegalArgumentException("Invalid synonym rule: " + line);
+            }
+            for (String word : from) {
+                if (word != null) {
+                    for (String synonym : to) {
+                        if (synonym != null) {
+                            expansions.computeIfAbsent(word, w -> new LinkedHashSet<>()).add(synonym);
+                        }
+                    }
+                }
+            }
+        }
+        Map<String, List<String>> frozen = new HashMap<>();
+        expansions.forEach((word, synonyms) -> frozen.put(word, List.copyOf(synonyms)));
+        return new Rules(List.copyOf(lines), frozen);
+    }
+
+    // Each comma-separated term folded to one word, or null for a multi-word term
+    private static List<String> words(String terms) {
+        List<String> words = new ArrayList<>();
+        for (String term : terms.split(",")) {
+            List<String> tokens = CourseAnalyzer.tokens(term);
+            if (!tokens.isEmpty()) {
+                words.add(tokens.size() == 1 ? tokens.get(0) : null);
+            }
+        }
+        return words;
+    }
+
+    record Rules(List<String> lines, Map<String, List<String>> expansions) {
+    }
+}
@@ -0,0 +1,144 @@
+package com.Shubham.projects.SkillSeeker.Service;
+
+import com.Shubham.projects.SkillSeeker.Document.CourseDocument;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.elasticsearch.annotations.Document;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * The tenants whose catalogs are hosted here, from {@code skillseeker.tenants}. A tenant listed as
+ * {@code dedicated} gets an index of its own behind the {@code courses-<tenant>} alias. Every other
+ * declared tenant, the default one included, shares the {@code courses} index, where its courses are
+ * routed by tenant id so that a search for it reads a single shard.
+ * <p>
+ * Only declared tenants are served: caches and metrics are partitioned per tenant, so the set has to
+ * stay bounded, and a request for any other tenant is rejected.
+ */
+@Component
+public class TenantRegistry {
+
+    // Part of index names, which must be lower case
+    private static final Pattern TENANT_ID = Pattern.compile("[a-z0-9][a-z0-9_-]{0,39}");
+
+    private final String defaultTenant;
+    private final String sharedAlias;
+    private final Map<String, TenantRoute> routes = new LinkedHashMap<>();
+
+    @Autowired
+    public TenantRegistry(@Value("${skillseeker.tenants.default:default}") String defaultTenant,
+                          @Value("${skillseeker.tenants.shared:}") List<String> shared,
+                          @Value("${skillseeker.tenants.dedicated:}") List<String> dedicated) {
+        this.defaultTenant = validate(defaultTenant);
+        this.sharedAlias = CourseDocument.class.getAnnotation(Document.class).indexName();
+        List<String> sharedTenants = new ArrayList<>();
+        sharedTenants.add(this.defaultTenant);
+        sharedTenants.addAll(shared);
+        for (String tenant : sharedTenants) {
+            if (tenant != null && !tenant.isBlank()) {
+                String id = validate(tenant);
+                routes.putIfAbsent(id, new TenantRoute(id, sharedAlias, id));
+            }
+        }
+        for (String tenant : dedicated) {
+            if (tenant != null && !tenant.isBlank()) {
+                String id = validate(tenant);
+                // Dedicated wins over shared, the default tenant included
+                routes.put(id, new TenantRoute(id, sharedAlias + "-" + id, null));
+            }
+        }
+    }
+
+    /**
+     * Only the default tenant, in the shared index; for code that runs outside the application context.
+     */
+    public static TenantRegistry single() {
+        return new TenantRegistry("default", List.of(), List.of());
+    }
+
+    public String defaultTenant() {
+        return defaultTenant;
+    }
+
+    /**
+     * The alias of the index that the shared tenants' courses are routed within.
+     */
+    public String sharedAlias() {
+        return sharedAlias;
+    }
+
+    public Set<String> tenants() {
+        return Collections.unmodifiableSet(routes.keySet());
+    }
+
+    public Collection<TenantRoute> routes() {
+        return Collections.unmodifiableCollection(routes.values());
+    }
+
+    /**
+     * Each alias with the tenants it holds, the shared one first.
+     */
+    public Map<String, Set<String>> aliases() {
+        Map<String, Set<String>> aliases = new LinkedHashMap<>();
+        aliases.put(sharedAlias, new LinkedHashSet<>());
+        for (TenantRoute route : routes.values()) {
+            aliases.computeIfAbsent(route.alias(), a -> new LinkedHashSet<>()).add(route.tenant());
+        }
+        aliases.values().removeIf(Set::isEmpty);
+        return aliases;
+    }
+
+    /**
+     * The declared tenant a request names, or the default tenant when it names none.
+     *
+     * @throws IllegalArgumentException for a tenant that is not declared
+     */
+    public String resolve(String tenant) {
+        if (tenant == null || tenant.isBlank()) {
+            return defaultTenant;
+        }
+        String id = tenant.trim().toLowerCase(Locale.ROOT);
+        if (!routes.containsKey(id)) {
+            throw new IllegalArgumentException("Unknown tenant '" + tenant.trim() + "'");
+        }
+        return id;
+    }
+
+    /**
+     * @throws IllegalArgumentException for a tenant that is not declared
+     */
+    public TenantRoute route(String tenant) {
+        return routes.get(resolve(tenant));
+    }
+
+    /**
+     * Gives a course that names no tenant the default one, and returns where it is indexed.
+     *
+     * @throws IllegalArgumentException when the course names a tenant that is not declared
+     */
+    public TenantRoute assign(CourseDocument course) {
+        TenantRoute route = route(course.getTenant());
+        course.setTenant(route.tenant());
+        return route;
+    }
+
+    private static String validate(String tenant) {
+        String id = tenant.trim().toLowerCase(Locale.ROOT);
+        if (!TENANT_ID.matcher(id).matches()) {
+            throw new IllegalArgumentException("Invalid tenant id '" + tenant + "': expected lower-case letters, "
+                    + "digits, '-' or '_', at most 40 characters");
+        }
+        return id;
+    }
+}
@@ -0,0 +1,30 @@
+package com.Shubham.projects.SkillSeeker.Service;
+
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.BaseQuery;
+
+/**
+ * Where a tenant's courses live: the alias that searches and writes go to, and the {@code _routing}
+ * value its courses carry there. Routing is null in a dedicated index, whose courses are spread over
+ * every shard.
+ */
+public record TenantRoute(String tenant, String alias, String routing) {
+
+    public boolean isShared() {
+        return routing != null;
+    }
+
+    public IndexCoordinates index() {
+        return IndexCoordinates.of(alias);
+    }
+
+    /**
+     * Sends the query only to the shard that holds the tenant's courses.
+     */
+    public <Q extends BaseQuery> Q apply(Q query) {
+        if (routing != null) {
+            query.setRoute(routing);
+        }
+        return query;
+    }
+}
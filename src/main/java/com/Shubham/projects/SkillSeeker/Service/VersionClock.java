@@ -0,0 +1,25 @@
+package com.Shubham.projects.SkillSeeker.Service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * External versions for writes to the course indices. Catalog syncs and API writes take theirs from
+ * the same clock, so whichever write was made last wins in Elasticsearch, and a write that loses a
+ * race with a newer one is rejected instead of overwriting it.
+ */
+@Component
+public class VersionClock {
+
+    private final AtomicLong lastVersion = new AtomicLong();
+
+    /**
+     * Microseconds since the epoch, bumped when needed so that no two writes share a version.
+     */
+    public long next() {
+        long now = TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis());
+        return lastVersion.updateAndGet(last -> Math.max(last + 1, now));
+    }
+}
@@ -1,13 +1,39 @@
 package com.Shubham.projects.SkillSeeker;
 
+import com.Shubham.projects.SkillSeeker.Dto.SearchRequestDto;
+import com.Shubham.projects.SkillSeeker.Dto.SearchResponseDto;
+import com.Shubham.projects.SkillSeeker.Service.CourseService;
+import com.Shubham.projects.SkillSeeker.Service.EmbeddedSearchEngine;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+import java.time.Duration;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+
+// The embedded engine serves searches, so the tests run without an Elasticsearch node
+@SpringBootTest(properties = "skillseeker.search.backend=embedded")
 class ApplicationTests {
 
+	@Autowired
+	private CourseService courseService;
+
+	@Autowired
+	private EmbeddedSearchEngine embeddedSearchEngine;
+
 	@Test
 	void contextLoads() {
 	}
 
+	@Test
+	void searchesWithoutElasticsearch() {
+		await().atMost(Duration.ofSeconds(10)).until(embeddedSearchEngine::isReady);
+
+		SearchResponseDto response = courseService.searchCourses(SearchRequestDto.builder().q("physics").build());
+		assertEquals(4, response.getTotal());
+		assertEquals("embedded", response.getBackend());
+	}
+
 }
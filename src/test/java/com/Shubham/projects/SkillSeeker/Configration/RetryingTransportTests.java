@@ -0,0 +1,107 @@
+package com.Shubham.projects.SkillSeeker.Configration;
+
+import co.elastic.clients.elasticsearch._types.ElasticsearchException;
+import co.elastic.clients.elasticsearch._types.ErrorResponse;
+import co.elastic.clients.elasticsearch.core.InfoRequest;
+import co.elastic.clients.json.JsonpMapper;
+import co.elastic.clients.transport.ElasticsearchTransport;
+import co.elastic.clients.transport.Endpoint;
+import co.elastic.clients.transport.TransportOptions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RetryingTransportTests {
+
+	@Test
+	void retriesRejectionsUntilTheyStop() throws Exception {
+		FlakyTransport flaky = new FlakyTransport(2, 429);
+		RetryingTransport transport = new RetryingTransport(flaky, 3, Duration.ofMillis(1), Duration.ofMillis(5));
+
+		transport.performRequest(InfoRequest._INSTANCE, InfoRequest._ENDPOINT, null);
+		assertEquals(3, flaky.calls.get());
+
+		FlakyTransport unavailable = new FlakyTransport(1, 503);
+		new RetryingTransport(unavailable, 3, Duration.ofMillis(1), Duration.ofMillis(5))
+				.performRequestAsync(InfoRequest._INSTANCE, InfoRequest._ENDPOINT, null).get();
+		assertEquals(2, unavailable.calls.get());
+	}
+
+	@Test
+	void givesUpAfterMaxAttemptsAndNeverRetriesBadRequests() {
+		FlakyTransport rejected = new FlakyTransport(5, 429);
+		assertThrows(ElasticsearchException.class, () ->
+				new RetryingTransport(rejected, 3, Duration.ofMillis(1), Duration.ofMillis(5))
+						.performRequest(InfoRequest._INSTANCE, InfoRequest._ENDPOINT, null));
+		assertEquals(3, rejected.calls.get());
+
+		FlakyTransport badRequest = new FlakyTransport(5, 400);
+		assertThrows(ElasticsearchException.class, () ->
+				new RetryingTransport(badRequest, 3, Duration.ofMillis(1), Duration.ofMillis(5))
+						.performRequest(InfoRequest._INSTANCE, InfoRequest._ENDPOINT, null));
+		assertEquals(1, badRequest.calls.get());
+	}
+
+	@Test
+	void backoffGrowsAndIsCapped() {
+		RetryingTransport transport = new RetryingTransport(new FlakyTransport(0, 0), 5,
+				Duration.ofMillis(100), Duration.ofMillis(1000));
+
+		long first = transport.backoffMillis(1);
+		long late = transport.backoffMillis(10);
+		assertTrue(first >= 50 && first <= 100);
+		assertTrue(late >= 500 && late <= 1000);
+	}
+
+	/** Fails the first {@code failures} calls with {@code status}, then succeeds with an empty response. */
+	private static class FlakyTransport implements ElasticsearchTransport {
+
+		private final int failures;
+		private final int status;
+		private final AtomicInteger calls = new AtomicInteger();
+
+		FlakyTransport(int failures, int status) {
+			this.failures = failures;
+			this.status = status;
+		}
+
+		@Override
+		public <RequestT, ResponseT, ErrorT> ResponseT performRequest(RequestT request,
+				Endpoint<RequestT, ResponseT, ErrorT> endpoint, TransportOptions options) {
+			if (calls.incrementAndGet() <= failures) {
+				throw new ElasticsearchException("info", ErrorResponse.of(e -> e
+						.status(status)
+						.error(c -> c.type("test").reason("status " + status))));
+			}
+			return null;
+		}
+
+		@Override
+		public <RequestT, ResponseT, ErrorT> CompletableFuture<ResponseT> performRequestAsync(RequestT request,
+				Endpoint<RequestT, ResponseT, ErrorT> endpoint, TransportOptions options) {
+			try {
+				return CompletableFuture.completedFuture(performRequest(request, endpoint, options));
+			} catch (RuntimeException e) {
+				return CompletableFuture.failedFuture(e);
+			}
+		}
+
+		@Override
+		public JsonpMapper jsonpMapper() {
+			return null;
+		}
+
+		@Override
+		public TransportOptions options() {
+			return null;
+		}
+
+		@Override
+		public void close() {
+		}
+	}
+}
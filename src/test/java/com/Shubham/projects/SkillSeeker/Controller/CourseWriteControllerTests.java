@@ -0,0 +1,85 @@
+package com.Shubham.projects.SkillSeeker.Controller;
+
+import com.Shubham.projects.SkillSeeker.Dto.CourseDto;
+import com.Shubham.projects.SkillSeeker.Exception.SearchFailedException;
+import com.Shubham.projects.SkillSeeker.Exception.SearchFailure;
+import com.Shubham.projects.SkillSeeker.Service.CourseWriteService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class CourseWriteControllerTests {
+
+	private final CourseWriteService courseWriteService = mock(CourseWriteService.class);
+	private MockMvc mvc;
+
+	@BeforeEach
+	void setUp() {
+		CourseWriteController controller = new CourseWriteController();
+		ReflectionTestUtils.setField(controller, "courseWriteService", courseWriteService);
+		mvc = MockMvcBuilders.standaloneSetup(controller)
+				.setControllerAdvice(new ApiExceptionHandler())
+				.build();
+	}
+
+	@Test
+	void answersACreateOnceQueuedOrOnceSearchable() throws Exception {
+		CourseDto course = new CourseDto();
+		course.setId("1");
+		when(courseWriteService.create(any(), any(), anyBoolean())).thenReturn(CompletableFuture.completedFuture(course));
+
+		MvcResult queued = mvc.perform(post("/api/courses").contentType(MediaType.APPLICATION_JSON).content("{}"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		mvc.perform(asyncDispatch(queued))
+				.andExpect(status().isAccepted())
+				.andExpect(header().string("Location", "/api/courses/1"))
+				.andExpect(jsonPath("$.id").value("1"));
+
+		MvcResult searchable = mvc.perform(post("/api/courses?refresh=wait_for").contentType(MediaType.APPLICATION_JSON).content("{}"))
+				.andReturn();
+		mvc.perform(asyncDispatch(searchable))
+				.andExpect(status().isCreated());
+	}
+
+	@Test
+	void turnsWritesAwayWithRetryAfterWhenOverloaded() throws Exception {
+		when(courseWriteService.create(any(), any(), anyBoolean())).thenThrow(
+				new SearchFailedException("Too many course writes are queued", SearchFailure.OVERLOADED, Duration.ofMillis(1500)));
+
+		mvc.perform(post("/api/courses").contentType(MediaType.APPLICATION_JSON).content("{}"))
+				.andExpect(status().isServiceUnavailable())
+				.andExpect(header().string("Retry-After", "2"));
+	}
+
+	@Test
+	void mapsDeleteFailures() throws Exception {
+		when(courseWriteService.delete(any(), eq("9"), anyBoolean())).thenThrow(
+				new SearchFailedException("Course '9' does not exist", SearchFailure.NOT_FOUND));
+
+		mvc.perform(delete("/api/courses/9"))
+				.andExpect(status().isNotFound());
+		mvc.perform(delete("/api/courses/9?refresh=true"))
+				.andExpect(status().isBadRequest());
+	}
+}
@@ -0,0 +1,112 @@
+package com.Shubham.projects.SkillSeeker.Service;
+
+import com.Shubham.projects.SkillSeeker.Exception.SearchFailure;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdmissionControlTests {
+
+	private static final long MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+	@Test
+	void tokenBucketAllowsTheBurstThenRefillsAtTheRate() {
+		ClientRateLimiter limiter = new ClientRateLimiter(true, 10, 3, 50, 100, 1000, Duration.ofMinutes(1));
+		long now = 0;
+
+		for (int i = 0; i < 3; i++) {
+			assertNull(limiter.tryAcquire("alice", AdmissionLane.SEARCH, now));
+		}
+		Duration wait = limiter.tryAcquire("alice", AdmissionLane.SEARCH, now);
+		assertNotNull(wait);
+		assertEquals(100, wait.toMillis());
+
+		// Other clients and the other lane have their own buckets
+		assertNull(limiter.tryAcquire("bob", AdmissionLane.SEARCH, now));
+		assertNull(limiter.tryAcquire("alice", AdmissionLane.SUGGEST, now));
+
+		// 10 per second: one token back after 100 ms, and never more than the burst
+		assertNull(limiter.tryAcquire("alice", AdmissionLane.SEARCH, now + 100 * MILLI));
+		assertNotNull(limiter.tryAcquire("alice", AdmissionLane.SEARCH, now + 100 * MILLI));
+		long later = now + 60_000 * MILLI;
+		for (int i = 0; i < 3; i++) {
+			assertNull(limiter.tryAcquire("alice", AdmissionLane.SEARCH, later));
+		}
+		assertNotNull(limiter.tryAcquire("alice", AdmissionLane.SEARCH, later));
+	}
+
+	@Test
+	void suggestionsCannotTakeMoreThanTheirShare() {
+		AdaptiveConcurrencyLimiter limiter = limiter(8, 8, 8);
+		List<AdaptiveConcurrencyLimiter.Permit> suggestions = new ArrayList<>();
+		AdaptiveConcurrencyLimiter.Permit permit;
+		while ((permit = limiter.tryAcquire(AdmissionLane.SUGGEST)) != null) {
+			suggestions.add(permit);
+		}
+		assertEquals(2, suggestions.size());
+
+		List<AdaptiveConcurrencyLimiter.Permit> searches = new ArrayList<>();
+		while ((permit = limiter.tryAcquire(AdmissionLane.SEARCH)) != null) {
+			searches.add(permit);
+		}
+		assertEquals(6, searches.size());
+		assertEquals(8, limiter.getInFlight());
+
+		searches.get(0).release(null);
+		assertNull(limiter.tryAcquire(AdmissionLane.SUGGEST));
+		assertNotNull(limiter.tryAcquire(AdmissionLane.SEARCH));
+
+		assertEquals(SearchFailure.OVERLOADED, limiter.overloaded(AdmissionLane.SEARCH).getFailure());
+		assertEquals(Duration.ofSeconds(1), limiter.overloaded(AdmissionLane.SEARCH).getRetryAfter());
+	}
+
+	@Test
+	void limitGrowsWhileLatencyHoldsAndShrinksWhenItRises() {
+		AdaptiveConcurrencyLimiter limiter = limiter(20, 4, 200);
+
+		// Saturated at steady latency: the limit probes upwards
+		feed(limiter, 10, 10 * MILLI, 20);
+		int grown = limiter.getLimit();
+		assertTrue(grown > 20, "limit " + grown);
+
+		// Few calls in flight: latency says nothing about the cluster, so the limit holds
+		feed(limiter, 5, 10 * MILLI, 2);
+		assertEquals(grown, limiter.getLimit());
+
+		// Latency far above the long-run average: the limit comes down
+		feed(limiter, 10, 100 * MILLI, grown);
+		assertTrue(limiter.getLimit() < grown, "limit " + limiter.getLimit());
+	}
+
+	@Test
+	void rejectionsBackOffOncePerGeneration() {
+		AdaptiveConcurrencyLimiter limiter = limiter(100, 4, 200);
+		long start = System.nanoTime();
+
+		limiter.onSample(start, 10 * MILLI, 100, true);
+		assertEquals(90, limiter.getLimit());
+
+		// Calls admitted before that backoff fail together; they do not cut the limit again
+		limiter.onSample(start, 10 * MILLI, 100, true);
+		limiter.onSample(start, 10 * MILLI, 100, true);
+		assertEquals(90, limiter.getLimit());
+
+		limiter.onSample(System.nanoTime(), 10 * MILLI, 90, true);
+		assertEquals(81, limiter.getLimit());
+	}
+
+	private static AdaptiveConcurrencyLimiter limiter(int initial, int min, int max) {
+		return new AdaptiveConcurrencyLimiter(true, initial, min, max, 0.25, 1.5, 0.9, 10, 50, Duration.ofSeconds(1));
+	}
+
+	private static void feed(AdaptiveConcurrencyLimiter limiter, int windows, long rttNanos, int inFlight) {
+		for (int i = 0; i < windows * 10; i++) {
+			limiter.onSample(System.nanoTime(), rttNanos, inFlight, false);
+		}
+	}
+}
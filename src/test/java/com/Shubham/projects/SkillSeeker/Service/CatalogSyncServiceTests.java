@@ -0,0 +1,201 @@
+package com.Shubham.projects.SkillSeeker.Service;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch.core.BulkRequest;
+import co.elastic.clients.elasticsearch.core.BulkResponse;
+import co.elastic.clients.elasticsearch.core.bulk.BulkOperation;
+import co.elastic.clients.elasticsearch.core.bulk.BulkResponseItem;
+import co.elastic.clients.elasticsearch.core.bulk.OperationType;
+import co.elastic.clients.util.ObjectBuilder;
+import com.Shubham.projects.SkillSeeker.Document.CourseDocument;
+import com.Shubham.projects.SkillSeeker.Dto.SyncReportDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.IndexOperations;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.convert.ElasticsearchConverter;
+import org.springframework.data.elasticsearch.core.document.Document;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CatalogSyncServiceTests {
+
+	private static final String CATALOG = """
+			[
+			  {"id": "1", "title": "Introduction to Physics", "category": "Science"},
+			  {"id": "2", "title": "Advanced Chemistry", "category": "Science"},
+			  {"id": "3", "title": "Watercolor Basics", "category": "Art"},
+			  {"id": "5", "title": "Robotics Club", "category": "Technology"}
+			]
+			""";
+
+	private final ElasticsearchOperations operations = mock(ElasticsearchOperations.class);
+	private final ElasticsearchClient client = mock(ElasticsearchClient.class);
+	private final EmbeddedSearchEngine embeddedSearchEngine = mock(EmbeddedSearchEngine.class);
+	private final List<BulkOperation> sent = new ArrayList<>();
+	private boolean failNextBulk;
+
+	private CatalogSyncService service;
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void setUp() throws IOException {
+		CourseIndexService courseIndexService = mock(CourseIndexService.class);
+		when(courseIndexService.getAliases()).thenReturn(Map.of("courses", Set.of("default")));
+		SuggestionIndex suggestionIndex = mock(SuggestionIndex.class);
+		when(suggestionIndex.isReady()).thenReturn(true);
+
+		IndexOperations indexOps = mock(IndexOperations.class);
+		when(operations.indexOps(any(IndexCoordinates.class))).thenReturn(indexOps);
+		when(operations.indexOps(CourseDocument.class)).thenReturn(indexOps);
+		ElasticsearchConverter converter = mock(ElasticsearchConverter.class);
+		when(converter.mapObject(any())).thenReturn(Document.create());
+		when(operations.getElasticsearchConverter()).thenReturn(converter);
+		when(operations.multiGet(any(Query.class), eq(CourseDocument.class), any(IndexCoordinates.class)))
+				.thenReturn(List.of());
+
+		when(client.bulk(any(Function.class))).thenAnswer(invocation -> {
+			if (failNextBulk) {
+				failNextBulk = false;
+				throw new ConnectException("Connection refused");
+			}
+			Function<BulkRequest.Builder, ObjectBuilder<BulkRequest>> request = invocation.getArgument(0);
+			List<BulkOperation> operations = request.apply(new BulkRequest.Builder()).build().operations();
+			sent.addAll(operations);
+			return BulkResponse.of(r -> r.took(1).errors(false).items(operations.stream()
+					.map(o -> BulkResponseItem.of(i -> i
+							.operationType(o.isIndex() ? OperationType.Index : OperationType.Delete)
+							.index("courses")
+							.id(o.isIndex() ? o.index().id() : o.delete().id())
+							.status(200)))
+					.toList()));
+		});
+
+		service = new CatalogSyncService();
+		ReflectionTestUtils.setField(service, "elasticsearchOperations", operations);
+		ReflectionTestUtils.setField(service, "elasticsearchClient", client);
+		ReflectionTestUtils.setField(service, "courseIndexService", courseIndexService);
+		ReflectionTestUtils.setField(service, "searchResultCache", mock(SearchResultCache.class));
+		ReflectionTestUtils.setField(service, "suggestionIndex", suggestionIndex);
+		ReflectionTestUtils.setField(service, "embeddedSearchEngine", embeddedSearchEngine);
+		ReflectionTestUtils.setField(service, "searchMetrics", mock(SearchMetrics.class));
+		ReflectionTestUtils.setField(service, "tenantRegistry", TenantRegistry.single());
+		ReflectionTestUtils.setField(service, "versionClock", new VersionClock());
+		ReflectionTestUtils.setField(service, "engagementCollector", mock(EngagementCollector.class));
+		ReflectionTestUtils.setField(service, "batchSize", 1000);
+	}
+
+	@Test
+	void writesOnlyChangedCoursesAndDeletesMissingOnes() throws IOException {
+		catalog(CATALOG);
+		indexed(List.of(
+				// Unchanged, edited since, removed from the catalog
+				TestHits.hit("1", "default", indexedCourse("1", hashInCatalog("1"), null)),
+				TestHits.hit("2", "default", indexedCourse("2", "stale-hash", null)),
+				TestHits.hit("4", "default", indexedCourse("4", "hash-4", null)),
+				// Written through the course API, listed in the catalog or not
+				TestHits.hit("5", "default", indexedCourse("5", "api-hash", CourseWriteBuffer.API_ORIGIN)),
+				TestHits.hit("6", "default", indexedCourse("6", "api-hash", CourseWriteBuffer.API_ORIGIN))));
+
+		SyncReportDto report = service.sync();
+
+		assertEquals(4, report.getScanned());
+		assertEquals(2, report.getUnchanged());
+		assertEquals(2, report.getUpserted());
+		assertEquals(1, report.getDeleted());
+		assertEquals(0, report.getFailed());
+		assertEquals(List.of("2", "3"), sent.stream().filter(BulkOperation::isIndex).map(o -> o.index().id()).toList());
+		assertEquals(List.of("4"), sent.stream().filter(BulkOperation::isDelete).map(o -> o.delete().id()).toList());
+		assertTrue(sent.stream().allMatch(o -> "default".equals(o.isIndex() ? o.index().routing() : o.delete().routing())));
+		verify(embeddedSearchEngine).remove("4");
+	}
+
+	@Test
+	void keepsIndexedCoursesWhenTheCatalogIsEmpty() {
+		catalog("[]");
+		indexed(List.of(TestHits.hit("1", "default", indexedCourse("1", "hash-1", null))));
+
+		SyncReportDto report = service.sync();
+
+		assertEquals(0, report.getDeleted());
+		assertTrue(sent.isEmpty());
+		verify(embeddedSearchEngine, never()).remove(any());
+	}
+
+	@Test
+	void keepsADeltaFileWhileElasticsearchIsDown(@TempDir Path directory) throws IOException {
+		Files.createDirectories(directory.resolve("processed"));
+		Files.createDirectories(directory.resolve("failed"));
+		Path file = Files.writeString(directory.resolve("001.ndjson"), """
+				{"id": "7", "title": "Pottery"}
+				{"id": "4", "deleted": true}
+				""");
+		DeltaDirectoryWatcher watcher = new DeltaDirectoryWatcher();
+		ReflectionTestUtils.setField(watcher, "catalogSyncService", service);
+		ReflectionTestUtils.setField(watcher, "retryInterval", Duration.ofSeconds(30));
+		failNextBulk = true;
+
+		assertFalse(watcher.applyPending(directory));
+		assertTrue(Files.exists(file));
+		assertTrue(sent.isEmpty());
+
+		assertTrue(watcher.applyPending(directory));
+		assertTrue(Files.exists(directory.resolve("processed").resolve("001.ndjson")));
+		assertEquals(2, sent.size());
+	}
+
+	private void catalog(String json) {
+		ReflectionTestUtils.setField(service, "catalog", new ByteArrayResource(json.getBytes(StandardCharsets.UTF_8)));
+	}
+
+	private void indexed(List<SearchHit<CourseDocument>> hits) {
+		when(operations.searchForStream(any(Query.class), eq(CourseDocument.class), any(IndexCoordinates.class)))
+				.thenReturn(TestHits.iterator(hits, () -> { }));
+	}
+
+	private static String hashInCatalog(String id) throws IOException {
+		try (CourseJsonReader reader = new CourseJsonReader(new ByteArrayInputStream(CATALOG.getBytes(StandardCharsets.UTF_8)))) {
+			CourseDocument course;
+			while ((course = reader.next()) != null) {
+				if (course.getId().equals(id)) {
+					return course.getContentHash();
+				}
+			}
+		}
+		throw new IllegalArgumentException("No course " + id + " in the catalog");
+	}
+
+	private static CourseDocument indexedCourse(String id, String hash, String origin) {
+		CourseDocument course = new CourseDocument();
+		course.setId(id);
+		course.setTenant("default");
+		course.setContentHash(hash);
+		course.setOrigin(origin);
+		return course;
+	}
+}
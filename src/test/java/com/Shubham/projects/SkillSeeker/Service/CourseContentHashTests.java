@@ -0,0 +1,64 @@
+package com.Shubham.projects.SkillSeeker.Service;
+
+import com.Shubham.projects.SkillSeeker.Document.CourseDocument;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CourseContentHashTests {
+
+	@Test
+	void hashChangesOnlyWithCatalogFields() {
+		CourseDocument course = course();
+		String hash = CourseContentHash.of(course);
+		assertEquals(32, hash.length());
+		assertEquals(hash, CourseContentHash.of(course()));
+
+		// Derived fields do not count
+		course.setSuggest(null);
+		course.setContentHash("stale");
+		assertEquals(hash, CourseContentHash.of(course));
+
+		course.setPrice(121.0);
+		assertNotEquals(hash, CourseContentHash.of(course));
+
+		CourseDocument blank = course();
+		blank.setDescription("");
+		CourseDocument missing = course();
+		missing.setDescription(null);
+		assertNotEquals(CourseContentHash.of(blank), CourseContentHash.of(missing));
+	}
+
+	@Test
+	void readerHashesCoursesAndFlagsDeletes() throws Exception {
+		String ndjson = """
+				{"id":"a","title":"Chess","price":120.0,"nextSessionDate":"2025-08-01"}
+				{"id":"b","deleted":true}
+				""";
+		try (CourseJsonReader reader = new CourseJsonReader(
+				new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)))) {
+			CourseDocument upsert = reader.next();
+			assertEquals(CourseContentHash.of(upsert), upsert.getContentHash());
+			assertFalse(reader.lastDeleted());
+
+			CourseDocument delete = reader.next();
+			assertEquals("b", delete.getId());
+			assertTrue(reader.lastDeleted());
+		}
+	}
+
+	private static CourseDocument course() {
+		CourseDocument course = new CourseDocument();
+		course.setId("a");
+		course.setTitle("Chess");
+		course.setDescription("Openings and endgames");
+		course.setPrice(120.0);
+		course.setNextSessionDate(LocalDate.of(2025, 8, 1));
+		course.setSuggestFromTitle();
+		return course;
+	}
+}
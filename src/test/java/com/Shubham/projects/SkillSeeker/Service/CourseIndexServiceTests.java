@@ -0,0 +1,80 @@
+package com.Shubham.projects.SkillSeeker.Service;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch.indices.ElasticsearchIndicesClient;
+import co.elastic.clients.elasticsearch.indices.GetMappingResponse;
+import co.elastic.clients.elasticsearch.indices.get_mapping.IndexMappingRecord;
+import co.elastic.clients.json.JsonData;
+import co.elastic.clients.transport.endpoints.BooleanResponse;
+import com.Shubham.projects.SkillSeeker.Document.CourseDocument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.IndexOperations;
+import org.springframework.data.elasticsearch.core.document.Document;
+import org.springframework.data.elasticsearch.core.index.Settings;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CourseIndexServiceTests {
+
+	private final ElasticsearchIndicesClient indices = mock(ElasticsearchIndicesClient.class);
+	private final IndexOperations template = mock(IndexOperations.class);
+	private final CourseIndexService service = new CourseIndexService();
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void setUp() throws IOException {
+		ElasticsearchClient client = mock(ElasticsearchClient.class);
+		when(client.indices()).thenReturn(indices);
+		when(indices.existsAlias(any(Function.class))).thenReturn(new BooleanResponse(true));
+		ElasticsearchOperations operations = mock(ElasticsearchOperations.class);
+		when(operations.indexOps(CourseDocument.class)).thenReturn(template);
+		analysis("course_text");
+
+		ReflectionTestUtils.setField(service, "elasticsearchClient", client);
+		ReflectionTestUtils.setField(service, "elasticsearchOperations", operations);
+		ReflectionTestUtils.setField(service, "tenantRegistry", TenantRegistry.single());
+	}
+
+	@Test
+	void rebuildsIndicesCreatedWithOtherAnalysisSettings() throws IOException {
+		indexed(service.analysisFingerprint());
+		assertEquals(List.of(), service.getStaleAliases());
+
+		// course-settings.json changed since the index was created
+		analysis("course_text_v2");
+		assertEquals(List.of("courses"), service.getStaleAliases());
+
+		// Created before indices recorded their analysis settings
+		indexed(null);
+		assertEquals(List.of("courses"), service.getStaleAliases());
+	}
+
+	private void analysis(String analyzer) {
+		Settings settings = new Settings();
+		settings.put("index.analysis.analyzer." + analyzer + ".type", "custom");
+		when(template.createSettings()).thenReturn(settings);
+		when(template.createMapping()).thenReturn(Document.create());
+	}
+
+	@SuppressWarnings("unchecked")
+	private void indexed(String fingerprint) throws IOException {
+		IndexMappingRecord index = IndexMappingRecord.of(r -> r.mappings(m -> {
+			m.properties("tenant", p -> p.keyword(k -> k));
+			if (fingerprint != null) {
+				m.meta(CourseIndexService.ANALYSIS_META, JsonData.of(fingerprint));
+			}
+			return m;
+		}));
+		when(indices.getMapping(any(Function.class))).thenReturn(GetMappingResponse.of(g -> g.result("courses_v1", index)));
+	}
+}
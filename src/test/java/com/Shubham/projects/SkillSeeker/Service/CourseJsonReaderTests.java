@@ -0,0 +1,75 @@
+package com.Shubham.projects.SkillSeeker.Service;
+
+import com.Shubham.projects.SkillSeeker.Document.CourseDocument;
+import com.Shubham.projects.SkillSeeker.Document.CourseSession;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CourseJsonReaderTests {
+
+	@Test
+	void readsSampleCatalog() throws Exception {
+		int count = 0;
+		try (InputStream in = new ClassPathResource("sample-courses.json").getInputStream();
+			 CourseJsonReader reader = new CourseJsonReader(in)) {
+			CourseDocument course;
+			while ((course = reader.next()) != null) {
+				assertNotNull(course.getId());
+				assertNotNull(course.getNextSessionDate());
+				assertNotNull(course.getSuggest());
+				assertTrue(reader.lastDocumentBytes() > 0);
+				count++;
+			}
+		}
+		assertEquals(52, count);
+	}
+
+	@Test
+	void readsNewlineDelimitedJson() throws Exception {
+		String ndjson = """
+				{"id":"a","title":"Chess","minAge":7,"price":10,"nextSessionDate":"2025-08-01","extra":{"x":[1,2]}}
+				{"id":"b","title":"Piano","nextSessionDate":"2025-08-02T09:30:00Z"}
+				""";
+		try (CourseJsonReader reader = new CourseJsonReader(
+				new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)))) {
+			CourseDocument first = reader.next();
+			assertEquals("a", first.getId());
+			assertEquals(7, first.getMinAge());
+			assertEquals(10.0, first.getPrice());
+			assertEquals(LocalDate.of(2025, 8, 1), first.getNextSessionDate());
+
+			CourseDocument second = reader.next();
+			assertEquals("Piano", second.getTitle());
+			assertEquals(LocalDate.of(2025, 8, 2), second.getNextSessionDate());
+			// Without a calendar the next session is the only one
+			assertEquals(List.of(new CourseSession(LocalDate.of(2025, 8, 2))), second.getSessions());
+
+			assertNull(reader.next());
+		}
+	}
+
+	@Test
+	void readsSessionsAndLocation() throws Exception {
+		String json = """
+				{"id":"a","sessions":["2025-08-15",{"startDate":"2025-08-01"},"2025-08-15T10:00:00Z"],
+				 "location":{"lat":12.97,"lon":77.59}}
+				""";
+		try (CourseJsonReader reader = new CourseJsonReader(
+				new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)))) {
+			CourseDocument course = reader.next();
+			assertEquals(List.of(new CourseSession(LocalDate.of(2025, 8, 1)), new CourseSession(LocalDate.of(2025, 8, 15))),
+					course.getSessions());
+			assertEquals(LocalDate.of(2025, 8, 1), course.getNextSessionDate());
+			assertEquals(12.97, course.getLocation().getLat());
+			assertEquals(77.59, course.getLocation().getLon());
+		}
+	}
+}
@@ -0,0 +1,169 @@
+package com.Shubham.projects.SkillSeeker.Service;
+
+import co.elastic.clients.elasticsearch._types.SortOptions;
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregation;
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import co.elastic.clients.elasticsearch._types.query_dsl.MultiMatchQuery;
+import com.Shubham.projects.SkillSeeker.Dto.SearchRequestDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.core.query.RescorerQuery;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CourseQueryBuilderTests {
+
+	private final CourseQueryBuilder builder = new CourseQueryBuilder(new QueryPlanner(1000, 4));
+
+	@Test
+	void facetFiltersMoveToPostFilter() {
+		NativeQuery query = builder.build(SearchRequestDto.builder()
+				.q("physics").category("Science").minPrice(100.0).facets(true)
+				.build());
+
+		assertNotNull(query.getFilter());
+		assertEquals(2, query.getFilter().bool().filter().size());
+		assertFalse(query.getQuery().bool().filter().stream().anyMatch(f -> f.isTerm() || f.isRange()));
+		assertEquals(6, query.getAggregations().size());
+	}
+
+	@Test
+	void facetIgnoresItsOwnFilter() {
+		NativeQuery query = builder.build(SearchRequestDto.builder()
+				.category("Science").type("COURSE").facets(true)
+				.build());
+
+		Aggregation category = query.getAggregations().get("category");
+		assertEquals(1, category.filter().bool().filter().size());
+		assertEquals("type", category.filter().bool().filter().get(0).term().field());
+		assertEquals(2, query.getAggregations().get("gradeRange").filter().bool().filter().size());
+	}
+
+	@Test
+	void plainSearchKeepsFiltersInQuery() {
+		NativeQuery query = builder.build(SearchRequestDto.builder().category("Science").build());
+
+		assertNull(query.getFilter());
+		assertTrue(query.getAggregations().isEmpty());
+		assertEquals(1, query.getQuery().constantScore().filter().bool().filter().size());
+	}
+
+	@Test
+	void textSearchIsOneMultiMatch() {
+		NativeQuery query = builder.build(SearchRequestDto.builder().q("physics").build());
+
+		MultiMatchQuery match = query.getQuery().bool().must().get(0).multiMatch();
+		assertEquals(1, query.getQuery().bool().must().size());
+		assertEquals(List.of("title^2", "description"), match.fields());
+		assertEquals("AUTO", match.fuzziness());
+		assertEquals(1000, query.getTrackTotalHitsUpTo());
+		// Courses deleted through the course API leave a tombstone that no search returns
+		assertEquals("deleted", query.getQuery().bool().mustNot().get(0).term().field());
+	}
+
+	@Test
+	void plannerSkipsFuzzinessForShortInput() {
+		QueryPlanner planner = new QueryPlanner(1000, 4);
+
+		assertEquals(QueryPlan.Shape.FILTER, planner.plan(SearchRequestDto.builder().q("  ").build()).shape());
+		assertFalse(planner.plan(SearchRequestDto.builder().q("ai").build()).isFuzzy());
+		assertEquals("cross_fields", planner.plan(SearchRequestDto.builder().q("ai art").build()).multiMatchType());
+
+		QueryPlan fuzzy = planner.plan(SearchRequestDto.builder().q("intro physics").build());
+		assertTrue(fuzzy.isFuzzy());
+		assertEquals("best_fields", fuzzy.multiMatchType());
+		assertEquals(1, fuzzy.prefixLength());
+	}
+
+	@Test
+	void prefixMatchingReplacesFuzziness() {
+		QueryPlanner planner = new QueryPlanner(1000, 0, true);
+		MultiMatchQuery match = new CourseQueryBuilder(planner)
+				.build(SearchRequestDto.builder().q("intro physics").build())
+				.getQuery().bool().must().get(0).multiMatch();
+		assertEquals(List.of("title^2", "description", "title.prefix"), match.fields());
+		assertNull(match.fuzziness());
+		assertEquals("cross_fields", match.type().jsonValue());
+
+		// Fuzzy plans leave the n-grams out
+		QueryPlan fuzzy = new QueryPlanner(1000, 4, true).plan(SearchRequestDto.builder().q("physics").build());
+		assertTrue(fuzzy.isFuzzy());
+		assertFalse(fuzzy.prefixMatch());
+	}
+
+	@Test
+	void sessionAndDistanceFiltersStayInFilterContext() {
+		NativeQuery query = builder.build(SearchRequestDto.builder()
+				.q("physics").lat(12.97).lon(77.59).radiusKm(10.0)
+				.sessionFrom(LocalDate.of(2025, 8, 1)).sessionTo(LocalDate.of(2025, 8, 14)).facets(true)
+				.build());
+
+		List<Query> filters = query.getQuery().bool().filter();
+		assertEquals(2, filters.size());
+		assertEquals("sessions.startDate", filters.get(0).range().field());
+		assertEquals("10.0km", filters.get(1).geoDistance().distance());
+		// Neither is a facet, so the post filter stays empty
+		assertNull(query.getFilter());
+	}
+
+	@Test
+	void sortsByDistanceAndByFirstSessionInTheWindow() {
+		SortOptions distance = builder.build(SearchRequestDto.builder()
+				.lat(12.97).lon(77.59).sort("distance").build()).getSortOptions().get(0);
+		assertEquals("location", distance.geoDistance().field());
+
+		SortOptions soonest = builder.build(SearchRequestDto.builder()
+				.sessionTo(LocalDate.of(2025, 8, 14)).sort("soonest").build()).getSortOptions().get(0);
+		assertEquals("sessions", soonest.field().nested().path());
+		assertEquals("now/d", soonest.field().nested().filter().range().gte().to(String.class));
+
+		List<SortOptions> cursor = builder.buildCursorPage(SearchRequestDto.builder().sort("priceDesc").build(),
+				"pit", Duration.ofMinutes(1), null).getSortOptions();
+		assertEquals(List.of("price", "id"), cursor.stream().map(s -> s.field().field()).toList());
+	}
+
+	@Test
+	void relevanceRescoresTextMatchesAndScoresFilterOnlySearches() {
+		NativeQuery text = builder.build(SearchRequestDto.builder().q("physics").sort("relevance").build());
+		assertTrue(text.getSortOptions().isEmpty());
+		assertEquals(1, text.getRescorerQueries().size());
+		assertEquals(100, text.getRescorerQueries().get(0).getWindowSize());
+		assertEquals(RescorerQuery.ScoreMode.Total, text.getRescorerQueries().get(0).getScoreMode());
+		assertTrue(text.getQuery().bool().should().isEmpty());
+		Query signals = ((NativeQuery) text.getRescorerQueries().get(0).getQuery()).getQuery();
+		assertEquals("clickThroughRate", signals.bool().should().get(0).rankFeature().field());
+		assertEquals("nextSessionDate", signals.bool().should().get(2).distanceFeature().field());
+
+		// Nothing to rescore without text: the signals are the score, and a course without any still matches
+		NativeQuery browse = builder.build(SearchRequestDto.builder().category("Science").sort("relevance").build());
+		assertTrue(browse.getRescorerQueries().isEmpty());
+		assertTrue(browse.getSortOptions().get(0).isScore());
+		assertEquals(3, browse.getQuery().bool().should().size());
+		assertEquals("0", browse.getQuery().bool().minimumShouldMatch());
+		assertEquals(1, browse.getQuery().bool().filter().size());
+
+		List<SortOptions> cursor = builder.buildCursorPage(SearchRequestDto.builder().q("physics").sort("relevance").build(),
+				"pit", Duration.ofMinutes(1), null).getSortOptions();
+		assertTrue(cursor.get(0).isScore());
+		assertEquals("id", cursor.get(1).field().field());
+	}
+
+	@Test
+	void fieldsBecomeSourceIncludes() {
+		NativeQuery projected = builder.build(SearchRequestDto.builder().fields("price, title,price").build());
+		assertArrayEquals(new String[]{"id", "price", "title"}, projected.getSourceFilter().getIncludes());
+		assertNull(projected.getSourceFilter().getExcludes());
+
+		NativeQuery full = builder.build(new SearchRequestDto());
+		assertNull(full.getSourceFilter().getIncludes());
+		assertArrayEquals(new String[]{"suggest", "contentHash", "impressions", "clicks", "clickThroughRate", "enrollments"},
+				full.getSourceFilter().getExcludes());
+
+		assertThrows(IllegalArgumentException.class,
+				() -> builder.build(SearchRequestDto.builder().fields("title,suggest").build()));
+	}
+}
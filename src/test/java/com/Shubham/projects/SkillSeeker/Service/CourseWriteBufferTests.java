@@ -0,0 +1,286 @@
+package com.Shubham.projects.SkillSeeker.Service;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.Refresh;
+import co.elastic.clients.elasticsearch.core.BulkRequest;
+import co.elastic.clients.elasticsearch.core.BulkResponse;
+import co.elastic.clients.elasticsearch.core.bulk.BulkOperation;
+import co.elastic.clients.elasticsearch.core.bulk.BulkResponseItem;
+import co.elastic.clients.elasticsearch.core.bulk.OperationType;
+import co.elastic.clients.util.ObjectBuilder;
+import com.Shubham.projects.SkillSeeker.Document.CourseDocument;
+import com.Shubham.projects.SkillSeeker.Exception.SearchFailedException;
+import com.Shubham.projects.SkillSeeker.Exception.SearchFailure;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.MultiGetItem;
+import org.springframework.data.elasticsearch.core.convert.ElasticsearchConverter;
+import org.springframework.data.elasticsearch.core.document.Document;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Function;
+
+import static com.Shubham.projects.SkillSeeker.Service.TestHits.course;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CourseWriteBufferTests {
+
+	private static final TenantRegistry TENANTS = new TenantRegistry("default", List.of("acme"), List.of());
+
+	private final ElasticsearchClient client = mock(ElasticsearchClient.class);
+	private final ElasticsearchOperations operations = mock(ElasticsearchOperations.class);
+	private final EmbeddedSearchEngine embeddedSearchEngine = mock(EmbeddedSearchEngine.class);
+	private final Map<String, CourseDocument> indexed = new HashMap<>();
+	private final List<BulkRequest> requests = new ArrayList<>();
+	private final CourseWriteBuffer buffer = new CourseWriteBuffer();
+	// Runs before a bulk request is answered, to write while a batch is in flight
+	private Runnable duringBulk = () -> { };
+	// The status Elasticsearch answers each course of a bulk request with
+	private int itemStatus = 200;
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void setUp() throws IOException {
+		ElasticsearchConverter converter = mock(ElasticsearchConverter.class);
+		when(converter.mapObject(any())).thenAnswer(invocation -> {
+			CourseDocument course = invocation.getArgument(0);
+			Document document = Document.create();
+			document.put("title", course.getTitle());
+			document.put("deleted", course.getDeleted());
+			return document;
+		});
+		when(operations.getElasticsearchConverter()).thenReturn(converter);
+		when(operations.multiGet(any(Query.class), eq(CourseDocument.class), any(IndexCoordinates.class)))
+				.thenAnswer(invocation -> indexed.values().stream()
+						.map(course -> MultiGetItem.of(course, null))
+						.toList());
+		when(client.bulk(any(Function.class))).thenAnswer(invocation -> {
+			Function<BulkRequest.Builder, ObjectBuilder<BulkRequest>> request = invocation.getArgument(0);
+			BulkRequest bulk = request.apply(new BulkRequest.Builder()).build();
+			requests.add(bulk);
+			duringBulk.run();
+			return BulkResponse.of(r -> r.took(1).errors(false).items(bulk.operations().stream()
+					.map(o -> BulkResponseItem.of(i -> {
+						i.operationType(OperationType.Index).index("courses").id(o.index().id()).status(itemStatus);
+						return itemStatus == 200 ? i : i.error(e -> e.type("es_rejected_execution_exception").reason("queue full"));
+					}))
+					.toList()));
+		});
+
+		ReflectionTestUtils.setField(buffer, "elasticsearchClient", client);
+		ReflectionTestUtils.setField(buffer, "elasticsearchOperations", operations);
+		ReflectionTestUtils.setField(buffer, "suggestionIndex", mock(SuggestionIndex.class));
+		ReflectionTestUtils.setField(buffer, "embeddedSearchEngine", embeddedSearchEngine);
+		ReflectionTestUtils.setField(buffer, "searchResultCache", mock(SearchResultCache.class));
+		ReflectionTestUtils.setField(buffer, "searchMetrics", mock(SearchMetrics.class));
+		ReflectionTestUtils.setField(buffer, "versionClock", new VersionClock());
+		ReflectionTestUtils.setField(buffer, "batchSize", 100);
+		ReflectionTestUtils.setField(buffer, "flushInterval", Duration.ofSeconds(2));
+		ReflectionTestUtils.setField(buffer, "maxPending", 100);
+		ReflectionTestUtils.setField(buffer, "maxWait", Duration.ofMillis(10));
+		ReflectionTestUtils.setField(buffer, "timeout", Duration.ofSeconds(5));
+		// Flushes run only when a test calls flush(), so it decides what meets in the queue
+		ReflectionTestUtils.setField(buffer, "flusher", mock(ScheduledExecutorService.class));
+	}
+
+	@AfterEach
+	void shutDown() {
+		buffer.shutdown();
+	}
+
+	@Test
+	void coalescesWritesAndAnswersEveryCaller() {
+		CompletableFuture<Void> first = buffer.submit(route("default"), "1", course("1", "default", "Physics"), false, true);
+		CompletableFuture<Void> second = buffer.submit(route("default"), "1", course("1", "default", "Physics II"), false, true);
+
+		buffer.flush();
+
+		assertNull(second.join());
+		assertNull(first.join());
+		assertEquals(1, requests.size());
+		assertEquals(1, requests.get(0).operations().size());
+		assertEquals("Physics II", title(requests.get(0).operations().get(0)));
+	}
+
+	@Test
+	void answersWaitingCallersOnlyOnceSearchable() {
+		CompletableFuture<Void> waiting = buffer.submit(route("default"), "1", course("1", "default", "Physics"), false, true);
+		assertFalse(waiting.isDone());
+
+		buffer.flush();
+
+		assertTrue(waiting.isDone());
+		assertEquals(Refresh.WaitFor, requests.get(0).refresh());
+	}
+
+	@Test
+	void turnsWritersAwayWhenTheQueueStaysFull() {
+		ReflectionTestUtils.setField(buffer, "maxPending", 1);
+		buffer.submit(route("default"), "1", course("1", "default", "Physics"), false, false);
+
+		SearchFailedException overloaded = assertThrows(SearchFailedException.class, () -> buffer.awaitRoom("2", "create"));
+		assertEquals(SearchFailure.OVERLOADED, overloaded.getFailure());
+		assertEquals(Duration.ofSeconds(2), overloaded.getRetryAfter());
+		assertThrows(SearchFailedException.class,
+				() -> buffer.submit(route("default"), "2", course("2", "default", "Chemistry"), true, false));
+
+		// A write to a queued course takes no room
+		buffer.awaitRoom("1", "update");
+		buffer.submit(route("default"), "1", course("1", "default", "Physics II"), false, false);
+	}
+
+	@Test
+	void putsAFailedBatchBackBehindANewerWrite() throws IOException {
+		CompletableFuture<Void> first = buffer.submit(route("default"), "1", course("1", "default", "Physics"), false, true);
+		CompletableFuture<Void> newer = new CompletableFuture<>();
+		duringBulk = () -> {
+			duringBulk = () -> { };
+			buffer.submit(route("default"), "1", course("1", "default", "Physics II"), false, true)
+					.whenComplete((result, e) -> newer.complete(null));
+			throw new RuntimeException("connection reset");
+		};
+
+		buffer.flush();
+		assertFalse(first.isDone());
+		assertEquals(1, buffer.pendingCourses());
+
+		buffer.flush();
+		assertTrue(first.isDone());
+		assertTrue(newer.isDone());
+		assertEquals("Physics II", title(requests.get(1).operations().get(0)));
+	}
+
+	@Test
+	void keepsCoursesTheClusterDidNotTake() {
+		CompletableFuture<Void> queued = buffer.submit(route("default"), "1", course("1", "default", "Physics"), false, false);
+		CompletableFuture<Void> waiting = buffer.submit(route("default"), "2", course("2", "default", "Chemistry"), false, true);
+		itemStatus = 429;
+
+		buffer.flush();
+		assertTrue(queued.isDone());
+		assertFalse(waiting.isDone());
+		assertEquals(2, buffer.pendingCourses());
+
+		itemStatus = 200;
+		buffer.flush();
+		assertNull(waiting.join());
+		assertEquals(2, requests.get(1).operations().size());
+	}
+
+	@Test
+	void failsTheCopyIfACourseIsNotCopied() {
+		when(operations.searchForStream(any(Query.class), eq(CourseDocument.class), any(IndexCoordinates.class)))
+				.thenAnswer(invocation -> TestHits.iterator(List.of(
+						TestHits.hit("1", "default", course("1", "default", "Physics")),
+						TestHits.hit("2", "default", CourseDocument.tombstone("2", "default", CourseWriteBuffer.API_ORIGIN))),
+						() -> { }));
+		itemStatus = 503;
+
+		assertThrows(IllegalStateException.class, () -> buffer.copyApiCourses("courses", "courses_v2"));
+
+		itemStatus = 200;
+		assertEquals(2, buffer.copyApiCourses("courses", "courses_v2"));
+	}
+
+	@Test
+	void refusesToCreateAQueuedCourse() {
+		buffer.submit(route("default"), "1", course("1", "default", "Physics"), true, false);
+
+		SearchFailedException conflict = assertThrows(SearchFailedException.class,
+				() -> buffer.submit(route("default"), "1", course("1", "default", "Physics"), true, false));
+		assertEquals(SearchFailure.CONFLICT, conflict.getFailure());
+	}
+
+	@Test
+	void refusesAWriteOverAnotherTenantsQueuedCourse() {
+		buffer.submit(route("acme"), "1", course("1", "acme", "Robotics"), false, false);
+
+		SearchFailedException conflict = assertThrows(SearchFailedException.class,
+				() -> buffer.submit(route("default"), "1", course("1", "default", "Physics"), false, false));
+		assertEquals(SearchFailure.CONFLICT, conflict.getFailure());
+		assertEquals("acme", buffer.buffered("1").route().tenant());
+	}
+
+	@Test
+	void failsAWriteOverAnotherTenantsIndexedCourse() {
+		indexed.put("1", course("1", "acme", "Robotics"));
+
+		CompletableFuture<Void> write = buffer.submit(route("default"), "1", course("1", "default", "Physics"), false, true);
+		buffer.flush();
+
+		CompletionException failure = assertThrows(CompletionException.class, write::join);
+		assertEquals(SearchFailure.CONFLICT, ((SearchFailedException) failure.getCause()).getFailure());
+		assertTrue(requests.isEmpty());
+	}
+
+	@Test
+	void refusesToWaitForARefreshDuringAReindex() {
+		buffer.suspendFlushes();
+
+		SearchFailedException overloaded = assertThrows(SearchFailedException.class,
+				() -> buffer.submit(route("default"), "1", course("1", "default", "Physics"), false, true));
+		assertEquals(SearchFailure.OVERLOADED, overloaded.getFailure());
+		assertNotNull(overloaded.getRetryAfter());
+
+		// Writes that do not wait stay queued until the reindex is done
+		assertTrue(buffer.submit(route("default"), "1", course("1", "default", "Physics"), false, false).isDone());
+		buffer.flush();
+		assertTrue(requests.isEmpty());
+		buffer.resumeFlushes();
+		buffer.flush();
+		assertEquals(1, requests.size());
+	}
+
+	@Test
+	void deletesLeaveATombstone() {
+		indexed.put("1", course("1", "default", "Physics"));
+
+		CompletableFuture<Void> delete = buffer.submit(route("default"), "1", null, false, true);
+		buffer.flush();
+
+		assertNull(delete.join());
+		BulkOperation operation = requests.get(0).operations().get(0);
+		assertTrue(operation.isIndex());
+		assertEquals(true, ((Map<?, ?>) operation.index().document()).get("deleted"));
+		verify(embeddedSearchEngine).upsert(argThat(CourseDocument::isTombstone));
+
+		// Once deleted, the course is gone for writes too
+		indexed.put("1", CourseDocument.tombstone("1", "default", CourseWriteBuffer.API_ORIGIN));
+		CompletableFuture<Void> again = buffer.submit(route("default"), "1", null, false, true);
+		buffer.flush();
+		CompletionException failure = assertThrows(CompletionException.class, again::join);
+		assertEquals(SearchFailure.NOT_FOUND, ((SearchFailedException) failure.getCause()).getFailure());
+
+		// A create replaces the tombstone
+		CompletableFuture<Void> created = buffer.submit(route("default"), "1", course("1", "default", "Physics"), true, true);
+		buffer.flush();
+		assertNull(created.join());
+	}
+
+	static TenantRoute route(String tenant) {
+		return TENANTS.route(tenant);
+	}
+
+	private static Object title(BulkOperation operation) {
+		return ((Map<?, ?>) operation.index().document()).get("title");
+	}
+}
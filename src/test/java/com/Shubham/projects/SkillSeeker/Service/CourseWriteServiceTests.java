@@ -0,0 +1,160 @@
+package com.Shubham.projects.SkillSeeker.Service;
+
+import com.Shubham.projects.SkillSeeker.Document.CourseDocument;
+import com.Shubham.projects.SkillSeeker.Document.CourseSession;
+import com.Shubham.projects.SkillSeeker.Exception.SearchFailedException;
+import com.Shubham.projects.SkillSeeker.Exception.SearchFailure;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.MultiGetItem;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.Shubham.projects.SkillSeeker.Service.TestHits.course;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CourseWriteServiceTests {
+
+	private final CourseWriteBuffer courseWriteBuffer = mock(CourseWriteBuffer.class);
+	private final ElasticsearchOperations operations = mock(ElasticsearchOperations.class);
+	private final Map<String, CourseDocument> indexed = new HashMap<>();
+	private final CourseWriteService service = new CourseWriteService();
+
+	@BeforeEach
+	void setUp() {
+		when(operations.multiGet(any(Query.class), eq(CourseDocument.class), any(IndexCoordinates.class)))
+				.thenAnswer(invocation -> invocation.<Query>getArgument(0).getIdsWithRouting().stream()
+						.map(id -> MultiGetItem.of(indexed.get(id.id()), null))
+						.toList());
+		when(courseWriteBuffer.submit(any(), anyString(), any(), anyBoolean(), anyBoolean()))
+				.thenReturn(CompletableFuture.completedFuture(null));
+
+		ReflectionTestUtils.setField(service, "courseWriteBuffer", courseWriteBuffer);
+		ReflectionTestUtils.setField(service, "elasticsearchOperations", operations);
+		ReflectionTestUtils.setField(service, "embeddedSearchEngine", mock(EmbeddedSearchEngine.class));
+		ReflectionTestUtils.setField(service, "tenantRegistry", new TenantRegistry("default", List.of("acme"), List.of()));
+		ReflectionTestUtils.setField(service, "courseMapper", new CourseMapper());
+		ReflectionTestUtils.setField(service, "objectMapper", new ObjectMapper());
+	}
+
+	@Test
+	void patchKeepsUnchangedFieldsAndRemovesNullOnes() {
+		CourseDocument physics = course("1", "default", "Physics");
+		physics.setCategory("Science");
+		physics.setPrice(20.0);
+		indexed.put("1", physics);
+
+		Map<String, Object> fields = new HashMap<>();
+		fields.put("title", "Applied Physics");
+		fields.put("price", null);
+		service.patch("default", "1", fields, false).join();
+
+		CourseDocument written = submitted();
+		assertEquals("Applied Physics", written.getTitle());
+		assertEquals("Science", written.getCategory());
+		assertNull(written.getPrice());
+		assertEquals(CourseWriteBuffer.API_ORIGIN, written.getOrigin());
+	}
+
+	@Test
+	void patchTakesTheNextSessionFromNewSessions() {
+		CourseDocument physics = course("1", "default", "Physics");
+		physics.setNextSessionDate(LocalDate.of(2026, 1, 10));
+		physics.setSessions(List.of(new CourseSession(LocalDate.of(2026, 1, 10))));
+		indexed.put("1", physics);
+
+		service.patch("default", "1", Map.of("sessions", List.of("2026-04-01", "2026-03-01")), false).join();
+
+		assertEquals(LocalDate.of(2026, 3, 1), submitted().getNextSessionDate());
+	}
+
+	@Test
+	void patchCannotMoveACourse() {
+		indexed.put("1", course("1", "default", "Physics"));
+
+		assertThrows(IllegalArgumentException.class, () -> service.patch("default", "1", Map.of("id", "2"), false));
+		assertThrows(IllegalArgumentException.class, () -> service.patch("default", "1", Map.of("tenant", "acme"), false));
+		verify(courseWriteBuffer, never()).submit(any(), anyString(), any(), anyBoolean(), anyBoolean());
+	}
+
+	@Test
+	void deletedCoursesReadAsMissing() {
+		indexed.put("1", CourseDocument.tombstone("1", "default", CourseWriteBuffer.API_ORIGIN));
+
+		SearchFailedException missing = assertThrows(SearchFailedException.class, () -> service.get("default", "1"));
+		assertEquals(SearchFailure.NOT_FOUND, missing.getFailure());
+
+		// And can be created again
+		service.create("default", body("{\"id\": \"1\", \"title\": \"Physics\"}"), false).join();
+		assertEquals("Physics", submitted().getTitle());
+	}
+
+	@Test
+	void refusesToCreateOrReplaceOverAnotherCourse() {
+		indexed.put("1", course("1", "default", "Physics"));
+		indexed.put("2", course("2", "acme", "Robotics"));
+
+		SearchFailedException exists = assertThrows(SearchFailedException.class,
+				() -> service.create("default", body("{\"id\": \"1\", \"title\": \"Physics\"}"), false));
+		assertEquals(SearchFailure.CONFLICT, exists.getFailure());
+		indexed.remove("1");
+		SearchFailedException foreign = assertThrows(SearchFailedException.class,
+				() -> service.replace("default", "2", body("{\"title\": \"Physics\"}"), false));
+		assertEquals(SearchFailure.CONFLICT, foreign.getFailure());
+	}
+
+	@Test
+	void waitsForRoomWithoutHoldingTheCourseLock() throws Exception {
+		indexed.put("1", course("1", "default", "Physics"));
+		AtomicBoolean first = new AtomicBoolean(true);
+		CompletableFuture<Void> other = new CompletableFuture<>();
+		// While the first writer waits for room, a writer of the same course must get through
+		doAnswer(invocation -> {
+			if (first.getAndSet(false)) {
+				Thread writer = new Thread(() -> {
+					service.patch("default", "1", Map.of("price", 10), false).join();
+					other.complete(null);
+				});
+				writer.start();
+				other.get(5, TimeUnit.SECONDS);
+			}
+			return null;
+		}).when(courseWriteBuffer).awaitRoom(eq("1"), anyString());
+
+		service.delete("default", "1", false).join();
+
+		assertTrue(other.isDone());
+	}
+
+	private CourseDocument submitted() {
+		ArgumentCaptor<CourseDocument> course = ArgumentCaptor.forClass(CourseDocument.class);
+		verify(courseWriteBuffer).submit(any(), anyString(), course.capture(), anyBoolean(), anyBoolean());
+		return course.getValue();
+	}
+
+	private static byte[] body(String json) {
+		return json.getBytes(StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,72 @@
+package com.Shubham.projects.SkillSeeker.Service;
+
+import com.Shubham.projects.SkillSeeker.Dto.SyncReportDto;
+import com.fasterxml.jackson.core.JsonParseException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DeltaDirectoryWatcherTests {
+
+	@TempDir
+	Path directory;
+
+	private final CatalogSyncService catalogSyncService = mock(CatalogSyncService.class);
+	private final DeltaDirectoryWatcher watcher = new DeltaDirectoryWatcher();
+
+	@BeforeEach
+	void setUp() throws IOException {
+		Files.createDirectories(directory.resolve("processed"));
+		Files.createDirectories(directory.resolve("failed"));
+		ReflectionTestUtils.setField(watcher, "catalogSyncService", catalogSyncService);
+		ReflectionTestUtils.setField(watcher, "retryInterval", Duration.ofSeconds(30));
+	}
+
+	@Test
+	void leavesFilesInPlaceDuringAReindex() throws IOException {
+		Path first = Files.writeString(directory.resolve("001.ndjson"), "{}");
+		Path second = Files.writeString(directory.resolve("002.ndjson"), "{}");
+		when(catalogSyncService.applyDeltas(first)).thenThrow(new IllegalStateException("A reindex is running"));
+
+		assertFalse(watcher.applyPending(directory));
+		assertTrue(Files.exists(first));
+		assertTrue(Files.exists(second));
+		verify(catalogSyncService, never()).applyDeltas(second);
+
+		when(catalogSyncService.applyDeltas(any())).thenReturn(report(0));
+		assertTrue(watcher.applyPending(directory));
+		assertTrue(Files.exists(directory.resolve("processed").resolve("001.ndjson")));
+		assertTrue(Files.exists(directory.resolve("processed").resolve("002.ndjson")));
+	}
+
+	@Test
+	void movesBrokenFilesToFailed() throws IOException {
+		Path malformed = Files.writeString(directory.resolve("001.ndjson"), "[1]");
+		Path partial = Files.writeString(directory.resolve("002.ndjson"), "{}");
+		when(catalogSyncService.applyDeltas(malformed)).thenThrow(new JsonParseException(null, "Expected a course object"));
+		when(catalogSyncService.applyDeltas(partial)).thenReturn(report(1));
+
+		assertTrue(watcher.applyPending(directory));
+		assertTrue(Files.exists(directory.resolve("failed").resolve("001.ndjson")));
+		assertTrue(Files.exists(directory.resolve("failed").resolve("002.ndjson")));
+	}
+
+	private static SyncReportDto report(long failed) {
+		return new SyncReportDto("delta", Instant.now(), 1, 0, 1 - failed, 0, 0, failed, 1, List.of());
+	}
+}
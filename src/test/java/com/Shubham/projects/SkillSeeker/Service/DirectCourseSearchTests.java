@@ -0,0 +1,34 @@
+package com.Shubham.projects.SkillSeeker.Service;
+
+import co.elastic.clients.elasticsearch.core.msearch.MultisearchBody;
+import co.elastic.clients.json.jackson.JacksonJsonpMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DirectCourseSearchTests {
+
+	@Test
+	void msearchBodyKeepsTheSearch() {
+		NativeQuery query = NativeQuery.builder()
+				.withQuery(q -> q.match(m -> m.field("title").query("physics")))
+				.withFilter(f -> f.term(t -> t.field("category").value("Science")))
+				.withPageable(PageRequest.of(2, 10, Sort.by("price")))
+				.withTrackTotalHitsUpTo(1000)
+				.build();
+
+		MultisearchBody body = DirectCourseSearch.body(new MultisearchBody.Builder(), query,
+				IndexCoordinates.of("courses"), new JacksonJsonpMapper()).build();
+
+		assertEquals("physics", body.query().match().query().stringValue());
+		assertEquals("Science", body.postFilter().term().value().stringValue());
+		assertEquals(20, body.from());
+		assertEquals(10, body.size());
+		assertEquals(1000, body.trackTotalHits().count());
+		assertEquals("price", body.sort().get(0).field().field());
+	}
+}
@@ -0,0 +1,238 @@
+package com.Shubham.projects.SkillSeeker.Service;
+
+import com.Shubham.projects.SkillSeeker.Document.CourseDocument;
+import com.Shubham.projects.SkillSeeker.Dto.CourseDto;
+import com.Shubham.projects.SkillSeeker.Dto.CourseSessionDto;
+import com.Shubham.projects.SkillSeeker.Dto.FacetBucketDto;
+import com.Shubham.projects.SkillSeeker.Dto.SearchRequestDto;
+import com.Shubham.projects.SkillSeeker.Dto.SearchResponseDto;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.BeanUtils;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmbeddedCourseIndexTests {
+
+	private static final QueryPlanner PLANNER = new QueryPlanner(1000, 4);
+
+	private static final List<CourseDocument> courses = new ArrayList<>();
+
+	private static EmbeddedCourseIndex index;
+
+	@BeforeAll
+	static void loadCatalog() throws Exception {
+		try (InputStream in = new ClassPathResource("sample-courses.json").getInputStream();
+			 CourseJsonReader reader = new CourseJsonReader(in)) {
+			CourseDocument course;
+			while ((course = reader.next()) != null) {
+				courses.add(course);
+			}
+		}
+		index = EmbeddedCourseIndex.of(courses);
+	}
+
+	@Test
+	void filtersAndSortsLikeTheElasticsearchQuery() {
+		SearchResponseDto upcoming = search(SearchRequestDto.builder().size(100).build());
+		assertEquals(52, upcoming.getTotal());
+		assertEquals("embedded", upcoming.getBackend());
+		for (int i = 1; i < upcoming.getCourses().size(); i++) {
+			assertFalse(upcoming.getCourses().get(i).getNextSessionDate()
+					.isBefore(upcoming.getCourses().get(i - 1).getNextSessionDate()));
+		}
+
+		SearchResponseDto science = search(SearchRequestDto.builder()
+				.category("Science").minPrice(150.0).maxPrice(400.0).minAge(12).sort("priceDesc").size(100).build());
+		assertFalse(science.getCourses().isEmpty());
+		for (int i = 0; i < science.getCourses().size(); i++) {
+			CourseDto course = science.getCourses().get(i);
+			assertEquals("Science", course.getCategory());
+			assertTrue(course.getPrice() >= 150 && course.getPrice() <= 400);
+			assertTrue(course.getMaxAge() >= 12);
+			if (i > 0) {
+				assertTrue(course.getPrice() <= science.getCourses().get(i - 1).getPrice());
+			}
+		}
+	}
+
+	@Test
+	void matchesTextWithTypos() {
+		SearchResponseDto exact = search(SearchRequestDto.builder().q("physics").build());
+		assertEquals(4, exact.getTotal());
+		assertEquals(exact.getCourses(), search(SearchRequestDto.builder().q("Phyiscs").build()).getCourses());
+		// Three letters allow one edit, and the first letter must match
+		assertEquals(0, search(SearchRequestDto.builder().q("xhysics").build()).getTotal());
+		assertEquals(1, EmbeddedCourseIndex.editDistance("phyiscs", "physics", 2));
+	}
+
+	@Test
+	void matchesStemsSynonymsAccentsAndPrefixesWithoutFuzziness() {
+		QueryPlanner analyzed = new QueryPlanner(1000, 0, true);
+		SearchResponseDto programming = search(SearchRequestDto.builder().q("programming").size(100).build(), analyzed);
+		assertEquals(programming.getTotal(), search(SearchRequestDto.builder().q("Coding").size(100).build(), analyzed).getTotal());
+		assertEquals(search(SearchRequestDto.builder().q("geometry").build(), analyzed).getCourses(),
+				search(SearchRequestDto.builder().q("Géometry").build(), analyzed).getCourses());
+		assertEquals(search(SearchRequestDto.builder().q("study").build(), analyzed).getCourses(),
+				search(SearchRequestDto.builder().q("studies").build(), analyzed).getCourses());
+
+		// Partly typed title words match, but not without prefix matching, and typos no longer do
+		SearchResponseDto typed = search(SearchRequestDto.builder().q("program").size(100).build(), analyzed);
+		assertTrue(typed.getTotal() > 0);
+		assertEquals(0, search(SearchRequestDto.builder().q("program").build(), new QueryPlanner(1000, 0)).getTotal());
+		assertEquals(0, search(SearchRequestDto.builder().q("programing").build(), analyzed).getTotal());
+
+		assertEquals("study", CourseAnalyzer.stem("studies"));
+		assertEquals("skill", CourseAnalyzer.stem("skills"));
+		assertEquals("class", CourseAnalyzer.stem("class"));
+		assertEquals(List.of("student's", "cafe"), CourseAnalyzer.tokens("Student’s Café"));
+		assertEquals(List.of("student", "cafe"), CourseAnalyzer.analyze("Student’s Café"));
+	}
+
+	@Test
+	void pagesAndStopsCountingAtTheTrackingThreshold() {
+		SearchResponseDto first = search(SearchRequestDto.builder().size(10).build());
+		SearchResponseDto second = search(SearchRequestDto.builder().page(1).size(10).build());
+		assertTrue(first.getCourses().stream().noneMatch(second.getCourses()::contains));
+
+		SearchResponseDto tracked = index.search(SearchRequestDto.builder().size(5).build(),
+				new QueryPlanner(20, 4).plan(new SearchRequestDto()));
+		assertEquals(20, tracked.getTotal());
+		assertEquals("gte", tracked.getTotalRelation());
+	}
+
+	@Test
+	void facetsIgnoreTheirOwnFilter() {
+		SearchResponseDto response = search(SearchRequestDto.builder().category("Science").facets(true).build());
+		assertEquals(14, response.getTotal());
+
+		List<FacetBucketDto> categories = response.getFacets().get("category");
+		assertEquals(5, categories.size());
+		assertEquals(new FacetBucketDto("Science", 14, null, null), categories.get(0));
+		assertEquals(14, response.getFacets().get("type").stream().mapToLong(FacetBucketDto::getCount).sum());
+		assertEquals(4, response.getFacets().get("price").size());
+	}
+
+	@Test
+	void filtersAndSortsByDistanceAndSessionWindow() {
+		// Courses in the sample catalog cluster around five cities; Bengaluru is one of them
+		SearchResponseDto nearby = search(SearchRequestDto.builder()
+				.lat(12.9716).lon(77.5946).radiusKm(25.0).sort("distance").size(100).build());
+		assertFalse(nearby.getCourses().isEmpty());
+		assertTrue(nearby.getTotal() < 52);
+		for (int i = 0; i < nearby.getCourses().size(); i++) {
+			Double distance = nearby.getCourses().get(i).getDistanceKm();
+			assertTrue(distance <= 25.0);
+			if (i > 0) {
+				assertTrue(distance >= nearby.getCourses().get(i - 1).getDistanceKm());
+			}
+		}
+		assertEquals(1148.1, EmbeddedCourseIndex.distanceKm(28.6139, 77.2090, 19.0760, 72.8777), 1.0);
+
+		LocalDate from = LocalDate.of(2025, 8, 10);
+		LocalDate to = LocalDate.of(2025, 8, 16);
+		SearchResponseDto window = search(SearchRequestDto.builder()
+				.sessionFrom(from).sessionTo(to).sort("soonest").size(100).build());
+		assertFalse(window.getCourses().isEmpty());
+		LocalDate previous = from;
+		for (CourseDto course : window.getCourses()) {
+			LocalDate first = course.getSessions().stream().map(CourseSessionDto::getStartDate)
+					.filter(date -> !date.isBefore(from)).findFirst().orElseThrow();
+			assertFalse(first.isAfter(to));
+			assertFalse(first.isBefore(previous));
+			previous = first;
+		}
+	}
+
+	@Test
+	void relevanceOrdersByEngagementThenByDate() {
+		List<CourseDocument> courses = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			CourseDocument course = new CourseDocument();
+			course.setId("c" + i);
+			course.setNextSessionDate(LocalDate.of(2025, 9, 1).plusDays(i));
+			courses.add(course);
+		}
+		RelevanceModel model = RelevanceModel.defaults();
+		// c2 is clicked on every other impression; c3 has fewer clicks but many enrollments
+		new EngagementCollector.Delta(40, 20, 0).applyTo(courses.get(2), model);
+		new EngagementCollector.Delta(40, 2, 30).applyTo(courses.get(3), model);
+		assertEquals(21 / 60.0, courses.get(2).getClickThroughRate(), 1e-9);
+		assertNull(courses.get(2).getEnrollments());
+
+		EmbeddedCourseIndex ranked = EmbeddedCourseIndex.of(courses, model);
+		SearchRequestDto request = SearchRequestDto.builder().sort("relevance").build();
+		List<String> ids = ranked.search(request, PLANNER.plan(request)).getCourses().stream()
+				.map(CourseDto::getId).toList();
+		assertEquals(List.of("c3", "c2", "c0", "c1"), ids);
+	}
+
+	@Test
+	void answersLikeARebuildAfterIncrementalChanges() {
+		CourseDocument repriced = new CourseDocument();
+		BeanUtils.copyProperties(courses.get(1), repriced);
+		repriced.setTitle("Applied Physics Lab");
+		repriced.setPrice(99.0);
+		new EngagementCollector.Delta(40, 20, 5).applyTo(repriced, RelevanceModel.defaults());
+		CourseDocument added = new CourseDocument();
+		added.setId("new-1");
+		added.setTitle("Quantum Physics for Teens");
+		added.setCategory("Science");
+		added.setMinAge(13);
+		added.setMaxAge(17);
+		added.setPrice(420.0);
+		added.setNextSessionDate(LocalDate.of(2025, 8, 1));
+		String removedId = courses.get(2).getId();
+
+		EmbeddedCourseIndex changed = index.with(List.of(repriced, added), Set.of(repriced.getId(), removedId, "new-1"));
+		List<CourseDocument> expected = new ArrayList<>(courses);
+		expected.removeIf(course -> course.getId().equals(repriced.getId()) || course.getId().equals(removedId));
+		expected.add(repriced);
+		expected.add(added);
+		EmbeddedCourseIndex rebuilt = EmbeddedCourseIndex.of(expected);
+
+		assertEquals(rebuilt.size(), changed.size());
+		assertEquals(2 / (double) (courses.size() + 2), changed.removedShare(), 1e-9);
+		for (SearchRequestDto request : List.of(
+				SearchRequestDto.builder().size(100).facets(true).build(),
+				SearchRequestDto.builder().sort("priceAsc").size(100).build(),
+				SearchRequestDto.builder().sort("priceDesc").category("Science").size(100).build(),
+				SearchRequestDto.builder().sort("relevance").size(100).build(),
+				SearchRequestDto.builder().q("physics").facets(true).build(),
+				SearchRequestDto.builder().q("applied").build())) {
+			SearchRequestDto normalized = SearchCacheKey.from(request).toRequest();
+			QueryPlan plan = PLANNER.plan(normalized);
+			SearchResponseDto actual = changed.search(normalized, plan);
+			SearchResponseDto wanted = rebuilt.search(normalized, plan);
+			assertEquals(wanted.getTotal(), actual.getTotal());
+			assertEquals(wanted.getCourses(), actual.getCourses());
+			assertEquals(wanted.getFacets(), actual.getFacets());
+		}
+		// The snapshot it was derived from is unchanged
+		assertEquals(courses.size(), index.size());
+	}
+
+	@Test
+	void projectsRequestedFields() {
+		CourseDto course = search(SearchRequestDto.builder().fields("title").build()).getCourses().get(0);
+		assertNotNull(course.getId());
+		assertNotNull(course.getTitle());
+		assertNull(course.getDescription());
+	}
+
+	private static SearchResponseDto search(SearchRequestDto request) {
+		return search(request, PLANNER);
+	}
+
+	private static SearchResponseDto search(SearchRequestDto request, QueryPlanner planner) {
+		SearchRequestDto normalized = SearchCacheKey.from(request).toRequest();
+		return index.search(normalized, planner.plan(normalized));
+	}
+}
@@ -0,0 +1,79 @@
+package com.Shubham.projects.SkillSeeker.Service;
+
+import com.Shubham.projects.SkillSeeker.Document.CourseDocument;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmbeddedSearchEngineTests {
+
+	private final EmbeddedSearchEngine engine = new EmbeddedSearchEngine();
+
+	@AfterEach
+	void shutDown() {
+		engine.shutdown();
+	}
+
+	@Test
+	void keepsWritesMadeWhileReloading() {
+		// A sync writes while the catalog is being read
+		configure(() -> {
+			engine.upsert(course("1", "Applied Physics"));
+			engine.upsert(course("3", "Watercolor Basics"));
+			engine.remove("2");
+		});
+
+		engine.reload();
+
+		assertEquals(2, engine.size());
+		assertEquals("Applied Physics", engine.get("1").getTitle());
+		assertNotNull(engine.get("3"));
+		assertNull(engine.get("2"));
+	}
+
+	@Test
+	void keepsCoursesDeletedThroughTheApiOutOfTheIndex() {
+		configure(() -> engine.upsert(CourseDocument.tombstone("2", "default", CourseWriteBuffer.API_ORIGIN)));
+
+		engine.reload();
+
+		assertEquals(1, engine.size());
+		assertNull(engine.get("2"));
+	}
+
+	// The catalog runs the given writes when it is read
+	private void configure(Runnable whileReading) {
+		String catalog = """
+				[{"id": "1", "title": "Introduction to Physics"}, {"id": "2", "title": "Advanced Chemistry"}]
+				""";
+		ReflectionTestUtils.setField(engine, "queryPlanner", new QueryPlanner(1000, 4));
+		ReflectionTestUtils.setField(engine, "relevanceModel", RelevanceModel.defaults());
+		ReflectionTestUtils.setField(engine, "synonymSet", SynonymSet.defaults());
+		ReflectionTestUtils.setField(engine, "tenantRegistry", TenantRegistry.single());
+		ReflectionTestUtils.setField(engine, "backend", "embedded");
+		ReflectionTestUtils.setField(engine, "refreshDelay", Duration.ofHours(1));
+		ReflectionTestUtils.setField(engine, "catalog", new ByteArrayResource(catalog.getBytes(StandardCharsets.UTF_8)) {
+			@Override
+			public InputStream getInputStream() throws IOException {
+				whileReading.run();
+				return super.getInputStream();
+			}
+		});
+	}
+
+	private static CourseDocument course(String id, String title) {
+		CourseDocument course = new CourseDocument();
+		course.setId(id);
+		course.setTenant("default");
+		course.setTitle(title);
+		return course;
+	}
+}
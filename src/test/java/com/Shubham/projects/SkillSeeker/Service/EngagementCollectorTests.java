@@ -0,0 +1,146 @@
+package com.Shubham.projects.SkillSeeker.Service;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch.core.BulkRequest;
+import co.elastic.clients.elasticsearch.core.BulkResponse;
+import co.elastic.clients.elasticsearch.core.bulk.BulkOperation;
+import co.elastic.clients.elasticsearch.core.bulk.BulkResponseItem;
+import co.elastic.clients.elasticsearch.core.bulk.OperationType;
+import co.elastic.clients.util.ObjectBuilder;
+import com.Shubham.projects.SkillSeeker.Document.CourseDocument;
+import com.Shubham.projects.SkillSeeker.Dto.EngagementEventDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class EngagementCollectorTests {
+
+	private final ElasticsearchClient client = mock(ElasticsearchClient.class);
+	private final EmbeddedSearchEngine embeddedSearchEngine = mock(EmbeddedSearchEngine.class);
+	private final List<BulkOperation> sent = new ArrayList<>();
+	private final EngagementCollector collector = new EngagementCollector();
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void setUp() throws IOException {
+		when(client.bulk(any(Function.class))).thenAnswer(invocation -> {
+			Function<BulkRequest.Builder, ObjectBuilder<BulkRequest>> request = invocation.getArgument(0);
+			List<BulkOperation> operations = request.apply(new BulkRequest.Builder()).build().operations();
+			sent.addAll(operations);
+			// Course 9 belongs to another tenant, which the update script leaves alone
+			return BulkResponse.of(r -> r.took(1).errors(false).items(operations.stream()
+					.map(o -> BulkResponseItem.of(i -> i
+							.operationType(OperationType.Update)
+							.index("courses")
+							.id(o.update().id())
+							.result(o.update().id().equals("9") ? "noop" : "updated")
+							.status(200)))
+					.toList()));
+		});
+		ReflectionTestUtils.setField(collector, "elasticsearchClient", client);
+		ReflectionTestUtils.setField(collector, "elasticsearchOperations", mock(ElasticsearchOperations.class));
+		ReflectionTestUtils.setField(collector, "embeddedSearchEngine", embeddedSearchEngine);
+		ReflectionTestUtils.setField(collector, "relevanceModel", RelevanceModel.defaults());
+		ReflectionTestUtils.setField(collector, "searchMetrics", mock(SearchMetrics.class));
+		ReflectionTestUtils.setField(collector, "tenantRegistry", TenantRegistry.single());
+		ReflectionTestUtils.setField(collector, "enabled", true);
+		ReflectionTestUtils.setField(collector, "maxPending", 100);
+		ReflectionTestUtils.setField(collector, "batchSize", 10);
+	}
+
+	@AfterEach
+	void shutDown() {
+		ReflectionTestUtils.setField(collector, "enabled", false);
+		collector.shutdown();
+	}
+
+	@Test
+	void deltasFoldLikeTheUpdateScript() {
+		EngagementCollector.Delta delta = EngagementCollector.Delta.IMPRESSION
+				.plus(EngagementCollector.Delta.IMPRESSION)
+				.plus(EngagementCollector.Delta.CLICK);
+		assertEquals(new EngagementCollector.Delta(2, 1, 0), delta);
+
+		CourseDocument course = new CourseDocument();
+		course.setImpressions(8L);
+		delta.applyTo(course, RelevanceModel.defaults());
+		assertEquals(10, course.getImpressions());
+		assertEquals(1, course.getClicks());
+		assertNull(course.getEnrollments());
+		assertEquals(2.0 / 30, course.getClickThroughRate(), 1e-9);
+	}
+
+	@Test
+	void rejectsARequestWithoutCountingAnyOfIt() {
+		List<EngagementEventDto> events = List.of(new EngagementEventDto("1", "click"),
+				new EngagementEventDto("2", "bookmark"));
+		assertThrows(IllegalArgumentException.class, () -> collector.record("default", events));
+		assertEquals(0, collector.pendingCourses());
+
+		List<EngagementEventDto> tooMany = new ArrayList<>();
+		for (int i = 0; i <= EngagementCollector.MAX_EVENTS_PER_REQUEST; i++) {
+			tooMany.add(new EngagementEventDto("1", "click"));
+		}
+		assertThrows(IllegalArgumentException.class, () -> collector.record("default", tooMany));
+		assertEquals(0, collector.pendingCourses());
+
+		assertEquals(2, collector.record("default", List.of(new EngagementEventDto("1", " Click "),
+				new EngagementEventDto("1", "enrollment"))));
+		assertEquals(1, collector.pendingCourses());
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void keepsABatchTheClusterRefusedForTheNextFlush() throws IOException {
+		collector.record("default", List.of(new EngagementEventDto("1", "click"), new EngagementEventDto("2", "click")));
+		when(client.bulk(any(Function.class))).thenThrow(new IOException("connection refused"));
+
+		collector.flush();
+
+		assertEquals(2, collector.pendingCourses());
+		verify(embeddedSearchEngine, never()).applyEngagement(any(), any(), any());
+	}
+
+	@Test
+	void leavesCoursesOfOtherTenantsAlone() {
+		collector.record("default", List.of(new EngagementEventDto("9", "click")));
+
+		collector.flush();
+
+		assertEquals(1, sent.size());
+		assertEquals("default", sent.get(0).update().action().script().inline().params().get("tenant").to(String.class));
+		verify(embeddedSearchEngine, never()).applyEngagement(any(), any(), any());
+	}
+
+	@Test
+	void holdsFlushesUntilResumed() {
+		collector.record("default", List.of(new EngagementEventDto("1", "click")));
+		collector.suspendFlushes();
+
+		collector.flush();
+		assertTrue(sent.isEmpty());
+		assertEquals(1, collector.pendingCourses());
+
+		collector.resumeFlushes();
+		collector.flush();
+		assertEquals(1, sent.size());
+		assertEquals("1", sent.get(0).update().id());
+		assertEquals("default", sent.get(0).update().routing());
+		assertEquals(0, collector.pendingCourses());
+		verify(embeddedSearchEngine).applyEngagement("default", "1", EngagementCollector.Delta.CLICK);
+	}
+}
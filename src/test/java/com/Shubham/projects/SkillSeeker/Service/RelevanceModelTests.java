@@ -0,0 +1,46 @@
+package com.Shubham.projects.SkillSeeker.Service;
+
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RelevanceModelTests {
+
+	private final RelevanceModel model = RelevanceModel.defaults();
+
+	@Test
+	void signalsAreRankAndDistanceFeatures() {
+		List<Query> signals = model.signals();
+
+		assertEquals(3, signals.size());
+		assertEquals("clickThroughRate", signals.get(0).rankFeature().field());
+		assertEquals(0.05f, signals.get(0).rankFeature().saturation().pivot());
+		assertEquals(2f, signals.get(0).rankFeature().boost());
+		assertEquals("enrollments", signals.get(1).rankFeature().field());
+		assertNotNull(signals.get(1).rankFeature().log());
+		assertEquals("nextSessionDate", signals.get(2).distanceFeature().field());
+	}
+
+	@Test
+	void clickThroughRateIsSmoothedTowardsThePrior() {
+		assertEquals(1.0 / 20, model.clickThroughRate(0, 0));
+		// Two impressions and one click do not beat a long record
+		assertTrue(model.clickThroughRate(1, 2) < model.clickThroughRate(300, 1000));
+	}
+
+	@Test
+	void popularityMatchesTheRankFeatures() {
+		assertEquals(0, model.popularity(null, null));
+		assertEquals(1.0, model.popularity(0.05, null), 1e-9);
+		assertEquals(0.5 * Math.log(11), model.popularity(null, 10L), 1e-9);
+	}
+
+	@Test
+	void rejectsInvalidSettings() {
+		assertThrows(IllegalArgumentException.class, () -> new RelevanceModel(2, 0, 0.5, 1, 14, 100, 1, 1, 20));
+		assertThrows(IllegalArgumentException.class, () -> new RelevanceModel(2, 0.05, 0.5, 1, 14, 100, 1, 5, 2));
+	}
+}
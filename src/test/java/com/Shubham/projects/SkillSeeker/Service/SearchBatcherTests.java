@@ -0,0 +1,145 @@
+package com.Shubham.projects.SkillSeeker.Service;
+
+import co.elastic.clients.elasticsearch._types.ElasticsearchException;
+import co.elastic.clients.elasticsearch._types.ErrorResponse;
+import co.elastic.clients.elasticsearch.core.MsearchResponse;
+import co.elastic.clients.elasticsearch.core.SearchResponse;
+import co.elastic.clients.elasticsearch.core.msearch.MultiSearchItem;
+import co.elastic.clients.elasticsearch.core.msearch.MultiSearchResponseItem;
+import co.elastic.clients.elasticsearch.core.search.ResponseBody;
+import com.Shubham.projects.SkillSeeker.Dto.CourseDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SearchBatcherTests {
+
+	private static final IndexCoordinates INDEX = IndexCoordinates.of("courses");
+
+	private final DirectCourseSearch directCourseSearch = mock(DirectCourseSearch.class);
+
+	private SearchBatcher batcher;
+
+	@AfterEach
+	void shutDown() {
+		if (batcher != null) {
+			batcher.shutdown();
+		}
+	}
+
+	@Test
+	void sendsTheBatchWhenTheWindowCloses() throws Exception {
+		batcher = batcher(Duration.ofMillis(50), 10);
+		when(directCourseSearch.multiSearch(anyList(), anyList()))
+				.thenReturn(response(MultiSearchResponseItem.of(r -> r.result(item(1))),
+						MultiSearchResponseItem.of(r -> r.result(item(2)))));
+
+		CompletableFuture<ResponseBody<CourseDto>> first = batcher.submit(query(), INDEX);
+		CompletableFuture<ResponseBody<CourseDto>> second = batcher.submit(query(), INDEX);
+		assertFalse(first.isDone());
+
+		assertEquals(1, first.get(5, TimeUnit.SECONDS).took());
+		assertEquals(2, second.get(5, TimeUnit.SECONDS).took());
+		verify(directCourseSearch, times(1)).multiSearch(anyList(), anyList());
+	}
+
+	@Test
+	void sendsAFullBatchWithoutWaiting() throws Exception {
+		batcher = batcher(Duration.ofHours(1), 2);
+		when(directCourseSearch.multiSearch(anyList(), anyList()))
+				.thenReturn(response(MultiSearchResponseItem.of(r -> r.result(item(1))),
+						MultiSearchResponseItem.of(r -> r.result(item(2)))));
+
+		CompletableFuture<ResponseBody<CourseDto>> first = batcher.submit(query(), INDEX);
+		CompletableFuture<ResponseBody<CourseDto>> second = batcher.submit(query(), INDEX);
+
+		assertTrue(first.isDone());
+		assertTrue(second.isDone());
+		assertEquals(2, second.get().took());
+	}
+
+	@Test
+	void failsOnlyTheSearchThatFailed() throws Exception {
+		batcher = batcher(Duration.ofHours(1), 2);
+		ErrorResponse badQuery = ErrorResponse.of(e -> e.status(400)
+				.error(c -> c.type("query_shard_exception").reason("failed to create query")));
+		when(directCourseSearch.multiSearch(anyList(), anyList()))
+				.thenReturn(response(MultiSearchResponseItem.of(r -> r.result(item(1))),
+						MultiSearchResponseItem.of(r -> r.failure(badQuery))));
+
+		CompletableFuture<ResponseBody<CourseDto>> good = batcher.submit(query(), INDEX);
+		CompletableFuture<ResponseBody<CourseDto>> bad = batcher.submit(query(), INDEX);
+
+		assertEquals(1, good.get().took());
+		ExecutionException failure = assertThrows(ExecutionException.class, bad::get);
+		assertEquals(400, ((ElasticsearchException) failure.getCause()).status());
+		verify(directCourseSearch, never()).search(any(), any());
+	}
+
+	@Test
+	void retriesEachSearchAloneWhenTheBatchIsRefused() throws Exception {
+		batcher = batcher(Duration.ofHours(1), 2);
+		NativeQuery good = query();
+		NativeQuery bad = query();
+		when(directCourseSearch.multiSearch(anyList(), anyList()))
+				.thenThrow(new IllegalArgumentException("malformed search"));
+		SearchResponse<CourseDto> answer = SearchResponse.of(s -> s.took(3).timedOut(false)
+				.shards(sh -> sh.total(1).successful(1).failed(0))
+				.hits(h -> h.hits(List.of())));
+		when(directCourseSearch.search(eq(good), eq(INDEX))).thenReturn(answer);
+		when(directCourseSearch.search(eq(bad), eq(INDEX))).thenThrow(new IllegalArgumentException("malformed search"));
+
+		CompletableFuture<ResponseBody<CourseDto>> goodResult = batcher.submit(good, INDEX);
+		CompletableFuture<ResponseBody<CourseDto>> badResult = batcher.submit(bad, INDEX);
+
+		assertEquals(3, goodResult.get().took());
+		ExecutionException failure = assertThrows(ExecutionException.class, badResult::get);
+		assertInstanceOf(IllegalArgumentException.class, failure.getCause());
+	}
+
+	private SearchBatcher batcher(Duration window, int maxSize) {
+		SearchBatcher batcher = new SearchBatcher();
+		ReflectionTestUtils.setField(batcher, "directCourseSearch", directCourseSearch);
+		ReflectionTestUtils.setField(batcher, "searchTaskExecutor", new TaskExecutorAdapter(Runnable::run));
+		ReflectionTestUtils.setField(batcher, "searchMetrics", mock(SearchMetrics.class));
+		ReflectionTestUtils.setField(batcher, "enabled", true);
+		ReflectionTestUtils.setField(batcher, "window", window);
+		ReflectionTestUtils.setField(batcher, "maxSize", maxSize);
+		return batcher;
+	}
+
+	// Distinct instances, so that stubs can tell them apart
+	private static NativeQuery query() {
+		return NativeQuery.builder().withQuery(q -> q.matchAll(m -> m)).build();
+	}
+
+	private static MultiSearchItem<CourseDto> item(long took) {
+		return MultiSearchItem.of(i -> i.took(took).timedOut(false)
+				.shards(s -> s.total(1).successful(1).failed(0))
+				.hits(h -> h.hits(List.of())));
+	}
+
+	@SafeVarargs
+	private static MsearchResponse<CourseDto> response(MultiSearchResponseItem<CourseDto>... items) {
+		return MsearchResponse.of(m -> m.took(5).responses(List.of(items)));
+	}
+}
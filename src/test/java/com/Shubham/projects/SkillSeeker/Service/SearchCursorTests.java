@@ -0,0 +1,47 @@
+package com.Shubham.projects.SkillSeeker.Service;
+
+import com.Shubham.projects.SkillSeeker.Dto.SearchRequestDto;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchCursorTests {
+
+	@Test
+	void roundTripsThroughTheToken() {
+		SearchCursor cursor = new SearchCursor("pit-1", List.of(1755216000000L, 42L, "course-7"), 25, "abc");
+
+		SearchCursor decoded = SearchCursor.decode(cursor.encode());
+
+		assertEquals(cursor, decoded);
+		assertInstanceOf(Long.class, decoded.searchAfter().get(1));
+	}
+
+	@Test
+	void rejectsGarbage() {
+		assertThrows(IllegalArgumentException.class, () -> SearchCursor.decode("not-a-cursor"));
+		assertTrue(SearchCursor.isStart("*"));
+		assertFalse(SearchCursor.isStart("abc"));
+	}
+
+	@Test
+	void fingerprintIgnoresThePage() {
+		SearchRequestDto first = SearchRequestDto.builder().category("Science").page(0).build();
+		SearchRequestDto later = SearchRequestDto.builder().category("Science").page(7).build();
+		SearchRequestDto other = SearchRequestDto.builder().category("Math").build();
+
+		assertEquals(SearchCacheKey.from(first).fingerprint(), SearchCacheKey.from(later).fingerprint());
+		assertNotEquals(SearchCacheKey.from(first).fingerprint(), SearchCacheKey.from(other).fingerprint());
+	}
+
+	@Test
+	void fingerprintTellsSearchesWithEqualHashCodesApart() {
+		// "Aa" and "BB" have the same String.hashCode
+		SearchRequestDto aa = SearchRequestDto.builder().category("Aa").build();
+		SearchRequestDto bb = SearchRequestDto.builder().category("BB").build();
+
+		assertNotEquals(SearchCacheKey.from(aa).fingerprint(), SearchCacheKey.from(bb).fingerprint());
+	}
+}
@@ -0,0 +1,162 @@
+package com.Shubham.projects.SkillSeeker.Service;
+
+import com.Shubham.projects.SkillSeeker.Document.CourseDocument;
+import com.Shubham.projects.SkillSeeker.Document.CourseSession;
+import com.Shubham.projects.SkillSeeker.Dto.CourseDto;
+import com.Shubham.projects.SkillSeeker.Dto.SearchRequestDto;
+import com.Shubham.projects.SkillSeeker.Dto.SearchResponseDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.elasticsearch.core.geo.GeoPoint;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchResultCacheTests {
+
+	@Test
+	void equivalentRequestsShareAKey() {
+		SearchRequestDto a = SearchRequestDto.builder()
+				.q("  Physics ").category("Science ").sort("PriceAsc").page(-3).size(500)
+				.build();
+		SearchRequestDto b = SearchRequestDto.builder()
+				.q("physics").category("Science").type("").sort("priceasc").page(0).size(100)
+				.build();
+
+		assertEquals(SearchCacheKey.from(a), SearchCacheKey.from(b));
+		assertEquals(SearchCacheKey.from(a.toBuilder().fields("title,price").build()),
+				SearchCacheKey.from(b.toBuilder().fields("price,id,title").build()));
+		// Asking for every field is the same as not projecting
+		assertEquals(SearchCacheKey.from(a), SearchCacheKey.from(a.toBuilder()
+				.fields(String.join(",", SearchCacheKey.PROJECTABLE_FIELDS)).build()));
+		assertEquals("upcoming", SearchCacheKey.from(new SearchRequestDto()).sort());
+		assertNull(SearchCacheKey.from(new SearchRequestDto()).q());
+	}
+
+	@Test
+	void nearbyPointsShareAKeyAndIncompleteLocationsAreRejected() {
+		SearchRequestDto here = SearchRequestDto.builder().lat(12.97161).lon(77.59456).radiusKm(5.0).sort("distance").build();
+		SearchRequestDto nextDoor = here.toBuilder().lat(12.97158).lon(77.59463).build();
+
+		assertEquals(SearchCacheKey.from(here), SearchCacheKey.from(nextDoor));
+		assertEquals(12.972, SearchCacheKey.from(here).lat());
+
+		assertThrows(IllegalArgumentException.class,
+				() -> SearchCacheKey.from(SearchRequestDto.builder().lat(12.9).radiusKm(5.0).build()));
+		assertThrows(IllegalArgumentException.class,
+				() -> SearchCacheKey.from(SearchRequestDto.builder().sort("distance").build()));
+		assertThrows(IllegalArgumentException.class,
+				() -> SearchCacheKey.from(here.toBuilder().radiusKm(-1.0).build()));
+		assertThrows(IllegalArgumentException.class, () -> SearchCacheKey.from(SearchRequestDto.builder()
+				.sessionFrom(LocalDate.of(2025, 8, 10)).sessionTo(LocalDate.of(2025, 8, 1)).build()));
+	}
+
+	@Test
+	void servesRepeatedRequestsFromCache() {
+		SearchResultCache cache = new SearchResultCache(true, 100, Duration.ofMinutes(1));
+		AtomicInteger loads = new AtomicInteger();
+		SearchCacheKey key = SearchCacheKey.from(new SearchRequestDto());
+
+		for (int i = 0; i < 3; i++) {
+			cache.get(key, k -> {
+				loads.incrementAndGet();
+				return SearchResponseDto.builder().courses(List.of()).page(k.page()).size(k.size()).build();
+			});
+		}
+		assertEquals(1, loads.get());
+		assertEquals(2, cache.getStats().getHits());
+		assertEquals(1, cache.getStats().getMisses());
+
+		cache.invalidateAll();
+		cache.get(key, k -> {
+			loads.incrementAndGet();
+			return new SearchResponseDto();
+		});
+		assertEquals(2, loads.get());
+	}
+
+	@Test
+	void partitionsEntriesByTenant() {
+		SearchResultCache cache = new SearchResultCache(true, 2, Duration.ofMinutes(1));
+		SearchCacheKey quiet = SearchCacheKey.from(SearchRequestDto.builder().tenant("acme").q("physics").build());
+		cache.put(quiet, new SearchResponseDto(), cache.generation(quiet));
+
+		// A busy tenant only evicts from its own partition
+		for (int i = 0; i < 50; i++) {
+			SearchCacheKey busy = SearchCacheKey.from(SearchRequestDto.builder().tenant("globex").q("q" + i).build());
+			cache.put(busy, new SearchResponseDto(), cache.generation(busy));
+		}
+		assertNotNull(cache.getIfPresent(quiet));
+		assertNotEquals(SearchCacheKey.from(SearchRequestDto.builder().tenant("globex").q("physics").build()), quiet);
+
+		long generation = cache.generation(quiet);
+		cache.invalidate(List.of("acme"));
+		assertNull(cache.getIfPresent(quiet));
+		// A search that started before the invalidation cannot put its result back
+		cache.put(quiet, new SearchResponseDto(), generation);
+		assertNull(cache.getIfPresent(quiet));
+		assertEquals(2, cache.getTenantStats().get("acme").getMisses());
+		assertEquals(0, cache.getTenantStats().get("globex").getMisses());
+	}
+
+	@Test
+	void matchesCoursesAgainstTheFiltersOfASearch() {
+		CourseDocument course = new CourseDocument();
+		course.setId("c1");
+		course.setTenant("acme");
+		course.setCategory("Science");
+		course.setType("LAB");
+		course.setMinAge(8);
+		course.setMaxAge(12);
+		course.setPrice(120.0);
+		course.setNextSessionDate(LocalDate.of(2025, 8, 4));
+		course.setSessions(List.of(new CourseSession(LocalDate.of(2025, 8, 4)), new CourseSession(LocalDate.of(2025, 8, 11))));
+		course.setLocation(new GeoPoint(12.9716, 77.5946));
+		SearchRequestDto acme = SearchRequestDto.builder().tenant("acme").q("chemistry").build();
+
+		// Text is left to the index
+		assertTrue(SearchCacheKey.from(acme).mayMatch(course));
+		assertTrue(SearchCacheKey.from(acme.toBuilder().category("Science").minAge(10).maxPrice(150.0).build()).mayMatch(course));
+		assertTrue(SearchCacheKey.from(acme.toBuilder().sessionFrom(LocalDate.of(2025, 8, 10)).build()).mayMatch(course));
+		assertTrue(SearchCacheKey.from(acme.toBuilder().lat(12.98).lon(77.60).radiusKm(5.0).build()).mayMatch(course));
+
+		assertFalse(SearchCacheKey.from(acme.toBuilder().tenant("globex").build()).mayMatch(course));
+		assertFalse(SearchCacheKey.from(acme.toBuilder().category("Art").build()).mayMatch(course));
+		assertFalse(SearchCacheKey.from(acme.toBuilder().minAge(13).build()).mayMatch(course));
+		assertFalse(SearchCacheKey.from(acme.toBuilder().maxPrice(100.0).build()).mayMatch(course));
+		assertFalse(SearchCacheKey.from(acme.toBuilder().sessionFrom(LocalDate.of(2025, 8, 12)).build()).mayMatch(course));
+		assertFalse(SearchCacheKey.from(acme.toBuilder().lat(19.07).lon(72.87).radiusKm(50.0).build()).mayMatch(course));
+		// Facet counts of the other categories include it
+		assertTrue(SearchCacheKey.from(acme.toBuilder().category("Art").facets(true).build()).mayMatch(course));
+	}
+
+	@Test
+	void invalidatesOnlyTheSearchesAWriteCanChange() {
+		SearchResultCache cache = new SearchResultCache(true, 100, Duration.ofMinutes(1));
+		SearchCacheKey science = SearchCacheKey.from(SearchRequestDto.builder().tenant("acme").category("Science").build());
+		SearchCacheKey art = SearchCacheKey.from(SearchRequestDto.builder().tenant("acme").category("Art").build());
+		SearchCacheKey artPage = SearchCacheKey.from(SearchRequestDto.builder().tenant("acme").category("Art").page(1).build());
+		SearchCacheKey globex = SearchCacheKey.from(SearchRequestDto.builder().tenant("globex").category("Science").build());
+		cache.put(science, new SearchResponseDto(), cache.generation(science));
+		cache.put(art, new SearchResponseDto(), cache.generation(art));
+		// Shows the course under its old category
+		cache.put(artPage, SearchResponseDto.builder().courses(List.of(new CourseDto("c1", null, null, "Art", null, null,
+				null, null, null, null, null, null, null))).build(), cache.generation(artPage));
+		cache.put(globex, new SearchResponseDto(), cache.generation(globex));
+
+		CourseDocument after = new CourseDocument();
+		after.setId("c1");
+		after.setTenant("acme");
+		after.setCategory("Science");
+
+		assertEquals(2, cache.invalidate("acme", Set.of("c1"), key -> key.mayMatch(after)));
+		assertNull(cache.getIfPresent(science));
+		assertNull(cache.getIfPresent(artPage));
+		assertNotNull(cache.getIfPresent(art));
+		assertNotNull(cache.getIfPresent(globex));
+	}
+}
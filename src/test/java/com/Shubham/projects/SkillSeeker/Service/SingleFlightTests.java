@@ -0,0 +1,54 @@
+package com.Shubham.projects.SkillSeeker.Service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTests {
+
+	@Test
+	void concurrentCallsForTheSameKeyShareOneInvocation() {
+		AtomicInteger shared = new AtomicInteger();
+		SingleFlight<String, String> flights = new SingleFlight<>(shared::incrementAndGet);
+		AtomicInteger calls = new AtomicInteger();
+		CompletableFuture<String> pending = new CompletableFuture<>();
+
+		CompletableFuture<String> first = flights.execute("physics", () -> {
+			calls.incrementAndGet();
+			return pending;
+		});
+		CompletableFuture<String> second = flights.execute("physics", () -> {
+			calls.incrementAndGet();
+			return CompletableFuture.completedFuture("other");
+		});
+		assertEquals(1, flights.size());
+
+		pending.complete("result");
+		assertEquals("result", first.join());
+		assertEquals("result", second.join());
+		assertEquals(1, calls.get());
+		assertEquals(1, shared.get());
+		assertEquals(0, flights.size());
+
+		// Once completed, the next call starts a new flight
+		assertEquals("fresh", flights.execute("physics", () -> CompletableFuture.completedFuture("fresh")).join());
+	}
+
+	@Test
+	void failuresReachEveryWaiterAndAreNotRemembered() {
+		SingleFlight<String, String> flights = new SingleFlight<>(() -> { });
+		CompletableFuture<String> pending = new CompletableFuture<>();
+
+		CompletableFuture<String> first = flights.execute("math", () -> pending);
+		CompletableFuture<String> second = flights.execute("math", () -> pending);
+		pending.completeExceptionally(new IllegalStateException("boom"));
+
+		assertInstanceOf(IllegalStateException.class, assertThrows(CompletionException.class, first::join).getCause());
+		assertInstanceOf(IllegalStateException.class, assertThrows(CompletionException.class, second::join).getCause());
+		assertEquals(0, flights.size());
+	}
+}
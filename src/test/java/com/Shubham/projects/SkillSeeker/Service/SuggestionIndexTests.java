@@ -0,0 +1,100 @@
+package com.Shubham.projects.SkillSeeker.Service;
+
+import com.Shubham.projects.SkillSeeker.Document.CourseDocument;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SuggestionIndexTests {
+
+	@Test
+	void completesPrefixesAndTracksChanges() {
+		SuggestionIndex index = new SuggestionIndex();
+		index.upsert(course("default", "1", "Introduction to Physics"));
+		index.upsert(course("default", "2", "Introduction to Chemistry"));
+		index.upsert(course("default", "3", "Intro to Painting"));
+		index.upsert(course("default", "4", "Introduction to Physics"));
+
+		assertEquals(List.of("Intro to Painting", "Introduction to Chemistry", "Introduction to Physics"),
+				index.suggest("default", "INTRO", 10));
+		assertEquals(List.of("Intro to Painting"), index.suggest("default", "intro", 1));
+		assertTrue(index.suggest("default", "math", 10).isEmpty());
+
+		index.upsert(course("default", "2", "Organic Chemistry"));
+		assertEquals(List.of("Organic Chemistry"), index.suggest("default", "org", 10));
+		assertFalse(index.suggest("default", "introduction", 10).contains("Introduction to Chemistry"));
+
+		// Shared text stays until every course using it is gone
+		index.remove("1");
+		assertEquals(List.of("Introduction to Physics"), index.suggest("default", "introduction", 10));
+		index.remove("4");
+		assertTrue(index.suggest("default", "introduction", 10).isEmpty());
+	}
+
+	@Test
+	void keepsEachTenantsSuggestionsApart() {
+		SuggestionIndex index = new SuggestionIndex();
+		index.upsert(course("acme", "1", "Introduction to Physics"));
+		index.upsert(course("globex", "2", "Introduction to Chemistry"));
+
+		assertEquals(List.of("Introduction to Physics"), index.suggest("acme", "intro", 10));
+		assertEquals(List.of("Introduction to Chemistry"), index.suggest("globex", "intro", 10));
+		assertTrue(index.suggest("initech", "intro", 10).isEmpty());
+
+		// A course that moves to another tenant leaves the old one's suggestions
+		index.upsert(course("globex", "1", "Introduction to Physics"));
+		assertTrue(index.suggest("acme", "intro", 10).isEmpty());
+		assertEquals(2, index.suggest("globex", "intro", 10).size());
+	}
+
+	@Test
+	void keepsChangesMadeWhileRebuilding() {
+		SuggestionIndex index = new SuggestionIndex();
+		ElasticsearchOperations operations = mock(ElasticsearchOperations.class);
+		ReflectionTestUtils.setField(index, "elasticsearchOperations", operations);
+		ReflectionTestUtils.setField(index, "tenantRegistry", TenantRegistry.single());
+		index.upsert(course("default", "2", "Introduction to Chemistry"));
+
+		// The scan still sees course 2 and the old title of course 1, both changed while it runs
+		AtomicInteger read = new AtomicInteger();
+		when(operations.searchForStream(any(Query.class), eq(CourseDocument.class), any(IndexCoordinates.class)))
+				.thenReturn(TestHits.iterator(List.of(
+						TestHits.hit("1", null, course("default", "1", "Introduction to Physics")),
+						TestHits.hit("2", null, course("default", "2", "Introduction to Chemistry"))), () -> {
+					if (read.getAndIncrement() == 0) {
+						index.upsert(course("default", "1", "Organic Chemistry"));
+						index.remove("2");
+						index.upsert(course("default", "3", "Intro to Painting"));
+					}
+				}));
+		index.rebuild();
+
+		assertTrue(index.isReady());
+		assertEquals(List.of("Intro to Painting"), index.suggest("default", "intro", 10));
+		assertEquals(List.of("Organic Chemistry"), index.suggest("default", "org", 10));
+
+		// Once swapped in, changes go straight to the rebuilt index
+		index.remove("3");
+		assertTrue(index.suggest("default", "intro", 10).isEmpty());
+	}
+
+	private static CourseDocument course(String tenant, String id, String title) {
+		CourseDocument course = new CourseDocument();
+		course.setTenant(tenant);
+		course.setId(id);
+		course.setTitle(title);
+		course.setSuggestFromTitle();
+		return course;
+	}
+}
@@ -0,0 +1,40 @@
+package com.Shubham.projects.SkillSeeker.Service;
+
+import com.Shubham.projects.SkillSeeker.Document.CourseDocument;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TenantRegistryTests {
+
+	@Test
+	void routesSharedTenantsByIdAndDedicatedOnesToTheirOwnAlias() {
+		TenantRegistry registry = new TenantRegistry("default", List.of("acme", "Globex"), List.of("globex", "initech"));
+
+		assertEquals(new TenantRoute("default", "courses", "default"), registry.route(null));
+		assertEquals(new TenantRoute("acme", "courses", "acme"), registry.route(" ACME "));
+		// Dedicated wins over shared
+		assertEquals(new TenantRoute("globex", "courses-globex", null), registry.route("globex"));
+		assertEquals(Map.of("courses", Set.of("default", "acme"), "courses-globex", Set.of("globex"),
+				"courses-initech", Set.of("initech")), registry.aliases());
+		assertEquals("courses", registry.aliases().keySet().iterator().next());
+	}
+
+	@Test
+	void rejectsUndeclaredAndMalformedTenants() {
+		TenantRegistry registry = TenantRegistry.single();
+
+		assertThrows(IllegalArgumentException.class, () -> registry.resolve("acme"));
+		assertThrows(IllegalArgumentException.class, () -> new TenantRegistry("default", List.of("a/b"), List.of()));
+
+		CourseDocument course = new CourseDocument();
+		assertEquals("courses", registry.assign(course).alias());
+		assertEquals("default", course.getTenant());
+		course.setTenant("acme");
+		assertThrows(IllegalArgumentException.class, () -> registry.assign(course));
+	}
+}
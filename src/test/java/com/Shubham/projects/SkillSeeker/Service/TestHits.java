@@ -0,0 +1,75 @@
+package com.Shubham.projects.SkillSeeker.Service;
+
+import com.Shubham.projects.SkillSeeker.Document.CourseDocument;
+import org.springframework.data.elasticsearch.core.AggregationsContainer;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.SearchHitsIterator;
+import org.springframework.data.elasticsearch.core.TotalHitsRelation;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Scroll results and courses for tests that stand in for Elasticsearch.
+ */
+final class TestHits {
+
+	private TestHits() {
+	}
+
+	static CourseDocument course(String id, String tenant, String title) {
+		CourseDocument course = new CourseDocument();
+		course.setId(id);
+		course.setTenant(tenant);
+		course.setTitle(title);
+		return course;
+	}
+
+	static <T> SearchHit<T> hit(String id, String routing, T content) {
+		return new SearchHit<>("courses", id, routing, 1.0f, null, Map.of(), Map.of(), null, null, List.of(), content);
+	}
+
+	/**
+	 * Iterates over {@code hits}, running {@code beforeEach} before handing out each one.
+	 */
+	static <T> SearchHitsIterator<T> iterator(List<SearchHit<T>> hits, Runnable beforeEach) {
+		Iterator<SearchHit<T>> delegate = hits.iterator();
+		return new SearchHitsIterator<>() {
+			@Override
+			public AggregationsContainer<?> getAggregations() {
+				return null;
+			}
+
+			@Override
+			public float getMaxScore() {
+				return 1.0f;
+			}
+
+			@Override
+			public long getTotalHits() {
+				return hits.size();
+			}
+
+			@Override
+			public TotalHitsRelation getTotalHitsRelation() {
+				return TotalHitsRelation.EQUAL_TO;
+			}
+
+			@Override
+			public boolean hasNext() {
+				return delegate.hasNext();
+			}
+
+			@Override
+			public SearchHit<T> next() {
+				beforeEach.run();
+				return delegate.next();
+			}
+
+			@Override
+			public void close() {
+			}
+		};
+	}
+}